@@ -1,23 +1,67 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Represents an airline company that manages flights, handles flight modifications,
  * and notifies passengers about flight updates such as cancellations and delays.
  */
-public class AirlineCompany implements AirlineManagement {
+public class AirlineCompany implements AirlineManagement, AutoCloseable {
+    private static final Duration NOTIFICATION_WINDOW = Duration.ofSeconds(30); // Coalescing window for notifications
+
     private final String name; // Airline company name
-    private List<Flight> flights; // List of flights managed by the airline
+    private final FlightRegistry flights; // Registry of flights managed by the airline, indexed by flight number
+    private final FlightSearchIndex searchIndex; // Departure time and route indexes used by flight search
+    private final ReservationIndex reservations; // Reservations by record locator and by flight
+    private final PassengerDirectory passengers; // Passengers by name and id, with typeahead search
+    private final ConnectionSearchEngine connections; // Flight network used to search multi-leg itineraries
+    private final RoutePopularityIndex routePopularity; // Route rankings kept up to date on every change
+    private final OccupancyWatchlist nearlyFullFlights; // Nearly-full flights detected at booking time
+    private final FlightMetrics metrics; // Streaming on-time, cancellation and occupancy counters
+    private final RollingFlightStatistics rollingStatistics; // Rolling-window statistics by route and date
+    private final NotificationDispatcher notificationDispatcher; // Delivers passenger notifications asynchronously
+    private final NotificationCoalescer notificationCoalescer; // Merges repeated notifications during disruptions
+    private final FlightNotificationStrategy notifications; // Notifies the passengers of a flight
+    private final SeatHoldTimer seatHolds; // Expires seats held during checkout
+    private final FlightLifecycleScheduler lifecycle; // Departs and lands flights on time
+    private volatile BookingJournal journal; // Records every change for recovery, or null if not journaled
 
     /**
-     * Constructor to initialize the airline company with its name and an empty flight list.
+     * Constructor to initialize the airline company with its name and an empty flight registry.
      *
      * @param name The name of the airline company
      */
     public AirlineCompany(String name) {
+        this(name, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor to initialize the airline company with its name and the clock used for
+     * time-based operations such as rolling statistics.
+     *
+     * @param name  The name of the airline company
+     * @param clock The clock providing the current time
+     */
+    public AirlineCompany(String name, Clock clock) {
         this.name = name;
-        this.flights = new ArrayList<>();
+        this.flights = new FlightRegistry(clock);
+        this.searchIndex = new FlightSearchIndex();
+        this.reservations = new ReservationIndex();
+        this.passengers = new PassengerDirectory();
+        this.connections = new ConnectionSearchEngine();
+        this.routePopularity = new RoutePopularityIndex();
+        this.nearlyFullFlights = new OccupancyWatchlist();
+        this.metrics = new FlightMetrics();
+        this.rollingStatistics = new RollingFlightStatistics(clock);
+        this.notificationDispatcher = new NotificationDispatcher();
+        this.notificationCoalescer = new NotificationCoalescer(notificationDispatcher, NOTIFICATION_WINDOW, clock);
+        this.notifications = new FlightNotificationStrategy(flights, notificationCoalescer, NotificationChannel.EMAIL);
+        this.seatHolds = new SeatHoldTimer(clock);
+        this.lifecycle = new FlightLifecycleScheduler(clock);
     }
 
     /**
@@ -30,7 +74,129 @@ public class AirlineCompany implements AirlineManagement {
     }
 
     /**
-     * Adds a flight to the airline's flight list after validating the flight details.
+     * Retrieves the registry holding the airline's flights.
+     *
+     * @return The flight registry
+     */
+    public FlightRegistry getFlightRegistry() {
+        return flights;
+    }
+
+    /**
+     * Retrieves the directory of the passengers who booked the airline's flights, e.g. to find a
+     * returning passenger instead of creating a new one.
+     *
+     * @return The passenger directory
+     */
+    public PassengerDirectory getPassengerDirectory() {
+        return passengers;
+    }
+
+    /**
+     * Retrieves the streaming performance counters of the airline's flights.
+     *
+     * @return The flight metrics
+     */
+    public FlightMetrics getFlightMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Retrieves the dispatcher delivering passenger notifications, e.g. to plug in sinks per channel.
+     *
+     * @return The notification dispatcher
+     */
+    public NotificationDispatcher getNotificationDispatcher() {
+        return notificationDispatcher;
+    }
+
+    /**
+     * Retrieves the coalescer that merges repeated passenger notifications, e.g. to read how many
+     * sends were saved during a disruption.
+     *
+     * @return The notification coalescer
+     */
+    public NotificationCoalescer getNotificationCoalescer() {
+        return notificationCoalescer;
+    }
+
+    /**
+     * Retrieves the timer expiring the seats held on the airline's flights.
+     *
+     * @return The seat hold timer
+     */
+    public SeatHoldTimer getSeatHoldTimer() {
+        return seatHolds;
+    }
+
+    /**
+     * Retrieves the scheduler that moves the airline's flights to IN_FLIGHT and LANDED. It only
+     * runs on its own once started.
+     *
+     * @return The flight lifecycle scheduler
+     */
+    public FlightLifecycleScheduler getLifecycleScheduler() {
+        return lifecycle;
+    }
+
+    /**
+     * Holds the next free seat of a cabin on a flight for a limited time, e.g. while a customer
+     * checks out. The seat is booked when the hold is confirmed and returned when it expires.
+     *
+     * @param flightNumber The flight number
+     * @param seatType     The seat type (e.g., "FirstClass", "Economy")
+     * @param ttl          How long the seat is held
+     * @return The hold, or null if the flight is not found, is closed for reservation or the cabin is sold out
+     * @throws IllegalArgumentException if the seat type is not valid or the time to live is not positive
+     */
+    public SeatHold holdSeat(String flightNumber, String seatType, Duration ttl) {
+        Flight flight = flights.find(flightNumber);
+        return flight == null ? null : flight.holdSeat(seatType, ttl, seatHolds);
+    }
+
+    /**
+     * Sends every notification still held back for coalescing, e.g. before the program exits.
+     */
+    public void flushNotifications() {
+        notificationCoalescer.flush();
+    }
+
+    /**
+     * Stops the airline's background threads: flights no longer depart, land or release held
+     * seats on their own, and the notifications still held back or queued are delivered first.
+     */
+    @Override
+    public void close() {
+        lifecycle.close();
+        seatHolds.close();
+        notificationCoalescer.close(); // Hands what is held back to the dispatcher
+        notificationDispatcher.close(); // Delivers what is still queued
+    }
+
+    /**
+     * Starts recording changes in a booking journal. Called by {@link BookingJournal#recover(AirlineCompany)}
+     * once the journal's earlier records have been replayed.
+     *
+     * @param journal The journal to record changes in
+     */
+    void attachJournal(BookingJournal journal) {
+        this.journal = journal;
+        for (Flight flight : flights.getAllFlights()) {
+            flight.addListener(journal);
+        }
+    }
+
+    /**
+     * Retrieves the rolling-window statistics of the airline's flights.
+     *
+     * @return The rolling statistics, overall, by route and by departure date
+     */
+    public RollingFlightStatistics getRollingStatistics() {
+        return rollingStatistics;
+    }
+
+    /**
+     * Adds a flight to the airline's flight registry after validating the flight details.
      *
      * @param flight The flight object to be added
      * @return True if the flight was successfully added, otherwise false
@@ -41,55 +207,79 @@ public class AirlineCompany implements AirlineManagement {
         if (flight.getFlightNumber().isEmpty() || flight.getDepartureTime() == null || flight.getArrivalTime() == null ||
                 flight.getDeparture() == null || flight.getDestination() == null ||
                 flight.getCapacity() <= 0) {
-            System.out.println("Incomplete flight information. Please provide all details.");
+            EventLog.getDefault().log(EventType.FLIGHT_INCOMPLETE, flight.getFlightNumber(), null);
             return false;
         }
 
-        // Add flight to the list and set it open for reservation
-        flights.add(flight);
-        flight.setOpenForReservation(true);
-        System.out.println("Flight " + flight.getFlightNumber() + " from " + flight.getDeparture() +
-                " to " + flight.getDestination() + " has been successfully added.");
+        // Journal the flight before it can be booked, so its bookings never precede it in the journal
+        BookingJournal journal = this.journal;
+        if (journal != null) {
+            flight.addListener(journal);
+        }
+
+        // Add flight to the registry and set it open for reservation
+        if (!flights.register(flight)) {
+            if (journal != null) {
+                flight.removeListener(journal);
+            }
+            EventLog.getDefault().log(EventType.FLIGHT_EXISTS, flight.getFlightNumber(), null,
+                    "date", flight.getScheduledDate());
+            return false;
+        }
+        if (journal != null) {
+            journal.flightAdded(flight);
+        }
+        index(flight);
+        EventLog.getDefault().log(EventType.FLIGHT_ADDED, flight.getFlightNumber(), null,
+                "departure", flight.getDeparture(), "destination", flight.getDestination());
         return true;
     }
 
     /**
      * Cancels a flight by its flight number. If passengers have booked the flight,
-     * they are notified, otherwise the flight is removed from the list.
+     * they are notified, otherwise the flight is removed from the registry.
      *
      * @param flightNumber The flight number of the flight to be cancelled
      */
     @Override
     public void cancelFlight(String flightNumber) {
+        EventLog events = EventLog.getDefault();
         try {
             // Find the target flight
             Flight targetFlight = getFlightDetails(flightNumber);
 
             if (targetFlight == null) {
-                System.out.println("Flight " + flightNumber + " not found.");
+                events.log(EventType.FLIGHT_NOT_FOUND, flightNumber, null);
                 return;
             }
 
             // If no passengers have booked
-            if (targetFlight.getPassengers().isEmpty()) {
-                flights.remove(targetFlight);
-                System.out.println("No passengers have booked this flight. The flight has been successfully cancelled.");
+            BookingJournal journal = this.journal;
+            if (targetFlight.getPassengerCount() == 0) {
+                unindex(targetFlight);
+                if (journal != null) {
+                    targetFlight.removeListener(journal);
+                    journal.flightCancelled(targetFlight, true);
+                }
+                events.log(EventType.FLIGHT_REMOVED, flightNumber, null);
             } else {
-                targetFlight.setStatus(FlightStatus.CANCELLED);
-                System.out.println("Flight " + flightNumber + " has been marked as cancelled.");
+                markCancelled(targetFlight);
+                if (journal != null) {
+                    journal.flightCancelled(targetFlight, false);
+                }
+                events.log(EventType.FLIGHT_CANCELLED, flightNumber, null);
 
                 // Notify passengers
-                FlightNotificationStrategy notificationStrategy = new FlightNotificationStrategy(flights);
-                notificationStrategy.sendNotification(
-                        flightNumber,
+                notifications.sendNotification(
+                        targetFlight,
                         "We apologize for the inconvenience. Please contact our customer service for assistance.",
                         "Cancellation"
                 );
 
-                System.out.println("All passengers who have booked this flight have been notified about the cancellation.");
+                events.log(EventType.PASSENGERS_NOTIFIED, flightNumber, null, "reason", "cancellation");
             }
         } catch (Exception e) {
-            System.err.println("An error occurred while cancelling the flight: " + e.getMessage());
+            events.log(EventType.FLIGHT_CANCELLATION_FAILED, flightNumber, null, "error", e.getMessage());
         }
     }
 
@@ -100,6 +290,8 @@ public class AirlineCompany implements AirlineManagement {
      * @param flightNumber     The flight number of the delayed flight
      * @param newDepartureTime The new departure time
      * @param newArrivalTime   The new arrival time
+     * @throws IllegalArgumentException if the flight is not found or the new times are not later
+     * @throws IllegalStateException    if the flight has departed, landed or been cancelled
      */
     @Override
     public void delayFlight(String flightNumber, LocalDateTime newDepartureTime, LocalDateTime newArrivalTime) {
@@ -108,20 +300,366 @@ public class AirlineCompany implements AirlineManagement {
         if (targetFlight == null) {
             throw new IllegalArgumentException("Flight " + flightNumber + " not found.");
         }
-        targetFlight.delay(newDepartureTime, newArrivalTime);
-        if (targetFlight.getPassengers().isEmpty()) {
-            System.out.println("No passengers have booked this flight.");
+        // Re-index the flight together with the time change, so searches never see it twice
+        searchIndex.reschedule(targetFlight, () -> connections.reschedule(targetFlight,
+                () -> targetFlight.delay(newDepartureTime, newArrivalTime)));
+        BookingJournal journal = this.journal;
+        if (journal != null) {
+            journal.flightDelayed(targetFlight);
+        }
+        if (targetFlight.getPassengerCount() == 0) {
+            EventLog.getDefault().log(EventType.FLIGHT_HAS_NO_PASSENGERS, flightNumber, null);
         } else {
-            FlightNotificationStrategy notificationStrategy = new FlightNotificationStrategy(flights);
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            notificationStrategy.sendNotification(flightNumber,
+            notifications.sendNotification(targetFlight,
                     "The flight has been delayed. New departure time: "
                             + newDepartureTime.format(formatter) + ", new arrival time: "
                             + newArrivalTime.format(formatter),
                     "Delay");
             targetFlight.setStatus(FlightStatus.DELAYED);
-            System.out.println("All passengers who have booked this flight have been notified about the delay.");
+            EventLog.getDefault().log(EventType.PASSENGERS_NOTIFIED, flightNumber, null, "reason", "delay");
+        }
+    }
+
+    // Adds a registered flight to the search indexes and statistics and opens it for reservation
+    private void index(Flight flight) {
+        searchIndex.add(flight);
+        connections.add(flight);
+        routePopularity.flightAdded(flight);
+        track(flight);
+    }
+
+    // Adds a registered and counted flight to the lookup indexes and statistics and opens it for reservation
+    private void track(Flight flight) {
+        reservations.watch(flight);
+        passengers.watch(flight);
+        flight.addListener(routePopularity);
+        nearlyFullFlights.watch(flight);
+        metrics.track(flight);
+        flight.addListener(rollingStatistics);
+        flight.addListener(notifications);
+        lifecycle.watch(flight);
+        flight.setOpenForReservation(true);
+    }
+
+    // Removes a flight from the registry, the search indexes and the statistics
+    private void unindex(Flight flight) {
+        flights.remove(flight);
+        searchIndex.remove(flight);
+        connections.remove(flight);
+        reservations.unwatch(flight);
+        passengers.unwatch(flight);
+        flight.removeListener(routePopularity);
+        routePopularity.flightRemoved(flight);
+        nearlyFullFlights.unwatch(flight);
+        metrics.untrack(flight);
+        flight.removeListener(rollingStatistics);
+        flight.removeListener(notifications);
+        lifecycle.unwatch(flight);
+    }
+
+    private void markCancelled(Flight flight) {
+        flight.setStatus(FlightStatus.CANCELLED);
+        connections.remove(flight);
+    }
+
+    /**
+     * Adds a flight recovered from the booking journal, without printing or journaling it again.
+     *
+     * @param flight The recovered flight
+     * @return True if the flight was added, false if a flight with its number and date exists
+     */
+    boolean restoreFlight(Flight flight) {
+        if (!flights.register(flight)) {
+            return false;
         }
+        index(flight);
+        return true;
+    }
+
+    /**
+     * Registers a batch of imported flights without printing them or adding them to the search
+     * indexes, and journals the registered ones. The flights stay closed for reservation until
+     * {@link #indexFlights(List)} is called.
+     *
+     * @param batch The imported flights
+     * @return For each flight of the batch, true if it was registered, false if a flight with
+     *         its number and date exists
+     */
+    boolean[] registerFlights(List<Flight> batch) {
+        BookingJournal journal = this.journal;
+        if (journal != null) {
+            for (Flight flight : batch) {
+                flight.addListener(journal);
+            }
+        }
+        boolean[] registered = flights.registerAll(batch);
+        if (journal != null) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (registered[i]) {
+                    journal.flightAdded(batch.get(i));
+                } else {
+                    batch.get(i).removeListener(journal);
+                }
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * Adds registered flights to the search indexes and statistics in one pass per index and
+     * opens them for reservation.
+     *
+     * @param imported The flights registered by {@link #registerFlights(List)}
+     */
+    void indexFlights(List<Flight> imported) {
+        searchIndex.addAll(imported);
+        connections.addAll(imported);
+        routePopularity.flightsAdded(imported);
+        for (Flight flight : imported) {
+            track(flight);
+        }
+    }
+
+    /**
+     * Runs a burst of changes so that, with a journal, the whole burst is made durable by one
+     * wait at the end instead of one wait per change.
+     *
+     * @param work The changes to run
+     * @param <T>  The result type of the changes
+     * @return The result of the changes
+     */
+    <T> T inJournalBatch(Supplier<T> work) {
+        BookingJournal journal = this.journal;
+        return journal == null ? work.get() : journal.inBatch(work);
+    }
+
+    // Waits for the journal records of changes made while this thread held a passenger lock
+    private void awaitJournal() {
+        BookingJournal journal = this.journal;
+        if (journal != null) {
+            journal.awaitDeferred();
+        }
+    }
+
+    /**
+     * Applies a delay recovered from the booking journal, without notifying the passengers.
+     *
+     * @param flight           The delayed flight
+     * @param newDepartureTime The new departure time
+     * @param newArrivalTime   The new arrival time
+     */
+    void restoreDelay(Flight flight, LocalDateTime newDepartureTime, LocalDateTime newArrivalTime) {
+        searchIndex.reschedule(flight, () -> connections.reschedule(flight,
+                () -> flight.reschedule(newDepartureTime, newArrivalTime)));
+    }
+
+    /**
+     * Applies a cancellation recovered from the booking journal, without notifying the passengers.
+     *
+     * @param flight  The cancelled flight
+     * @param removed True if the flight had no passengers and was removed, false if it was marked
+     *                as cancelled
+     */
+    void restoreCancellation(Flight flight, boolean removed) {
+        if (removed) {
+            unindex(flight);
+        } else {
+            markCancelled(flight);
+        }
+    }
+
+    /**
+     * Applies a burst of booking, cancellation and modification commands. Commands are grouped by
+     * flight, every flight is looked up once, and the commands of one flight are applied in their
+     * original order. Consecutive bookings of a flight are applied as one unit with
+     * {@link Flight#bookSeats(List)}, which takes their seats in a single update.
+     *
+     * @param commands The commands to apply
+     * @return One result message per command, in the order of the commands
+     */
+    public List<String> submitBookings(List<BookingCommand> commands) {
+        return inJournalBatch(() -> applyBookings(commands));
+    }
+
+    private List<String> applyBookings(List<BookingCommand> commands) {
+        int size = commands.size();
+        String[] results = new String[size];
+        Map<String, Integer> lookups = new HashMap<>(); // Group of each flight number or flight-day, -1 if not found
+        Map<Flight, Integer> groups = new IdentityHashMap<>(); // Group number of each flight
+        List<Flight> groupFlights = new ArrayList<>();
+        int[] groupOf = new int[size]; // Group of each command, -1 if its flight does not exist
+        int[] groupSizes = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            BookingCommand command = commands.get(i);
+            String key = command.getDate() == null ? command.getFlightNumber()
+                    : command.getFlightNumber() + "@" + command.getDate();
+            Integer group = lookups.get(key);
+            if (group == null) {
+                // Look the flight up once per key; a flight named by number and by flight-day is one group
+                Flight flight = command.getDate() == null ? flights.find(command.getFlightNumber())
+                        : flights.find(command.getFlightNumber(), command.getDate());
+                group = flight == null ? -1 : groups.computeIfAbsent(flight, f -> {
+                    groupFlights.add(f);
+                    return groupFlights.size() - 1;
+                });
+                lookups.put(key, group);
+            }
+            groupOf[i] = group;
+            if (group < 0) {
+                results[i] = "Flight " + command.getFlightNumber() + " not found.";
+                continue;
+            }
+            groupSizes[group + 1]++;
+        }
+
+        // Order the command positions by group, keeping the original order within each group
+        int[] groupStart = groupSizes;
+        for (int g = 1; g <= groupFlights.size(); g++) {
+            groupStart[g] += groupStart[g - 1];
+        }
+        int[] positions = new int[size];
+        int[] next = Arrays.copyOf(groupStart, groupFlights.size());
+        for (int i = 0; i < size; i++) {
+            if (groupOf[i] >= 0) {
+                positions[next[groupOf[i]]++] = i;
+            }
+        }
+
+        for (int g = 0; g < groupFlights.size(); g++) {
+            Flight flight = groupFlights.get(g);
+            int end = groupStart[g + 1];
+            int i = groupStart[g];
+            while (i < end) {
+                if (commands.get(positions[i]).getType() != BookingCommand.Type.BOOK) {
+                    results[positions[i]] = apply(flight, commands.get(positions[i]));
+                    i++;
+                    continue;
+                }
+                // Consecutive bookings are handed to the flight together
+                List<BookingCommand> bookings = new ArrayList<>();
+                for (int j = i; j < end && commands.get(positions[j]).getType() == BookingCommand.Type.BOOK; j++) {
+                    bookings.add(commands.get(positions[j]));
+                }
+                for (String result : flight.bookSeats(bookings)) {
+                    results[positions[i++]] = result;
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // Applies a cancellation or modification to its flight and describes the outcome
+    private String apply(Flight flight, BookingCommand command) {
+        Passenger passenger = command.getPassenger();
+        switch (command.getType()) {
+            case CANCEL:
+                if (passenger.getReservation(flight) == null) {
+                    return "Flight " + flight.getFlightNumber() + " not found in reservations of " + passenger.getName() + ".";
+                }
+                passenger.cancelReservation(flight);
+                return "Reservation on flight " + flight.getFlightNumber() + " cancelled for " + passenger.getName() + ".";
+            case MODIFY:
+                Reservation reservation = passenger.getReservation(flight);
+                if (reservation == null) {
+                    return "Flight " + flight.getFlightNumber() + " not found in reservations of " + passenger.getName() + ".";
+                }
+                passenger.modifyReservation(flight, command.getSeatType(), command.getService());
+                return reservation.getMySeatType().equalsIgnoreCase(command.getSeatType())
+                        ? "Reservation on flight " + flight.getFlightNumber() + " is now " + reservation.getMySeatType()
+                                + " for " + passenger.getName() + "."
+                        : "Reservation on flight " + flight.getFlightNumber() + " could not be modified for "
+                                + passenger.getName() + ".";
+            default:
+                throw new IllegalArgumentException("Unknown command type: " + command.getType());
+        }
+    }
+
+    /**
+     * Finds a reservation by its record locator.
+     *
+     * @param locator The record locator, in any letter case
+     * @return The reservation, or null if none of the airline's flights has a reservation with the locator
+     */
+    public Reservation findReservation(String locator) {
+        return reservations.find(locator);
+    }
+
+    /**
+     * Finds the passenger holding a reservation by its record locator.
+     *
+     * @param locator The record locator, in any letter case
+     * @return The passenger, or null if none of the airline's flights has a reservation with the locator
+     */
+    public Passenger findReservationHolder(String locator) {
+        return reservations.findHolder(locator);
+    }
+
+    /**
+     * Finds a passenger's reservation on one of the airline's flights in O(1), without scanning
+     * the passenger's reservations.
+     *
+     * @param flight    The flight
+     * @param passenger The passenger
+     * @return The reservation, or null if the passenger has none on the flight
+     */
+    public Reservation getReservation(Flight flight, Passenger passenger) {
+        return reservations.find(flight, passenger);
+    }
+
+    /**
+     * Retrieves a read-only view of the reservations on a flight.
+     *
+     * @param flight The flight
+     * @return The reservations on the flight, empty if the flight is not the airline's
+     */
+    public Collection<Reservation> getReservations(Flight flight) {
+        return reservations.getReservations(flight);
+    }
+
+    /**
+     * Cancels a reservation by its record locator, with the same fees as cancelling it through
+     * the passenger.
+     *
+     * @param locator The record locator, in any letter case
+     * @return A message describing the result of the cancellation
+     */
+    public String cancelReservation(String locator) {
+        Passenger passenger = reservations.findHolder(locator);
+        Reservation reservation = reservations.find(locator);
+        if (passenger == null || reservation == null) {
+            return "Reservation " + locator + " not found.";
+        }
+        Flight flight = reservation.getMyFlight();
+        passenger.cancelReservation(flight);
+        awaitJournal();
+        return "Reservation " + reservation.getLocator() + " on flight " + flight.getFlightNumber()
+                + " cancelled for " + passenger.getName() + ".";
+    }
+
+    /**
+     * Modifies the seat type and service of a reservation by its record locator, as
+     * {@link Passenger#modifyReservation(Flight, String, String)} does.
+     *
+     * @param locator  The record locator, in any letter case
+     * @param seatType The new seat type (e.g., "FirstClass", "Economy")
+     * @param service  The new service type
+     * @return A message describing the result of the modification
+     */
+    public String modifyReservation(String locator, String seatType, String service) {
+        Passenger passenger = reservations.findHolder(locator);
+        Reservation reservation = reservations.find(locator);
+        if (passenger == null || reservation == null) {
+            return "Reservation " + locator + " not found.";
+        }
+        Flight flight = reservation.getMyFlight();
+        passenger.modifyReservation(flight, seatType, service);
+        awaitJournal();
+        return reservation.getMySeatType().equalsIgnoreCase(seatType)
+                ? "Reservation " + reservation.getLocator() + " on flight " + flight.getFlightNumber() + " is now "
+                        + reservation.getMySeatType() + " for " + passenger.getName() + "."
+                : "Reservation " + reservation.getLocator() + " on flight " + flight.getFlightNumber()
+                        + " could not be modified for " + passenger.getName() + ".";
     }
 
     /**
@@ -132,95 +670,137 @@ public class AirlineCompany implements AirlineManagement {
      */
     @Override
     public Flight getFlightDetails(String flightNumber) {
-        for (Flight flight : flights) {
-            if (flight.getFlightNumber().equals(flightNumber)) {
-                return flight;
-            }
-        }
-        return null;
+        return flights.find(flightNumber);
     }
 
     /**
-     * Retrieves the list of all flights managed by the airline.
+     * Retrieves flight details by its flight number and scheduled departure date.
+     *
+     * @param flightNumber The flight number
+     * @param date         The scheduled departure date
+     * @return The flight object if found, otherwise null
+     */
+    @Override
+    public Flight getFlightDetails(String flightNumber, LocalDate date) {
+        return flights.find(flightNumber, date);
+    }
+
+    /**
+     * Retrieves a read-only view of all flights managed by the airline.
      *
      * @return A list of all flights
      */
     @Override
     public List<Flight> getAllFlights() {
-        return flights;
+        return flights.getAllFlights();
     }
 
     /**
-     * Identifies the most popular routes based on the number of flights.
+     * Searches for flights departing within a time range, ordered by departure time.
+     *
+     * @param from The earliest departure time (inclusive)
+     * @param to   The latest departure time (inclusive)
+     * @return The flights departing in the range, excluding cancelled flights
+     */
+    public List<Flight> searchFlights(LocalDateTime from, LocalDateTime to) {
+        return searchIndex.search(from, to);
+    }
+
+    /**
+     * Searches for flights on a route departing within a time range that have at least the
+     * given number of seats left in a cabin, ordered by departure time.
+     *
+     * @param departure   The departure airport
+     * @param destination The destination airport
+     * @param from        The earliest departure time (inclusive)
+     * @param to          The latest departure time (inclusive)
+     * @param seatType    The seat type to check (e.g. "FirstClass", "Economy")
+     * @param minSeats    The minimum number of seats left in that seat type
+     * @return The matching flights, excluding cancelled flights
+     */
+    public List<Flight> searchFlights(String departure, String destination, LocalDateTime from, LocalDateTime to,
+                                      String seatType, int minSeats) {
+        CabinClass cabin = CabinClass.fromLabel(seatType);
+        if (cabin == null) {
+            throw new IllegalArgumentException("Invalid seat type. Please choose 'FirstClass' or 'Economy'.");
+        }
+        return searchIndex.search(new Route(departure, destination), from, to, cabin, minSeats);
+    }
+
+    /**
+     * Finds the best itineraries of one or more connecting flights between two airports,
+     * whose first flight departs within 24 hours after the given time.
      *
-     * This method calculates the popularity of each route by counting how many times each
-     * route appears in the list of flights. It then returns the top 3 most popular routes
-     * along with the number of flights for each route.
+     * @param departure         The departure airport
+     * @param destination       The destination airport
+     * @param earliestDeparture The earliest departure time of the first flight
+     * @param maxResults        The maximum number of itineraries to return
+     * @return Up to maxResults itineraries, ordered by arrival time and then by number of legs
+     */
+    public List<Itinerary> findItineraries(String departure, String destination, LocalDateTime earliestDeparture,
+                                           int maxResults) {
+        return connections.search(departure, destination, earliestDeparture, maxResults);
+    }
+
+    /**
+     * Identifies the 3 most popular routes based on the number of flights.
      *
      * @return A list of the top 3 popular routes with flight counts, formatted as
      *         "Departure - Destination (flight count)".
      */
     public List<String> getPopularRoutes() {
-        // Use a HashMap to count the occurrences of each route (departure to destination)
-        Map<String, Integer> routeCountMap = new HashMap<>();
-
-        // Iterate over all flights to update the route counts in the map
-        for (Flight flight : flights) {
-            // Construct the route string as "departure - destination"
-            String route = flight.getDeparture() + " - " + flight.getDestination();
-            // Increment the count for the route (default to 0 if not present)
-            routeCountMap.put(route, routeCountMap.getOrDefault(route, 0) + 1);
-        }
-
-        // Use a priority queue (min-heap) to keep track of the top 3 most popular routes
-        PriorityQueue<Map.Entry<String, Integer>> minHeap =
-                new PriorityQueue<>(Comparator.comparingInt(Map.Entry::getValue));
-
-        // Add all routes to the priority queue, and ensure the heap never exceeds 3 elements
-        for (Map.Entry<String, Integer> entry : routeCountMap.entrySet()) {
-            minHeap.offer(entry);  // Add the route to the heap
-            if (minHeap.size() > 3) {
-                minHeap.poll(); // Remove the route with the lowest count if the heap exceeds 3
-            }
-        }
-
-        // Transfer the routes from the heap to a list, ensuring they are ordered by frequency
-        List<String> popularRoutes = new ArrayList<>();
-        while (!minHeap.isEmpty()) {
-            Map.Entry<String, Integer> entry = minHeap.poll();
-            // Add each route and its flight count to the list in the correct format
-            popularRoutes.add(entry.getKey() + " (" + entry.getValue() + " flights)");
-        }
+        return getPopularRoutes(3);
+    }
 
-        // The heap is a min-heap, so the elements are ordered from lowest to highest frequency.
-        // Reverse the list to get the most popular routes first.
-        Collections.reverse(popularRoutes);
+    /**
+     * Identifies the most popular routes based on the number of flights.
+     *
+     * Route counts are maintained incrementally as flights are added and cancelled, so this
+     * only reads the first k entries of an already sorted ranking.
+     *
+     * @param k The number of routes to return
+     * @return A list of the top k popular routes with flight counts, formatted as
+     *         "Departure - Destination (n flights)", most popular first.
+     */
+    public List<String> getPopularRoutes(int k) {
+        return routePopularity.topByFlights(k);
+    }
 
-        return popularRoutes;
+    /**
+     * Identifies the most popular routes based on the number of booked passengers.
+     *
+     * @param k The number of routes to return
+     * @return A list of the top k popular routes with passenger counts, formatted as
+     *         "Departure - Destination (n passengers)", most popular first.
+     */
+    public List<String> getPopularRoutesByPassengers(int k) {
+        return routePopularity.topByPassengers(k);
     }
 
+    /**
+     * Retrieves the watchlist of nearly-full flights, e.g. to subscribe to threshold crossings
+     * or to configure thresholds per flight or route.
+     *
+     * @return The nearly-full flight watchlist
+     */
+    public OccupancyWatchlist getOccupancyWatchlist() {
+        return nearlyFullFlights;
+    }
 
     /**
-     * Retrieves flights that are nearly full (90% or more seats booked).
+     * Retrieves flights that are nearly full (more than 90% of seats booked, unless another
+     * threshold is configured for the flight or its route). The set is kept up to date at
+     * booking and cancellation time, so this does not scan the schedule.
      *
      * @return A list of nearly full flights
      */
     public List<Flight> getNearlyFullFlights() {
-        List<Flight> nearlyFullFlights = new ArrayList<>(flights.size());
+        List<Flight> nearlyFull = nearlyFullFlights.getNearlyFullFlights();
 
-        for (Flight flight : flights) {
-            int bookedPassengers = flight.getPassengers().size();
-            int capacity = flight.getCapacity();
-
-            if (bookedPassengers > capacity * 0.9) {
-                nearlyFullFlights.add(flight);
-            }
-        }
-
-        if (nearlyFullFlights.isEmpty()) {
+        if (nearlyFull.isEmpty()) {
             System.out.println("All flights have sufficient available seats.");
         }
 
-        return nearlyFullFlights;
+        return nearlyFull;
     }
 }
@@ -1,9 +1,11 @@
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +19,11 @@ class AirlineCompanyTest {
         formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     }
 
+    @AfterEach
+    void teardown() {
+        company.close();
+    }
+
     @Test
     void addFlight() {
         // Normal case: Adding a valid flight
@@ -170,4 +177,221 @@ class AirlineCompanyTest {
         assertEquals(1, company.getNearlyFullFlights().size());
         assertEquals("AB123", company.getNearlyFullFlights().get(0).getFlightNumber());
     }
+
+    @Test
+    void searchFlights() {
+        Flight morning = new Flight("AB123", "PEK", "SHA",
+                LocalDateTime.parse("2024-11-24 07:00", formatter),
+                LocalDateTime.parse("2024-11-24 09:00", formatter),
+                160, new ArrayList<>(), new ArrayList<>());
+        Flight noon = new Flight("CD456", "PEK", "SHA",
+                LocalDateTime.parse("2024-11-24 11:30", formatter),
+                LocalDateTime.parse("2024-11-24 13:30", formatter),
+                1, new ArrayList<>(), new ArrayList<>());
+        Flight evening = new Flight("EF789", "PEK", "SHA",
+                LocalDateTime.parse("2024-11-24 19:00", formatter),
+                LocalDateTime.parse("2024-11-24 21:00", formatter),
+                160, new ArrayList<>(), new ArrayList<>());
+        Flight otherRoute = new Flight("GH012", "PEK", "CAN",
+                LocalDateTime.parse("2024-11-24 08:00", formatter),
+                LocalDateTime.parse("2024-11-24 11:00", formatter),
+                160, new ArrayList<>(), new ArrayList<>());
+        company.addFlight(evening);
+        company.addFlight(noon);
+        company.addFlight(morning);
+        company.addFlight(otherRoute);
+
+        // Normal case: route and time window, ordered by departure time
+        LocalDateTime from = LocalDateTime.parse("2024-11-24 06:00", formatter);
+        LocalDateTime to = LocalDateTime.parse("2024-11-24 12:00", formatter);
+        assertEquals(List.of(morning, noon), company.searchFlights("PEK", "SHA", from, to, "Economy", 1));
+        assertEquals(List.of(morning, otherRoute, noon), company.searchFlights(from, to));
+
+        // Seat filter: the small flight has a single Economy seat
+        assertEquals(List.of(morning), company.searchFlights("PEK", "SHA", from, to, "Economy", 2));
+
+        // Edge case: unknown route
+        assertTrue(company.searchFlights("SHA", "PEK", from, to, "Economy", 1).isEmpty());
+    }
+
+    @Test
+    void searchFlights_AfterDelay() {
+        Flight flight1 = new Flight("AB123", "PEK", "SHA",
+                LocalDateTime.parse("2024-11-24 07:00", formatter),
+                LocalDateTime.parse("2024-11-24 09:00", formatter),
+                160, new ArrayList<>(), new ArrayList<>());
+        company.addFlight(flight1);
+        company.delayFlight("AB123", LocalDateTime.parse("2024-11-24 13:00", formatter),
+                LocalDateTime.parse("2024-11-24 15:00", formatter));
+
+        // The delayed flight only appears at its new departure time
+        LocalDateTime dayStart = LocalDateTime.parse("2024-11-24 00:00", formatter);
+        assertTrue(company.searchFlights("PEK", "SHA", dayStart,
+                LocalDateTime.parse("2024-11-24 12:00", formatter), "Economy", 1).isEmpty());
+        assertEquals(List.of(flight1), company.searchFlights(dayStart,
+                LocalDateTime.parse("2024-11-24 23:59", formatter)));
+
+        // A rejected delay leaves the flight searchable at its current time
+        assertThrows(IllegalArgumentException.class, () -> company.delayFlight("AB123",
+                LocalDateTime.parse("2024-11-24 08:00", formatter),
+                LocalDateTime.parse("2024-11-24 10:00", formatter)));
+        assertEquals(1, company.searchFlights(dayStart, LocalDateTime.parse("2024-11-24 23:59", formatter)).size());
+    }
+
+    @Test
+    void searchFlights_AfterDirectDelay() {
+        Flight flight1 = new Flight("AB123", "PEK", "SHA",
+                LocalDateTime.parse("2024-11-24 07:00", formatter),
+                LocalDateTime.parse("2024-11-24 09:00", formatter),
+                160, new ArrayList<>(), new ArrayList<>());
+        company.addFlight(flight1);
+
+        // Edge case: a delay made on the flight itself, not through the company, re-indexes it too
+        flight1.delay(LocalDateTime.parse("2024-11-24 13:00", formatter),
+                LocalDateTime.parse("2024-11-24 15:00", formatter));
+        flight1.delay(LocalDateTime.parse("2024-11-24 18:00", formatter),
+                LocalDateTime.parse("2024-11-24 20:00", formatter));
+        LocalDateTime dayStart = LocalDateTime.parse("2024-11-24 00:00", formatter);
+        assertTrue(company.searchFlights(dayStart, LocalDateTime.parse("2024-11-24 17:00", formatter)).isEmpty());
+        assertEquals(List.of(flight1), company.searchFlights("PEK", "SHA",
+                LocalDateTime.parse("2024-11-24 17:00", formatter),
+                LocalDateTime.parse("2024-11-24 23:59", formatter), "Economy", 1));
+    }
+
+    @Test
+    void getPopularRoutes_TopKAndByPassengers() {
+        String[][] routes = {{"AB1", "PEK", "SHA"}, {"AB2", "PEK", "SHA"}, {"AB3", "PEK", "SHA"},
+                {"CD1", "PEK", "CAN"}, {"CD2", "PEK", "CAN"}, {"EF1", "SHA", "CAN"}};
+        for (String[] route : routes) {
+            company.addFlight(new Flight(route[0], route[1], route[2],
+                    LocalDateTime.parse("2024-11-24 10:00", formatter),
+                    LocalDateTime.parse("2024-11-24 14:00", formatter),
+                    160, new ArrayList<>(), new ArrayList<>()));
+        }
+
+        // Configurable K
+        assertEquals(List.of("PEK - SHA (3 flights)", "PEK - CAN (2 flights)"), company.getPopularRoutes(2));
+        assertEquals(3, company.getPopularRoutes(10).size());
+
+        // Ranking by booked passengers follows bookings and cancellations
+        Passenger passenger1 = new Passenger("John Doe", new ArrayList<>());
+        Passenger passenger2 = new Passenger("Ben Machiel", new ArrayList<>());
+        company.getFlightDetails("EF1").bookSeat(passenger1, "Economy", "Meal");
+        company.getFlightDetails("EF1").bookSeat(passenger2, "Economy", "Meal");
+        assertEquals(List.of("SHA - CAN (2 passengers)"), company.getPopularRoutesByPassengers(1));
+        passenger1.cancelReservation(company.getFlightDetails("EF1"));
+        assertEquals("SHA - CAN (1 passengers)", company.getPopularRoutesByPassengers(1).get(0));
+
+        // Cancelling flights without passengers updates the flight counts
+        company.cancelFlight("AB1");
+        company.cancelFlight("AB2");
+        assertEquals("PEK - CAN (2 flights)", company.getPopularRoutes().get(0));
+    }
+
+    @Test
+    void getPopularRoutesByPassengers_ConcurrentBookings() throws InterruptedException {
+        company.addFlight(new Flight("AB1", "PEK", "SHA", LocalDateTime.parse("2024-11-24 10:00", formatter),
+                LocalDateTime.parse("2024-11-24 14:00", formatter), 1000, new ArrayList<>(), new ArrayList<>()));
+        company.addFlight(new Flight("CD1", "PEK", "CAN", LocalDateTime.parse("2024-11-24 10:00", formatter),
+                LocalDateTime.parse("2024-11-24 14:00", formatter), 1000, new ArrayList<>(), new ArrayList<>()));
+        Flight toShanghai = company.getFlightDetails("AB1");
+        Flight toGuangzhou = company.getFlightDetails("CD1");
+
+        // Normal case: bookings on several threads are all counted, without a shared lock
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    Flight flight = thread % 2 == 0 ? toShanghai : toGuangzhou;
+                    flight.bookSeat(new Passenger("P" + thread + "-" + i, new ArrayList<>()), "Economy", "Meal");
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        toGuangzhou.getPassengers().get(0).cancelReservation(toGuangzhou);
+        assertEquals(List.of("PEK - SHA (200 passengers)", "PEK - CAN (199 passengers)"),
+                company.getPopularRoutesByPassengers(5));
+
+        // Edge case: no routes asked for
+        assertTrue(company.getPopularRoutesByPassengers(0).isEmpty());
+    }
+
+    @Test
+    void getNearlyFullFlights_Events() {
+        Flight flight1 = new Flight("AB123", "New York", "Los Angeles",
+                LocalDateTime.parse("2024-11-24 10:00", formatter),
+                LocalDateTime.parse("2024-11-24 14:00", formatter),
+                10, new ArrayList<>(), new ArrayList<>());
+        company.addFlight(flight1);
+        List<String> events = new ArrayList<>();
+        company.getOccupancyWatchlist().subscribe(new OccupancyListener() {
+            @Override
+            public void onCrossedAbove(Flight flight, double occupancy) {
+                events.add("above " + flight.getFlightNumber());
+            }
+
+            @Override
+            public void onDroppedBelow(Flight flight, double occupancy) {
+                events.add("below " + flight.getFlightNumber());
+            }
+        });
+
+        // Lower the route threshold to 50%: the 6th booking crosses it
+        company.getOccupancyWatchlist().setThreshold(new Route("New York", "Los Angeles"), 0.5);
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Passenger passenger = new Passenger("P" + i, new ArrayList<>());
+            passengers.add(passenger);
+            flight1.bookSeat(passenger, "Economy", "Meal");
+        }
+        assertEquals(List.of(flight1), company.getNearlyFullFlights());
+        assertEquals(List.of("above AB123"), events);
+
+        // A cancellation takes it back below the threshold
+        passengers.get(0).cancelReservation(flight1);
+        assertTrue(company.getNearlyFullFlights().isEmpty());
+        assertEquals(List.of("above AB123", "below AB123"), events);
+
+        // A flight threshold overrides the route threshold
+        company.getOccupancyWatchlist().setThreshold(flight1, 0.4);
+        assertEquals(List.of(flight1), company.getNearlyFullFlights());
+    }
+
+    @Test
+    void submitBookings() {
+        Flight flight1 = new Flight("AB123", "New York", "Los Angeles",
+                LocalDateTime.parse("2024-11-11 10:00", formatter),
+                LocalDateTime.parse("2024-11-11 15:00", formatter),
+                20, new ArrayList<>(), new ArrayList<>());
+        Flight flight2 = new Flight("CD456", "Chicago", "Miami",
+                LocalDateTime.parse("2024-11-12 10:00", formatter),
+                LocalDateTime.parse("2024-11-12 15:00", formatter),
+                20, new ArrayList<>(), new ArrayList<>());
+        company.addFlight(flight1);
+        company.addFlight(flight2);
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+
+        // Normal case: commands for two flights interleaved, results in the original order
+        List<String> results = company.submitBookings(List.of(
+                BookingCommand.book("AB123", john, "Economy", "Meal"),
+                BookingCommand.book("CD456", jane, "Economy", "Meal"),
+                BookingCommand.modify("AB123", john, "FirstClass", "Meal"),
+                BookingCommand.book("XY999", john, "Economy", "Meal"),
+                BookingCommand.cancel("CD456", jane),
+                BookingCommand.cancel("CD456", john)));
+
+        assertEquals("Seat successfully booked for John Doe in Economy.", results.get(0));
+        assertEquals("Seat successfully booked for Jane Smith in Economy.", results.get(1));
+        assertEquals("Reservation on flight AB123 is now FirstClass for John Doe.", results.get(2));
+        assertEquals("Flight XY999 not found.", results.get(3));
+        assertEquals("Reservation on flight CD456 cancelled for Jane Smith.", results.get(4));
+        assertEquals("Flight CD456 not found in reservations of John Doe.", results.get(5));
+        assertEquals(1, flight1.getFirstClassCapacity());
+        assertTrue(flight2.getPassengers().isEmpty());
+    }
 }
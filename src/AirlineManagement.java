@@ -1,3 +1,4 @@
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -39,7 +40,16 @@ public interface AirlineManagement {
     Flight getFlightDetails(String flightNumber);
 
     /**
-     * Retrieves a list of all flights in the airline's schedule.
+     * Retrieves the details of a specific flight-day.
+     *
+     * @param flightNumber the flight number of the desired flight
+     * @param date         the scheduled departure date of the desired flight
+     * @return the flight object corresponding to the flight number and date, or null if not found
+     */
+    Flight getFlightDetails(String flightNumber, LocalDate date);
+
+    /**
+     * Retrieves a read-only list of all flights in the airline's schedule.
      *
      * @return a list containing all flights
      */
@@ -0,0 +1,84 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of bulk booking submission against booking one request at a time.
+ *
+ * Generates bursts of 5,000 booking requests spread over 20 flights of 300 seats and applies each
+ * burst either through {@link AirlineCompany#submitBookings} or through getFlightDetails plus
+ * bookSeat per request, then reports the median throughput of both paths over five
+ * interleaved rounds.
+ * Run with: java BatchBookingBenchmark
+ */
+public class BatchBookingBenchmark {
+    private static final int FLIGHTS = 20;
+    private static final int BURST = 5_000;
+    private static final int BURSTS = 40;
+    private static final int ROUNDS = 5; // Measured rounds of each path
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 1, 8, 0);
+
+    public static void main(String[] args) {
+        AirlineCompany company = new AirlineCompany("Benchmark");
+        // Warm up both paths until they are compiled, then measure
+        for (int i = 0; i < 5; i++) {
+            run(company, false);
+            run(company, true);
+        }
+        // Interleave the measured rounds, so drift in the heap and the JIT affects both paths alike
+        double[] singles = new double[ROUNDS];
+        double[] batches = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            singles[i] = run(company, false);
+            batches[i] = run(company, true);
+        }
+        Arrays.sort(singles);
+        Arrays.sort(batches);
+        double single = singles[ROUNDS / 2];
+        double batched = batches[ROUNDS / 2];
+        System.out.printf("burst=%,d one at a time=%,.0f bookings/s batched=%,.0f bookings/s speedup=%.1fx%n",
+                BURST, single, batched, batched / single);
+    }
+
+    // Returns the median throughput in bookings per second
+    private static double run(AirlineCompany company, boolean batched) {
+        Random random = new Random(42);
+        double[] throughput = new double[BURSTS];
+        for (int b = 0; b < BURSTS; b++) {
+            String prefix = "F" + b + "-";
+            List<Flight> flights = new ArrayList<>(FLIGHTS);
+            for (int f = 0; f < FLIGHTS; f++) {
+                // Every flight departs on its own day, so passengers never have conflicting bookings
+                LocalDateTime departure = START.plusDays(f);
+                Flight flight = new Flight(prefix + f, "New York", "Los Angeles", departure,
+                        departure.plusHours(5), 300, new ArrayList<>(), new ArrayList<>());
+                company.getFlightRegistry().register(flight);
+                flights.add(flight);
+            }
+            List<BookingCommand> commands = new ArrayList<>(BURST);
+            for (int i = 0; i < BURST; i++) {
+                commands.add(BookingCommand.book(prefix + random.nextInt(FLIGHTS),
+                        new Passenger("P" + i, new ArrayList<>()), "Economy", "Meal"));
+            }
+
+            System.gc(); // Keep garbage from the previous burst out of the measurement
+            long start = System.nanoTime();
+            if (batched) {
+                company.submitBookings(commands);
+            } else {
+                for (BookingCommand command : commands) {
+                    Flight flight = company.getFlightDetails(command.getFlightNumber());
+                    flight.bookSeat(command.getPassenger(), command.getSeatType(), command.getService());
+                }
+            }
+            throughput[b] = BURST / ((System.nanoTime() - start) / 1e9);
+            for (Flight flight : flights) {
+                company.getFlightRegistry().remove(flight);
+            }
+        }
+        Arrays.sort(throughput);
+        return throughput[BURSTS / 2];
+    }
+}
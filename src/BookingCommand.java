@@ -0,0 +1,116 @@
+import java.time.LocalDate;
+
+/**
+ * A booking, cancellation or modification request for one passenger on one flight, as submitted
+ * in bulk through {@link AirlineCompany#submitBookings(java.util.List)}.
+ */
+public final class BookingCommand {
+
+    /**
+     * The kind of change a command makes to a reservation.
+     */
+    public enum Type {
+        BOOK,
+        CANCEL,
+        MODIFY
+    }
+
+    private final Type type;
+    private final String flightNumber;
+    private final LocalDate date; // Scheduled departure date, or null for the next flight with this number
+    private final Passenger passenger;
+    private final String seatType; // Null for cancellations
+    private final String service; // Null for cancellations
+
+    private BookingCommand(Type type, String flightNumber, LocalDate date, Passenger passenger,
+                           String seatType, String service) {
+        this.type = type;
+        this.flightNumber = flightNumber;
+        this.date = date;
+        this.passenger = passenger;
+        this.seatType = seatType;
+        this.service = service;
+    }
+
+    /**
+     * Creates a command booking a seat.
+     *
+     * @param flightNumber The flight number
+     * @param passenger    The passenger to book
+     * @param seatType     The seat type (e.g., "FirstClass", "Economy")
+     * @param service      The service type (e.g., "Meal")
+     * @return The booking command
+     */
+    public static BookingCommand book(String flightNumber, Passenger passenger, String seatType, String service) {
+        return new BookingCommand(Type.BOOK, flightNumber, null, passenger, seatType, service);
+    }
+
+    /**
+     * Creates a command booking a seat on a specific flight-day.
+     *
+     * @param flightNumber The flight number
+     * @param date         The scheduled departure date
+     * @param passenger    The passenger to book
+     * @param seatType     The seat type (e.g., "FirstClass", "Economy")
+     * @param service      The service type (e.g., "Meal")
+     * @return The booking command
+     */
+    public static BookingCommand book(String flightNumber, LocalDate date, Passenger passenger,
+                                      String seatType, String service) {
+        return new BookingCommand(Type.BOOK, flightNumber, date, passenger, seatType, service);
+    }
+
+    /**
+     * Creates a command cancelling a passenger's reservation.
+     *
+     * @param flightNumber The flight number
+     * @param passenger    The passenger whose reservation is cancelled
+     * @return The cancellation command
+     */
+    public static BookingCommand cancel(String flightNumber, Passenger passenger) {
+        return new BookingCommand(Type.CANCEL, flightNumber, null, passenger, null, null);
+    }
+
+    /**
+     * Creates a command changing the seat type and service of a passenger's reservation.
+     *
+     * @param flightNumber The flight number
+     * @param passenger    The passenger whose reservation is modified
+     * @param seatType     The new seat type (e.g., "FirstClass", "Economy")
+     * @param service      The new service type (e.g., "Meal")
+     * @return The modification command
+     */
+    public static BookingCommand modify(String flightNumber, Passenger passenger, String seatType, String service) {
+        return new BookingCommand(Type.MODIFY, flightNumber, null, passenger, seatType, service);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Passenger getPassenger() {
+        return passenger;
+    }
+
+    public String getSeatType() {
+        return seatType;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + flightNumber + (date != null ? "@" + date : "") + " for " + passenger.getName()
+                + (seatType != null ? " | " + seatType + " | " + service : "");
+    }
+}
@@ -0,0 +1,804 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of the changes made to an airline's flights and reservations, used to
+ * rebuild the exact in-memory state after a restart or a crash.
+ *
+ * Every record is framed as its payload length, a CRC32 of the payload and the payload itself, so a
+ * record torn by a crash is detected, dropped and cut off the file when the journal is recovered.
+ * Reservation records are written while the passenger is locked and carry the reservation, record
+ * locator included, as it is after the change, so recovery only needs the last record of each
+ * passenger on each flight and does not depend on the order in which concurrent bookings reached
+ * the journal.
+ *
+ * The file starts with a header holding the journal offset of its first record. Offsets count the
+ * bytes of records since the journal was started, so they stay valid when the journal is compacted:
+ * once a snapshot is on disk, the records before its offset are dropped by copying the rest into a
+ * new file that replaces the old one. Disk use and startup are thus bounded by the snapshot plus the
+ * records written since it was started.
+ *
+ * Records are collected in memory and a background thread writes and forces them to disk in groups,
+ * once per sync interval or as soon as the sync size is reached. A change is only acknowledged to
+ * its caller once its group is on disk, so concurrent bookings share one fsync between them.
+ * Cancellations and modifications are reported while their passenger is locked; their records are
+ * only noted then, and the caller waits for them with {@link #awaitDeferred()} once it has let the
+ * passenger go, so other changes of that passenger never queue behind a group commit.
+ */
+public class BookingJournal implements FlightListener, AutoCloseable {
+    private static final byte ADD_FLIGHT = 1;
+    private static final byte BOOK = 2;
+    private static final byte CANCEL_RESERVATION = 3;
+    private static final byte MODIFY = 4;
+    private static final byte DELAY = 5;
+    private static final byte CANCEL_FLIGHT = 6;
+
+    private static final int MAGIC = 0x424B4A4E; // "BKJN"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 16; // Magic, version and offset of the first record
+    private static final int HEADER_SIZE = 8; // Payload length and checksum
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMillis(5);
+    private static final int DEFAULT_SYNC_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final long syncIntervalNanos; // Longest time a record waits for its group to be forced
+    private final int syncSize; // Pending bytes that trigger a sync before the interval is over
+    private final ThreadLocal<long[]> batchEnd = new ThreadLocal<>(); // Offset a batching thread waits for at the end
+    private final ThreadLocal<long[]> deferredEnd = new ThreadLocal<>(); // Offset noted while a passenger was locked
+    private final Thread syncer;
+
+    private final Object fileLock = new Object(); // Held while the file is written, forced or replaced
+    private FileChannel channel; // Replaced when the journal is compacted
+
+    private final Object lock = new Object(); // Guards the fields below
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(); // Framed records not yet written
+    private long pendingSince; // System.nanoTime() of the oldest pending record
+    private long firstOffset; // Offset of the first record in the file; earlier ones are in a snapshot
+    private long appended; // End offset of the last appended record
+    private long durable; // End offset of the records forced to disk
+    private long recordCount; // Records appended since the journal was opened
+    private long syncCount; // Number of group commits
+    private IOException failure; // Set once a write fails; later changes are refused
+    private boolean closed;
+
+    /**
+     * Constructor to open a journal that forces records to disk at least every 5 ms.
+     *
+     * @param file The journal file, created if it does not exist
+     * @throws IOException if the file cannot be read or opened, or is not a booking journal
+     */
+    public BookingJournal(Path file) throws IOException {
+        this(file, DEFAULT_SYNC_INTERVAL, DEFAULT_SYNC_SIZE);
+    }
+
+    /**
+     * Constructor to open a journal. Nothing is read or appended until the journal is recovered.
+     *
+     * @param file         The journal file, created if it does not exist
+     * @param syncInterval The longest time a record waits before its group is forced to disk
+     * @param syncSize     The number of pending bytes that forces a group before the interval is over
+     * @throws IOException if the file cannot be read or opened, or is not a booking journal
+     */
+    public BookingJournal(Path file, Duration syncInterval, int syncSize) throws IOException {
+        if (syncInterval.isNegative() || syncSize <= 0) {
+            throw new IllegalArgumentException("Sync interval cannot be negative and sync size must be positive.");
+        }
+        this.file = file;
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.syncSize = syncSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.firstOffset = readHeader(channel, file);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.appended = firstOffset + channel.size() - FILE_HEADER_SIZE;
+        this.durable = appended;
+        this.syncer = new Thread(this::runSyncer, "journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /**
+     * Replays the journal into an airline company and then starts journaling the company's changes.
+     * A torn or corrupt tail left by a crash is cut off, so new records follow the last intact one.
+     * Flights are re-added and delayed in journal order, every reservation is restored with its
+     * last recorded seat type, service and seat, and flights cancelled with passengers on board are
+     * marked as cancelled again. Nothing is printed and no passenger is notified. Passengers are
+     * recreated with their original ids.
+     *
+     * @param company An airline company without flights
+     * @return The number of records replayed
+     * @throws IOException if the journal cannot be read, or has been compacted and needs its snapshot
+     */
+    public long recover(AirlineCompany company) throws IOException {
+        return recover(company, null);
+    }
+
+    /**
+     * Loads a snapshot into an airline company, replays only the journal records written after the
+     * snapshot was started, and then starts journaling the company's changes. Without a snapshot
+     * file the whole journal is replayed, as with {@link #recover(AirlineCompany)}.
+     *
+     * @param company  An airline company without flights
+     * @param snapshot The snapshot file, or null to replay the whole journal
+     * @return The number of journal records replayed
+     * @throws IOException if the snapshot or the journal cannot be read, or the journal has been
+     *                     compacted past the snapshot
+     */
+    public long recover(AirlineCompany company, Path snapshot) throws IOException {
+        Replay replay = new Replay(company);
+        long first;
+        long last; // Offset at which the records in the file end
+        synchronized (lock) {
+            first = firstOffset;
+            last = appended;
+        }
+        long from = first;
+        boolean outdated = false; // True if the journal lost records the snapshot contains
+        if (snapshot != null && Files.exists(snapshot)) {
+            BookingSnapshot loaded = BookingSnapshot.load(snapshot, company, replay.passengers);
+            if (loaded.getJournalOffset() < first) {
+                throw new IOException(snapshot + " is older than " + file + ", which starts at offset " + first + ".");
+            }
+            outdated = loaded.getJournalOffset() > last;
+            from = Math.min(loaded.getJournalOffset(), last);
+        } else if (first > 0) {
+            throw new IOException(file + " has been compacted and can only be recovered with its snapshot.");
+        }
+        long end = readRecords(file, from - first + FILE_HEADER_SIZE, replay::apply);
+        replay.finish();
+        synchronized (fileLock) {
+            channel.truncate(end);
+            channel.position(end);
+        }
+        synchronized (lock) {
+            appended = first + end - FILE_HEADER_SIZE;
+            durable = appended;
+        }
+        company.attachJournal(this);
+        if (outdated) {
+            // The snapshot's offset no longer marks a record boundary of this journal
+            snapshot(company, snapshot);
+        }
+        return replay.records;
+    }
+
+    /**
+     * Writes a snapshot of a company while it keeps taking bookings, then compacts the journal to
+     * the records written since the snapshot was started. The snapshot remembers how far the
+     * journal had got when it was started; every change after that point is replayed on top of it
+     * during recovery, which is safe because replaying a change that the snapshot already contains
+     * leaves the same state.
+     *
+     * @param company  The company being journaled
+     * @param snapshot The snapshot file, replaced atomically once the new snapshot is complete
+     * @return The snapshot that was written
+     * @throws IOException if the snapshot cannot be written or the journal cannot be compacted
+     */
+    public BookingSnapshot snapshot(AirlineCompany company, Path snapshot) throws IOException {
+        long offset;
+        synchronized (lock) {
+            offset = appended;
+        }
+        BookingSnapshot written = BookingSnapshot.write(company, snapshot, offset);
+        waitForDisk(offset); // The records before the offset must be in the file before it is cut there
+        compact(offset);
+        return written;
+    }
+
+    /**
+     * Writes a snapshot of a company in the background at a fixed interval until the journal is closed.
+     *
+     * @param company  The company being journaled
+     * @param snapshot The snapshot file
+     * @param interval The time between two snapshots
+     */
+    public void startSnapshots(AirlineCompany company, Path snapshot, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Snapshot interval must be positive.");
+        }
+        Thread snapshotter = new Thread(() -> runSnapshots(company, snapshot, interval), "journal-snapshot");
+        snapshotter.setDaemon(true); // A snapshot in progress is simply not used
+        snapshotter.start();
+    }
+
+    /**
+     * Runs a piece of work that may make many changes, e.g. a burst of bookings, and waits for
+     * their records to reach the disk once at the end instead of after every change.
+     *
+     * @param work The work to run
+     * @param <T>  The result type of the work
+     * @return The result of the work
+     */
+    public <T> T inBatch(Supplier<T> work) {
+        if (batchEnd.get() != null) {
+            return work.get();
+        }
+        long[] end = {0};
+        batchEnd.set(end);
+        try {
+            return work.get();
+        } finally {
+            batchEnd.remove();
+            waitForDisk(end[0]);
+        }
+    }
+
+    /**
+     * Waits until the records this thread appended while it held a passenger lock are on disk.
+     * Does nothing if there are none.
+     */
+    public void awaitDeferred() {
+        long[] deferred = deferredEnd.get();
+        if (deferred != null) {
+            deferredEnd.remove();
+            waitForDisk(deferred[0]);
+        }
+    }
+
+    /**
+     * Waits until every record appended so far is on disk.
+     */
+    public void sync() {
+        long end;
+        synchronized (lock) {
+            end = appended;
+            lock.notifyAll();
+        }
+        waitForDisk(end);
+    }
+
+    /**
+     * Returns the number of records appended since the journal was opened.
+     *
+     * @return The record count
+     */
+    public long getRecordCount() {
+        synchronized (lock) {
+            return recordCount;
+        }
+    }
+
+    /**
+     * Returns the number of group commits, i.e. how often the journal has been forced to disk.
+     *
+     * @return The sync count
+     */
+    public long getSyncCount() {
+        synchronized (lock) {
+            return syncCount;
+        }
+    }
+
+    /**
+     * Writes and forces every pending record, stops the sync thread and closes the file.
+     *
+     * @throws IOException if the last records could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            syncer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (fileLock) {
+            channel.close();
+        }
+        synchronized (lock) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    @Override
+    public void onSeatBooked(Flight flight, Passenger passenger, CabinClass cabin) {
+        long end;
+        synchronized (passenger) {
+            Reservation reservation = passenger.getReservation(flight);
+            if (reservation == null) {
+                return; // Already cancelled again, and the cancellation is journaled
+            }
+            end = appendReservation(BOOK, flight, passenger, reservation);
+        }
+        awaitDurable(end);
+    }
+
+    @Override
+    public void onSeatReleased(Flight flight, Passenger passenger, CabinClass cabin) {
+        boolean locked = Thread.holdsLock(passenger); // True when called from Passenger.cancelReservation
+        long end;
+        synchronized (passenger) {
+            end = append(CANCEL_RESERVATION, out -> {
+                writeFlight(out, flight);
+                out.writeLong(passenger.getId());
+            });
+        }
+        if (locked) {
+            deferDurable(end);
+        } else {
+            awaitDurable(end);
+        }
+    }
+
+    @Override
+    public void onReservationModified(Flight flight, Passenger passenger, Reservation reservation) {
+        // Called from Passenger.modifyReservation with the passenger locked
+        deferDurable(appendReservation(MODIFY, flight, passenger, reservation));
+    }
+
+    /**
+     * Records a flight added to the airline and waits until the record is on disk.
+     *
+     * @param flight The added flight
+     */
+    void flightAdded(Flight flight) {
+        awaitDurable(append(ADD_FLIGHT, out -> {
+            out.writeUTF(flight.getFlightNumber());
+            out.writeUTF(flight.getDeparture());
+            out.writeUTF(flight.getDestination());
+            writeTime(out, flight.getDepartureTime());
+            writeTime(out, flight.getArrivalTime());
+            out.writeInt(flight.getCapacity());
+        }));
+    }
+
+    /**
+     * Records the new times of a delayed flight and waits until the record is on disk.
+     *
+     * @param flight The delayed flight
+     */
+    void flightDelayed(Flight flight) {
+        awaitDurable(append(DELAY, out -> {
+            writeFlight(out, flight);
+            writeTime(out, flight.getDepartureTime());
+            writeTime(out, flight.getArrivalTime());
+        }));
+    }
+
+    /**
+     * Records a cancelled flight and waits until the record is on disk.
+     *
+     * @param flight  The cancelled flight
+     * @param removed True if the flight had no passengers and was removed, false if it was marked
+     *                as cancelled
+     */
+    void flightCancelled(Flight flight, boolean removed) {
+        awaitDurable(append(CANCEL_FLIGHT, out -> {
+            writeFlight(out, flight);
+            out.writeBoolean(removed);
+        }));
+    }
+
+    private long appendReservation(byte type, Flight flight, Passenger passenger, Reservation reservation) {
+        return append(type, out -> {
+            writeFlight(out, flight);
+            out.writeLong(passenger.getId());
+            out.writeUTF(passenger.getName());
+            writeString(out, reservation.getMySeatType());
+            writeString(out, reservation.getMyService());
+            writeString(out, reservation.getMySeatNumber());
+            out.writeUTF(reservation.getLocator());
+        });
+    }
+
+    // Frames a record and adds it to the pending group; returns the offset at which the record ends
+    private long append(byte type, RecordWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(type);
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Never thrown by an in-memory stream
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        byte[] header = ByteBuffer.allocate(HEADER_SIZE).putInt(payload.length).putInt((int) crc.getValue()).array();
+
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Booking journal has been closed.");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Booking journal can no longer be written.", failure);
+            }
+            if (pending.size() == 0) {
+                pendingSince = System.nanoTime();
+                lock.notifyAll();
+            }
+            pending.write(header, 0, header.length);
+            pending.write(payload, 0, payload.length);
+            appended += header.length + payload.length;
+            recordCount++;
+            if (pending.size() >= syncSize) {
+                lock.notifyAll();
+            }
+            return appended;
+        }
+    }
+
+    private void runSnapshots(AirlineCompany company, Path snapshot, Duration interval) {
+        while (true) {
+            synchronized (lock) {
+                long deadline = System.nanoTime() + interval.toNanos();
+                try {
+                    for (long remaining = interval.toNanos(); remaining > 0 && !closed;
+                         remaining = deadline - System.nanoTime()) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                snapshot(company, snapshot);
+            } catch (IOException e) {
+                System.err.println("Failed to write a booking snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    // Waits for a record to reach the disk, or only notes it when the thread is inside inBatch
+    private void awaitDurable(long end) {
+        long[] batch = batchEnd.get();
+        if (batch != null) {
+            batch[0] = Math.max(batch[0], end);
+            return;
+        }
+        waitForDisk(end);
+    }
+
+    // Notes a record appended with its passenger locked, to be waited for by awaitDeferred or inBatch
+    private void deferDurable(long end) {
+        long[] batch = batchEnd.get();
+        if (batch != null) {
+            batch[0] = Math.max(batch[0], end);
+            return;
+        }
+        long[] deferred = deferredEnd.get();
+        if (deferred == null) {
+            deferredEnd.set(new long[]{end});
+        } else {
+            deferred[0] = Math.max(deferred[0], end);
+        }
+    }
+
+    private void waitForDisk(long end) {
+        synchronized (lock) {
+            while (durable < end) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Booking journal could not be written.", failure);
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Writes and forces one group of pending records at a time until the journal is closed
+    private void runSyncer() {
+        while (true) {
+            byte[] records;
+            long end;
+            synchronized (lock) {
+                try {
+                    while (pending.size() == 0 && !closed) {
+                        lock.wait();
+                    }
+                    // Give concurrent changes until the end of the interval to join the group
+                    while (!closed && pending.size() < syncSize) {
+                        long remaining = pendingSince + syncIntervalNanos - System.nanoTime();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (pending.size() == 0) {
+                    return; // Closed and nothing left to write
+                }
+                records = pending.toByteArray();
+                pending.reset();
+                end = appended;
+            }
+
+            IOException error = null;
+            synchronized (fileLock) {
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(records);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            synchronized (lock) {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = end;
+                    syncCount++;
+                }
+                lock.notifyAll();
+                if (error != null) {
+                    System.err.println("Failed to write the booking journal: " + error.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    // Replaces the file by one holding only the records from an offset on; the records before it
+    // must be on disk. A crash leaves either the old or the new file, and both hold those records.
+    private void compact(long offset) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        synchronized (fileLock) {
+            long first;
+            synchronized (lock) {
+                first = firstOffset;
+            }
+            if (offset <= first || !channel.isOpen()) {
+                return;
+            }
+            FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION)
+                        .putLong(offset).flip();
+                while (header.hasRemaining()) {
+                    compacted.write(header);
+                }
+                long position = offset - first + FILE_HEADER_SIZE;
+                long size = channel.size();
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, compacted);
+                }
+                compacted.force(true);
+                // The open channel follows the file to its new name
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                compacted.close();
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            channel.close();
+            channel = compacted;
+            synchronized (lock) {
+                firstOffset = offset;
+            }
+        }
+    }
+
+    // Reads the header of the file, writing one if the file is new; returns the offset of the first record
+    private static long readHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        if (channel.size() < FILE_HEADER_SIZE) {
+            // New, or torn while its header was written, so it holds no records
+            header.putInt(MAGIC).putInt(VERSION).putLong(0).flip();
+            channel.truncate(0);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.position(FILE_HEADER_SIZE);
+            return 0;
+        }
+        while (header.hasRemaining()) {
+            channel.read(header, header.position());
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException(file + " is not a booking journal.");
+        }
+        channel.position(channel.size());
+        return header.getLong();
+    }
+
+    // Reads intact records from a position in the file; returns the position at which the last intact record ends
+    private static long readRecords(Path file, long from, RecordReader reader) throws IOException {
+        long position = from;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            in.skipNBytes(from);
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_SIZE) {
+                        break; // Torn header
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    crc.reset();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break; // Torn or corrupt payload
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                reader.read(new DataInputStream(new ByteArrayInputStream(payload)));
+                position += HEADER_SIZE + payload.length;
+            }
+        }
+        return position;
+    }
+
+    private static void writeFlight(DataOutputStream out, Flight flight) throws IOException {
+        out.writeUTF(flight.getFlightNumber());
+        out.writeLong(flight.getScheduledDate().toEpochDay());
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes the fields of one record.
+     */
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads the payload of one intact record.
+     */
+    private interface RecordReader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * State of one recovery: flight records are applied as they are read, while the last state of
+     * every reservation is collected per flight and passenger and only applied once the journal
+     * has been read, on top of whatever a snapshot restored before.
+     */
+    private static final class Replay {
+        private final AirlineCompany company;
+        private final Map<Long, Passenger> passengers = new HashMap<>(); // Recreated passengers by id
+        // Last state of each reservation touched by the journal; null marks a cancelled reservation
+        private final Map<Flight, Map<Passenger, Reservation>> reservations = new LinkedHashMap<>();
+        private final Set<Flight> cancelled = new LinkedHashSet<>(); // Flights cancelled with passengers on board
+        private long records;
+
+        private Replay(AirlineCompany company) {
+            this.company = company;
+        }
+
+        private void apply(DataInputStream in) throws IOException {
+            records++;
+            byte type = in.readByte();
+            if (type == ADD_FLIGHT) {
+                Flight flight = new Flight(in.readUTF(), in.readUTF(), in.readUTF(), readTime(in), readTime(in),
+                        in.readInt(), new ArrayList<>(), new ArrayList<>());
+                company.restoreFlight(flight); // Already there if a snapshot contains it
+                return;
+            }
+            Flight flight = company.getFlightDetails(in.readUTF(), LocalDate.ofEpochDay(in.readLong()));
+            if (flight == null) {
+                return; // Removed later on, or never added because the crash came first
+            }
+            switch (type) {
+                case BOOK:
+                case MODIFY:
+                    long id = in.readLong();
+                    String name = in.readUTF();
+                    Passenger passenger = passengers.computeIfAbsent(id, key -> new Passenger(key, name, new ArrayList<>()));
+                    String seatType = readString(in);
+                    String service = readString(in);
+                    String seatNumber = readString(in);
+                    Reservation reservation = new Reservation(in.readUTF(), flight, seatType, service);
+                    reservation.setMySeatNumber(seatNumber);
+                    reservations.computeIfAbsent(flight, key -> new LinkedHashMap<>()).put(passenger, reservation);
+                    break;
+                case CANCEL_RESERVATION:
+                    Passenger holder = passengers.get(in.readLong());
+                    if (holder != null) {
+                        reservations.computeIfAbsent(flight, key -> new LinkedHashMap<>()).put(holder, null);
+                    }
+                    break;
+                case DELAY:
+                    LocalDateTime departure = readTime(in);
+                    LocalDateTime arrival = readTime(in);
+                    // A snapshot taken while the journal moved on may already contain the delay
+                    if (departure.isAfter(flight.getDepartureTime()) && arrival.isAfter(flight.getArrivalTime())) {
+                        company.restoreDelay(flight, departure, arrival);
+                    }
+                    break;
+                case CANCEL_FLIGHT:
+                    if (in.readBoolean()) {
+                        company.restoreCancellation(flight, true);
+                        reservations.remove(flight);
+                        cancelled.remove(flight);
+                    } else {
+                        cancelled.add(flight);
+                    }
+                    break;
+                default:
+                    throw new IOException("Unknown journal record type " + type + ".");
+            }
+        }
+
+        private void finish() {
+            for (Map.Entry<Flight, Map<Passenger, Reservation>> entry : reservations.entrySet()) {
+                Flight flight = entry.getKey();
+                Map<Passenger, Reservation> restored = new LinkedHashMap<>();
+                for (Map.Entry<Passenger, Reservation> last : entry.getValue().entrySet()) {
+                    // Drop the older state first, so all seats the journal moved are free again
+                    flight.discardReservation(last.getKey());
+                    if (last.getValue() != null) {
+                        restored.put(last.getKey(), last.getValue());
+                    }
+                }
+                flight.restoreReservations(restored);
+            }
+            for (Flight flight : cancelled) {
+                company.restoreCancellation(flight, false);
+            }
+        }
+    }
+}
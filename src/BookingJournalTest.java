@@ -0,0 +1,280 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJournalTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 10, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 14, 0);
+    private static final LocalDateTime departureTime2 = LocalDateTime.of(2024, 11, 25, 10, 0);
+    private static final LocalDateTime arrivalTime2 = LocalDateTime.of(2024, 11, 25, 14, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recover_RebuildsBookingsAndSchedule() throws IOException {
+        Path file = directory.resolve("bookings.journal");
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        long johnId;
+        String johnsLocator;
+        try (BookingJournal journal = new BookingJournal(file, Duration.ZERO, 4096)) {
+            assertEquals(0, journal.recover(airline));
+            Flight flight1 = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                    new ArrayList<>(), new ArrayList<>());
+            Flight flight2 = new Flight("CD456", "Chicago", "Miami", departureTime2, arrivalTime2, 50,
+                    new ArrayList<>(), new ArrayList<>());
+            Flight flight3 = new Flight("EF789", "Boston", "Denver", departureTime2, arrivalTime2, 50,
+                    new ArrayList<>(), new ArrayList<>());
+            airline.addFlight(flight1);
+            airline.addFlight(flight2);
+            airline.addFlight(flight3);
+
+            Passenger john = new Passenger("John Doe", new ArrayList<>());
+            Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+            Passenger bob = new Passenger("Bob Brown", new ArrayList<>());
+            johnId = john.getId();
+            flight1.bookSeat(john, "Economy", "Meal");
+            flight1.bookSeat(jane, "Economy", "Extra Luggage", "10F");
+            flight1.bookSeat(bob, "Economy", "Meal");
+            flight2.bookSeat(jane, "FirstClass", "Meal");
+            airline.submitBookings(List.of(BookingCommand.book("CD456", john, "Economy", "Meal")));
+
+            john.modifyReservation(flight1, "FirstClass", "Extra Luggage");
+            johnsLocator = john.getReservation(flight1).getLocator();
+            bob.cancelReservation(flight1);
+            airline.delayFlight("AB123", departureTime1.plusHours(2), arrivalTime1.plusHours(2));
+            airline.cancelFlight("EF789"); // No passengers, so the flight is removed
+            airline.cancelFlight("CD456"); // Marked as cancelled
+            assertEquals(13, journal.getRecordCount());
+        }
+
+        // Normal case: a fresh company rebuilt from the journal matches the old one
+        AirlineCompany recovered = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(file)) {
+            assertEquals(13, journal.recover(recovered));
+        }
+        assertEquals(2, recovered.getAllFlights().size());
+        assertNull(recovered.getFlightDetails("EF789"));
+
+        Flight flight1 = recovered.getFlightDetails("AB123");
+        assertEquals(FlightStatus.DELAYED, flight1.getStatus());
+        assertEquals(departureTime1.plusHours(2), flight1.getDepartureTime());
+        assertEquals(9, flight1.getFirstClassCapacity());
+        assertEquals(89, flight1.getEconomyClassCapacity());
+        assertEquals(2, flight1.getPassengers().size());
+        assertEquals(1, recovered.searchFlights(departureTime1.plusHours(1), departureTime1.plusHours(3)).size());
+
+        Passenger john = passengerNamed(flight1, "John Doe");
+        Reservation johnsReservation = john.getReservation(flight1);
+        assertEquals(johnId, john.getId());
+        assertEquals("FirstClass", johnsReservation.getMySeatType());
+        assertEquals("Extra Luggage", johnsReservation.getMyService());
+        assertEquals("1A", johnsReservation.getMySeatNumber());
+        assertEquals(johnsLocator, johnsReservation.getLocator());
+        assertSame(johnsReservation, recovered.findReservation(johnsLocator));
+        assertEquals("10F", passengerNamed(flight1, "Jane Smith").getReservation(flight1).getMySeatNumber());
+        assertFalse(flight1.getSeatMap().isFree("10F"));
+        assertTrue(flight1.getSeatMap().isFree("4A"));
+
+        Flight flight2 = recovered.getFlightDetails("CD456");
+        assertEquals(FlightStatus.CANCELLED, flight2.getStatus());
+        assertEquals(2, flight2.getPassengers().size());
+        assertSame(john, passengerNamed(flight2, "John Doe")); // One passenger object across flights
+
+        // Passengers created after recovery never reuse a recovered id
+        assertTrue(new Passenger("Alice Green", new ArrayList<>()).getId() > johnId);
+    }
+
+    @Test
+    void cancelAndModify_WaitForTheDiskOutsideThePassengerLock() throws IOException {
+        Path file = directory.resolve("bookings.journal");
+        try (BookingJournal journal = new BookingJournal(file, Duration.ofSeconds(1), 64 * 1024)) {
+            AirlineCompany airline = new AirlineCompany("Mamba");
+            journal.recover(airline);
+            Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                    new ArrayList<>(), new ArrayList<>());
+            airline.addFlight(flight);
+            Passenger john = new Passenger("John Doe", new ArrayList<>());
+            Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+            flight.bookSeat(john, "Economy", "Meal");
+            flight.bookSeat(jane, "Economy", "Meal");
+
+            // Normal case: the passenger's cancellation returns before its group is forced, and is waited for afterwards
+            long syncs = journal.getSyncCount();
+            john.cancelReservation(flight);
+            assertEquals(syncs, journal.getSyncCount());
+            journal.awaitDeferred();
+            assertEquals(syncs + 1, journal.getSyncCount());
+
+            // Normal case: the company waits for a modification before it answers
+            syncs = journal.getSyncCount();
+            airline.modifyReservation(jane.getReservation(flight).getLocator(), "FirstClass", "Meal");
+            assertEquals(syncs + 1, journal.getSyncCount());
+
+            // Edge case: nothing deferred, nothing to wait for
+            journal.awaitDeferred();
+            assertEquals(syncs + 1, journal.getSyncCount());
+        }
+    }
+
+    @Test
+    void recover_DropsTornTail() throws IOException {
+        Path file = directory.resolve("bookings.journal");
+        try (BookingJournal journal = new BookingJournal(file)) {
+            AirlineCompany airline = new AirlineCompany("Mamba");
+            journal.recover(airline);
+            airline.addFlight(new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                    new ArrayList<>(), new ArrayList<>()));
+        }
+        long intactLength = Files.size(file);
+        // A crash in the middle of a write leaves a partial record behind
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // Edge case: the torn record is ignored and cut off, and new records follow the intact ones
+        try (BookingJournal journal = new BookingJournal(file)) {
+            AirlineCompany airline = new AirlineCompany("Mamba");
+            assertEquals(1, journal.recover(airline));
+            assertEquals(intactLength, Files.size(file));
+            airline.getFlightDetails("AB123").bookSeat(new Passenger("John Doe", new ArrayList<>()), "Economy", "Meal");
+        }
+        try (BookingJournal journal = new BookingJournal(file)) {
+            AirlineCompany airline = new AirlineCompany("Mamba");
+            assertEquals(2, journal.recover(airline));
+            assertEquals(1, airline.getFlightDetails("AB123").getPassengers().size());
+        }
+    }
+
+    @Test
+    void recover_AfterProcessIsKilledMidStream() throws Exception {
+        Path file = directory.resolve("bookings.journal");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", classPath(), CrashWorker.class.getName(), file.toString())
+                .redirectErrorStream(true)
+                .start();
+
+        // Every acknowledged booking and cancellation must survive the kill
+        Map<Long, String> booked = new HashMap<>(); // Seat of each acknowledged booking, by passenger id
+        Set<Long> cancelled = new HashSet<>();
+        Long unsure = null; // Passenger whose cancellation may have been under way at the kill
+        int acks = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (acks < 400 && (line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts[0].equals("ACK") && parts[1].equals("BOOK")) {
+                    unsure = Long.parseLong(parts[3]);
+                    booked.put(unsure, parts[2] + " " + parts[4]);
+                    acks++;
+                } else if (parts[0].equals("ACK") && parts[1].equals("CANCEL")) {
+                    unsure = null;
+                    cancelled.add(Long.parseLong(parts[3]));
+                    booked.remove(Long.parseLong(parts[3]));
+                    acks++;
+                }
+            }
+        } finally {
+            process.destroyForcibly();
+            assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        }
+        assertEquals(400, acks, "The worker stopped before it was killed");
+
+        AirlineCompany recovered = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(file)) {
+            journal.recover(recovered);
+        }
+        Map<Long, String> seats = new HashMap<>();
+        for (Flight flight : recovered.getAllFlights()) {
+            Set<String> taken = new LinkedHashSet<>();
+            for (Passenger passenger : flight.getPassengers()) {
+                String seat = passenger.getReservation(flight).getMySeatNumber();
+                assertTrue(taken.add(seat), "Seat " + seat + " was given out twice");
+                seats.put(passenger.getId(), flight.getFlightNumber() + " " + seat);
+            }
+            assertEquals(flight.getCapacity(), flight.getPassengers().size()
+                    + flight.getFirstClassCapacity() + flight.getEconomyClassCapacity());
+        }
+        for (Map.Entry<Long, String> entry : booked.entrySet()) {
+            if (!entry.getKey().equals(unsure)) {
+                assertEquals(entry.getValue(), seats.get(entry.getKey()));
+            }
+        }
+        for (Long id : cancelled) {
+            assertFalse(seats.containsKey(id));
+        }
+    }
+
+    private static Passenger passengerNamed(Flight flight, String name) {
+        for (Passenger passenger : flight.getPassengers()) {
+            if (passenger.getName().equals(name)) {
+                return passenger;
+            }
+        }
+        fail(name + " is not on flight " + flight.getFlightNumber());
+        return null;
+    }
+
+    // The directories holding the compiled classes, for the worker process
+    private static String classPath() throws URISyntaxException {
+        Set<String> entries = new LinkedHashSet<>();
+        for (Class<?> type : new Class<?>[]{CrashWorker.class, AirlineCompany.class}) {
+            entries.add(Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * Books and cancels seats with a journal until it is killed, printing a line for every change
+     * once the journal has acknowledged it.
+     */
+    static final class CrashWorker {
+        public static void main(String[] args) throws IOException {
+            AirlineCompany airline = new AirlineCompany("Mamba");
+            BookingJournal journal = new BookingJournal(Paths.get(args[0]), Duration.ofMillis(2), 64 * 1024);
+            journal.recover(airline);
+            Flight flight = null;
+            for (int i = 0; ; i++) {
+                if (flight == null || flight.getEconomyClassCapacity() == 0) {
+                    flight = new Flight("CR" + i, "New York", "Los Angeles", departureTime1, arrivalTime1, 60,
+                            new ArrayList<>(), new ArrayList<>());
+                    airline.addFlight(flight);
+                }
+                Passenger passenger = new Passenger("Passenger " + i, new ArrayList<>());
+                flight.bookSeat(passenger, "Economy", "Meal");
+                ack("BOOK " + flight.getFlightNumber() + " " + passenger.getId() + " "
+                        + passenger.getReservation(flight).getMySeatNumber());
+                if (i % 4 == 0) {
+                    airline.cancelReservation(passenger.getReservation(flight).getLocator());
+                    ack("CANCEL " + flight.getFlightNumber() + " " + passenger.getId());
+                }
+            }
+        }
+
+        private static void ack(String change) {
+            System.out.println("ACK " + change);
+            System.out.flush();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of every flight, passenger and reservation of an airline company, used
+ * together with the {@link BookingJournal} so that a restart only replays the journal written since
+ * the last snapshot.
+ *
+ * A snapshot is written while bookings go on: each reservation is read with its passenger locked,
+ * so it is consistent on its own, and every change made while the snapshot is written is also in
+ * the journal after the snapshot's offset. The file is written next to the old snapshot and moved
+ * over it once complete, so a crash never leaves a half-written snapshot behind.
+ *
+ * The file starts with a fixed header holding the section offsets, followed by the flights with
+ * their reservations, the passengers, and a table of the seat types and services, which are stored
+ * once and referenced by index. Seats are stored as row and column, and record locators as their
+ * 30-bit value. The file is loaded through a memory-mapped buffer, so loading does no read calls
+ * and copies no data into stream buffers.
+ */
+public final class BookingSnapshot {
+    private static final int MAGIC = 0x424B534E; // "BKSN"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+    private static final byte DELAYED = 1; // Flag bits of a flight
+    private static final byte OPEN = 2;
+
+    private final long journalOffset;
+    private final int flightCount;
+    private final int passengerCount;
+    private final long reservationCount;
+
+    private BookingSnapshot(long journalOffset, int flightCount, int passengerCount, long reservationCount) {
+        this.journalOffset = journalOffset;
+        this.flightCount = flightCount;
+        this.passengerCount = passengerCount;
+        this.reservationCount = reservationCount;
+    }
+
+    /**
+     * Returns the journal offset at which the snapshot was started; records from there on are
+     * replayed on top of it.
+     *
+     * @return The journal offset
+     */
+    public long getJournalOffset() {
+        return journalOffset;
+    }
+
+    public int getFlightCount() {
+        return flightCount;
+    }
+
+    public int getPassengerCount() {
+        return passengerCount;
+    }
+
+    public long getReservationCount() {
+        return reservationCount;
+    }
+
+    /**
+     * Writes a snapshot of a company's flights, passengers and reservations.
+     *
+     * @param company       The company to write
+     * @param file          The snapshot file, replaced once the new snapshot is complete
+     * @param journalOffset The journal offset at which the snapshot was started
+     * @return The snapshot that was written
+     * @throws IOException if the file cannot be written
+     */
+    public static BookingSnapshot write(AirlineCompany company, Path file, long journalOffset) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Map<Long, Passenger> passengers = new LinkedHashMap<>();
+        Map<String, Integer> strings = new HashMap<>(); // Index of each seat type and service in the string table
+        List<String> table = new ArrayList<>();
+        int flightCount = 0;
+        long reservationCount = 0;
+        long passengerOffset;
+        long tableOffset;
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            CountingOutput out = new CountingOutput(channel, HEADER_SIZE);
+            for (Flight flight : company.getAllFlights()) {
+                writeString(out, flight.getFlightNumber());
+                writeString(out, flight.getDeparture());
+                writeString(out, flight.getDestination());
+                out.writeLong(flight.getScheduledDate().toEpochDay());
+                LocalDateTime departureTime = flight.getDepartureTime();
+                LocalDateTime arrivalTime = flight.getArrivalTime();
+                out.writeLong(departureTime.toEpochSecond(ZoneOffset.UTC));
+                out.writeLong(arrivalTime.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(flight.getCapacity());
+                out.writeByte(flight.getStatus().ordinal());
+                out.writeByte((flight.isDelay() ? DELAYED : 0) | (flight.isOpenForReservation() ? OPEN : 0));
+
+                List<Passenger> vip = new ArrayList<>(flight.getVip());
+                out.writeInt(vip.size());
+                for (Passenger passenger : vip) {
+                    out.writeLong(passenger.getId());
+                    passengers.putIfAbsent(passenger.getId(), passenger);
+                }
+
+                // Only reservations that are still there when their passenger is locked are written
+                List<Passenger> booked = new ArrayList<>(flight.getPassengers());
+                List<Reservation> reservations = new ArrayList<>(booked.size());
+                List<Passenger> holders = new ArrayList<>(booked.size());
+                for (Passenger passenger : booked) {
+                    Reservation reservation;
+                    String seatType;
+                    String service;
+                    String seatNumber;
+                    synchronized (passenger) {
+                        reservation = passenger.getReservation(flight);
+                        if (reservation == null) {
+                            continue;
+                        }
+                        seatType = reservation.getMySeatType();
+                        service = reservation.getMyService();
+                        seatNumber = reservation.getMySeatNumber();
+                    }
+                    Reservation copy = new Reservation(reservation.getLocator(), flight, seatType, service);
+                    copy.setMySeatNumber(seatNumber);
+                    reservations.add(copy);
+                    holders.add(passenger);
+                }
+                out.writeInt(reservations.size());
+                for (int i = 0; i < reservations.size(); i++) {
+                    Passenger passenger = holders.get(i);
+                    Reservation reservation = reservations.get(i);
+                    passengers.putIfAbsent(passenger.getId(), passenger);
+                    out.writeLong(passenger.getId());
+                    out.writeInt(intern(reservation.getMySeatType(), strings, table));
+                    out.writeInt(intern(reservation.getMyService(), strings, table));
+                    writeSeat(out, reservation.getMySeatNumber());
+                    out.writeInt(RecordLocator.decode(reservation.getLocator()));
+                }
+                flightCount++;
+                reservationCount += reservations.size();
+            }
+
+            passengerOffset = out.position();
+            for (Passenger passenger : passengers.values()) {
+                out.writeLong(passenger.getId());
+                writeString(out, passenger.getName());
+            }
+            tableOffset = out.position();
+            out.writeInt(table.size());
+            for (String value : table) {
+                writeString(out, value);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(journalOffset).putLong(passengerOffset).putLong(tableOffset)
+                    .putInt(flightCount).putInt(passengers.size()).putLong(reservationCount).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new BookingSnapshot(journalOffset, flightCount, passengers.size(), reservationCount);
+    }
+
+    /**
+     * Loads a snapshot into an airline company without flights. Flights are added quietly with
+     * their status and schedule, and passengers are recreated with their original ids.
+     *
+     * @param file       The snapshot file
+     * @param company    The company to load into
+     * @param passengers Receives the recreated passengers by id
+     * @return The snapshot that was loaded
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static BookingSnapshot load(Path file, AirlineCompany company, Map<Long, Passenger> passengers)
+            throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a booking snapshot.");
+        }
+        long journalOffset = buffer.getLong(8);
+        int passengerOffset = (int) buffer.getLong(16);
+        int tableOffset = (int) buffer.getLong(24);
+        int flightCount = buffer.getInt(32);
+        int passengerCount = buffer.getInt(36);
+        long reservationCount = buffer.getLong(40);
+
+        buffer.position(tableOffset);
+        String[] table = new String[buffer.getInt()];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = readString(buffer);
+        }
+        buffer.position(passengerOffset);
+        for (int i = 0; i < passengerCount; i++) {
+            long id = buffer.getLong();
+            String name = readString(buffer);
+            passengers.computeIfAbsent(id, key -> new Passenger(key, name, new ArrayList<>()));
+        }
+
+        buffer.position(HEADER_SIZE);
+        for (int f = 0; f < flightCount; f++) {
+            String flightNumber = readString(buffer);
+            String departure = readString(buffer);
+            String destination = readString(buffer);
+            LocalDate scheduledDate = LocalDate.ofEpochDay(buffer.getLong());
+            LocalDateTime departureTime = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            LocalDateTime arrivalTime = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            int capacity = buffer.getInt();
+            FlightStatus status = FlightStatus.values()[buffer.get()];
+            byte flags = buffer.get();
+            List<Passenger> vip = new ArrayList<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                vip.add(passengers.get(buffer.getLong()));
+            }
+            Flight flight = new Flight(flightNumber, departure, destination, departureTime, arrivalTime, capacity,
+                    new ArrayList<>(), vip, scheduledDate);
+
+            int count = buffer.getInt();
+            Map<Passenger, Reservation> reservations = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                Passenger passenger = passengers.get(buffer.getLong());
+                String seatType = table[buffer.getInt()];
+                int service = buffer.getInt();
+                String seatNumber = readSeat(buffer);
+                Reservation reservation = new Reservation(RecordLocator.encode(buffer.getInt()), flight, seatType,
+                        service < 0 ? null : table[service]);
+                reservation.setMySeatNumber(seatNumber);
+                reservations.put(passenger, reservation);
+            }
+
+            if (company.restoreFlight(flight)) {
+                flight.restoreStatus(status == FlightStatus.CANCELLED ? FlightStatus.SCHEDULED : status,
+                        (flags & DELAYED) != 0, (flags & OPEN) != 0);
+                flight.restoreReservations(reservations);
+                if (status == FlightStatus.CANCELLED) {
+                    company.restoreCancellation(flight, false);
+                }
+            }
+        }
+        return new BookingSnapshot(journalOffset, flightCount, passengerCount, reservationCount);
+    }
+
+    // Index of a string in the table, adding it on first use; -1 for null
+    private static int intern(String value, Map<String, Integer> strings, List<String> table) {
+        if (value == null) {
+            return -1;
+        }
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = table.size();
+            strings.put(value, index);
+            table.add(value);
+        }
+        return index;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // A seat such as "12C" is stored as row 12 and column 2; row 0 means no seat
+    private static void writeSeat(DataOutputStream out, String seatNumber) throws IOException {
+        if (seatNumber == null) {
+            out.writeShort(0);
+            out.writeByte(0);
+            return;
+        }
+        out.writeShort(Integer.parseInt(seatNumber.substring(0, seatNumber.length() - 1)));
+        out.writeByte(seatNumber.charAt(seatNumber.length() - 1) - 'A');
+    }
+
+    private static String readSeat(ByteBuffer buffer) {
+        int row = buffer.getShort() & 0xFFFF;
+        int column = buffer.get();
+        return row == 0 ? null : row + String.valueOf((char) ('A' + column));
+    }
+
+    /**
+     * Buffered output to a file channel that knows its position in the file.
+     */
+    private static final class CountingOutput extends DataOutputStream {
+        private final long start;
+
+        private CountingOutput(FileChannel channel, long start) {
+            super(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            this.start = start;
+        }
+
+        private long position() {
+            return start + written;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingSnapshotTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+    private static final LocalDateTime departureTime2 = LocalDateTime.of(2024, 11, 26, 10, 0);
+    private static final LocalDateTime arrivalTime2 = LocalDateTime.of(2024, 11, 26, 14, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndLoad() throws IOException {
+        Path file = directory.resolve("bookings.snapshot");
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        Flight flight1 = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        Flight flight2 = new Flight("CD456", "Chicago", "Miami", departureTime2, arrivalTime2, 50,
+                new ArrayList<>(), new ArrayList<>());
+        airline.addFlight(flight1);
+        airline.addFlight(flight2);
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        jane.registerVip(flight1);
+        flight1.bookSeat(john, "FirstClass", "Meal");
+        flight1.bookSeat(jane, "Economy", null, "10F");
+        flight2.bookSeat(john, "Economy", "Extra Luggage");
+        // The delay moves the flight past midnight, but it keeps its flight-day
+        airline.delayFlight("AB123", departureTime1.plusHours(5), arrivalTime1.plusHours(5));
+        airline.cancelFlight("CD456");
+
+        BookingSnapshot written = BookingSnapshot.write(airline, file, 1234);
+        assertEquals(2, written.getFlightCount());
+        assertEquals(2, written.getPassengerCount());
+        assertEquals(3, written.getReservationCount());
+
+        // Normal case: the loaded company has the same flights, seats and passengers
+        AirlineCompany loaded = new AirlineCompany("Mamba");
+        Map<Long, Passenger> passengers = new HashMap<>();
+        assertEquals(1234, BookingSnapshot.load(file, loaded, passengers).getJournalOffset());
+        Flight loaded1 = loaded.getFlightDetails("AB123", LocalDate.of(2024, 11, 24));
+        assertEquals(departureTime1.plusHours(5), loaded1.getDepartureTime());
+        assertEquals(FlightStatus.DELAYED, loaded1.getStatus());
+        assertTrue(loaded1.isDelay());
+        assertEquals(9, loaded1.getFirstClassCapacity());
+        assertEquals(89, loaded1.getEconomyClassCapacity());
+
+        Passenger loadedJohn = passengers.get(john.getId());
+        Passenger loadedJane = passengers.get(jane.getId());
+        assertEquals("John Doe", loadedJohn.getName());
+        assertEquals("1A", loadedJohn.getReservation(loaded1).getMySeatNumber());
+        assertEquals(john.getReservation(flight1).getLocator(), loadedJohn.getReservation(loaded1).getLocator());
+        assertSame(loadedJane, loaded.findReservationHolder(jane.getReservation(flight1).getLocator()));
+        assertEquals("10F", loadedJane.getReservation(loaded1).getMySeatNumber());
+        assertNull(loadedJane.getReservation(loaded1).getMyService());
+        assertTrue(loaded1.getVip().contains(loadedJane));
+
+        Flight loaded2 = loaded.getFlightDetails("CD456");
+        assertEquals(FlightStatus.CANCELLED, loaded2.getStatus());
+        assertEquals("Extra Luggage", loadedJohn.getReservation(loaded2).getMyService());
+        assertEquals(2, loadedJohn.getReservations().size());
+    }
+
+    @Test
+    void recover_LoadsSnapshotAndReplaysTail() throws IOException {
+        Path journalFile = directory.resolve("bookings.journal");
+        Path snapshotFile = directory.resolve("bookings.snapshot");
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(journalFile, Duration.ZERO, 4096)) {
+            journal.recover(airline, snapshotFile);
+            Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime2, arrivalTime2, 100,
+                    new ArrayList<>(), new ArrayList<>());
+            airline.addFlight(flight);
+            Passenger john = new Passenger("John Doe", new ArrayList<>());
+            Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+            Passenger bob = new Passenger("Bob Brown", new ArrayList<>());
+            flight.bookSeat(john, "Economy", "Meal");
+            flight.bookSeat(jane, "Economy", "Meal");
+            assertEquals(2, journal.snapshot(airline, snapshotFile).getReservationCount());
+
+            // Changes after the snapshot, including ones to reservations it contains
+            jane.cancelReservation(flight);
+            john.modifyReservation(flight, "FirstClass", "Meal");
+            flight.bookSeat(bob, "Economy", "Meal");
+            airline.delayFlight("AB123", departureTime2.plusHours(1), arrivalTime2.plusHours(1));
+        }
+
+        AirlineCompany recovered = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(journalFile)) {
+            assertEquals(4, journal.recover(recovered, snapshotFile));
+        }
+        assertRecovered(recovered);
+    }
+
+    @Test
+    void recover_ReplayingChangesTheSnapshotContainsIsHarmless() throws IOException {
+        Path journalFile = directory.resolve("bookings.journal");
+        Path snapshotFile = directory.resolve("bookings.snapshot");
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(journalFile, Duration.ZERO, 4096)) {
+            journal.recover(airline);
+            Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime2, arrivalTime2, 100,
+                    new ArrayList<>(), new ArrayList<>());
+            airline.addFlight(flight);
+            Passenger john = new Passenger("John Doe", new ArrayList<>());
+            Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+            flight.bookSeat(john, "Economy", "Meal");
+            flight.bookSeat(jane, "Economy", "Meal");
+            jane.cancelReservation(flight);
+            john.modifyReservation(flight, "FirstClass", "Meal");
+            flight.bookSeat(new Passenger("Bob Brown", new ArrayList<>()), "Economy", "Meal");
+            airline.delayFlight("AB123", departureTime2.plusHours(1), arrivalTime2.plusHours(1));
+        }
+        // Edge case: a snapshot that claims an offset of 0 has the whole journal replayed on top of it,
+        // as happens to changes made while a snapshot is being written
+        BookingSnapshot.write(airline, snapshotFile, 0);
+
+        AirlineCompany recovered = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(journalFile)) {
+            assertEquals(7, journal.recover(recovered, snapshotFile));
+        }
+        assertRecovered(recovered);
+    }
+
+    @Test
+    void snapshot_CompactsTheJournal() throws IOException {
+        Path journalFile = directory.resolve("bookings.journal");
+        Path snapshotFile = directory.resolve("bookings.snapshot");
+        long emptySize;
+        try (BookingJournal empty = new BookingJournal(directory.resolve("empty.journal"))) {
+            emptySize = Files.size(directory.resolve("empty.journal"));
+        }
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(journalFile, Duration.ZERO, 4096)) {
+            journal.recover(airline, snapshotFile);
+            Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime2, arrivalTime2, 100,
+                    new ArrayList<>(), new ArrayList<>());
+            airline.addFlight(flight);
+            for (int i = 0; i < 50; i++) {
+                flight.bookSeat(new Passenger("Passenger " + i, new ArrayList<>()), "Economy", "Meal");
+            }
+            assertTrue(Files.size(journalFile) > emptySize);
+
+            // Normal case: the records in the snapshot are dropped, and the journal goes on after it
+            journal.snapshot(airline, snapshotFile);
+            assertEquals(emptySize, Files.size(journalFile));
+            flight.bookSeat(new Passenger("Late Passenger", new ArrayList<>()), "Economy", "Meal");
+        }
+
+        AirlineCompany recovered = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(journalFile)) {
+            assertEquals(1, journal.recover(recovered, snapshotFile));
+        }
+        assertEquals(51, recovered.getFlightDetails("AB123").getPassengers().size());
+
+        // Error case: without its snapshot, the compacted journal cannot rebuild the company
+        try (BookingJournal journal = new BookingJournal(journalFile)) {
+            assertThrows(IOException.class, () -> journal.recover(new AirlineCompany("Mamba")));
+        }
+    }
+
+    // State of both recovery tests: John in first class, Jane gone, Bob in John's old seat, flight delayed
+    private static void assertRecovered(AirlineCompany recovered) {
+        Flight flight = recovered.getFlightDetails("AB123");
+        assertEquals(departureTime2.plusHours(1), flight.getDepartureTime());
+        assertEquals(2, flight.getPassengers().size());
+        assertEquals(9, flight.getFirstClassCapacity());
+        assertEquals(89, flight.getEconomyClassCapacity());
+        for (Passenger passenger : flight.getPassengers()) {
+            Reservation reservation = passenger.getReservation(flight);
+            if (passenger.getName().equals("John Doe")) {
+                assertEquals("FirstClass", reservation.getMySeatType());
+                assertEquals("1A", reservation.getMySeatNumber());
+            } else {
+                assertEquals("Bob Brown", passenger.getName());
+                assertEquals("4A", reservation.getMySeatNumber());
+            }
+            assertEquals(1, passenger.getReservations().size());
+        }
+        assertTrue(flight.getSeatMap().isFree("4B"));
+    }
+}
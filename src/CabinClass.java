@@ -0,0 +1,43 @@
+/**
+ * Cabin classes that seats can be booked in, together with the seat type label
+ * used throughout the booking API (e.g. "FirstClass", "Economy").
+ */
+public enum CabinClass {
+    FIRST_CLASS("FirstClass"),
+    ECONOMY("Economy");
+
+    private static final CabinClass[] VALUES = values(); // values() copies the array on every call
+
+    private final String label;
+
+    CabinClass(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Retrieves the seat type label of this cabin.
+     *
+     * @return The seat type label, e.g. "FirstClass"
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Resolves a seat type label to its cabin class, ignoring case.
+     *
+     * @param seatType The seat type label (e.g. "FirstClass", "Economy")
+     * @return The matching cabin class, or null if the seat type is not valid
+     */
+    public static CabinClass fromLabel(String seatType) {
+        if (seatType == null) {
+            return null;
+        }
+        for (CabinClass cabin : VALUES) {
+            if (cabin.label.equalsIgnoreCase(seatType)) {
+                return cabin;
+            }
+        }
+        return null;
+    }
+}
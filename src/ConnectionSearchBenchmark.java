@@ -0,0 +1,88 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of itinerary search latency against schedule size.
+ *
+ * Builds synthetic schedules of 1k, 10k and 100k flights over 60 airports and 30 days, where
+ * half of the flights touch one of a few hub airports, then times random origin/destination
+ * queries and incremental delays. Run with: java ConnectionSearchBenchmark
+ */
+public class ConnectionSearchBenchmark {
+    private static final int AIRPORTS = 60;
+    private static final int HUBS = 4;
+    private static final int DAYS = 30;
+    private static final int QUERIES = 2000;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 1, 0, 0);
+
+    public static void main(String[] args) {
+        for (int size : new int[]{1_000, 10_000, 100_000}) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        Random random = new Random(size);
+        ConnectionSearchEngine engine = new ConnectionSearchEngine();
+        List<Flight> flights = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int from = random.nextInt(AIRPORTS);
+            int to = random.nextBoolean() ? random.nextInt(HUBS) : random.nextInt(AIRPORTS);
+            if (from == to) {
+                to = (to + 1) % AIRPORTS;
+            }
+            LocalDateTime departure = START.plusMinutes(random.nextInt(DAYS * 24 * 60));
+            flights.add(new Flight("F" + i, airport(from), airport(to), departure,
+                    departure.plusMinutes(60 + random.nextInt(300)), 180, new ArrayList<>(), new ArrayList<>()));
+        }
+        long buildStart = System.nanoTime();
+        engine.addAll(flights);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        // Warm up, then measure
+        query(engine, random, QUERIES);
+        long[] latencies = query(engine, random, QUERIES);
+        Arrays.sort(latencies);
+
+        long updateStart = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            Flight flight = flights.get(random.nextInt(size));
+            engine.reschedule(flight, () -> flight.delay(flight.getDepartureTime().plusMinutes(10),
+                    flight.getArrivalTime().plusMinutes(10)));
+        }
+        long updateNanos = (System.nanoTime() - updateStart) / 1000;
+
+        System.out.printf("flights=%,d build=%.1f ms query avg=%.3f ms p50=%.3f ms p99=%.3f ms delay update=%.2f us%n",
+                size, buildNanos / 1e6, average(latencies) / 1e6, latencies[latencies.length / 2] / 1e6,
+                latencies[latencies.length * 99 / 100] / 1e6, updateNanos / 1e3);
+    }
+
+    private static long[] query(ConnectionSearchEngine engine, Random random, int count) {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            String origin = airport(random.nextInt(AIRPORTS));
+            String destination = airport(random.nextInt(AIRPORTS));
+            LocalDateTime departure = START.plusDays(random.nextInt(DAYS - 2));
+            long start = System.nanoTime();
+            engine.search(origin, destination, departure, Duration.ofHours(24), 5);
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static double average(long[] values) {
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static String airport(int index) {
+        return "A" + index;
+    }
+}
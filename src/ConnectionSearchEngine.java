@@ -0,0 +1,339 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Searches the flight network for itineraries of one or more connecting flights.
+ *
+ * The network is kept as a time-expanded graph: every airport has a timeline of departure events
+ * ordered by time, and each flight is an edge from its departure event to an arrival event at its
+ * destination. Waiting at an airport means moving forward along its timeline, so from an arrival
+ * only the departures inside the connection window are visited. The graph is updated in O(log n)
+ * when flights are added, delayed or cancelled, so it never has to be rebuilt; the engine listens
+ * to its flights, so a flight delayed directly is moved along its timeline too.
+ *
+ * A search is a best-first walk over the graph ordered by arrival time and then by number of legs,
+ * so itineraries are found in the order they are returned. Every airport is expanded at most once
+ * per requested itinerary, which keeps the work bounded on large schedules.
+ */
+public class ConnectionSearchEngine implements FlightListener {
+    private static final Duration DEFAULT_MIN_CONNECTION = Duration.ofMinutes(45);
+    private static final Duration DEFAULT_MAX_CONNECTION = Duration.ofHours(12);
+    private static final Duration DEFAULT_DEPARTURE_WINDOW = Duration.ofHours(24);
+    private static final int DEFAULT_MAX_LEGS = 3;
+
+    private final Duration minConnectionTime; // Minimum time between arriving and departing again
+    private final Duration maxConnectionTime; // Maximum time spent waiting at a connecting airport
+    private final int maxLegs; // Maximum number of flights in an itinerary
+    private final Map<String, NavigableMap<DepartureKey, Flight>> departures; // Departure timeline of each airport
+    private final Map<Flight, DepartureKey> keys; // Current timeline key of each flight
+    private final ReadWriteLock lock;
+    private long nextSeq; // Tie-breaker for departures at the same time
+
+    /**
+     * Constructor to initialize an empty engine with a 45 minute minimum connection time,
+     * a 12 hour maximum connection time and at most 3 legs per itinerary.
+     */
+    public ConnectionSearchEngine() {
+        this(DEFAULT_MIN_CONNECTION, DEFAULT_MAX_CONNECTION, DEFAULT_MAX_LEGS);
+    }
+
+    /**
+     * Constructor to initialize an empty engine.
+     *
+     * @param minConnectionTime The minimum time between arriving and departing again
+     * @param maxConnectionTime The maximum time spent waiting for a connecting flight
+     * @param maxLegs           The maximum number of flights in an itinerary
+     */
+    public ConnectionSearchEngine(Duration minConnectionTime, Duration maxConnectionTime, int maxLegs) {
+        if (maxLegs < 1 || minConnectionTime.isNegative() || maxConnectionTime.compareTo(minConnectionTime) < 0) {
+            throw new IllegalArgumentException("Invalid connection settings.");
+        }
+        this.minConnectionTime = minConnectionTime;
+        this.maxConnectionTime = maxConnectionTime;
+        this.maxLegs = maxLegs;
+        this.departures = new HashMap<>();
+        this.keys = new IdentityHashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Adds a flight to the network.
+     *
+     * @param flight The flight to add
+     */
+    public void add(Flight flight) {
+        lock.writeLock().lock();
+        try {
+            if (insert(flight)) {
+                flight.addListener(this);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds many flights to the network under a single write lock.
+     *
+     * @param flights The flights to add
+     */
+    public void addAll(Collection<Flight> flights) {
+        lock.writeLock().lock();
+        try {
+            for (Flight flight : flights) {
+                if (insert(flight)) {
+                    flight.addListener(this);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a flight from the network, e.g. when it is cancelled.
+     *
+     * @param flight The flight to remove
+     */
+    public void remove(Flight flight) {
+        lock.writeLock().lock();
+        try {
+            if (delete(flight)) {
+                flight.removeListener(this);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a schedule change to a flight and moves it along its airport's timeline atomically.
+     * If the change fails, the flight stays at its unchanged time.
+     *
+     * @param flight The flight being rescheduled
+     * @param change The change to apply, e.g. a call to {@link Flight#delay}
+     */
+    public void reschedule(Flight flight, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            boolean indexed = delete(flight);
+            try {
+                change.run();
+            } finally {
+                if (indexed) {
+                    insert(flight);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a flight whose times were changed without {@link #reschedule(Flight, Runnable)}, e.g.
+     * by a direct call to {@link Flight#delay}, to its new departure time.
+     *
+     * @param flight The flight with its new times
+     */
+    @Override
+    public void onRescheduled(Flight flight) {
+        lock.writeLock().lock();
+        try {
+            DepartureKey key = keys.get(flight);
+            if (key != null && !key.departureTime.equals(flight.getDepartureTime())) {
+                delete(flight);
+                insert(flight);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the best itineraries between two airports whose first flight departs within
+     * 24 hours after the given time.
+     *
+     * @param origin            The departure airport
+     * @param destination       The destination airport
+     * @param earliestDeparture The earliest departure time of the first flight
+     * @param maxResults        The maximum number of itineraries to return
+     * @return Up to maxResults itineraries, ordered by arrival time and then by number of legs
+     */
+    public List<Itinerary> search(String origin, String destination, LocalDateTime earliestDeparture, int maxResults) {
+        return search(origin, destination, earliestDeparture, DEFAULT_DEPARTURE_WINDOW, maxResults);
+    }
+
+    /**
+     * Finds the best itineraries between two airports. Consecutive flights never conflict in the
+     * sense of {@link Flight#conflictsWith(Flight)} and are separated by at least the minimum
+     * connection time. Cancelled flights are never used.
+     *
+     * @param origin            The departure airport
+     * @param destination       The destination airport
+     * @param earliestDeparture The earliest departure time of the first flight
+     * @param departureWindow   How long after earliestDeparture the first flight may depart
+     * @param maxResults        The maximum number of itineraries to return
+     * @return Up to maxResults itineraries, ordered by arrival time and then by number of legs
+     */
+    public List<Itinerary> search(String origin, String destination, LocalDateTime earliestDeparture,
+                                  Duration departureWindow, int maxResults) {
+        List<Itinerary> results = new ArrayList<>();
+        if (maxResults <= 0 || origin.equals(destination)) {
+            return results;
+        }
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Label> queue = new PriorityQueue<>();
+            pushDepartures(queue, null, origin, earliestDeparture, earliestDeparture.plus(departureWindow));
+
+            Map<String, Integer> expanded = new HashMap<>(); // How often each airport has been expanded
+            while (!queue.isEmpty() && results.size() < maxResults) {
+                Label label = queue.poll();
+                String airport = label.flight.getDestination();
+                if (airport.equals(destination)) {
+                    results.add(label.toItinerary());
+                    continue;
+                }
+                if (label.legs >= maxLegs || expanded.merge(airport, 1, Integer::sum) > maxResults) {
+                    continue;
+                }
+                LocalDateTime arrival = label.flight.getArrivalTime();
+                pushDepartures(queue, label, airport, arrival.plus(minConnectionTime), arrival.plus(maxConnectionTime));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of flights in the network.
+     *
+     * @return The number of flights
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Queues every usable departure from an airport within [from, to] as the next leg after parent
+    private void pushDepartures(PriorityQueue<Label> queue, Label parent, String airport,
+                                LocalDateTime from, LocalDateTime to) {
+        NavigableMap<DepartureKey, Flight> timeline = departures.get(airport);
+        if (timeline == null || from.isAfter(to)) {
+            return;
+        }
+        for (Flight next : timeline.subMap(new DepartureKey(from, Long.MIN_VALUE), true,
+                new DepartureKey(to, Long.MAX_VALUE), true).values()) {
+            if (next.getStatus() == FlightStatus.CANCELLED) {
+                continue;
+            }
+            if (parent != null && (parent.flight.conflictsWith(next) || parent.visits(next.getDestination()))) {
+                continue;
+            }
+            queue.add(new Label(next, parent));
+        }
+    }
+
+    private boolean insert(Flight flight) {
+        if (keys.containsKey(flight)) {
+            return false;
+        }
+        DepartureKey key = new DepartureKey(flight.getDepartureTime(), nextSeq++);
+        keys.put(flight, key);
+        departures.computeIfAbsent(flight.getDeparture(), airport -> new TreeMap<>()).put(key, flight);
+        return true;
+    }
+
+    private boolean delete(Flight flight) {
+        DepartureKey key = keys.remove(flight);
+        if (key == null) {
+            return false;
+        }
+        NavigableMap<DepartureKey, Flight> timeline = departures.get(flight.getDeparture());
+        timeline.remove(key);
+        if (timeline.isEmpty()) {
+            departures.remove(flight.getDeparture());
+        }
+        return true;
+    }
+
+    /**
+     * A partial itinerary ending with the given flight, ordered by arrival time and number of legs.
+     */
+    private static final class Label implements Comparable<Label> {
+        private final Flight flight;
+        private final Label parent;
+        private final int legs;
+
+        private Label(Flight flight, Label parent) {
+            this.flight = flight;
+            this.parent = parent;
+            this.legs = parent == null ? 1 : parent.legs + 1;
+        }
+
+        // Checks whether the partial itinerary already passed through an airport, to avoid loops
+        private boolean visits(String airport) {
+            for (Label label = this; label != null; label = label.parent) {
+                if (label.flight.getDeparture().equals(airport)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Itinerary toItinerary() {
+            List<Flight> legs = new ArrayList<>(this.legs);
+            for (Label label = this; label != null; label = label.parent) {
+                legs.add(label.flight);
+            }
+            Collections.reverse(legs);
+            return new Itinerary(legs);
+        }
+
+        @Override
+        public int compareTo(Label other) {
+            int byArrival = flight.getArrivalTime().compareTo(other.flight.getArrivalTime());
+            if (byArrival != 0) {
+                return byArrival;
+            }
+            int byLegs = Integer.compare(legs, other.legs);
+            return byLegs != 0 ? byLegs : other.flight.getDepartureTime().compareTo(flight.getDepartureTime());
+        }
+    }
+
+    /**
+     * Timeline key of a departure: the departure time when it was added, plus a unique sequence number.
+     */
+    private static final class DepartureKey implements Comparable<DepartureKey> {
+        private final LocalDateTime departureTime;
+        private final long seq;
+
+        private DepartureKey(LocalDateTime departureTime, long seq) {
+            this.departureTime = departureTime;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(DepartureKey other) {
+            int byTime = departureTime.compareTo(other.departureTime);
+            return byTime != 0 ? byTime : Long.compare(seq, other.seq);
+        }
+    }
+}
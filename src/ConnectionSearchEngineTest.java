@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionSearchEngineTest {
+    private static final LocalDateTime dayStart = LocalDateTime.of(2024, 11, 24, 0, 0);
+
+    private ConnectionSearchEngine engine;
+
+    @BeforeEach
+    void setup() {
+        engine = new ConnectionSearchEngine(Duration.ofMinutes(45), Duration.ofHours(12), 3);
+    }
+
+    private Flight flight(String number, String departure, String destination, String dep, String arr) {
+        Flight flight = new Flight(number, departure, destination,
+                dayStart.plus(Duration.parse("PT" + dep)), dayStart.plus(Duration.parse("PT" + arr)),
+                160, new ArrayList<>(), new ArrayList<>());
+        engine.add(flight);
+        return flight;
+    }
+
+    @Test
+    void search_DirectAndConnecting() {
+        Flight direct = flight("AB1", "PEK", "CAN", "9H", "13H");
+        Flight toHub = flight("AB2", "PEK", "SHA", "7H", "9H");
+        Flight fromHub = flight("AB3", "SHA", "CAN", "10H", "12H");
+
+        List<Itinerary> itineraries = engine.search("PEK", "CAN", dayStart, 5);
+
+        // The connection arrives first, the direct flight second
+        assertEquals(2, itineraries.size());
+        assertEquals(List.of(toHub, fromHub), itineraries.get(0).getLegs());
+        assertEquals(List.of(direct), itineraries.get(1).getLegs());
+        assertEquals(dayStart.plusHours(12), itineraries.get(0).getArrivalTime());
+    }
+
+    @Test
+    void search_FewestLegsOnEqualArrival() {
+        flight("AB2", "PEK", "SHA", "7H", "9H");
+        flight("AB3", "SHA", "CAN", "10H", "12H");
+        Flight direct = flight("AB1", "PEK", "CAN", "8H", "12H");
+
+        assertEquals(List.of(direct), engine.search("PEK", "CAN", dayStart, 1).get(0).getLegs());
+    }
+
+    @Test
+    void search_RespectsMinimumConnectionTime() {
+        flight("AB2", "PEK", "SHA", "7H", "9H");
+        flight("AB3", "SHA", "CAN", "9H30M", "11H"); // Only 30 minutes to connect
+
+        assertTrue(engine.search("PEK", "CAN", dayStart, 5).isEmpty());
+    }
+
+    @Test
+    void search_FollowsDelaysAndCancellations() {
+        Flight toHub = flight("AB2", "PEK", "SHA", "7H", "9H");
+        Flight fromHub = flight("AB3", "SHA", "CAN", "10H", "12H");
+        assertEquals(1, engine.search("PEK", "CAN", dayStart, 5).size());
+
+        // Delaying the first leg breaks the connection
+        engine.reschedule(toHub, () -> toHub.delay(dayStart.plusHours(8), dayStart.plusHours(10)));
+        assertTrue(engine.search("PEK", "CAN", dayStart, 5).isEmpty());
+
+        // Delaying the second leg restores it
+        engine.reschedule(fromHub, () -> fromHub.delay(dayStart.plusHours(11), dayStart.plusHours(13)));
+        assertEquals(1, engine.search("PEK", "CAN", dayStart, 5).size());
+
+        // Cancelled flights are never used
+        fromHub.setStatus(FlightStatus.CANCELLED);
+        assertTrue(engine.search("PEK", "CAN", dayStart, 5).isEmpty());
+        engine.remove(fromHub);
+        assertEquals(1, engine.size());
+    }
+
+    @Test
+    void search_FollowsDirectDelays() {
+        flight("AB2", "PEK", "SHA", "7H", "9H");
+        Flight fromHub = flight("AB3", "SHA", "CAN", "10H", "12H");
+
+        // Edge case: a delay made on the flight itself, not through the engine, moves it too
+        fromHub.delay(dayStart.plusHours(22), dayStart.plusHours(23)); // 13 hours to connect
+        assertTrue(engine.search("PEK", "CAN", dayStart, 5).isEmpty());
+        assertEquals(1, engine.search("SHA", "CAN", dayStart.plusHours(21), 5).size());
+        assertTrue(engine.search("SHA", "CAN", dayStart, Duration.ofHours(12), 5).isEmpty());
+    }
+
+    @Test
+    void search_MaxLegsAndNoLoops() {
+        flight("A1", "PEK", "SHA", "1H", "2H");
+        flight("A2", "SHA", "PEK", "3H", "4H"); // Loops back to the origin
+        flight("A3", "SHA", "XIY", "3H", "4H");
+        flight("A4", "XIY", "CTU", "5H", "6H");
+        flight("A5", "CTU", "CAN", "7H", "8H");
+
+        // PEK-SHA-XIY-CTU-CAN needs 4 legs, more than allowed
+        assertTrue(engine.search("PEK", "CAN", dayStart, 5).isEmpty());
+        assertEquals(3, engine.search("PEK", "CTU", dayStart, 5).get(0).getLegCount());
+    }
+}
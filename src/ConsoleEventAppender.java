@@ -0,0 +1,24 @@
+import java.util.List;
+
+/**
+ * Event appender that prints the message of every event to the console, errors to the
+ * standard error stream and everything else to the standard output.
+ */
+public class ConsoleEventAppender implements EventAppender {
+
+    @Override
+    public void append(List<DomainEvent> batch) {
+        StringBuilder out = new StringBuilder();
+        for (DomainEvent event : batch) {
+            if (event.getLevel() == EventLevel.ERROR) {
+                // Keep the order of both streams by printing what came before the error first
+                System.out.print(out);
+                out.setLength(0);
+                System.err.println(event.getMessage());
+            } else {
+                out.append(event.getMessage()).append(System.lineSeparator());
+            }
+        }
+        System.out.print(out);
+    }
+}
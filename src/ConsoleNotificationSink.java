@@ -0,0 +1,16 @@
+import java.util.List;
+
+/**
+ * Notification sink that prints every notification to the console.
+ */
+public class ConsoleNotificationSink implements NotificationSink {
+
+    @Override
+    public void deliver(List<Notification> batch) {
+        StringBuilder sb = new StringBuilder();
+        for (Notification notification : batch) {
+            sb.append(notification).append(System.lineSeparator());
+        }
+        System.out.print(sb);
+    }
+}
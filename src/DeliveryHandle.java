@@ -0,0 +1,87 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the delivery progress of a group of notifications sent in one call,
+ * e.g. a delay notice to every passenger of a flight.
+ */
+public class DeliveryHandle {
+    private final int total; // Number of notifications in the group
+    private int delivered; // Notifications delivered successfully
+    private int failed; // Notifications whose delivery failed
+    private int superseded; // Notifications dropped in favour of a newer one for the same passenger
+
+    /**
+     * Constructor to initialize a handle for a group of notifications.
+     *
+     * @param total The number of notifications in the group
+     */
+    public DeliveryHandle(int total) {
+        this.total = total;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public synchronized int getDelivered() {
+        return delivered;
+    }
+
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    public synchronized int getSuperseded() {
+        return superseded;
+    }
+
+    /**
+     * Checks whether every notification of the group has been processed.
+     *
+     * @return True if all notifications were delivered, failed or superseded
+     */
+    public synchronized boolean isDone() {
+        return delivered + failed + superseded >= total;
+    }
+
+    /**
+     * Waits until every notification of the group has been processed.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit    The unit of the timeout
+     * @return True if the group is done, false if the timeout elapsed first
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public synchronized boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isDone()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    synchronized void markDelivered(int count) {
+        delivered += count;
+        notifyAll();
+    }
+
+    synchronized void markFailed(int count) {
+        failed += count;
+        notifyAll();
+    }
+
+    synchronized void markSuperseded(int count) {
+        superseded += count;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Delivered: " + delivered + "/" + total + (failed > 0 ? " | Failed: " + failed : "")
+                + (superseded > 0 ? " | Superseded: " + superseded : "");
+    }
+}
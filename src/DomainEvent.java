@@ -0,0 +1,128 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A structured record of something that happened to a flight or reservation, such as a delay or
+ * a cancelled booking. Events are created on the thread that caused them and formatted later by
+ * the appenders of the {@link EventLog}, so building the message text stays off the hot path.
+ */
+public final class DomainEvent {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final long timestamp; // Milliseconds since the epoch
+    private final EventType type;
+    private final String flightNumber; // Null if the event is not about one flight
+    private final String passengerName; // Null if the event is not about one passenger
+    private final Object[] fields; // Alternating field names and values
+
+    /**
+     * Constructor to initialize an event.
+     *
+     * @param timestamp     The time of the event in milliseconds since the epoch
+     * @param type          The type of event
+     * @param flightNumber  The flight the event is about, or null
+     * @param passengerName The passenger the event is about, or null
+     * @param fields        Alternating field names and values
+     */
+    public DomainEvent(long timestamp, EventType type, String flightNumber, String passengerName, Object... fields) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.flightNumber = flightNumber;
+        this.passengerName = passengerName;
+        this.fields = fields;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public EventLevel getLevel() {
+        return type.getLevel();
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public String getPassengerName() {
+        return passengerName;
+    }
+
+    /**
+     * Retrieves the value of a field.
+     *
+     * @param name The field name
+     * @return The value, or null if the event has no such field
+     */
+    public Object getField(String name) {
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            if (fields[i].equals(name)) {
+                return fields[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves all fields of the event.
+     *
+     * @return The fields by name, in the order they were given
+     */
+    public Map<String, Object> getFields() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            map.put((String) fields[i], fields[i + 1]);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the message of the event as it is printed on the console, with the flight number,
+     * passenger name and fields filled into the message of the event type.
+     *
+     * @return The console message
+     */
+    public String getMessage() {
+        String template = type.getMessage();
+        StringBuilder sb = new StringBuilder(template.length() + 32);
+        int from = 0;
+        int open;
+        while ((open = template.indexOf('{', from)) >= 0) {
+            int close = template.indexOf('}', open);
+            sb.append(template, from, open);
+            String name = template.substring(open + 1, close);
+            Object value = name.equals("flight") ? flightNumber
+                    : name.equals("passenger") ? passengerName : getField(name);
+            sb.append(value instanceof LocalDateTime ? ((LocalDateTime) value).format(TIME_FORMAT) : value);
+            from = close + 1;
+        }
+        return sb.append(template, from, template.length()).toString();
+    }
+
+    /**
+     * Returns the structured form of the event, e.g.
+     * "2024-11-24T12:00:00Z INFO FLIGHT_DELAYED flight=AB123 departure=2024-11-24T21:00".
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(Instant.ofEpochMilli(timestamp)).append(' ').append(type.getLevel()).append(' ').append(type);
+        if (flightNumber != null) {
+            sb.append(" flight=").append(flightNumber);
+        }
+        if (passengerName != null) {
+            sb.append(" passenger=").append(passengerName);
+        }
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            sb.append(' ').append(fields[i]).append('=').append(fields[i + 1]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,16 @@
+import java.util.List;
+
+/**
+ * Destination of the events written to an {@link EventLog}, e.g. the console or a file.
+ * Appenders are called by the log's writer thread only, one batch at a time.
+ */
+public interface EventAppender {
+
+    /**
+     * Writes a batch of events, in the order they were logged.
+     *
+     * @param batch the events to write
+     * @throws Exception if the batch could not be written
+     */
+    void append(List<DomainEvent> batch) throws Exception;
+}
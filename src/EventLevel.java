@@ -0,0 +1,9 @@
+/**
+ * Severity of a domain event, from least to most severe.
+ */
+public enum EventLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+}
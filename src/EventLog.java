@@ -0,0 +1,304 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous log of domain events such as bookings, cancellations and delays.
+ *
+ * Logging threads publish events into a lock-free ring buffer: a thread claims the next position
+ * with one compare-and-set, stores the event in its slot and marks the slot as published, so
+ * threads never block each other. A single writer thread drains the published events in order
+ * and hands them to the appenders in batches, which keeps console and file I/O off the threads
+ * that book and cancel seats. When the ring is full, logging threads wait for the writer to
+ * free a slot rather than drop events. Events below the log's level are discarded before
+ * anything is allocated, so a disabled event costs one comparison.
+ *
+ * Flight, Passenger and AirlineCompany log to the default log, which prints to the console.
+ * Code that prints to the console itself calls {@link #flush()} first, so its output appears
+ * after the events that led to it.
+ */
+public class EventLog implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH = 256; // Maximum number of events handed to the appenders at once
+    private static final long IDLE_PARK_NANOS = 50_000_000L; // Longest sleep of an idle writer
+    private static final Object[] NO_FIELDS = {};
+
+    private static volatile EventLog defaultLog; // Created on first use
+
+    private final DomainEvent[] slots; // Ring of events, indexed by position modulo the capacity
+    // Per slot: the position that may publish into it next, or that position + 1 once it is published
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail; // Next position to claim
+    private long head; // Next position to write, used by the writer thread only
+    private volatile long written; // Every position below has been handed to the appenders
+    private volatile int minLevel; // Ordinal of the lowest level that is logged
+    private final List<EventAppender> appenders;
+    private final Thread writer;
+    private volatile boolean writerIdle; // Set while the writer sleeps for lack of events
+    private volatile boolean closed;
+
+    /**
+     * Constructor to initialize a log of INFO and more severe events with a ring of 8192 events.
+     *
+     * @param appenders The appenders to write the events to
+     */
+    public EventLog(EventAppender... appenders) {
+        this(DEFAULT_CAPACITY, EventLevel.INFO, appenders);
+    }
+
+    /**
+     * Constructor to initialize a log and start its writer thread.
+     *
+     * @param capacity  The number of events the ring holds, rounded up to a power of two
+     * @param level     The lowest level that is logged
+     * @param appenders The appenders to write the events to
+     */
+    public EventLog(int capacity, EventLevel level, EventAppender... appenders) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit((capacity - 1) << 1);
+        this.slots = new DomainEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+        this.minLevel = level.ordinal();
+        this.appenders = new CopyOnWriteArrayList<>(appenders);
+        this.writer = new Thread(this::runWriter, "event-log");
+        writer.setDaemon(true); // Pending events are written by close(), not by keeping the application alive
+        writer.start();
+    }
+
+    /**
+     * Returns the log used by flights, passengers and airlines, creating a log that prints to the
+     * console on first use. That log is flushed and closed when the application exits.
+     *
+     * @return The default log
+     */
+    public static EventLog getDefault() {
+        EventLog log = defaultLog;
+        if (log != null) {
+            return log;
+        }
+        synchronized (EventLog.class) {
+            if (defaultLog == null) {
+                log = new EventLog(new ConsoleEventAppender());
+                Runtime.getRuntime().addShutdownHook(new Thread(log::close, "event-log-shutdown"));
+                defaultLog = log;
+            }
+            return defaultLog;
+        }
+    }
+
+    /**
+     * Replaces the log used by flights, passengers and airlines. The previous log is not closed.
+     *
+     * @param log The new default log
+     */
+    public static synchronized void setDefault(EventLog log) {
+        defaultLog = log;
+    }
+
+    /**
+     * Adds an appender that receives every event written from now on.
+     *
+     * @param appender The appender
+     */
+    public void addAppender(EventAppender appender) {
+        appenders.add(appender);
+    }
+
+    /**
+     * Removes an appender.
+     *
+     * @param appender The appender
+     */
+    public void removeAppender(EventAppender appender) {
+        appenders.remove(appender);
+    }
+
+    /**
+     * Sets the lowest level that is logged; events of lower levels are discarded.
+     *
+     * @param level The lowest logged level
+     */
+    public void setLevel(EventLevel level) {
+        this.minLevel = level.ordinal();
+    }
+
+    public EventLevel getLevel() {
+        return EventLevel.values()[minLevel];
+    }
+
+    /**
+     * Checks whether events of a type are logged.
+     *
+     * @param type The event type
+     * @return True if events of the type are at or above the log's level
+     */
+    public boolean isEnabled(EventType type) {
+        return type.getLevel().ordinal() >= minLevel;
+    }
+
+    /**
+     * Logs an event without fields.
+     *
+     * @param type          The event type
+     * @param flightNumber  The flight the event is about, or null
+     * @param passengerName The passenger the event is about, or null
+     */
+    public void log(EventType type, String flightNumber, String passengerName) {
+        if (type.getLevel().ordinal() >= minLevel) {
+            publish(new DomainEvent(System.currentTimeMillis(), type, flightNumber, passengerName, NO_FIELDS));
+        }
+    }
+
+    /**
+     * Logs an event with one field.
+     *
+     * @param type          The event type
+     * @param flightNumber  The flight the event is about, or null
+     * @param passengerName The passenger the event is about, or null
+     * @param name          The field name
+     * @param value         The field value
+     */
+    public void log(EventType type, String flightNumber, String passengerName, String name, Object value) {
+        if (type.getLevel().ordinal() >= minLevel) {
+            publish(new DomainEvent(System.currentTimeMillis(), type, flightNumber, passengerName, name, value));
+        }
+    }
+
+    /**
+     * Logs an event with two fields.
+     *
+     * @param type          The event type
+     * @param flightNumber  The flight the event is about, or null
+     * @param passengerName The passenger the event is about, or null
+     * @param name1         The first field name
+     * @param value1        The first field value
+     * @param name2         The second field name
+     * @param value2        The second field value
+     */
+    public void log(EventType type, String flightNumber, String passengerName,
+                    String name1, Object value1, String name2, Object value2) {
+        if (type.getLevel().ordinal() >= minLevel) {
+            publish(new DomainEvent(System.currentTimeMillis(), type, flightNumber, passengerName,
+                    name1, value1, name2, value2));
+        }
+    }
+
+    /**
+     * Waits until every event logged before the call has been handed to the appenders.
+     */
+    public void flush() {
+        long target = tail.get();
+        if (Thread.currentThread() == writer) {
+            return; // An appender that logs must not wait for itself
+        }
+        while (written < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000L);
+        }
+    }
+
+    /**
+     * Returns the number of events logged so far.
+     *
+     * @return The number of logged events
+     */
+    public long getLoggedCount() {
+        return tail.get();
+    }
+
+    /**
+     * Writes every event logged so far and stops the writer thread. Events logged afterwards are
+     * discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Claims the next position of the ring, stores the event in it and wakes the writer if it sleeps
+    private void publish(DomainEvent event) {
+        if (closed) {
+            return;
+        }
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                // The ring is full: the slot still holds the event of the previous lap
+                LockSupport.unpark(writer);
+                Thread.yield();
+            }
+        }
+        slots[index] = event;
+        sequences.set(index, position + 1);
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void runWriter() {
+        List<DomainEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            int index = (int) head & mask;
+            if (sequences.get(index) == head + 1) {
+                batch.add(slots[index]);
+                slots[index] = null;
+                sequences.set(index, head + slots.length); // Free the slot for the next lap
+                head++;
+                if (batch.size() < MAX_BATCH) {
+                    continue;
+                }
+            }
+            if (!batch.isEmpty()) {
+                append(batch);
+                batch.clear();
+                written = head;
+                continue;
+            }
+            if (closed && tail.get() == head) {
+                return;
+            }
+            writerIdle = true;
+            // Check again after announcing the sleep, so a publish in between is not missed
+            if (sequences.get(index) != head + 1 && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerIdle = false;
+        }
+    }
+
+    private void append(List<DomainEvent> batch) {
+        for (EventAppender appender : appenders) {
+            try {
+                appender.append(batch);
+            } catch (Exception e) {
+                System.err.println("Failed to write " + batch.size() + " event(s) to "
+                        + appender.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark of the cost of logging a delay message on 4 threads: printing it with
+ * System.out.println as the flight code used to, logging it to an {@link EventLog} that prints
+ * it on its writer thread, and logging it with the event disabled.
+ *
+ * The console is redirected to a temporary file, with a flush after every line like a terminal.
+ */
+public class EventLogBenchmark {
+    private static final int THREADS = 4;
+    private static final int EVENTS_PER_THREAD = 250_000;
+    private static final int ROUNDS = 3;
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime ARRIVAL = DEPARTURE.plusHours(3);
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("event-log", ".txt");
+        PrintStream console = System.out;
+        try (PrintStream redirected = new PrintStream(new FileOutputStream(file.toFile()), true)) {
+            System.setOut(redirected);
+            double[] println = new double[ROUNDS];
+            double[] logged = new double[ROUNDS];
+            double[] written = new double[ROUNDS];
+            double[] disabled = new double[ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                println[round] = run(null)[1];
+                try (EventLog log = new EventLog(new ConsoleEventAppender())) {
+                    double[] times = run(log);
+                    logged[round] = times[0];
+                    written[round] = times[1];
+                }
+                try (EventLog log = new EventLog(8192, EventLevel.WARN, new ConsoleEventAppender())) {
+                    disabled[round] = run(log)[0];
+                }
+            }
+            System.setOut(console);
+            int events = THREADS * EVENTS_PER_THREAD;
+            System.out.printf("println:        %,.0f ns per event%n", min(println) * 1e6 / events);
+            System.out.printf("event log:      %,.0f ns per event on the logging threads, %,.0f ns until written%n",
+                    min(logged) * 1e6 / events, min(written) * 1e6 / events);
+            System.out.printf("event disabled: %,.1f ns per event%n", min(disabled) * 1e6 / events);
+        } finally {
+            System.setOut(console);
+            Files.delete(file);
+        }
+    }
+
+    // Returns the time in milliseconds until all threads have logged their events and until they are written
+    private static double[] run(EventLog log) throws InterruptedException {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        List<Thread> threads = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            String flightNumber = "F" + t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    if (log == null) {
+                        System.out.println("Flight " + flightNumber + " has been delayed. New departure time: "
+                                + DEPARTURE.format(formatter) + ", new arrival time: " + ARRIVAL.format(formatter));
+                    } else {
+                        log.log(EventType.FLIGHT_DELAYED, flightNumber, null, "departure", DEPARTURE, "arrival", ARRIVAL);
+                    }
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double logged = (System.nanoTime() - start) / 1e6;
+        if (log != null) {
+            log.flush();
+        }
+        return new double[]{logged, (System.nanoTime() - start) / 1e6};
+    }
+
+    private static double min(double[] values) {
+        double min = Double.MAX_VALUE;
+        for (double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+
+    @Test
+    void logAndFlush() {
+        InMemoryEventAppender appender = new InMemoryEventAppender();
+        try (EventLog log = new EventLog(16, EventLevel.INFO, appender)) {
+            log.log(EventType.FLIGHT_DELAYED, "AB123", null, "departure", departureTime1, "arrival", arrivalTime1);
+            log.log(EventType.PASSENGER_REMOVED, "AB123", "John Doe");
+            log.flush();
+
+            // Normal case: events are written in order, with their structure and their console message
+            List<DomainEvent> events = appender.getEvents();
+            assertEquals(2, events.size());
+            DomainEvent delayed = events.get(0);
+            assertEquals(EventType.FLIGHT_DELAYED, delayed.getType());
+            assertEquals("AB123", delayed.getFlightNumber());
+            assertEquals(departureTime1, delayed.getField("departure"));
+            assertEquals("Flight AB123 has been delayed. New departure time: 2024-11-24 20:00, "
+                    + "new arrival time: 2024-11-24 23:00", delayed.getMessage());
+            assertEquals("Passenger John Doe has been removed from the flight.", events.get(1).getMessage());
+        }
+    }
+
+    @Test
+    void disabledEventsAreDiscarded() {
+        InMemoryEventAppender appender = new InMemoryEventAppender();
+        try (EventLog log = new EventLog(16, EventLevel.WARN, appender)) {
+            assertFalse(log.isEnabled(EventType.PASSENGER_REMOVED));
+            log.log(EventType.PASSENGER_REMOVED, "AB123", "John Doe");
+            log.log(EventType.FLIGHT_NOT_FOUND, "CD456", null);
+            log.flush();
+
+            // Edge case: only the warning reaches the appender, the info event is never published
+            assertEquals(1, log.getLoggedCount());
+            assertEquals("Flight CD456 not found.", appender.getEvents().get(0).getMessage());
+
+            log.setLevel(EventLevel.DEBUG);
+            assertTrue(log.isEnabled(EventType.PASSENGER_REMOVED));
+        }
+    }
+
+    @Test
+    void concurrentProducersThroughSmallRing() throws InterruptedException {
+        InMemoryEventAppender appender = new InMemoryEventAppender();
+        int threads = 4;
+        int perThread = 5_000;
+        // A ring of 8 events is full most of the time, so producers have to wait for the writer
+        try (EventLog log = new EventLog(8, EventLevel.INFO, appender)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int t = 0; t < threads; t++) {
+                String flightNumber = "F" + t;
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        log.log(EventType.SERVICE_FEE_CHARGED, flightNumber, null, "percent", i);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+            log.flush();
+        }
+
+        // No event is lost or duplicated, and each producer's events keep their order
+        List<DomainEvent> events = appender.getEvents();
+        assertEquals(threads * perThread, events.size());
+        int[] next = new int[threads];
+        for (DomainEvent event : events) {
+            int producer = event.getFlightNumber().charAt(1) - '0';
+            assertEquals(next[producer]++, event.getField("percent"));
+        }
+    }
+
+    @Test
+    void closeWritesPendingEvents() {
+        InMemoryEventAppender appender = new InMemoryEventAppender();
+        EventLog log = new EventLog(1024, EventLevel.INFO, appender);
+        for (int i = 0; i < 500; i++) {
+            log.log(EventType.RESERVATION_CANCELLED, "AB123", "Passenger " + i);
+        }
+        log.close();
+        assertEquals(500, appender.getEvents().size());
+
+        // Error case: events logged after close are discarded
+        log.log(EventType.RESERVATION_CANCELLED, "AB123", "Late Passenger");
+        assertEquals(500, appender.getEvents().size());
+    }
+
+    @Test
+    void flightChangesAreLoggedToTheDefaultLog() {
+        InMemoryEventAppender appender = new InMemoryEventAppender();
+        EventLog.getDefault().addAppender(appender);
+        try {
+            Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                    new ArrayList<>(), new ArrayList<>());
+            Passenger john = new Passenger("John Doe", new ArrayList<>());
+            flight.bookSeat(john, "Economy", "Meal");
+            john.cancelReservation(flight);
+            EventLog.getDefault().flush();
+
+            List<EventType> types = new ArrayList<>();
+            for (DomainEvent event : appender.getEvents()) {
+                if ("John Doe".equals(event.getPassengerName())) {
+                    types.add(event.getType());
+                }
+            }
+            assertEquals(List.of(EventType.RESERVATION_CANCELLED, EventType.HANDLING_FEE_CHARGED,
+                    EventType.PASSENGER_REMOVED), types);
+        } finally {
+            EventLog.getDefault().removeAppender(appender);
+        }
+    }
+}
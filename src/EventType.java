@@ -0,0 +1,50 @@
+/**
+ * Types of domain events written to the {@link EventLog}, each with its level and the console
+ * message it stands for. Messages name the event's fields in braces; "{flight}" and "{passenger}"
+ * are the event's flight number and passenger name.
+ */
+public enum EventType {
+    FLIGHT_ADDED(EventLevel.INFO, "Flight {flight} from {departure} to {destination} has been successfully added."),
+    FLIGHT_INCOMPLETE(EventLevel.WARN, "Incomplete flight information. Please provide all details."),
+    FLIGHT_EXISTS(EventLevel.WARN, "Flight {flight} on {date} already exists."),
+    FLIGHT_NOT_FOUND(EventLevel.WARN, "Flight {flight} not found."),
+    FLIGHT_REMOVED(EventLevel.INFO, "No passengers have booked this flight. The flight has been successfully cancelled."),
+    FLIGHT_CANCELLED(EventLevel.INFO, "Flight {flight} has been marked as cancelled."),
+    FLIGHT_CANCELLATION_FAILED(EventLevel.ERROR, "An error occurred while cancelling the flight: {error}"),
+    FLIGHT_DELAYED(EventLevel.INFO,
+            "Flight {flight} has been delayed. New departure time: {departure}, new arrival time: {arrival}"),
+    FLIGHT_HAS_NO_PASSENGERS(EventLevel.INFO, "No passengers have booked this flight."),
+    PASSENGERS_NOTIFIED(EventLevel.INFO, "All passengers who have booked this flight are being notified about the {reason}."),
+    PASSENGER_REMOVED(EventLevel.INFO, "Passenger {passenger} has been removed from the flight."),
+    PASSENGER_NOT_ON_FLIGHT(EventLevel.WARN, "Passenger not found in the flight."),
+    VIP_FEE_WAIVED(EventLevel.INFO, "You are a VIP, so we will waive the service fee for you this time"),
+    HANDLING_FEE_CHARGED(EventLevel.INFO,
+            "You need to pay an additional {percent}% of the {cabin} ticket price as a handling fee"),
+    SERVICE_FEE_CHARGED(EventLevel.INFO, "You need to pay a {percent}% service fee on the ticket price."),
+    UPGRADE_FEE_CHARGED(EventLevel.INFO, "Please pay the upgrade fee."),
+    FARE_DIFFERENCE_REFUNDED(EventLevel.INFO, "The fare difference will be refunded to your account."),
+    RESERVATION_CANCELLED(EventLevel.INFO, "Flight: {flight} canceled successfully."),
+    RESERVATION_MODIFIED(EventLevel.INFO, "You have successfully modified your reservation."),
+    RESERVATION_UNCHANGED(EventLevel.INFO, "You have already booked this type of seat."),
+    RESERVATION_NOT_FOUND(EventLevel.WARN, "Flight {flight} not found in reservations."),
+    WAITLIST_JOINED(EventLevel.INFO, "Passenger {passenger} has joined the {seatType} waitlist of flight {flight}."),
+    WAITLIST_PROMOTED(EventLevel.INFO, "A {seatType} seat on flight {flight} has been booked for waitlisted passenger {passenger}."),
+    SEAT_TYPE_INVALID(EventLevel.WARN, "Invalid seat type. Please choose 'FirstClass' or 'Economy'."),
+    SEAT_TYPE_UNAVAILABLE(EventLevel.WARN, "There are not enough available seat types to make the modification.");
+
+    private final EventLevel level;
+    private final String message; // Console message with placeholders for the event's fields
+
+    EventType(EventLevel level, String message) {
+        this.level = level;
+        this.message = message;
+    }
+
+    public EventLevel getLevel() {
+        return level;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
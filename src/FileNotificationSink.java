@@ -0,0 +1,37 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Notification sink that appends every notification as one line to a local file,
+ * standing in for a real email or SMS gateway.
+ */
+public class FileNotificationSink implements NotificationSink {
+    private final Path file;
+
+    /**
+     * Constructor to initialize the sink.
+     *
+     * @param file The file to append notifications to; it is created if it does not exist
+     */
+    public FileNotificationSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void deliver(List<Notification> batch) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Notification notification : batch) {
+                writer.write(notification.getChannel() + "\t" + notification.getFlightNumber() + "\t"
+                        + notification.getPassengerName() + "\t" + notification.getType() + "\t"
+                        + notification.getMessage());
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -1,11 +1,21 @@
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
 
 /**
  * Flight class of AirlinBookingSystem used to represent flight information and implement related operations.
  *
- * Information includes flight number, departure, destination, departure time, arrival time, delay or not, capacity, first Class capacity, Economy class capacity, passenger list, whether reservations are open, VIP passenger list
+ * Information includes flight number, departure, destination, departure time, arrival time, delay or not, capacity, first Class capacity, Economy class capacity, passenger roster with VIP flags, whether reservations are open
  @author: CPT403-Group 9
  */
 
@@ -13,33 +23,45 @@ public class Flight {
     private String flightNumber;
     private String departure;
     private String destination;
-    private LocalDateTime departureTime;
-    private LocalDateTime arrivalTime;
-    private boolean isDelay;
+    private volatile LocalDateTime departureTime;
+    private volatile LocalDateTime arrivalTime;
+    private final LocalDate scheduledDate; // Originally scheduled departure date, identifies the flight-day
+    private volatile boolean isDelay;
     private int capacity; // 总容量
-    private int firstClassCapacity; // 头等舱容量
-    private int economyClassCapacity; // 经济舱容量
-    private List<Passenger> passengers;
-    private boolean isOpenForReservation;
-    private List<Passenger> vip;
-    private FlightStatus status;
+    private final SeatInventory seats; // 头等舱和经济舱剩余座位
+    private final SeatMap seatMap; // Numbered seats, e.g. "12C"
+    private final FlightRoster roster; // Booked and VIP passengers, with booked counts per cabin
+    private final FlightWaitlist waitlist; // Passengers waiting for a seat in a sold-out cabin
+    private volatile boolean isOpenForReservation;
+    private volatile FlightStatus status;
+    private final List<FlightListener> listeners = new CopyOnWriteArrayList<>(); // Notified about booking changes
 
     // 构造方法
     public Flight(String flightNumber, String departure, String destination,
                   LocalDateTime departureTime, LocalDateTime arrivalTime, int capacity,
                   List<Passenger> passengers, List<Passenger> vip) {
+        this(flightNumber, departure, destination, departureTime, arrivalTime, capacity, passengers, vip,
+                departureTime == null ? null : departureTime.toLocalDate());
+    }
+
+    // Recreates a flight whose current departure may differ from the date it was scheduled on, e.g. from a snapshot
+    Flight(String flightNumber, String departure, String destination,
+           LocalDateTime departureTime, LocalDateTime arrivalTime, int capacity,
+           List<Passenger> passengers, List<Passenger> vip, LocalDate scheduledDate) {
         this.flightNumber = flightNumber;
         this.departure = departure;
         this.destination = destination;
         this.departureTime = departureTime;
         this.arrivalTime = arrivalTime;
+        this.scheduledDate = scheduledDate;
         this.isDelay = false;
         this.capacity = capacity;
-        this.firstClassCapacity = (int) (capacity * 0.1); // // First class capacity is 10% of the total capacity
-        this.economyClassCapacity = capacity - firstClassCapacity; // remaining capacity is economy class
+        int firstClassCapacity = (int) (capacity * 0.1); // First class capacity is 10% of the total capacity
+        this.seats = new SeatInventory(firstClassCapacity, capacity - firstClassCapacity); // remaining capacity is economy class
+        this.seatMap = new SeatMap(firstClassCapacity, capacity - firstClassCapacity);
         this.isOpenForReservation = true;
-        this.passengers = passengers;
-        this.vip = vip;
+        this.roster = new FlightRoster(passengers, vip);
+        this.waitlist = new FlightWaitlist(seats);
         checkReservationStatus(); // Check if reservation should be closed
         this.status = FlightStatus.SCHEDULED;
     }
@@ -65,31 +87,106 @@ public class Flight {
         return arrivalTime;
     }
 
+    public LocalDate getScheduledDate() {
+        return scheduledDate;
+    }
+
     public int getCapacity() {
         return capacity;
     }
 
     public int getFirstClassCapacity() {
-        return firstClassCapacity;
+        return seats.getRemaining(CabinClass.FIRST_CLASS);
     }
 
 
     public int getEconomyClassCapacity() {
-        return economyClassCapacity;
+        return seats.getRemaining(CabinClass.ECONOMY);
+    }
+
+    public SeatInventory getSeatInventory() {
+        return seats;
+    }
+
+    public SeatMap getSeatMap() {
+        return seatMap;
     }
 
 
+    /**
+     * Retrieves the booked passengers in booking order, as a read-only copy.
+     *
+     * @return The booked passengers
+     */
     public List<Passenger> getPassengers() {
-        return passengers;
+        return roster.getPassengers();
     }
 
+    /**
+     * Retrieves the passengers registered as VIPs on this flight, as a read-only copy.
+     *
+     * @return The VIP passengers
+     */
     public List<Passenger> getVip() {
-        return vip;
+        return roster.getVips();
+    }
+
+    /**
+     * Retrieves the roster of booked and VIP passengers, e.g. to read booked counts per cabin.
+     *
+     * @return The flight's roster
+     */
+    public FlightRoster getRoster() {
+        return roster;
+    }
+
+    /**
+     * Retrieves the waitlist of passengers waiting for a seat in a sold-out cabin.
+     *
+     * @return The flight's waitlist
+     */
+    public FlightWaitlist getWaitlist() {
+        return waitlist;
+    }
+
+    public int getPassengerCount() {
+        return roster.size();
+    }
+
+    public boolean isVip(Passenger passenger) {
+        return roster.isVip(passenger);
+    }
+
+    /**
+     * Registers a passenger as a VIP on this flight, whether or not the passenger has booked it.
+     *
+     * @param passenger The passenger
+     */
+    public void registerVip(Passenger passenger) {
+        roster.addVip(passenger);
     }
 
     public FlightStatus getStatus() { return status; }
 
 
+    /**
+     * Registers a listener to be notified about booking changes on this flight.
+     *
+     * @param listener The listener to add
+     */
+    public void addListener(FlightListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeListener(FlightListener listener) {
+        listeners.remove(listener);
+    }
+
     // Setters
     public void setOpenForReservation(boolean openForReservation) {
         this.isOpenForReservation = openForReservation;
@@ -98,12 +195,54 @@ public class Flight {
 
     // Setter for status
     public void setStatus(FlightStatus status) {
-        this.status = status;
+        changeStatus(status, null);
+    }
+
+    /**
+     * Sets the status only if the flight is still in one of the expected ones, so e.g. a flight
+     * cancelled in the meantime does not depart.
+     *
+     * @param status   The new status
+     * @param expected The statuses the flight may be in, or null for any
+     * @return True if the status was set
+     */
+    boolean changeStatus(FlightStatus status, Set<FlightStatus> expected) {
+        FlightStatus oldStatus;
+        synchronized (this) {
+            oldStatus = this.status;
+            if (expected != null && !expected.contains(oldStatus)) {
+                return false;
+            }
+            this.status = status;
+        }
+        if (status == FlightStatus.CANCELLED || status == FlightStatus.LANDED) {
+            waitlist.clear(); // Nobody will get a seat any more
+            notifyPassengersOfChange(); // The flight no longer blocks the passengers' itineraries
+        }
+        fireStatusChanged(oldStatus, status);
+        return true;
+    }
+
+    // Tells the listeners about a status transition
+    private void fireStatusChanged(FlightStatus oldStatus, FlightStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        for (FlightListener listener : listeners) {
+            listener.onStatusChanged(this, oldStatus, newStatus);
+        }
+    }
+
+    // Lets every booked passenger re-index this flight in their itinerary
+    private void notifyPassengersOfChange() {
+        for (Passenger passenger : roster.getPassengers()) {
+            passenger.onFlightChanged(this);
+        }
     }
 
     // Method to check if the reservations should be closed
     private void checkReservationStatus() {
-        if (passengers.size() >= capacity) {
+        if (roster.size() >= capacity || seats.getTotalRemaining() == 0) {
             this.isOpenForReservation = false; // Close reservations if capacity is full
         }
     }
@@ -112,15 +251,43 @@ public class Flight {
         return isDelay;
     }
 
+    public boolean isOpenForReservation() {
+        return isOpenForReservation;
+    }
+
+    // Puts back the status recovered from a snapshot, without notifying anybody
+    void restoreStatus(FlightStatus status, boolean delayed, boolean openForReservation) {
+        this.status = status;
+        this.isDelay = delayed;
+        this.isOpenForReservation = openForReservation;
+    }
+
     public void delay(LocalDateTime newDepartureTime, LocalDateTime newArrivalTime) {
-        if (newDepartureTime.isAfter(this.getDepartureTime()) && newArrivalTime.isAfter(this.getArrivalTime())) {
+        reschedule(newDepartureTime, newArrivalTime);
+        EventLog.getDefault().log(EventType.FLIGHT_DELAYED, flightNumber, null,
+                "departure", newDepartureTime, "arrival", newArrivalTime);
+    }
+
+    // Moves the flight to later times and marks it delayed, without printing anything
+    void reschedule(LocalDateTime newDepartureTime, LocalDateTime newArrivalTime) {
+        FlightStatus oldStatus;
+        synchronized (this) {
+            // A departed, landed or cancelled flight must not go back to DELAYED and depart again
+            if (!isBookable()) {
+                throw new IllegalStateException("Flight " + flightNumber + " is " + status + " and can no longer be delayed.");
+            }
+            if (!newDepartureTime.isAfter(this.getDepartureTime()) || !newArrivalTime.isAfter(this.getArrivalTime())) {
+                throw new IllegalArgumentException("New departure and arrival times must be later than the original times.");
+            }
+            oldStatus = this.status;
             this.departureTime = newDepartureTime; this.arrivalTime = newArrivalTime; this.status = FlightStatus.DELAYED;
-            // 更新为延误状态
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            System.out.println("Flight " + flightNumber + " has been delayed. New departure time: " + newDepartureTime.format(formatter) + ", new arrival time: " + newArrivalTime.format(formatter));
-        } else {
-            throw new IllegalArgumentException("New departure and arrival times must be later than the original times.");
+            this.isDelay = true; // 更新为延误状态
         }
+        notifyPassengersOfChange();
+        for (FlightListener listener : listeners) {
+            listener.onRescheduled(this);
+        }
+        fireStatusChanged(oldStatus, FlightStatus.DELAYED);
     }
 
     public void closeForReservation() {
@@ -140,7 +307,7 @@ public class Flight {
                 "Delay: " + (isDelay ? "Yes" : "No") + " | " +
                 "Capacity: " + capacity + " | " +
                 "First: " + getFirstClassCapacity() + " · " + "Economy: " + getEconomyClassCapacity() + " | " +
-                "Passengers: " + (passengers.isEmpty() ? 0 : passengers.size()) + " | " +
+                "Passengers: " + roster.size() + " | " +
                 "Open for Reservation: " + (isOpenForReservation ? "Yes" : "No");
     }
 
@@ -155,63 +322,541 @@ public class Flight {
     }
 
     public String bookSeat(Passenger passenger, String seatType, String service) {
+        return bookSeat(passenger, seatType, service, null);
+    }
+
+    /**
+     * Books a seat for a passenger, either a specific seat or the lowest-numbered free seat of the cabin.
+     *
+     * @param passenger  The passenger to book for
+     * @param seatType   The seat type (e.g., "FirstClass", "Economy")
+     * @param service    The service type (e.g., "Meal")
+     * @param seatNumber The requested seat (e.g., "12C"), or null to assign the next free seat
+     * @return A message describing the result of the booking
+     */
+    public String bookSeat(Passenger passenger, String seatType, String service, String seatNumber) {
         // Check if the flight is open for booking
         if (!isOpenForReservation) {
             return "Reservation is closed for this flight.";
         }
 
         // Check if the seat type is valid
-        if (!seatType.equalsIgnoreCase("FirstClass") && !seatType.equalsIgnoreCase("Economy")) {
+        CabinClass cabin = CabinClass.fromLabel(seatType);
+        if (cabin == null) {
             return "Invalid seat type. Please choose 'FirstClass' or 'Economy'.";
         }
+        if (seatNumber != null && seatMap.getCabin(seatNumber) != cabin) {
+            return "Seat " + seatNumber + " is not a " + seatType + " seat on flight " + flightNumber + ".";
+        }
+
+        // The conflict check and the reservation must not interleave with another booking of the same passenger
+        synchronized (passenger) {
+            String failure = reserveSeat(passenger, cabin, seatType, service, seatNumber);
+            if (failure != null) {
+                return failure;
+            }
+            // Add passengers to the roster
+            roster.add(passenger, cabin);
+        }
 
+        // Check if it is necessary to close the reservation
+        checkReservationStatus();
+        for (FlightListener listener : listeners) {
+            listener.onSeatBooked(this, passenger, cabin);
+        }
+
+        //Return result message
+        return bookedMessage(passenger, seatType);
+    }
+
+    /**
+     * Books seats for several independent requests on this flight, e.g. a burst of bookings from
+     * a sales channel. Each request succeeds or fails on its own, exactly as with
+     * {@link #bookSeat(Passenger, String, String)}. Consecutive requests for the same seat type are
+     * booked as one run: their seats are taken from the inventory in a single update and assigned
+     * in a single pass over the seat map, in the order of the requests. The reservation state is
+     * checked and listeners are notified once after the burst.
+     *
+     * @param bookings The booking requests, all for this flight
+     * @return One result message per request, in the order of the requests
+     */
+    public List<String> bookSeats(List<BookingCommand> bookings) {
+        List<String> results = new ArrayList<>(bookings.size());
+        List<Passenger> booked = new ArrayList<>(bookings.size());
+        List<CabinClass> cabins = new ArrayList<>(bookings.size());
+        int start = 0;
+        while (start < bookings.size()) {
+            String seatType = bookings.get(start).getSeatType();
+            int end = start + 1;
+            while (end < bookings.size() && Objects.equals(bookings.get(end).getSeatType(), seatType)) {
+                end++;
+            }
+            bookRun(bookings.subList(start, end), seatType, results, booked, cabins);
+            start = end;
+        }
+
+        checkReservationStatus();
+        for (int i = 0; i < booked.size(); i++) {
+            for (FlightListener listener : listeners) {
+                listener.onSeatBooked(this, booked.get(i), cabins.get(i));
+            }
+        }
+        return results;
+    }
+
+    // Books a run of requests for one seat type, taking all their seats at once
+    private void bookRun(List<BookingCommand> run, String seatType, List<String> results,
+                         List<Passenger> booked, List<CabinClass> cabins) {
+        CabinClass cabin = CabinClass.fromLabel(seatType);
+        String failure = null;
+        if (!isOpenForReservation) {
+            failure = "Reservation is closed for this flight.";
+        } else if (cabin == null) {
+            failure = "Invalid seat type. Please choose 'FirstClass' or 'Economy'.";
+        }
+        if (failure != null) {
+            for (int i = 0; i < run.size(); i++) {
+                results.add(failure);
+            }
+            return;
+        }
+
+        // The inventory guarantees the seat map has a free seat for every seat taken from it
+        int reserved = seats.tryReserveUpTo(cabin, run.size());
+        List<String> seatNumbers = reserved == 0 ? Collections.emptyList() : seatMap.assignNext(cabin, reserved);
+        int used = 0;
+        for (BookingCommand booking : run) {
+            Passenger passenger = booking.getPassenger();
+            // The conflict check and the reservation must not interleave with another booking of the same passenger
+            synchronized (passenger) {
+                if (!passenger.isConflict(this)) {
+                    failure = "Conflict detected: Cannot book flight " + flightNumber;
+                } else if (used == seatNumbers.size()) {
+                    failure = "No remaining seats in " + seatType + ".";
+                } else {
+                    failure = null;
+                    passenger.setReservations(this, seatType, booking.getService(), seatNumbers.get(used++));
+                    roster.add(passenger, cabin);
+                }
+            }
+            if (failure != null) {
+                results.add(failure);
+                continue;
+            }
+            booked.add(passenger);
+            cabins.add(cabin);
+            results.add(bookedMessage(passenger, seatType));
+        }
+
+        // Give back the seats of the requests that failed
+        for (int i = used; i < seatNumbers.size(); i++) {
+            seatMap.release(seatNumbers.get(i));
+        }
+        if (reserved > used) {
+            seats.release(cabin, reserved - used);
+        }
+    }
+
+    // Checks for conflicts, takes a seat and records the reservation; called with the passenger locked.
+    // Returns the reason for a failure, or null if the seat was reserved.
+    private String reserveSeat(Passenger passenger, CabinClass cabin, String seatType, String service,
+                               String seatNumber) {
         // Check if the passenger has any conflicts with other flights
         if (!passenger.isConflict(this)) {
             return "Conflict detected: Cannot book flight " + flightNumber;
         }
 
         // check and adjust capacity according to seat type
-        if (!reduceSeatCapacity(seatType)) {
+        if (!reduceSeatCapacity(cabin)) {
             return "No remaining seats in " + seatType + ".";
         }
 
-        // Add passengers to the list
-        passengers.add(passenger);
+        // Pick the seat; the inventory guarantees the cabin still has one
+        if (seatNumber == null) {
+            seatNumber = seatMap.assignNext(cabin);
+        } else if (!seatMap.assign(seatNumber)) {
+            seats.release(cabin);
+            return "Seat " + seatNumber + " is already taken.";
+        }
 
         // Update the passenger's own reservation list
-        passenger.setReservations(this, seatType, service);
-
-        // Check if it is necessary to close the reservation
-        checkReservationStatus();
+        passenger.setReservations(this, seatType, service, seatNumber);
+        return null;
+    }
 
-        //Return result message
+    private String bookedMessage(Passenger passenger, String seatType) {
         String resultMessage = "Seat successfully booked for " + passenger.getName() + " in " + seatType + ".";
-        if (vip.contains(passenger)) {
+        if (roster.isVip(passenger)) {
             resultMessage += " You can enjoy a 15% discount on the ticket price.";
         }
         return resultMessage;
     }
 
     /**
-     * Reduces the seat capacity for the specified seat type by one if seats are available.
+     * Puts a passenger on the waitlist of a sold-out cabin instead of retrying the booking. As soon
+     * as a seat of the cabin frees up it is booked for the first waiting passenger, VIPs first and
+     * then in the order they joined, and the passenger is notified through the flight's listeners.
      *
-     * @param seatType The type of seat to reduce capacity for (e.g., "FirstClass", "Economy").
-     * @return true if the seat capacity was successfully reduced, false if no seats are available
-     *         for the specified type or the type is invalid.
+     * @param passenger The passenger to put on the waitlist
+     * @param seatType  The seat type (e.g., "FirstClass", "Economy")
+     * @param service   The service type (e.g., "Meal")
+     * @return A message describing the result
+     */
+    public String joinWaitlist(Passenger passenger, String seatType, String service) {
+        CabinClass cabin = CabinClass.fromLabel(seatType);
+        if (cabin == null) {
+            return "Invalid seat type. Please choose 'FirstClass' or 'Economy'.";
+        }
+        if (!isBookable()) {
+            return "Reservation is closed for this flight.";
+        }
+        if (roster.contains(passenger)) {
+            return passenger.getName() + " has already booked flight " + flightNumber + ".";
+        }
+        if (seats.getRemaining(cabin) > 0) {
+            return isOpenForReservation ? "Seats are still available in " + seatType + ". Please book one directly."
+                    : "Reservation is closed for this flight.";
+        }
+        if (!waitlist.add(passenger, cabin, seatType, service, roster.isVip(passenger))) {
+            return passenger.getName() + " is already on the waitlist for flight " + flightNumber + ".";
+        }
+        EventLog.getDefault().log(EventType.WAITLIST_JOINED, flightNumber, passenger.getName(), "seatType", seatType);
+        promoteWaitlisted(); // A seat may have freed up since the booking failed
+        if (roster.contains(passenger)) {
+            return bookedMessage(passenger, seatType);
+        }
+        return passenger.getName() + " is on the waitlist for " + seatType + " on flight " + flightNumber
+                + " (" + waitlist.size(cabin) + " waiting).";
+    }
+
+    /**
+     * Books the seats handed to waitlisted passengers. A passenger who has booked the flight or a
+     * clashing one meanwhile is skipped and the seat goes to the next in line. Takes each promoted
+     * passenger's lock, so it must not be called with another passenger locked; a cancelling or
+     * modifying passenger calls it once it has released its own lock.
+     */
+    void promoteWaitlisted() {
+        FlightWaitlist.Entry entry;
+        while ((entry = waitlist.nextPromotion()) != null) {
+            Passenger passenger = entry.getPassenger();
+            CabinClass cabin = entry.getCabin();
+            boolean booked = false;
+            synchronized (passenger) {
+                if (isBookable() && !roster.contains(passenger) && passenger.isConflict(this)) {
+                    passenger.setReservations(this, entry.getSeatType(), entry.getService(), seatMap.assignNext(cabin));
+                    roster.add(passenger, cabin);
+                    booked = true;
+                }
+            }
+            if (!booked) {
+                waitlist.release(cabin); // On to the next in line, or back to the inventory
+                continue;
+            }
+            checkReservationStatus();
+            EventLog.getDefault().log(EventType.WAITLIST_PROMOTED, flightNumber, passenger.getName(),
+                    "seatType", entry.getSeatType());
+            for (FlightListener listener : listeners) {
+                listener.onSeatBooked(this, passenger, cabin);
+            }
+            for (FlightListener listener : listeners) {
+                listener.onWaitlistPromoted(this, passenger, cabin);
+            }
+        }
+    }
+
+    /**
+     * Holds the next free seat of a cabin, see {@link #holdSeat(String, String, Duration, SeatHoldTimer)}.
+     *
+     * @param seatType The seat type (e.g., "FirstClass", "Economy")
+     * @param ttl      How long the seat is held
+     * @param timer    The timer expiring the hold
+     * @return The hold, or null if the flight is closed for reservation or the cabin is sold out
+     */
+    public SeatHold holdSeat(String seatType, Duration ttl, SeatHoldTimer timer) {
+        return holdSeat(seatType, null, ttl, timer);
+    }
+
+    /**
+     * Takes a seat out of the inventory for a limited time, e.g. while a customer checks out. The
+     * hold is either confirmed into a reservation with {@link SeatHold#confirm(Passenger, String)}
+     * or, once its time to live has elapsed, expires and the seat is returned: to the first
+     * passenger on the cabin's waitlist, or to the inventory.
+     *
+     * @param seatType   The seat type (e.g., "FirstClass", "Economy")
+     * @param seatNumber The seat to hold (e.g., "12C"), or null to hold the next free seat
+     * @param ttl        How long the seat is held
+     * @param timer      The timer expiring the hold
+     * @return The hold, or null if the flight is closed for reservation, the cabin is sold out or
+     *         the seat is taken
+     * @throws IllegalArgumentException if the seat type or seat is not valid or the time to live is not positive
+     * @throws IllegalStateException    if the timer has been closed; the seat stays free
+     */
+    public SeatHold holdSeat(String seatType, String seatNumber, Duration ttl, SeatHoldTimer timer) {
+        CabinClass cabin = CabinClass.fromLabel(seatType);
+        if (cabin == null) {
+            throw new IllegalArgumentException("Invalid seat type. Please choose 'FirstClass' or 'Economy'.");
+        }
+        if (seatNumber != null && seatMap.getCabin(seatNumber) != cabin) {
+            throw new IllegalArgumentException("Seat " + seatNumber + " is not a " + seatType + " seat on flight "
+                    + flightNumber + ".");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Seat holds must last longer than zero.");
+        }
+        if (!isOpenForReservation || !isBookable() || !seats.tryReserve(cabin)) {
+            return null;
+        }
+        if (seatNumber == null) {
+            seatNumber = seatMap.assignNext(cabin);
+        } else if (!seatMap.assign(seatNumber)) {
+            seats.release(cabin);
+            return null;
+        }
+        // Reservations stay open: a full flight only closes once the held seats are confirmed
+        SeatHold hold = new SeatHold(this, cabin, cabin.getLabel(), seatNumber, timer.millis() + ttl.toMillis());
+        try {
+            timer.schedule(hold);
+        } catch (IllegalStateException e) {
+            // The timer has been closed and would never return the seat
+            seatMap.release(seatNumber);
+            seats.release(cabin);
+            throw e;
+        }
+        return hold;
+    }
+
+    // Books a held seat for a passenger; called through SeatHold.confirm
+    String confirmHold(SeatHold hold, Passenger passenger, String service) {
+        if (hold.getFlight() != this) {
+            throw new IllegalArgumentException("The hold is for flight " + hold.getFlight().getFlightNumber() + ".");
+        }
+        boolean bookable;
+        synchronized (passenger) {
+            bookable = isBookable();
+            if (bookable && hold.getState() == SeatHold.State.HELD && !passenger.isConflict(this)) {
+                return "Conflict detected: Cannot book flight " + flightNumber;
+            }
+            if (bookable && !hold.end(SeatHold.State.CONFIRMED)) {
+                return "The hold on seat " + hold.getSeatNumber() + " has "
+                        + (hold.getState() == SeatHold.State.EXPIRED ? "expired." : "already ended.");
+            }
+            if (bookable) {
+                passenger.setReservations(this, hold.getSeatType(), service, hold.getSeatNumber());
+                roster.add(passenger, hold.getCabin());
+            }
+        }
+        if (!bookable) {
+            // Cancelled or departed since the seat was held: give the seat back, outside the passenger's lock
+            return releaseHold(hold, SeatHold.State.RELEASED)
+                    ? "Reservation is closed for this flight."
+                    : "The hold on seat " + hold.getSeatNumber() + " has "
+                            + (hold.getState() == SeatHold.State.EXPIRED ? "expired." : "already ended.");
+        }
+
+        checkReservationStatus();
+        for (FlightListener listener : listeners) {
+            listener.onSeatBooked(this, passenger, hold.getCabin());
+        }
+        return bookedMessage(passenger, hold.getSeatType());
+    }
+
+    // Gives a held seat back, to the waitlist first; false if the hold had already ended
+    boolean releaseHold(SeatHold hold, SeatHold.State state) {
+        if (!hold.end(state)) {
+            return false;
+        }
+        seatMap.release(hold.getSeatNumber());
+        waitlist.release(hold.getCabin());
+        promoteWaitlisted();
+        return true;
+    }
+
+    // Whether the flight has not been cancelled and has not left yet
+    private boolean isBookable() {
+        FlightStatus current = status;
+        return current == FlightStatus.SCHEDULED || current == FlightStatus.DELAYED;
+    }
+
+    /**
+     * Puts back reservations recovered from a snapshot or the booking journal. Unlike
+     * {@link #bookSeat(Passenger, String, String, String)} this skips the reservation and conflict
+     * checks, since the bookings were accepted before and a later delay may have made one overlap
+     * another of the passenger's flights. A reservation whose seat is unknown or taken gets the
+     * next free seat of its cabin; one that finds its cabin full is dropped.
+     *
+     * @param reservations The reservation of each passenger, all for this flight
+     * @return The number of reservations restored
      */
-    private boolean reduceSeatCapacity(String seatType) {
-        if (seatType.equalsIgnoreCase("FirstClass")) {
-            if (firstClassCapacity > 0) {
-                firstClassCapacity--;
-                return true;
+    int restoreReservations(Map<Passenger, Reservation> reservations) {
+        List<Passenger> restored = new ArrayList<>(reservations.size());
+        List<CabinClass> cabins = new ArrayList<>(reservations.size());
+        for (Map.Entry<Passenger, Reservation> entry : reservations.entrySet()) {
+            Passenger passenger = entry.getKey();
+            Reservation reservation = entry.getValue();
+            CabinClass cabin = CabinClass.fromLabel(reservation.getMySeatType());
+            if (cabin == null || !seats.tryReserve(cabin)) {
+                continue;
             }
-        } else if (seatType.equalsIgnoreCase("Economy")) {
-            if (economyClassCapacity > 0) {
-                economyClassCapacity--;
-                return true;
+            String seatNumber = reservation.getMySeatNumber();
+            if (seatNumber == null || seatMap.getCabin(seatNumber) != cabin || !seatMap.assign(seatNumber)) {
+                reservation.setMySeatNumber(seatMap.assignNext(cabin));
             }
+            passenger.addReservation(reservation);
+            restored.add(passenger);
+            cabins.add(cabin);
         }
-        return false;
+        for (int i = 0; i < restored.size(); i++) {
+            roster.add(restored.get(i), cabins.get(i));
+        }
+
+        checkReservationStatus();
+        for (int i = 0; i < restored.size(); i++) {
+            for (FlightListener listener : listeners) {
+                listener.onSeatBooked(this, restored.get(i), cabins.get(i));
+            }
+        }
+        return restored.size();
+    }
+
+    /**
+     * Removes a passenger's reservation quietly, e.g. when recovery finds a newer state for it.
+     * Unlike {@link Passenger#cancelReservation(Flight)} no fee applies and nothing is printed.
+     *
+     * @param passenger The passenger whose reservation is removed
+     * @return True if the passenger had a reservation on this flight
+     */
+    boolean discardReservation(Passenger passenger) {
+        Reservation reservation = passenger.removeReservation(this);
+        if (reservation == null || !roster.remove(passenger)) {
+            return false;
+        }
+        CabinClass cabin = CabinClass.fromLabel(reservation.getMySeatType()) == CabinClass.FIRST_CLASS
+                ? CabinClass.FIRST_CLASS : CabinClass.ECONOMY;
+        seats.release(cabin);
+        if (reservation.getMySeatNumber() != null) {
+            seatMap.release(reservation.getMySeatNumber());
+        }
+        for (FlightListener listener : listeners) {
+            listener.onSeatReleased(this, passenger, cabin);
+        }
+        return true;
+    }
+
+    /**
+     * Books seats for a group of passengers in one cabin, all or nothing. The seats are taken from
+     * the inventory in a single update and, where one row has room, assigned next to each other.
+     * Conflicts are checked for every passenger in one pass while all of them are locked, so no
+     * passenger can book a clashing flight in between. If any passenger cannot travel, nobody in
+     * the group is booked.
+     *
+     * @param group    The passengers to book, each at most once
+     * @param seatType The seat type (e.g., "FirstClass", "Economy")
+     * @param service  The service type (e.g., "Meal")
+     * @return One result message per passenger, in the order of the group
+     */
+    public List<String> bookGroup(List<Passenger> group, String seatType, String service) {
+        List<String> results = new ArrayList<>(group.size());
+        String failure = null;
+        CabinClass cabin = CabinClass.fromLabel(seatType);
+        if (group.isEmpty()) {
+            return results;
+        } else if (!isOpenForReservation) {
+            failure = "Reservation is closed for this flight.";
+        } else if (cabin == null) {
+            failure = "Invalid seat type. Please choose 'FirstClass' or 'Economy'.";
+        }
+        // Lock the passengers in id order so two overlapping groups cannot deadlock
+        List<Passenger> lockOrder = new ArrayList<>(group);
+        lockOrder.sort(Comparator.comparingLong(Passenger::getId));
+        for (int i = 1; i < lockOrder.size() && failure == null; i++) {
+            if (lockOrder.get(i) == lockOrder.get(i - 1)) {
+                failure = "Each passenger can only appear once in a group booking.";
+            }
+        }
+        if (failure != null) {
+            for (int i = 0; i < group.size(); i++) {
+                results.add(failure);
+            }
+            return results;
+        }
+
+        boolean booked = withLocks(lockOrder, 0, () -> reserveGroup(group, cabin, seatType, service, results));
+        if (!booked) {
+            return results;
+        }
+
+        checkReservationStatus();
+        for (Passenger passenger : group) {
+            for (FlightListener listener : listeners) {
+                listener.onSeatBooked(this, passenger, cabin);
+            }
+        }
+        return results;
+    }
+
+    // Runs the group reservation once every passenger from index i onwards is locked
+    private static boolean withLocks(List<Passenger> lockOrder, int i, BooleanSupplier action) {
+        if (i == lockOrder.size()) {
+            return action.getAsBoolean();
+        }
+        synchronized (lockOrder.get(i)) {
+            return withLocks(lockOrder, i + 1, action);
+        }
+    }
+
+    // Checks every passenger, then takes all seats at once; called with all passengers locked
+    private boolean reserveGroup(List<Passenger> group, CabinClass cabin, String seatType, String service,
+                                 List<String> results) {
+        boolean conflict = false;
+        for (Passenger passenger : group) {
+            if (!passenger.isConflict(this)) {
+                conflict = true;
+                results.add("Conflict detected: Cannot book flight " + flightNumber);
+            } else {
+                results.add(null);
+            }
+        }
+        if (conflict) {
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) == null) {
+                    results.set(i, "Group booking cancelled: another passenger in the group cannot travel.");
+                }
+            }
+            return false;
+        }
+        if (!seats.tryReserve(cabin, group.size())) {
+            results.clear();
+            for (int i = 0; i < group.size(); i++) {
+                results.add("Not enough remaining seats in " + seatType + " for a group of " + group.size() + ".");
+            }
+            return false;
+        }
+
+        List<String> seatNumbers = seatMap.assignGroup(cabin, group.size());
+        roster.addAll(group, cabin);
+        for (int i = 0; i < group.size(); i++) {
+            Passenger passenger = group.get(i);
+            passenger.setReservations(this, seatType, service, seatNumbers.get(i));
+            String result = "Seat " + seatNumbers.get(i) + " successfully booked for " + passenger.getName()
+                    + " in " + seatType + ".";
+            if (roster.isVip(passenger)) {
+                result += " You can enjoy a 15% discount on the ticket price.";
+            }
+            results.set(i, result);
+        }
+        return true;
+    }
+
+    /**
+     * Reduces the seat capacity for the specified cabin by one if seats are available.
+     * The seat is taken with an atomic compare-and-set, so concurrent bookings never oversell.
+     *
+     * @param cabin The cabin to reduce capacity for.
+     * @return true if the seat capacity was successfully reduced, false if no seats are available
+     *         in the cabin.
+     */
+    private boolean reduceSeatCapacity(CabinClass cabin) {
+        return seats.tryReserve(cabin);
     }
 
     /**
@@ -222,48 +867,111 @@ public class Flight {
      * @param passenger The passenger canceling their booking.
      */
     public void update(String seatType, Passenger passenger) {
-        if (vip.contains(passenger)) {
-            System.out.println("You are a VIP, so we will waive the service fee for you this time");
+        Reservation reservation = passenger.getReservation(this);
+        update(seatType, passenger, reservation == null ? null : reservation.getMySeatNumber());
+    }
+
+    /**
+     * Updates the flight's seat availability when a passenger cancels their booking and frees
+     * the passenger's seat. The seat goes straight to the first passenger on the cabin's waitlist,
+     * if any, and is booked for them unless the cancelling passenger is locked by the caller, who
+     * then calls {@link #promoteWaitlisted()} after unlocking.
+     *
+     * @param seatType   The type of seat being canceled (e.g., "FirstClass", "Economy").
+     * @param passenger  The passenger canceling their booking.
+     * @param seatNumber The seat assigned to the passenger, or null if none was assigned.
+     */
+    public void update(String seatType, Passenger passenger, String seatNumber) {
+        EventLog events = EventLog.getDefault();
+        if (roster.isVip(passenger)) {
+            events.log(EventType.VIP_FEE_WAIVED, flightNumber, passenger.getName());
         }
-        if (seatType.equalsIgnoreCase("FirstClass")) {
-            firstClassCapacity++;
-            System.out.println("You need to pay an additional 15% of the first-class ticket price as a handling fee");
+        CabinClass cabin = CabinClass.fromLabel(seatType) == CabinClass.FIRST_CLASS
+                ? CabinClass.FIRST_CLASS : CabinClass.ECONOMY;
+        if (cabin == CabinClass.FIRST_CLASS) {
+            events.log(EventType.HANDLING_FEE_CHARGED, flightNumber, passenger.getName(),
+                    "percent", 15, "cabin", "first-class");
         } else {
-            economyClassCapacity++;
-            System.out.println("You need to pay an additional 10% of the economy-class ticket price as a handling fee");
+            events.log(EventType.HANDLING_FEE_CHARGED, flightNumber, passenger.getName(),
+                    "percent", 10, "cabin", "economy-class");
         }
-        // Remove the passenger from the passenger list
-        if (passengers.contains(passenger)) {
-            passengers.remove(passenger);
-            System.out.println("Passenger " + passenger.getName() + " has been removed from the flight.");
+        // Remove the passenger from the roster, and only then return the seat
+        if (roster.remove(passenger)) {
+            if (seatNumber != null) {
+                seatMap.release(seatNumber);
+            }
+            waitlist.release(cabin); // Free the seat number first, a promotion may take it right away
+            events.log(EventType.PASSENGER_REMOVED, flightNumber, passenger.getName());
+            for (FlightListener listener : listeners) {
+                listener.onSeatReleased(this, passenger, cabin);
+            }
         } else {
-            System.out.println("Passenger not found in the flight.");
+            events.log(EventType.PASSENGER_NOT_ON_FLIGHT, flightNumber, passenger.getName());
+        }
+        if (!Thread.holdsLock(passenger)) {
+            promoteWaitlisted();
         }
     }
 
     /**
      * Modifies a passenger's seat type booking and adjusts the seat capacity accordingly.
-     * VIP passengers are exempt from the service fee.
+     * The seat in the new cabin is taken before the old one is returned, so a concurrent
+     * booking can never oversell either cabin. The seat left in the old cabin goes to the first
+     * passenger on that cabin's waitlist, as with a cancellation. VIP passengers are exempt from
+     * the service fee.
      *
      * @param newSeatType The new seat type the passenger wishes to switch to (e.g., "FirstClass", "Economy").
      * @param passenger   The passenger requesting the modification.
+     * @return true if the seat was changed, false if the passenger is not on this flight, is
+     *         already in the new cabin or the new cabin is sold out.
      */
-    public void modify(String newSeatType, Passenger passenger) {
-        if (newSeatType.equalsIgnoreCase("FirstClass")) {
-            economyClassCapacity++;
-            firstClassCapacity--;
-            System.out.println("Please pay the upgrade fee.");
+    public boolean modify(String newSeatType, Passenger passenger) {
+        if (!roster.contains(passenger)) {
+            EventLog.getDefault().log(EventType.PASSENGER_NOT_ON_FLIGHT, flightNumber, passenger.getName());
+            return false;
+        }
+        Reservation reservation = passenger.getReservation(this);
+        CabinClass to = CabinClass.fromLabel(newSeatType);
+        CabinClass from = roster.getCabin(passenger);
+        if (from == null && reservation != null) {
+            from = CabinClass.fromLabel(reservation.getMySeatType());
+        }
+        if (to == null || from == null || from == to) {
+            return false; // Nothing to move, so the inventory stays untouched
+        }
+        if (!seats.tryReserve(to)) {
+            return false;
+        }
+        roster.changeCabin(passenger, to);
+        // Move the passenger to a seat in the new cabin
+        if (reservation != null && reservation.getMySeatNumber() != null) {
+            String oldSeat = reservation.getMySeatNumber();
+            reservation.setMySeatNumber(seatMap.assignNext(to));
+            seatMap.release(oldSeat);
+        }
+        waitlist.release(from);
+        EventLog events = EventLog.getDefault();
+        if (to == CabinClass.FIRST_CLASS) {
+            events.log(EventType.UPGRADE_FEE_CHARGED, flightNumber, passenger.getName());
         } else {
-            firstClassCapacity++;
-            economyClassCapacity--;
-            System.out.println("The fare difference will be refunded to your account.");
+            events.log(EventType.FARE_DIFFERENCE_REFUNDED, flightNumber, passenger.getName());
         }
-        if (vip.contains(passenger)) {
-            System.out.println("You are a VIP, so we will waive the service fee for you this time");
+        if (roster.isVip(passenger)) {
+            events.log(EventType.VIP_FEE_WAIVED, flightNumber, passenger.getName());
         } else {
-            System.out.println("You need to pay a 5% service fee on the ticket price.");
+            events.log(EventType.SERVICE_FEE_CHARGED, flightNumber, passenger.getName(), "percent", 5);
         }
+        if (!Thread.holdsLock(passenger)) {
+            promoteWaitlisted();
+        }
+        return true;
+    }
 
+    // Tells the listeners that a reservation changed; called by the passenger with itself locked
+    void reservationModified(Passenger passenger, Reservation reservation) {
+        for (FlightListener listener : listeners) {
+            listener.onReservationModified(this, passenger, reservation);
+        }
     }
 
 }
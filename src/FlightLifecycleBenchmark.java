@@ -0,0 +1,131 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of a week of flight operations: 20,000 flights departing over seven days, moved to
+ * IN_FLIGHT and LANDED by a tick every minute. Compares the lifecycle scheduler, which only takes
+ * out the flights due in a tick, with checking the times of every flight in every tick.
+ */
+public class FlightLifecycleBenchmark {
+    private static final int FLIGHTS = 20_000;
+    private static final Duration WEEK = Duration.ofDays(7);
+    private static final Duration TICK = Duration.ofMinutes(1);
+    private static final Instant START = Instant.parse("2024-11-24T00:00:00Z");
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        for (int round = 0; round < ROUNDS; round++) {
+            scheduler(round + 1);
+            scan(round + 1);
+        }
+    }
+
+    private static void scheduler(int round) {
+        MutableClock clock = new MutableClock(START);
+        FlightLifecycleScheduler scheduler = new FlightLifecycleScheduler(clock);
+        List<Flight> flights = flights();
+        for (Flight flight : flights) {
+            scheduler.watch(flight);
+        }
+        System.gc();
+        long start = System.nanoTime();
+        int changes = 0;
+        long ticks = 0;
+        for (; ticks * TICK.toMinutes() <= WEEK.plusHours(12).toMinutes(); ticks++) {
+            clock.advance(TICK);
+            changes += scheduler.runDue();
+        }
+        long nanos = System.nanoTime() - start;
+        check(flights, changes);
+        System.out.printf("Round %d: priority queue, %,d ticks, %,.0f ns per tick%n", round, ticks,
+                nanos / (double) ticks);
+    }
+
+    private static void scan(int round) {
+        MutableClock clock = new MutableClock(START);
+        List<Flight> flights = flights();
+        System.gc();
+        long start = System.nanoTime();
+        int changes = 0;
+        long ticks = 0;
+        for (; ticks * TICK.toMinutes() <= WEEK.plusHours(12).toMinutes(); ticks++) {
+            clock.advance(TICK);
+            LocalDateTime now = LocalDateTime.now(clock);
+            for (Flight flight : flights) {
+                FlightStatus status = flight.getStatus();
+                if ((status == FlightStatus.SCHEDULED || status == FlightStatus.DELAYED)
+                        && !flight.getDepartureTime().isAfter(now)) {
+                    flight.setStatus(FlightStatus.IN_FLIGHT);
+                    flight.closeForReservation();
+                    status = FlightStatus.IN_FLIGHT;
+                    changes++;
+                }
+                if (status == FlightStatus.IN_FLIGHT && !flight.getArrivalTime().isAfter(now)) {
+                    flight.setStatus(FlightStatus.LANDED);
+                    changes++;
+                }
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        check(flights, changes);
+        System.out.printf("Round %d: full scan,      %,d ticks, %,.0f ns per tick%n", round, ticks,
+                nanos / (double) ticks);
+    }
+
+    private static List<Flight> flights() {
+        Random random = new Random(42);
+        LocalDateTime first = LocalDateTime.ofInstant(START, ZoneOffset.UTC);
+        List<Flight> flights = new ArrayList<>(FLIGHTS);
+        for (int i = 0; i < FLIGHTS; i++) {
+            LocalDateTime departure = first.plusMinutes(1 + random.nextInt((int) WEEK.toMinutes()));
+            flights.add(new Flight(String.format("MB%05d", i), "New York", "Los Angeles", departure,
+                    departure.plusMinutes(60 + random.nextInt(600)), 100, new ArrayList<>(), new ArrayList<>()));
+        }
+        return flights;
+    }
+
+    private static void check(List<Flight> flights, int changes) {
+        for (Flight flight : flights) {
+            if (flight.getStatus() != FlightStatus.LANDED) {
+                throw new IllegalStateException(flight.getFlightNumber() + " has not landed.");
+            }
+        }
+        if (changes != 2 * FLIGHTS) {
+            throw new IllegalStateException(changes + " status changes for " + FLIGHTS + " flights.");
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Moves flights through their lifecycle, SCHEDULED (or DELAYED) to IN_FLIGHT at the departure
+ * time and IN_FLIGHT to LANDED at the arrival time.
+ *
+ * The next transition of every watched flight is kept in a priority queue ordered by time, so a
+ * tick only takes out the transitions that are due, O(log n) each, instead of checking every
+ * flight. A delay, cancellation or manual status change plans the flight anew; the transition
+ * planned before is left in the queue and skipped when it comes up. A transition whose flight
+ * has been moved to a later time since it was planned is put back at the new time.
+ *
+ * The current time comes from an injectable clock: {@link #runDue()} applies the due transitions
+ * on demand, e.g. in tests that move a fixed clock forward, and {@link #start()} runs a daemon
+ * thread that applies them as they fall due.
+ */
+public class FlightLifecycleScheduler implements FlightListener, AutoCloseable {
+    private static final Set<FlightStatus> BEFORE_DEPARTURE = EnumSet.of(FlightStatus.SCHEDULED, FlightStatus.DELAYED);
+    private static final Set<FlightStatus> AIRBORNE = EnumSet.of(FlightStatus.IN_FLIGHT);
+    private static final long MAX_WAIT_MILLIS = Duration.ofMinutes(1).toMillis(); // Rechecks a clock that jumps
+
+    private final Clock clock; // Source of the current time, injectable for tests
+    private final PriorityQueue<Transition> queue = new PriorityQueue<>(); // Planned transitions by time
+    private final Map<Flight, Long> plans = new HashMap<>(); // Current plan of each watched flight
+    private long nextPlan; // Identifies plans, so outdated transitions can be recognised
+    private Thread runner; // Applies transitions as they fall due, started on demand
+    private volatile boolean closed;
+
+    // The next status of a flight and when it is due
+    private static final class Transition implements Comparable<Transition> {
+        private final Flight flight;
+        private final FlightStatus status; // IN_FLIGHT or LANDED
+        private final LocalDateTime time;
+        private final long plan;
+
+        private Transition(Flight flight, FlightStatus status, LocalDateTime time, long plan) {
+            this.flight = flight;
+            this.status = status;
+            this.time = time;
+            this.plan = plan;
+        }
+
+        @Override
+        public int compareTo(Transition other) {
+            int order = time.compareTo(other.time);
+            return order != 0 ? order : Long.compare(plan, other.plan);
+        }
+    }
+
+    /**
+     * Constructor to initialize a scheduler without flights. No thread runs until {@link #start()}.
+     *
+     * @param clock The clock deciding when flights depart and land
+     */
+    public FlightLifecycleScheduler(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Starts moving a flight through its lifecycle.
+     *
+     * @param flight The flight to watch
+     */
+    public void watch(Flight flight) {
+        flight.addListener(this);
+        synchronized (this) {
+            plan(flight);
+        }
+    }
+
+    /**
+     * Stops moving a flight through its lifecycle, e.g. when it is removed from the schedule.
+     *
+     * @param flight The flight to stop watching
+     */
+    public void unwatch(Flight flight) {
+        flight.removeListener(this);
+        synchronized (this) {
+            plans.remove(flight); // Its planned transition is skipped when it comes up
+        }
+    }
+
+    @Override
+    public void onStatusChanged(Flight flight, FlightStatus oldStatus, FlightStatus newStatus) {
+        synchronized (this) {
+            if (plans.containsKey(flight)) {
+                plan(flight);
+            }
+        }
+    }
+
+    /**
+     * Applies every transition that is due by the current time of the clock. A flight departs
+     * with reservations closed; one that is overdue by more than its flight time departs and
+     * lands in the same call.
+     *
+     * @return The number of status changes made
+     */
+    public int runDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int applied = 0;
+        Transition transition;
+        while ((transition = nextDue(now)) != null) {
+            Flight flight = transition.flight;
+            if (transition.status == FlightStatus.IN_FLIGHT) {
+                if (flight.changeStatus(FlightStatus.IN_FLIGHT, BEFORE_DEPARTURE)) {
+                    flight.closeForReservation();
+                    applied++; // The listener callback plans the landing
+                }
+            } else if (flight.changeStatus(FlightStatus.LANDED, AIRBORNE)) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Starts a daemon thread that applies the transitions as they fall due.
+     */
+    public synchronized void start() {
+        if (closed) {
+            throw new IllegalStateException("Flight lifecycle scheduler has been closed.");
+        }
+        if (runner == null) {
+            runner = new Thread(this::run, "flight-lifecycle");
+            runner.setDaemon(true);
+            runner.start();
+        }
+    }
+
+    /**
+     * Returns the number of planned transitions, including outdated ones not yet skipped.
+     *
+     * @return The size of the queue
+     */
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    /**
+     * Stops the thread. Flights no longer change status on their own.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = runner;
+            notifyAll();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // Plans the next transition of a flight from its current status and times; the caller holds the lock
+    private void plan(Flight flight) {
+        long id = ++nextPlan;
+        plans.put(flight, id);
+        FlightStatus status = flight.getStatus();
+        if (BEFORE_DEPARTURE.contains(status)) {
+            queue.add(new Transition(flight, FlightStatus.IN_FLIGHT, flight.getDepartureTime(), id));
+        } else if (AIRBORNE.contains(status)) {
+            queue.add(new Transition(flight, FlightStatus.LANDED, flight.getArrivalTime(), id));
+        } else {
+            return; // Cancelled and landed flights have nothing left to do
+        }
+        notifyAll(); // The runner may have to wake up earlier
+    }
+
+    // Takes the next transition that is due and still planned, putting back the ones moved to a later time
+    private synchronized Transition nextDue(LocalDateTime now) {
+        Transition head;
+        while ((head = queue.peek()) != null && !head.time.isAfter(now)) {
+            queue.poll();
+            Long plan = plans.get(head.flight);
+            if (plan == null || plan != head.plan) {
+                continue; // Replanned or unwatched since
+            }
+            LocalDateTime time = head.status == FlightStatus.IN_FLIGHT
+                    ? head.flight.getDepartureTime() : head.flight.getArrivalTime();
+            if (time.isAfter(head.time)) {
+                queue.add(new Transition(head.flight, head.status, time, head.plan)); // Delayed without an event
+                continue;
+            }
+            return head;
+        }
+        return null;
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                synchronized (this) {
+                    wait(millisUntilNext());
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            runDue();
+        }
+    }
+
+    // How long the runner may sleep before the next transition is due
+    private synchronized long millisUntilNext() {
+        Transition head = queue.peek();
+        if (head == null) {
+            return MAX_WAIT_MILLIS;
+        }
+        long millis = Duration.between(LocalDateTime.now(clock), head.time).toMillis();
+        return Math.max(1, Math.min(millis, MAX_WAIT_MILLIS));
+    }
+}
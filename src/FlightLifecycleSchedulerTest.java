@@ -0,0 +1,169 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightLifecycleSchedulerTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 10, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 14, 0);
+
+    @Test
+    void flightsDepartAndLandOnTime() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-24T08:00:00Z"));
+        AirlineCompany company = new AirlineCompany("Mamba", clock);
+        company.addFlight(new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>()));
+        company.addFlight(new Flight("CD456", "New York", "Chicago", departureTime1.plusHours(1),
+                arrivalTime1.plusHours(1), 10, new ArrayList<>(), new ArrayList<>()));
+        Flight first = company.getFlightDetails("AB123");
+        Flight second = company.getFlightDetails("CD456");
+        FlightLifecycleScheduler scheduler = company.getLifecycleScheduler();
+
+        // Normal case: nothing changes before the departure time
+        assertEquals(0, scheduler.runDue());
+        assertEquals(FlightStatus.SCHEDULED, first.getStatus());
+
+        // Each flight departs at its own departure time and stops taking reservations
+        clock.advance(Duration.ofHours(2));
+        assertEquals(1, scheduler.runDue());
+        assertEquals(FlightStatus.IN_FLIGHT, first.getStatus());
+        assertFalse(first.isOpenForReservation());
+        assertEquals(FlightStatus.SCHEDULED, second.getStatus());
+        assertEquals(1, company.getRollingStatistics().getStatistics(StatisticsWindow.LAST_DAY).getDepartures());
+
+        // Edge case: a flight overdue past its arrival departs and lands in one tick
+        clock.advance(Duration.ofHours(5));
+        assertEquals(3, scheduler.runDue());
+        assertEquals(FlightStatus.LANDED, first.getStatus());
+        assertEquals(FlightStatus.LANDED, second.getStatus());
+        assertEquals(0, scheduler.size());
+        assertEquals(100.0, company.getFlightMetrics().getOnTimeRate());
+    }
+
+    @Test
+    void delayedFlightIsRescheduledAndStaysDelayed() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-24T08:00:00Z"));
+        AirlineCompany company = new AirlineCompany("Mamba", clock);
+        company.addFlight(new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>()));
+        Flight flight = company.getFlightDetails("AB123");
+        FlightLifecycleScheduler scheduler = company.getLifecycleScheduler();
+        FlightPerformanceAnalyzer analyzer = new FlightPerformanceAnalyzer(company.getAllFlights(),
+                company.getFlightMetrics());
+
+        // Normal case: a delay moves the departure, twice in a row
+        company.delayFlight("AB123", departureTime1.plusHours(1), arrivalTime1.plusHours(1));
+        company.delayFlight("AB123", departureTime1.plusHours(2), arrivalTime1.plusHours(2));
+        clock.advance(Duration.ofHours(3));
+        assertEquals(0, scheduler.runDue());
+        assertEquals(FlightStatus.DELAYED, flight.getStatus());
+
+        clock.advance(Duration.ofHours(1));
+        assertEquals(1, scheduler.runDue());
+        assertEquals(FlightStatus.IN_FLIGHT, flight.getStatus());
+
+        // Edge case: the flight still counts as delayed once it has departed
+        assertEquals(0.0, analyzer.calculateOnTimeRate());
+        assertTrue(analyzer.isConsistent());
+        assertEquals(0, company.getRollingStatistics().getStatistics(StatisticsWindow.LAST_DAY).getOnTimeDepartures());
+
+        clock.advance(Duration.ofHours(4));
+        assertEquals(1, scheduler.runDue());
+        assertEquals(FlightStatus.LANDED, flight.getStatus());
+        assertEquals(0.0, analyzer.calculateOnTimeRate());
+        assertTrue(analyzer.isConsistent());
+    }
+
+    @Test
+    void departedFlightsCannotBeDelayed() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-24T08:00:00Z"));
+        AirlineCompany company = new AirlineCompany("Mamba", clock);
+        company.addFlight(new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>()));
+        company.addFlight(new Flight("CD456", "New York", "Chicago", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>()));
+        Flight landed = company.getFlightDetails("AB123");
+        Flight cancelled = company.getFlightDetails("CD456");
+        cancelled.bookSeat(new Passenger("John Doe", new ArrayList<>()), "Economy", "Meal");
+        company.cancelFlight("CD456");
+        FlightLifecycleScheduler scheduler = company.getLifecycleScheduler();
+        clock.advance(Duration.ofHours(7));
+        assertEquals(2, scheduler.runDue());
+        assertEquals(FlightStatus.LANDED, landed.getStatus());
+
+        // Error case: a landed flight is not delayed, so it does not depart and land a second time
+        assertThrows(IllegalStateException.class, () -> company.delayFlight("AB123",
+                departureTime1.plusHours(6), arrivalTime1.plusHours(6)));
+        assertEquals(FlightStatus.LANDED, landed.getStatus());
+        assertEquals(departureTime1, landed.getDepartureTime());
+        clock.advance(Duration.ofHours(12));
+        assertEquals(0, scheduler.runDue());
+        assertEquals(1, company.getRollingStatistics().getStatistics(StatisticsWindow.LAST_DAY).getDepartures());
+
+        // Error case: nor is a cancelled one turned back into a delayed flight
+        assertThrows(IllegalStateException.class, () -> company.delayFlight("CD456",
+                departureTime1.plusHours(24), arrivalTime1.plusHours(24)));
+        assertEquals(FlightStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(100.0, company.getFlightMetrics().getOnTimeRate());
+    }
+
+    @Test
+    void cancelledAndRemovedFlightsAreSkipped() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-24T08:00:00Z"));
+        FlightLifecycleScheduler scheduler = new FlightLifecycleScheduler(clock);
+        Flight cancelled = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        Flight removed = new Flight("CD456", "New York", "Chicago", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        scheduler.watch(cancelled);
+        scheduler.watch(removed);
+
+        // Error case: neither a cancelled nor an unwatched flight departs
+        cancelled.setStatus(FlightStatus.CANCELLED);
+        scheduler.unwatch(removed);
+        clock.advance(Duration.ofDays(1));
+        assertEquals(0, scheduler.runDue());
+        assertEquals(FlightStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(FlightStatus.SCHEDULED, removed.getStatus());
+        assertEquals(0, scheduler.size());
+
+        // Edge case: a flight set back to SCHEDULED by hand is planned again
+        cancelled.setStatus(FlightStatus.SCHEDULED);
+        assertEquals(2, scheduler.runDue());
+        assertEquals(FlightStatus.LANDED, cancelled.getStatus());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
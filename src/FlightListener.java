@@ -0,0 +1,69 @@
+/**
+ * Listener interface for changes to a flight's bookings and status.
+ * Listeners are registered on a flight and are called on the thread that made the change,
+ * after the change has been applied. All methods have empty default implementations, so a
+ * listener only overrides the events it is interested in.
+ */
+public interface FlightListener {
+
+    /**
+     * Called after a seat has been booked on the flight.
+     *
+     * @param flight    the flight the seat was booked on
+     * @param passenger the passenger who booked the seat
+     * @param cabin     the cabin the seat was booked in
+     */
+    default void onSeatBooked(Flight flight, Passenger passenger, CabinClass cabin) {
+    }
+
+    /**
+     * Called after a booked seat has been cancelled and returned to the flight.
+     *
+     * @param flight    the flight the seat was released on
+     * @param passenger the passenger who cancelled
+     * @param cabin     the cabin the seat was released in
+     */
+    default void onSeatReleased(Flight flight, Passenger passenger, CabinClass cabin) {
+    }
+
+    /**
+     * Called after a passenger's reservation on the flight has been modified, e.g. moved to the
+     * other cabin. Called while the passenger is locked.
+     *
+     * @param flight      the flight the reservation is on
+     * @param passenger   the passenger who modified the reservation
+     * @param reservation the reservation after the change
+     */
+    default void onReservationModified(Flight flight, Passenger passenger, Reservation reservation) {
+    }
+
+    /**
+     * Called after a freed seat has been booked for a passenger from the flight's waitlist, right
+     * after {@link #onSeatBooked(Flight, Passenger, CabinClass)} for the same booking.
+     *
+     * @param flight    the flight the seat was booked on
+     * @param passenger the waitlisted passenger the seat was booked for
+     * @param cabin     the cabin the seat was booked in
+     */
+    default void onWaitlistPromoted(Flight flight, Passenger passenger, CabinClass cabin) {
+    }
+
+    /**
+     * Called after the flight has been moved to new departure and arrival times, e.g. by a delay,
+     * before the status change that may come with it.
+     *
+     * @param flight the flight with its new times
+     */
+    default void onRescheduled(Flight flight) {
+    }
+
+    /**
+     * Called after the flight's status has changed, e.g. when it is delayed or cancelled.
+     *
+     * @param flight    the flight whose status changed
+     * @param oldStatus the status before the change
+     * @param newStatus the status after the change
+     */
+    default void onStatusChanged(Flight flight, FlightStatus oldStatus, FlightStatus newStatus) {
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming performance counters of an airline's flights.
+ *
+ * Instead of scanning every flight on each query, the counters are updated as flights are tracked
+ * and untracked, as their status changes (delays, cancellations) and as seats are booked or
+ * released. Rate queries are therefore O(1), and the per-flight seat occupancy map is a view that
+ * is kept up to date incrementally.
+ */
+public class FlightMetrics implements FlightListener {
+    private final AtomicInteger totalFlights; // Number of tracked flights
+    private final Set<Flight> delayedFlights; // Tracked flights counted as delayed, see isDelayed
+    private final AtomicInteger cancelledFlights; // Tracked flights with status CANCELLED
+    private final Map<Flight, Double> occupancy; // Seat occupancy rate (percent) by flight-day
+    private final Map<Flight, Double> occupancyView; // Read-only view of the occupancy map
+
+    /**
+     * Constructor to initialize counters with no flights tracked.
+     */
+    public FlightMetrics() {
+        this.totalFlights = new AtomicInteger();
+        this.delayedFlights = ConcurrentHashMap.newKeySet();
+        this.cancelledFlights = new AtomicInteger();
+        this.occupancy = new ConcurrentHashMap<>();
+        this.occupancyView = Collections.unmodifiableMap(occupancy);
+    }
+
+    /**
+     * Starts counting a flight and listening to its status and seat changes.
+     *
+     * @param flight The flight to track
+     */
+    public void track(Flight flight) {
+        flight.addListener(this);
+        totalFlights.incrementAndGet();
+        count(flight.getStatus(), 1);
+        updateDelayed(flight);
+        updateOccupancy(flight);
+    }
+
+    /**
+     * Stops counting a flight, e.g. when it is removed from the schedule.
+     *
+     * @param flight The flight to untrack
+     */
+    public void untrack(Flight flight) {
+        flight.removeListener(this);
+        totalFlights.decrementAndGet();
+        count(flight.getStatus(), -1);
+        delayedFlights.remove(flight);
+        occupancy.remove(flight);
+    }
+
+    @Override
+    public void onStatusChanged(Flight flight, FlightStatus oldStatus, FlightStatus newStatus) {
+        count(oldStatus, -1);
+        count(newStatus, 1);
+        updateDelayed(flight);
+    }
+
+    @Override
+    public void onSeatBooked(Flight flight, Passenger passenger, CabinClass cabin) {
+        updateOccupancy(flight);
+    }
+
+    @Override
+    public void onSeatReleased(Flight flight, Passenger passenger, CabinClass cabin) {
+        updateOccupancy(flight);
+    }
+
+    /**
+     * Retrieves the percentage of tracked flights that are not delayed.
+     *
+     * @return The on-time rate in percent, or 0 if no flights are tracked
+     */
+    public double getOnTimeRate() {
+        int total = totalFlights.get();
+        return total == 0 ? 0.0 : (double) (total - delayedFlights.size()) / total * 100;
+    }
+
+    /**
+     * Retrieves the percentage of tracked flights that are cancelled.
+     *
+     * @return The cancellation rate in percent, or 0 if no flights are tracked
+     */
+    public double getCancellationRate() {
+        int total = totalFlights.get();
+        return total == 0 ? 0.0 : (double) cancelledFlights.get() / total * 100;
+    }
+
+    /**
+     * Retrieves the seat occupancy rate of every tracked flight.
+     *
+     * @return A live, read-only map of flights to occupancy rates in percent; a flight number
+     *         operated on several days has one entry per day
+     */
+    public Map<Flight, Double> getSeatOccupancy() {
+        return occupancyView;
+    }
+
+    /**
+     * Returns the number of tracked flights.
+     *
+     * @return The number of flights
+     */
+    public int getTotalFlights() {
+        return totalFlights.get();
+    }
+
+    /**
+     * Checks whether a flight counts as delayed: while its status is DELAYED, and once it has
+     * departed or landed after a delay.
+     *
+     * @param flight The flight
+     * @return True if the flight is not on time
+     */
+    static boolean isDelayed(Flight flight) {
+        FlightStatus status = flight.getStatus();
+        return status == FlightStatus.DELAYED
+                || flight.isDelay() && (status == FlightStatus.IN_FLIGHT || status == FlightStatus.LANDED);
+    }
+
+    private void count(FlightStatus status, int delta) {
+        if (status == FlightStatus.CANCELLED) {
+            cancelledFlights.addAndGet(delta);
+        }
+    }
+
+    // Re-evaluates the delay of a flight from its current state, so the order of events does not matter
+    private void updateDelayed(Flight flight) {
+        if (isDelayed(flight)) {
+            delayedFlights.add(flight);
+        } else {
+            delayedFlights.remove(flight);
+        }
+    }
+
+    private void updateOccupancy(Flight flight) {
+        occupancy.put(flight, (double) flight.getPassengerCount() / flight.getCapacity() * 100);
+    }
+}
@@ -2,55 +2,124 @@ import java.util.List;
 
 /**
  * A strategy class for notifying passengers about flight-related updates.
- * Implements the PassengerNotification interface.
+ * Implements the PassengerNotification interface. Registered as a listener on a flight, it also
+ * tells waitlisted passengers when a freed seat has been booked for them.
+ *
+ * Notifications are handed to a {@link NotificationDispatcher} and delivered asynchronously,
+ * so the caller does not wait for the fan-out to every passenger. When a
+ * {@link NotificationCoalescer} is used, repeated updates to the same passenger within its
+ * window are merged into one send.
  */
-public class FlightNotificationStrategy implements PassengerNotification {
-    private List<Flight> flights; // List of flights to manage notifications for
+public class FlightNotificationStrategy implements PassengerNotification, FlightListener {
+    /** Notification type of the message sent when a waitlisted passenger gets a seat. */
+    public static final String WAITLIST = "Waitlist";
+
+    private final FlightRegistry flights; // Registry of flights to manage notifications for
+    private final NotificationCoalescer coalescer; // Coalesces the notifications before they are dispatched
+    private final NotificationChannel channel; // Channel the notifications are sent over
+
+    /**
+     * Constructor to initialize the notification strategy with a flight registry and a dispatcher,
+     * sending notifications by email.
+     *
+     * @param flights    The registry of flights to be managed.
+     * @param dispatcher The dispatcher delivering the notifications.
+     */
+    public FlightNotificationStrategy(FlightRegistry flights, NotificationDispatcher dispatcher) {
+        this(flights, dispatcher, NotificationChannel.EMAIL);
+    }
+
+    /**
+     * Constructor to initialize the notification strategy.
+     *
+     * @param flights    The registry of flights to be managed.
+     * @param dispatcher The dispatcher delivering the notifications.
+     * @param channel    The channel to send notifications over.
+     */
+    public FlightNotificationStrategy(FlightRegistry flights, NotificationDispatcher dispatcher,
+                                      NotificationChannel channel) {
+        this(flights, new NotificationCoalescer(dispatcher), channel);
+    }
 
     /**
-     * Constructor to initialize the notification strategy with a list of flights.
+     * Constructor to initialize the notification strategy with a coalescer in front of the dispatcher.
      *
-     * @param flights The list of flights to be managed.
+     * @param flights   The registry of flights to be managed.
+     * @param coalescer The coalescer merging repeated notifications before they are dispatched.
+     * @param channel   The channel to send notifications over.
      */
-    public FlightNotificationStrategy(List<Flight> flights) {
+    public FlightNotificationStrategy(FlightRegistry flights, NotificationCoalescer coalescer,
+                                      NotificationChannel channel) {
         this.flights = flights;
+        this.coalescer = coalescer;
+        this.channel = channel;
     }
 
     /**
-     * Sends a notification to all passengers of a specific flight.
+     * Sends a notification to all passengers of a specific flight. The notifications are queued
+     * for delivery and this method returns immediately.
      *
      * @param flightNumber The flight number for which the notification is to be sent.
      * @param message      The content of the notification message.
      * @param type         The type of notification (e.g., "Cancellation", "Delay").
+     * @return A handle tracking the delivery progress.
      */
-    public void sendNotification(String flightNumber, String message, String type) {
+    public DeliveryHandle sendNotification(String flightNumber, String message, String type) {
         // Retrieve the flight details based on the flight number
-        Flight flight = getFlightDetails(flightNumber);
-
-        if (flight != null) {
-            // Notify each passenger of the flight
-            for (Passenger passenger : flight.getPassengers()) {
-                System.out.println("Sending " + type + " notification to "
-                        + passenger.getName() + ": " + message);
-                // Replace this with actual implementation, e.g., email or SMS sending
-            }
-        } else {
-            System.out.println("Flight " + flightNumber + " not found.");
+        Flight flight = flights.find(flightNumber);
+
+        if (flight == null) {
+            EventLog.getDefault().log(EventType.FLIGHT_NOT_FOUND, flightNumber, null);
+            return new DeliveryHandle(0);
         }
+        return sendNotification(flight, message, type);
     }
 
     /**
-     * Retrieves the flight details for a given flight number.
+     * Sends a notification to all passengers of one day of a flight. The notifications are queued
+     * for delivery and this method returns immediately.
      *
-     * @param flightNumber The flight number to search for.
-     * @return The Flight object if found, otherwise null.
+     * @param flight  The flight-day the notification is about.
+     * @param message The content of the notification message.
+     * @param type    The type of notification (e.g., "Cancellation", "Delay").
+     * @return A handle tracking the delivery progress.
      */
-    private Flight getFlightDetails(String flightNumber) {
-        for (Flight flight : flights) {
-            if (flight.getFlightNumber().equals(flightNumber)) {
-                return flight;
-            }
+    public DeliveryHandle sendNotification(Flight flight, String message, String type) {
+        // Notify each passenger of the flight
+        List<Passenger> passengers = flight.getPassengers();
+        DeliveryHandle handle = new DeliveryHandle(passengers.size());
+        for (Passenger passenger : passengers) {
+            coalescer.submit(notification(flight, passenger, message, type), handle);
         }
-        return null;
+        return handle;
+    }
+
+    /**
+     * Sends a notification to one passenger of a flight. The notification is queued for delivery
+     * and this method returns immediately.
+     *
+     * @param flightNumber The flight number the notification is about.
+     * @param passenger    The passenger to notify.
+     * @param message      The content of the notification message.
+     * @param type         The type of notification (e.g., "Waitlist").
+     * @return A handle tracking the delivery progress.
+     */
+    public DeliveryHandle sendNotification(String flightNumber, Passenger passenger, String message, String type) {
+        DeliveryHandle handle = new DeliveryHandle(1);
+        coalescer.submit(new Notification(flightNumber, null, passenger.getId(), passenger.getName(), type,
+                message, channel), handle);
+        return handle;
+    }
+
+    @Override
+    public void onWaitlistPromoted(Flight flight, Passenger passenger, CabinClass cabin) {
+        coalescer.submit(notification(flight, passenger, "A " + cabin.getLabel() + " seat on flight "
+                + flight.getFlightNumber() + " has been booked for you from the waitlist.", WAITLIST),
+                new DeliveryHandle(1));
+    }
+
+    private Notification notification(Flight flight, Passenger passenger, String message, String type) {
+        return new Notification(flight.getFlightNumber(), flight.getScheduledDate(), passenger.getId(),
+                passenger.getName(), type, message, channel);
     }
 }
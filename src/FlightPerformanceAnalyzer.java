@@ -1,4 +1,4 @@
-import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -7,53 +7,123 @@ import java.util.stream.Collectors;
  * FlightPerformanceAnalyzer is a utility class for analyzing the performance of flights.
  * It provides methods to calculate metrics such as on-time rate, seat occupancy trends,
  * and flight cancellation rate based on a list of flight data.
+ *
+ * The analyzer works in one of two modes. Without metrics it scans the whole flight list on
+ * every call. In metrics mode it reads streaming counters that are updated as flights change,
+ * so every query is O(1); {@link #isConsistent()} compares both modes.
  */
 public class FlightPerformanceAnalyzer {
+    private static final double TOLERANCE = 1e-9; // Allowed rounding difference between both modes
+
     private List<Flight> flights; // List of flights to be analyzed
+    private final FlightMetrics metrics; // Streaming counters, or null to scan the flight list
 
     /**
      * Constructor for FlightPerformanceAnalyzer.
      * @param flights List of Flight objects to be analyzed.
      */
     public FlightPerformanceAnalyzer(List<Flight> flights) {
+        this(flights, null);
+    }
+
+    /**
+     * Constructor for FlightPerformanceAnalyzer in metrics mode.
+     * @param flights List of Flight objects to be analyzed, used for consistency checks.
+     * @param metrics Streaming counters kept up to date for the same flights.
+     */
+    public FlightPerformanceAnalyzer(List<Flight> flights, FlightMetrics metrics) {
         this.flights = flights;
+        this.metrics = metrics;
     }
 
     /**
      * Calculates the average on-time rate of flights.
-     * The on-time rate is determined by checking flights whose status is not DELAYED.
-     * @return The percentage of on-time flights.
+     * The on-time rate is determined by checking flights that are not DELAYED and did not depart or land late.
+     * @return The percentage of on-time flights, or 0 if there are no flights.
      */
     public double calculateOnTimeRate() {
-        long onTimeFlights = flights.stream()
-                .filter(flight -> flight.getStatus() != FlightStatus.DELAYED) // Check flights that are not delayed
-                .count();
-        return (double) onTimeFlights / flights.size() * 100;
+        return metrics != null ? metrics.getOnTimeRate() : scanOnTimeRate();
     }
 
     /**
      * Analyzes seat occupancy trends for all flights.
      * The seat occupancy rate is calculated as the ratio of passengers to total capacity for each flight.
-     * @return A map containing flight numbers as keys and their seat occupancy rates as values.
+     * @return A map containing flight-day keys (see {@link #flightDayKey(Flight)}) and their seat occupancy rates as values.
      */
     public Map<String, Double> analyzeSeatOccupancyTrend() {
+        Map<String, Double> trend = new LinkedHashMap<>();
+        analyzeSeatOccupancyByFlight().forEach((flight, occupancy) -> trend.put(flightDayKey(flight), occupancy));
+        return trend;
+    }
+
+    /**
+     * Analyzes seat occupancy for all flights, one entry per flight number and day.
+     * @return A map containing flights as keys and their seat occupancy rates as values.
+     */
+    public Map<Flight, Double> analyzeSeatOccupancyByFlight() {
+        return metrics != null ? metrics.getSeatOccupancy() : scanSeatOccupancyTrend();
+    }
+
+    /**
+     * Returns the key of a flight in the seat occupancy trend: its number and scheduled date,
+     * e.g. "AB123 2024-11-24", so the days of one flight number are kept apart.
+     * @param flight The flight
+     * @return The flight-day key
+     */
+    public static String flightDayKey(Flight flight) {
+        return flight.getFlightNumber() + " " + flight.getScheduledDate();
+    }
+
+    /**
+     * Calculates the cancellation rate of flights.
+     * The cancellation rate is determined by the percentage of flights with a status of CANCELLED.
+     * @return The percentage of cancelled flights, or 0 if there are no flights.
+     */
+    public double calculateCancellationRate() {
+        return metrics != null ? metrics.getCancellationRate() : scanCancellationRate();
+    }
+
+    /**
+     * Checks that the streaming counters agree with a full scan of the flight list.
+     * Always true when the analyzer is not in metrics mode.
+     * @return True if both modes produce the same results.
+     */
+    public boolean isConsistent() {
+        if (metrics == null) {
+            return true;
+        }
+        return metrics.getTotalFlights() == flights.size()
+                && Math.abs(metrics.getOnTimeRate() - scanOnTimeRate()) < TOLERANCE
+                && Math.abs(metrics.getCancellationRate() - scanCancellationRate()) < TOLERANCE
+                && metrics.getSeatOccupancy().equals(scanSeatOccupancyTrend());
+    }
+
+    private double scanOnTimeRate() {
+        if (flights.isEmpty()) {
+            return 0.0;
+        }
+        long onTimeFlights = flights.stream()
+                .filter(flight -> !FlightMetrics.isDelayed(flight)) // Check flights that are not delayed
+                .count();
+        return (double) onTimeFlights / flights.size() * 100;
+    }
+
+    private Map<Flight, Double> scanSeatOccupancyTrend() {
         return flights.stream()
                 .collect(Collectors.toMap(
-                        Flight::getFlightNumber, // Use flight number as the key
+                        flight -> flight, // Use the flight-day as the key
                         flight -> {
-                            int totalPassengers = flight.getPassengers().size(); // Number of passengers
+                            int totalPassengers = flight.getPassengerCount(); // Number of passengers
                             int capacity = flight.getCapacity(); // Total capacity
                             return (double) totalPassengers / capacity * 100; // Calculate seat occupancy rate
                         }
                 ));
     }
 
-    /**
-     * Calculates the cancellation rate of flights.
-     * The cancellation rate is determined by the percentage of flights with a status of CANCELLED.
-     * @return The percentage of cancelled flights.
-     */
-    public double calculateCancellationRate() {
+    private double scanCancellationRate() {
+        if (flights.isEmpty()) {
+            return 0.0;
+        }
         long cancelledFlights = flights.stream()
                 .filter(flight -> flight.getStatus() == FlightStatus.CANCELLED) // Filter flights with CANCELLED status
                 .count();
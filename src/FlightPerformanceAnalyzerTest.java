@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightPerformanceAnalyzerTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 10, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 14, 0);
+
+    private AirlineCompany company;
+    private FlightPerformanceAnalyzer analyzer;
+
+    @BeforeEach
+    void setup() {
+        company = new AirlineCompany("Mamba");
+        analyzer = new FlightPerformanceAnalyzer(company.getAllFlights(), company.getFlightMetrics());
+    }
+
+    @AfterEach
+    void teardown() {
+        company.close();
+    }
+
+    @Test
+    void rates_NoFlights() {
+        // Edge case: no division by zero without flights
+        assertEquals(0.0, analyzer.calculateOnTimeRate());
+        assertEquals(0.0, analyzer.calculateCancellationRate());
+        assertEquals(0.0, new FlightPerformanceAnalyzer(new ArrayList<>()).calculateOnTimeRate());
+        assertTrue(analyzer.analyzeSeatOccupancyTrend().isEmpty());
+    }
+
+    @Test
+    void rates_FollowStatusTransitions() {
+        for (int i = 0; i < 4; i++) {
+            company.addFlight(new Flight("AB" + i, "New York", "Los Angeles",
+                    departureTime1, arrivalTime1, 10, new ArrayList<>(), new ArrayList<>()));
+        }
+        Passenger passenger = new Passenger("John Doe", new ArrayList<>());
+        company.getFlightDetails("AB0").bookSeat(passenger, "Economy", "Meal");
+        company.delayFlight("AB0", departureTime1.plusHours(1), arrivalTime1.plusHours(1));
+        company.getFlightDetails("AB1").setStatus(FlightStatus.CANCELLED);
+
+        assertEquals(75.0, analyzer.calculateOnTimeRate());
+        assertEquals(25.0, analyzer.calculateCancellationRate());
+        assertEquals(10.0, analyzer.analyzeSeatOccupancyTrend().get("AB0 " + departureTime1.toLocalDate()));
+        assertTrue(analyzer.isConsistent());
+
+        // A cancelled flight without passengers leaves the schedule entirely
+        company.cancelFlight("AB1");
+        assertEquals(0.0, analyzer.calculateCancellationRate());
+        assertTrue(analyzer.isConsistent());
+    }
+
+    @Test
+    void occupancy_OneEntryPerFlightDay() {
+        company.addFlight(new Flight("AB1", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 10, new ArrayList<>(), new ArrayList<>()));
+        company.addFlight(new Flight("AB1", "New York", "Los Angeles",
+                departureTime1.plusDays(1), arrivalTime1.plusDays(1), 10, new ArrayList<>(), new ArrayList<>()));
+        Flight first = company.getFlightDetails("AB1", departureTime1.toLocalDate());
+        Flight second = company.getFlightDetails("AB1", departureTime1.plusDays(1).toLocalDate());
+        first.bookSeat(new Passenger("John Doe", new ArrayList<>()), "Economy", "Meal");
+
+        // Normal case: the days of one flight number do not overwrite each other
+        assertEquals(2, analyzer.analyzeSeatOccupancyTrend().size());
+        assertEquals(10.0, analyzer.analyzeSeatOccupancyTrend().get("AB1 " + departureTime1.toLocalDate()));
+        assertEquals(0.0, analyzer.analyzeSeatOccupancyTrend().get("AB1 " + departureTime1.plusDays(1).toLocalDate()));
+        assertEquals(10.0, analyzer.analyzeSeatOccupancyByFlight().get(first));
+        assertEquals(0.0, analyzer.analyzeSeatOccupancyByFlight().get(second));
+        assertTrue(analyzer.isConsistent());
+
+        // Edge case: untracking one day keeps the other
+        FlightMetrics metrics = company.getFlightMetrics();
+        metrics.untrack(second);
+        assertEquals(1, metrics.getSeatOccupancy().size());
+        assertEquals(10.0, metrics.getSeatOccupancy().get(first));
+    }
+
+    @Test
+    void isConsistent_RandomOperations() {
+        Random random = new Random(7);
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            passengers.add(new Passenger("P" + i, new ArrayList<>()));
+        }
+        for (int step = 0; step < 2000; step++) {
+            String number = "F" + random.nextInt(40);
+            Flight flight = company.getFlightDetails(number);
+            int operation = random.nextInt(5);
+            if (flight == null) {
+                LocalDateTime departure = departureTime1.plusHours(random.nextInt(1000));
+                company.addFlight(new Flight(number, "New York", "Los Angeles",
+                        departure, departure.plusHours(2), 20, new ArrayList<>(), new ArrayList<>()));
+            } else if (operation == 0) {
+                flight.bookSeat(passengers.get(random.nextInt(passengers.size())), "Economy", "Meal");
+            } else if (operation == 1) {
+                passengers.get(random.nextInt(passengers.size())).cancelReservation(flight);
+            } else if (operation == 2 && flight.getStatus() == FlightStatus.CANCELLED) {
+                // Error case: a cancelled flight cannot be delayed
+                assertThrows(IllegalStateException.class, () -> company.delayFlight(number,
+                        flight.getDepartureTime().plusMinutes(30), flight.getArrivalTime().plusMinutes(30)));
+            } else if (operation == 2) {
+                company.delayFlight(number, flight.getDepartureTime().plusMinutes(30),
+                        flight.getArrivalTime().plusMinutes(30));
+            } else if (operation == 3) {
+                company.cancelFlight(number);
+            } else {
+                flight.setStatus(FlightStatus.SCHEDULED);
+            }
+            assertTrue(analyzer.isConsistent(), "Counters diverged from the full scan at step " + step);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of all flights managed by an airline, indexed for constant-time lookup.
+ *
+ * Flights are indexed by flight number and by flight-day (flight number plus scheduled
+ * departure date), so the same flight number can be operated on many days. Lookups never
+ * lock and can run concurrently with registrations and removals; writers are serialized
+ * so that both indexes and the ordered flight list always change together.
+ *
+ * The registration order is kept in a skip list keyed by a sequence number, so registering or
+ * removing a flight costs O(log n) rather than a copy of the whole fleet, and the flight list
+ * is a read-only view built over it on demand.
+ */
+public class FlightRegistry {
+    private final Map<String, Flight> byFlightDay; // "flightNumber@date" -> flight
+    private final Map<String, ConcurrentSkipListMap<LocalDate, Flight>> byFlightNumber; // flight number -> flights by date
+    private final ConcurrentSkipListMap<Long, Flight> flights; // Flights by registration sequence
+    private final Map<Flight, Long> sequences; // Registration sequence of each flight
+    private final List<Flight> readOnlyView; // Live, unmodifiable view over the flights in registration order
+    private final Clock clock; // Decides which flight-day is the next one
+    private long nextSequence; // Guarded by the registry's lock
+
+    /**
+     * Constructor to initialize an empty registry using the system clock.
+     */
+    public FlightRegistry() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor to initialize an empty registry.
+     *
+     * @param clock The clock deciding which flight-day of a flight number is the next one
+     */
+    public FlightRegistry(Clock clock) {
+        this.byFlightDay = new ConcurrentHashMap<>();
+        this.byFlightNumber = new ConcurrentHashMap<>();
+        this.flights = new ConcurrentSkipListMap<>();
+        this.sequences = new ConcurrentHashMap<>();
+        this.readOnlyView = new FlightView();
+        this.clock = clock;
+    }
+
+    /**
+     * Registers a flight under its flight number and scheduled date.
+     *
+     * @param flight The flight to register
+     * @return True if the flight was registered, false if the same flight-day already exists
+     */
+    public synchronized boolean register(Flight flight) {
+        String key = key(flight.getFlightNumber(), flight.getScheduledDate());
+        if (byFlightDay.putIfAbsent(key, flight) != null) {
+            return false;
+        }
+        byFlightNumber.computeIfAbsent(flight.getFlightNumber(), number -> new ConcurrentSkipListMap<>())
+                .put(flight.getScheduledDate(), flight);
+        add(flight);
+        return true;
+    }
+
+    /**
+     * Registers many flights at once, taking the registry's lock once for the whole batch.
+     *
+     * @param batch The flights to register
+     * @return For each flight of the batch, true if it was registered, false if the same
+     *         flight-day already exists
+     */
+    public synchronized boolean[] registerAll(List<Flight> batch) {
+        boolean[] registered = new boolean[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Flight flight = batch.get(i);
+            String key = key(flight.getFlightNumber(), flight.getScheduledDate());
+            if (byFlightDay.putIfAbsent(key, flight) == null) {
+                byFlightNumber.computeIfAbsent(flight.getFlightNumber(), number -> new ConcurrentSkipListMap<>())
+                        .put(flight.getScheduledDate(), flight);
+                add(flight);
+                registered[i] = true;
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * Removes a flight from the registry.
+     *
+     * @param flight The flight to remove
+     * @return True if the flight was registered and has been removed, otherwise false
+     */
+    public synchronized boolean remove(Flight flight) {
+        String key = key(flight.getFlightNumber(), flight.getScheduledDate());
+        if (!byFlightDay.remove(key, flight)) {
+            return false;
+        }
+        ConcurrentSkipListMap<LocalDate, Flight> days = byFlightNumber.get(flight.getFlightNumber());
+        days.remove(flight.getScheduledDate());
+        if (days.isEmpty()) {
+            byFlightNumber.remove(flight.getFlightNumber());
+        }
+        flights.remove(sequences.remove(flight));
+        return true;
+    }
+
+    /**
+     * Retrieves a flight by its flight number. When the flight number is operated on several
+     * days, the next flight-day that has not departed yet is returned, or the latest one if all
+     * of them have departed.
+     *
+     * @param flightNumber The flight number
+     * @return The flight if found, otherwise null
+     */
+    public Flight find(String flightNumber) {
+        ConcurrentSkipListMap<LocalDate, Flight> days = byFlightNumber.get(flightNumber);
+        if (days == null) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        // Start a day early: a delay can move yesterday's flight-day past midnight
+        for (Flight flight : days.tailMap(now.toLocalDate().minusDays(1)).values()) {
+            if (!flight.getDepartureTime().isBefore(now)) {
+                return flight;
+            }
+        }
+        Map.Entry<LocalDate, Flight> last = days.lastEntry();
+        return last == null ? null : last.getValue();
+    }
+
+    /**
+     * Retrieves a flight by its flight number and scheduled departure date.
+     *
+     * @param flightNumber The flight number
+     * @param date         The scheduled departure date
+     * @return The flight if found, otherwise null
+     */
+    public Flight find(String flightNumber, LocalDate date) {
+        return byFlightDay.get(key(flightNumber, date));
+    }
+
+    /**
+     * Checks whether the given flight is currently registered.
+     *
+     * @param flight The flight to check
+     * @return True if the flight is registered
+     */
+    public boolean contains(Flight flight) {
+        return byFlightDay.get(key(flight.getFlightNumber(), flight.getScheduledDate())) == flight;
+    }
+
+    /**
+     * Returns the number of registered flights.
+     *
+     * @return The number of flights
+     */
+    public int size() {
+        return sequences.size();
+    }
+
+    /**
+     * Returns a live, read-only view of all registered flights in registration order.
+     * Iterating the view is safe while flights are being added or removed.
+     *
+     * @return An unmodifiable list of all flights
+     */
+    public List<Flight> getAllFlights() {
+        return readOnlyView;
+    }
+
+    // Appends a flight to the registration order; the caller holds the registry's lock
+    private void add(Flight flight) {
+        long sequence = nextSequence++;
+        sequences.put(flight, sequence);
+        flights.put(sequence, flight);
+    }
+
+    private static String key(String flightNumber, LocalDate date) {
+        return flightNumber + "@" + date;
+    }
+
+    /**
+     * Read-only list over the flights in registration order. Iteration is weakly consistent and
+     * never fails while flights are added or removed; indexed access walks the list.
+     */
+    private final class FlightView extends AbstractList<Flight> {
+        @Override
+        public Flight get(int index) {
+            int remaining = index;
+            if (remaining >= 0) {
+                for (Flight flight : flights.values()) {
+                    if (remaining-- == 0) {
+                        return flight;
+                    }
+                }
+            }
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        @Override
+        public Iterator<Flight> iterator() {
+            return Collections.unmodifiableCollection(flights.values()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return flights.size();
+        }
+    }
+}
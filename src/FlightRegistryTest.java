@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRegistryTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 10, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 14, 0);
+
+    private FlightRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        registry = new FlightRegistry();
+    }
+
+    @Test
+    void findByFlightNumberAndDate() {
+        // Same flight number operated on two days
+        Flight monday = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>());
+        Flight tuesday = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1.plusDays(1), arrivalTime1.plusDays(1), 200, new ArrayList<>(), new ArrayList<>());
+        assertTrue(registry.register(tuesday));
+        assertTrue(registry.register(monday));
+
+        // Normal case: lookup by flight-day and by flight number
+        assertSame(tuesday, registry.find("AB123", LocalDate.of(2024, 11, 25)));
+        assertSame(tuesday, registry.find("AB123"), "With both days departed, the latest should be returned.");
+
+        // Edge case: duplicate flight-day is rejected
+        Flight duplicate = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>());
+        assertFalse(registry.register(duplicate));
+
+        // Error case: unknown flight
+        assertNull(registry.find("CD456"));
+        assertNull(registry.find("AB123", LocalDate.of(2024, 12, 1)));
+    }
+
+    @Test
+    void findByFlightNumber_NextDayNotDeparted() {
+        Clock clock = Clock.fixed(Instant.parse("2024-11-24T12:00:00Z"), ZoneOffset.UTC);
+        registry = new FlightRegistry(clock);
+        Flight monday = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>());
+        Flight tuesday = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1.plusDays(1), arrivalTime1.plusDays(1), 200, new ArrayList<>(), new ArrayList<>());
+        Flight wednesday = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1.plusDays(2), arrivalTime1.plusDays(2), 200, new ArrayList<>(), new ArrayList<>());
+        registry.register(wednesday);
+        registry.register(monday);
+        registry.register(tuesday);
+
+        // Normal case: today's flight has departed at 10:00, so tomorrow's is the next one
+        assertSame(tuesday, registry.find("AB123"));
+
+        // Edge case: a flight-day delayed past now is still the next one
+        monday.reschedule(departureTime1.plusHours(3), arrivalTime1.plusHours(3));
+        assertSame(monday, registry.find("AB123"));
+        assertEquals(List.of(wednesday, monday, tuesday), registry.getAllFlights());
+    }
+
+    @Test
+    void remove() {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>());
+        registry.register(flight);
+
+        assertTrue(registry.remove(flight));
+        assertNull(registry.find("AB123"));
+        assertTrue(registry.getAllFlights().isEmpty());
+
+        // Removing twice has no effect
+        assertFalse(registry.remove(flight));
+    }
+
+    @Test
+    void getAllFlights_ReadOnlyView() {
+        List<Flight> view = registry.getAllFlights();
+        registry.register(new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>()));
+
+        // The view is live but cannot be modified directly
+        assertEquals(1, view.size());
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+    }
+
+    @Test
+    void concurrentRegisterAndFind() throws InterruptedException, ExecutionException {
+        int threads = 8;
+        int flightsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> workers = new ArrayList<>(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < flightsPerThread; i++) {
+                    String number = "T" + thread + "-" + i;
+                    registry.register(new Flight(number, "New York", "Los Angeles",
+                            departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>()));
+                    assertNotNull(registry.find(number));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        for (Future<Void> worker : workers) {
+            worker.get(); // Rethrows a failed lookup
+        }
+
+        assertEquals(threads * flightsPerThread, registry.size());
+        assertEquals(threads * flightsPerThread, registry.getAllFlights().size());
+    }
+}
@@ -0,0 +1,248 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The passengers of one flight: who is booked in which cabin, and who is a VIP on the flight.
+ *
+ * Every passenger has one entry holding the cabin and a VIP flag, kept in a hash map in booking
+ * order, so booking, cancelling and checking a passenger or the VIP flag cost O(1) at any number
+ * of passengers, and manifests list the passengers in a stable order. The number of booked
+ * passengers per cabin is counted as entries change, so occupancy reads cost O(1) as well.
+ *
+ * A VIP registration is independent of a booking: a passenger can be a VIP on a flight before
+ * booking it and stays one after cancelling.
+ *
+ * All methods lock the roster; it is always locked last, after the flight and passengers.
+ */
+public class FlightRoster {
+    private final Map<Passenger, Entry> entries = new LinkedHashMap<>(); // Booked and VIP passengers
+    private final int[] booked = new int[CabinClass.values().length]; // Booked passengers per cabin
+    private int bookedCount; // Booked passengers, including those booked in an unknown cabin
+    private List<Passenger> passengers; // Booked passengers in booking order, rebuilt after a change
+    private List<Passenger> vips; // VIP passengers, rebuilt after a change
+
+    /**
+     * A passenger's state on the flight.
+     */
+    private static final class Entry {
+        private boolean booked;
+        private CabinClass cabin; // Cabin of the booking; null if not booked or if the cabin is unknown
+        private boolean vip;
+    }
+
+    /**
+     * Constructor to initialize a roster with passengers booked before the roster existed, whose
+     * cabins are unknown, and VIP passengers.
+     *
+     * @param passengers The booked passengers
+     * @param vip        The VIP passengers
+     */
+    public FlightRoster(List<Passenger> passengers, List<Passenger> vip) {
+        for (Passenger passenger : passengers) {
+            add(passenger, null);
+        }
+        for (Passenger passenger : vip) {
+            addVip(passenger);
+        }
+    }
+
+    /**
+     * Adds a booked passenger. A passenger who was already on the roster only as a VIP moves to
+     * the end, so the booking order stays the order in which passengers booked.
+     *
+     * @param passenger The passenger
+     * @param cabin     The cabin the passenger booked, or null if it is unknown
+     * @return True if the passenger was added, false if the passenger was already booked
+     */
+    public synchronized boolean add(Passenger passenger, CabinClass cabin) {
+        Entry entry = entries.get(passenger);
+        if (entry != null && entry.booked) {
+            return false;
+        }
+        if (entry == null) {
+            entry = new Entry();
+        } else {
+            entries.remove(passenger);
+            vips = null;
+        }
+        entries.put(passenger, entry);
+        entry.booked = true;
+        entry.cabin = cabin;
+        count(cabin, 1);
+        return true;
+    }
+
+    /**
+     * Adds booked passengers, all in one cabin.
+     *
+     * @param passengers The passengers
+     * @param cabin      The cabin they booked
+     */
+    public synchronized void addAll(List<Passenger> passengers, CabinClass cabin) {
+        for (Passenger passenger : passengers) {
+            add(passenger, cabin);
+        }
+    }
+
+    /**
+     * Removes a passenger's booking. A VIP stays on the roster as a VIP.
+     *
+     * @param passenger The passenger
+     * @return True if the passenger was booked
+     */
+    public synchronized boolean remove(Passenger passenger) {
+        Entry entry = entries.get(passenger);
+        if (entry == null || !entry.booked) {
+            return false;
+        }
+        count(entry.cabin, -1);
+        entry.booked = false;
+        entry.cabin = null;
+        if (!entry.vip) {
+            entries.remove(passenger);
+        }
+        return true;
+    }
+
+    /**
+     * Moves a booked passenger to another cabin, keeping the passenger's place in the booking order.
+     *
+     * @param passenger The passenger
+     * @param cabin     The new cabin
+     * @return True if the passenger was booked
+     */
+    public synchronized boolean changeCabin(Passenger passenger, CabinClass cabin) {
+        Entry entry = entries.get(passenger);
+        if (entry == null || !entry.booked) {
+            return false;
+        }
+        count(entry.cabin, -1);
+        entry.cabin = cabin;
+        count(cabin, 1);
+        return true;
+    }
+
+    /**
+     * Checks whether a passenger is booked.
+     *
+     * @param passenger The passenger
+     * @return True if the passenger is booked on the flight
+     */
+    public synchronized boolean contains(Passenger passenger) {
+        Entry entry = entries.get(passenger);
+        return entry != null && entry.booked;
+    }
+
+    /**
+     * Retrieves the cabin a passenger is booked in.
+     *
+     * @param passenger The passenger
+     * @return The cabin, or null if the passenger is not booked or the cabin is unknown
+     */
+    public synchronized CabinClass getCabin(Passenger passenger) {
+        Entry entry = entries.get(passenger);
+        return entry == null ? null : entry.cabin;
+    }
+
+    /**
+     * Registers a passenger as a VIP on the flight.
+     *
+     * @param passenger The passenger
+     * @return True if the passenger was registered, false if the passenger already was a VIP
+     */
+    public synchronized boolean addVip(Passenger passenger) {
+        Entry entry = entries.get(passenger);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(passenger, entry);
+        } else if (entry.vip) {
+            return false;
+        }
+        entry.vip = true;
+        vips = null;
+        return true;
+    }
+
+    /**
+     * Checks whether a passenger is a VIP on the flight.
+     *
+     * @param passenger The passenger
+     * @return True if the passenger is registered as a VIP
+     */
+    public synchronized boolean isVip(Passenger passenger) {
+        Entry entry = entries.get(passenger);
+        return entry != null && entry.vip;
+    }
+
+    /**
+     * Returns the number of booked passengers.
+     *
+     * @return The number of booked passengers
+     */
+    public synchronized int size() {
+        return bookedCount;
+    }
+
+    /**
+     * Returns the number of passengers booked in a cabin.
+     *
+     * @param cabin The cabin
+     * @return The number of passengers booked in the cabin
+     */
+    public synchronized int size(CabinClass cabin) {
+        return booked[cabin.ordinal()];
+    }
+
+    public synchronized boolean isEmpty() {
+        return bookedCount == 0;
+    }
+
+    /**
+     * Retrieves the booked passengers in booking order. The list is a read-only copy, which is
+     * shared by all callers until the roster changes again.
+     *
+     * @return The booked passengers
+     */
+    public synchronized List<Passenger> getPassengers() {
+        if (passengers == null) {
+            List<Passenger> list = new ArrayList<>(bookedCount);
+            for (Map.Entry<Passenger, Entry> entry : entries.entrySet()) {
+                if (entry.getValue().booked) {
+                    list.add(entry.getKey());
+                }
+            }
+            passengers = Collections.unmodifiableList(list);
+        }
+        return passengers;
+    }
+
+    /**
+     * Retrieves the VIP passengers, booked or not, as a read-only copy.
+     *
+     * @return The VIP passengers
+     */
+    public synchronized List<Passenger> getVips() {
+        if (vips == null) {
+            List<Passenger> list = new ArrayList<>();
+            for (Map.Entry<Passenger, Entry> entry : entries.entrySet()) {
+                if (entry.getValue().vip) {
+                    list.add(entry.getKey());
+                }
+            }
+            vips = Collections.unmodifiableList(list);
+        }
+        return vips;
+    }
+
+    // Adjusts the counts for a booking added to or removed from a cabin; forgets the passenger list
+    private void count(CabinClass cabin, int delta) {
+        if (cabin != null) {
+            booked[cabin.ordinal()] += delta;
+        }
+        bookedCount += delta;
+        passengers = null;
+    }
+}
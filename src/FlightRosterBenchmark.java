@@ -0,0 +1,70 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Benchmark of the roster operations of a cancellation and rebooking on a full 400-seat flight
+ * with 40 VIPs: the VIP check, the membership check and removal, and adding the passenger back.
+ * Compares the flight roster with the copy-on-write passenger and VIP lists flights used before.
+ */
+public class FlightRosterBenchmark {
+    private static final int SEATS = 400;
+    private static final int VIPS = 40;
+    private static final int CYCLES = 2_000_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        List<Passenger> passengers = new ArrayList<>(SEATS);
+        for (int i = 0; i < SEATS; i++) {
+            passengers.add(new Passenger("Passenger " + i, new ArrayList<>()));
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.printf("Round %d: lists %,.0f ns per cycle, roster %,.0f ns per cycle%n", round + 1,
+                    lists(passengers), roster(passengers));
+        }
+    }
+
+    private static double lists(List<Passenger> passengers) {
+        List<Passenger> booked = new CopyOnWriteArrayList<>(passengers);
+        List<Passenger> vip = new CopyOnWriteArrayList<>(passengers.subList(SEATS - VIPS, SEATS));
+        Random random = new Random(42);
+        int vipCount = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < CYCLES; i++) {
+            Passenger passenger = passengers.get(random.nextInt(SEATS));
+            if (vip.contains(passenger)) {
+                vipCount++;
+            }
+            if (booked.contains(passenger) && booked.remove(passenger)) {
+                booked.add(passenger);
+            }
+        }
+        return check(vipCount, (System.nanoTime() - start) / (double) CYCLES);
+    }
+
+    private static double roster(List<Passenger> passengers) {
+        FlightRoster roster = new FlightRoster(new ArrayList<>(), passengers.subList(SEATS - VIPS, SEATS));
+        roster.addAll(passengers, CabinClass.ECONOMY);
+        Random random = new Random(42);
+        int vipCount = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < CYCLES; i++) {
+            Passenger passenger = passengers.get(random.nextInt(SEATS));
+            if (roster.isVip(passenger)) {
+                vipCount++;
+            }
+            if (roster.contains(passenger) && roster.remove(passenger)) {
+                roster.add(passenger, CabinClass.ECONOMY);
+            }
+        }
+        return check(vipCount, (System.nanoTime() - start) / (double) CYCLES);
+    }
+
+    private static double check(int vipCount, double nanos) {
+        if (vipCount == 0) {
+            throw new IllegalStateException("No VIP was checked.");
+        }
+        return nanos;
+    }
+}
@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRosterTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+
+    @Test
+    void addRemoveAndCount() {
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        Passenger bob = new Passenger("Bob Brown", new ArrayList<>());
+        FlightRoster roster = new FlightRoster(new ArrayList<>(), new ArrayList<>());
+
+        // Normal case: passengers are listed in booking order and counted per cabin
+        assertTrue(roster.add(john, CabinClass.ECONOMY));
+        assertTrue(roster.add(jane, CabinClass.FIRST_CLASS));
+        assertTrue(roster.add(bob, CabinClass.ECONOMY));
+        assertEquals(List.of(john, jane, bob), roster.getPassengers());
+        assertEquals(3, roster.size());
+        assertEquals(2, roster.size(CabinClass.ECONOMY));
+        assertEquals(1, roster.size(CabinClass.FIRST_CLASS));
+        assertSame(roster.getPassengers(), roster.getPassengers()); // Shared until the roster changes
+
+        // Moving a passenger to another cabin keeps the order and moves the count
+        assertTrue(roster.changeCabin(john, CabinClass.FIRST_CLASS));
+        assertEquals(CabinClass.FIRST_CLASS, roster.getCabin(john));
+        assertEquals(2, roster.size(CabinClass.FIRST_CLASS));
+        assertEquals(List.of(john, jane, bob), roster.getPassengers());
+
+        assertTrue(roster.remove(jane));
+        assertFalse(roster.contains(jane));
+        assertEquals(List.of(john, bob), roster.getPassengers());
+        assertEquals(1, roster.size(CabinClass.FIRST_CLASS));
+
+        // Error case: passengers are booked at most once, and only booked passengers are removed
+        assertFalse(roster.add(john, CabinClass.ECONOMY));
+        assertFalse(roster.remove(jane));
+        assertFalse(roster.changeCabin(jane, CabinClass.ECONOMY));
+        assertEquals(2, roster.size());
+    }
+
+    @Test
+    void vipFlags() {
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        FlightRoster roster = new FlightRoster(new ArrayList<>(), List.of(jane));
+        roster.add(john, CabinClass.ECONOMY);
+
+        // Normal case: a VIP registered before booking is not booked until booking
+        assertTrue(roster.isVip(jane));
+        assertFalse(roster.contains(jane));
+        assertEquals(List.of(john), roster.getPassengers());
+        roster.add(jane, CabinClass.ECONOMY);
+        assertEquals(List.of(john, jane), roster.getPassengers());
+
+        // Edge case: a VIP stays a VIP after cancelling, and registering twice changes nothing
+        roster.remove(jane);
+        assertTrue(roster.isVip(jane));
+        assertFalse(roster.addVip(jane));
+        assertEquals(List.of(jane), roster.getVips());
+        assertFalse(roster.isVip(john));
+    }
+
+    @Test
+    void flightKeepsRosterCurrent() {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        jane.registerVip(flight);
+        flight.bookSeat(john, "Economy", "Meal");
+        flight.bookSeat(jane, "Economy", "Meal");
+
+        FlightRoster roster = flight.getRoster();
+        assertEquals(2, flight.getPassengerCount());
+        assertTrue(flight.isVip(jane));
+        assertTrue(flight.getVip().contains(jane));
+
+        john.modifyReservation(flight, "FirstClass", "Meal");
+        assertEquals(CabinClass.FIRST_CLASS, roster.getCabin(john));
+        assertEquals(1, roster.size(CabinClass.FIRST_CLASS));
+
+        jane.cancelReservation(flight);
+        assertEquals(List.of(john), flight.getPassengers());
+        assertEquals(0, roster.size(CabinClass.ECONOMY));
+        assertTrue(flight.isVip(jane));
+    }
+}
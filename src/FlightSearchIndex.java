@@ -0,0 +1,253 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary indexes used to search an airline's flights by departure time and route.
+ *
+ * Flights are kept in a departure-time sorted index and, per (departure, destination) route,
+ * in a departure-time sorted route index. A search only visits the flights inside the requested
+ * time range, so it runs in logarithmic time plus the size of the range. Searches share a read
+ * lock; changes that move a flight in the indexes take the write lock, so a search never sees a
+ * flight in two places. The indexes listen to their flights, so a flight delayed directly is
+ * re-indexed at its new departure time too; only {@link #reschedule(Flight, Runnable)} also keeps
+ * searches from missing it while it moves.
+ */
+public class FlightSearchIndex implements FlightListener {
+    private final NavigableMap<ScheduleKey, Flight> byDepartureTime; // All flights ordered by departure time
+    private final Map<Route, NavigableMap<ScheduleKey, Flight>> byRoute; // Flights of each route ordered by departure time
+    private final Map<Flight, ScheduleKey> keys; // Current index key of each flight
+    private final ReadWriteLock lock;
+    private long nextSeq; // Tie-breaker for flights departing at the same time
+
+    /**
+     * Constructor to initialize empty indexes.
+     */
+    public FlightSearchIndex() {
+        this.byDepartureTime = new TreeMap<>();
+        this.byRoute = new HashMap<>();
+        this.keys = new IdentityHashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Adds a flight to the indexes.
+     *
+     * @param flight The flight to index
+     */
+    public void add(Flight flight) {
+        lock.writeLock().lock();
+        try {
+            if (insert(flight)) {
+                flight.addListener(this);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds many flights to the indexes under a single write lock.
+     *
+     * @param flights The flights to index
+     */
+    public void addAll(Collection<Flight> flights) {
+        lock.writeLock().lock();
+        try {
+            for (Flight flight : flights) {
+                if (insert(flight)) {
+                    flight.addListener(this);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a flight from the indexes.
+     *
+     * @param flight The flight to remove
+     */
+    public void remove(Flight flight) {
+        lock.writeLock().lock();
+        try {
+            if (delete(flight)) {
+                flight.removeListener(this);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a schedule change to a flight and re-indexes it atomically. Searches running
+     * concurrently see the flight either at its old or at its new departure time, never both.
+     * If the change fails, the flight is re-indexed at its unchanged times.
+     *
+     * @param flight The flight being rescheduled
+     * @param change The change to apply, e.g. a call to {@link Flight#delay}
+     */
+    public void reschedule(Flight flight, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            boolean indexed = delete(flight);
+            try {
+                change.run();
+            } finally {
+                if (indexed) {
+                    insert(flight);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a flight whose times were changed without {@link #reschedule(Flight, Runnable)}, e.g.
+     * by a direct call to {@link Flight#delay}, to its new departure time.
+     *
+     * @param flight The flight with its new times
+     */
+    @Override
+    public void onRescheduled(Flight flight) {
+        lock.writeLock().lock();
+        try {
+            ScheduleKey key = keys.get(flight);
+            if (key != null && !key.departureTime.equals(flight.getDepartureTime())) {
+                delete(flight);
+                insert(flight);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds flights departing within a time range, ordered by departure time.
+     *
+     * @param from The earliest departure time (inclusive)
+     * @param to   The latest departure time (inclusive)
+     * @return The flights departing in the range, excluding cancelled flights
+     */
+    public List<Flight> search(LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            return collect(byDepartureTime, from, to, null, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds flights on a route departing within a time range that still have at least the
+     * given number of seats in a cabin, ordered by departure time.
+     *
+     * @param route    The route to search
+     * @param from     The earliest departure time (inclusive)
+     * @param to       The latest departure time (inclusive)
+     * @param cabin    The cabin to check for available seats, or null to skip the check
+     * @param minSeats The minimum number of available seats in the cabin
+     * @return The matching flights, excluding cancelled flights
+     */
+    public List<Flight> search(Route route, LocalDateTime from, LocalDateTime to, CabinClass cabin, int minSeats) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<ScheduleKey, Flight> flights = byRoute.get(route);
+            if (flights == null) {
+                return new ArrayList<>();
+            }
+            return collect(flights, from, to, cabin, minSeats);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed flights.
+     *
+     * @return The number of flights
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Flight> collect(NavigableMap<ScheduleKey, Flight> index, LocalDateTime from,
+                                        LocalDateTime to, CabinClass cabin, int minSeats) {
+        List<Flight> result = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return result;
+        }
+        for (Flight flight : index.subMap(new ScheduleKey(from, Long.MIN_VALUE), true,
+                new ScheduleKey(to, Long.MAX_VALUE), true).values()) {
+            if (flight.getStatus() == FlightStatus.CANCELLED) {
+                continue;
+            }
+            if (cabin != null && flight.getSeatInventory().getRemaining(cabin) < minSeats) {
+                continue;
+            }
+            result.add(flight);
+        }
+        return result;
+    }
+
+    private boolean insert(Flight flight) {
+        if (keys.containsKey(flight)) {
+            return false;
+        }
+        ScheduleKey key = new ScheduleKey(flight.getDepartureTime(), nextSeq++);
+        keys.put(flight, key);
+        byDepartureTime.put(key, flight);
+        byRoute.computeIfAbsent(Route.of(flight), route -> new TreeMap<>()).put(key, flight);
+        return true;
+    }
+
+    private boolean delete(Flight flight) {
+        ScheduleKey key = keys.remove(flight);
+        if (key == null) {
+            return false;
+        }
+        byDepartureTime.remove(key);
+        Route route = Route.of(flight);
+        NavigableMap<ScheduleKey, Flight> flights = byRoute.get(route);
+        flights.remove(key);
+        if (flights.isEmpty()) {
+            byRoute.remove(route);
+        }
+        return true;
+    }
+
+    /**
+     * Index key of a flight: its departure time when it was indexed, plus a unique sequence
+     * number. The departure time is copied so later changes to the flight cannot corrupt the order.
+     */
+    private static final class ScheduleKey implements Comparable<ScheduleKey> {
+        private final LocalDateTime departureTime;
+        private final long seq;
+
+        private ScheduleKey(LocalDateTime departureTime, long seq) {
+            this.departureTime = departureTime;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(ScheduleKey other) {
+            int byTime = departureTime.compareTo(other.departureTime);
+            return byTime != 0 ? byTime : Long.compare(seq, other.seq);
+        }
+    }
+}
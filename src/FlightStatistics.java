@@ -0,0 +1,85 @@
+/**
+ * Immutable summary of flight operations over a period: departures, on-time departures,
+ * cancellations and seats booked versus seats flown.
+ */
+public final class FlightStatistics {
+    private final long departures; // Flights that departed
+    private final long onTimeDepartures; // Departed flights that were not delayed
+    private final long cancellations; // Flights that were cancelled
+    private final long bookedSeats; // Passengers on the departed flights
+    private final long seatCapacity; // Seats on the departed flights
+
+    /**
+     * Constructor to initialize the summary.
+     *
+     * @param departures       The number of departed flights
+     * @param onTimeDepartures The number of departed flights that were not delayed
+     * @param cancellations    The number of cancelled flights
+     * @param bookedSeats      The number of passengers on the departed flights
+     * @param seatCapacity     The number of seats on the departed flights
+     */
+    public FlightStatistics(long departures, long onTimeDepartures, long cancellations,
+                            long bookedSeats, long seatCapacity) {
+        this.departures = departures;
+        this.onTimeDepartures = onTimeDepartures;
+        this.cancellations = cancellations;
+        this.bookedSeats = bookedSeats;
+        this.seatCapacity = seatCapacity;
+    }
+
+    public long getDepartures() {
+        return departures;
+    }
+
+    public long getOnTimeDepartures() {
+        return onTimeDepartures;
+    }
+
+    public long getCancellations() {
+        return cancellations;
+    }
+
+    public long getBookedSeats() {
+        return bookedSeats;
+    }
+
+    public long getSeatCapacity() {
+        return seatCapacity;
+    }
+
+    /**
+     * Retrieves the percentage of departed flights that left on time.
+     *
+     * @return The on-time rate in percent, or 0 if no flight departed
+     */
+    public double getOnTimeRate() {
+        return departures == 0 ? 0.0 : (double) onTimeDepartures / departures * 100;
+    }
+
+    /**
+     * Retrieves the percentage of operated flights (departed or cancelled) that were cancelled.
+     *
+     * @return The cancellation rate in percent, or 0 if no flight was operated
+     */
+    public double getCancellationRate() {
+        long operated = departures + cancellations;
+        return operated == 0 ? 0.0 : (double) cancellations / operated * 100;
+    }
+
+    /**
+     * Retrieves the percentage of seats on departed flights that were booked.
+     *
+     * @return The load factor in percent, or 0 if no flight departed
+     */
+    public double getLoadFactor() {
+        return seatCapacity == 0 ? 0.0 : (double) bookedSeats / seatCapacity * 100;
+    }
+
+    @Override
+    public String toString() {
+        return "Departures: " + departures + " | " +
+                "On-time rate: " + String.format("%.1f", getOnTimeRate()) + "% | " +
+                "Cancellation rate: " + String.format("%.1f", getCancellationRate()) + "% | " +
+                "Load factor: " + String.format("%.1f", getLoadFactor()) + "%";
+    }
+}
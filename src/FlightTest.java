@@ -2,6 +2,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -115,4 +116,92 @@ class FlightTest {
         flight.bookSeat(passenger, "Economy", "Meal");
         flight.modify("FirstClass", passenger); // Upgrade to First Class
     }
+
+    @Test
+    void bookGroup_AllBookedWithAdjacentSeats() {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        List<Passenger> family = List.of(new Passenger("Parent A", new ArrayList<>()),
+                new Passenger("Parent B", new ArrayList<>()), new Passenger("Child", new ArrayList<>()));
+
+        List<String> results = flight.bookGroup(family, "Economy", "Meal");
+
+        assertEquals(List.of("Seat 4A successfully booked for Parent A in Economy.",
+                "Seat 4B successfully booked for Parent B in Economy.",
+                "Seat 4C successfully booked for Child in Economy."), results);
+        assertEquals(87, flight.getEconomyClassCapacity());
+        assertEquals(3, flight.getPassengers().size());
+        assertEquals("4C", family.get(2).getReservation(flight).getMySeatNumber());
+    }
+
+    @Test
+    void bookGroup_AllOrNothing() {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 20,
+                new ArrayList<>(), new ArrayList<>());
+        Flight overlapping = new Flight("CD456", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 20,
+                new ArrayList<>(), new ArrayList<>());
+        Passenger busy = new Passenger("Busy Traveller", new ArrayList<>());
+        overlapping.bookSeat(busy, "Economy", "Meal");
+        Passenger free = new Passenger("Free Traveller", new ArrayList<>());
+
+        // One conflicting passenger cancels the whole group
+        List<String> results = flight.bookGroup(List.of(free, busy), "Economy", "Meal");
+        assertEquals("Group booking cancelled: another passenger in the group cannot travel.", results.get(0));
+        assertEquals("Conflict detected: Cannot book flight AB123", results.get(1));
+        assertEquals(18, flight.getEconomyClassCapacity());
+        assertTrue(free.getReservations().isEmpty());
+
+        // Edge case: the cabin has 2 first class seats, so a group of 3 gets none
+        List<Passenger> group = List.of(free, new Passenger("B", new ArrayList<>()), new Passenger("C", new ArrayList<>()));
+        results = flight.bookGroup(group, "FirstClass", "Meal");
+        assertEquals("Not enough remaining seats in FirstClass for a group of 3.", results.get(2));
+        assertEquals(2, flight.getFirstClassCapacity());
+        assertTrue(flight.getPassengers().isEmpty());
+
+        // Edge case: the same passenger twice
+        results = flight.bookGroup(List.of(free, free), "Economy", "Meal");
+        assertEquals("Each passenger can only appear once in a group booking.", results.get(0));
+    }
+
+    @Test
+    void bookSeats_RunWithFailures() {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 20,
+                new ArrayList<>(), new ArrayList<>());
+        Flight overlapping = new Flight("CD456", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 20,
+                new ArrayList<>(), new ArrayList<>());
+        Passenger busy = new Passenger("Busy Traveller", new ArrayList<>());
+        overlapping.bookSeat(busy, "Economy", "Meal");
+        Passenger a = new Passenger("A", new ArrayList<>());
+
+        // Normal case: a conflict in the run gives its seat back to the cabin
+        List<String> results = flight.bookSeats(List.of(
+                BookingCommand.book("AB123", busy, "FirstClass", "Meal"),
+                BookingCommand.book("AB123", a, "FirstClass", "Meal")));
+        assertEquals(List.of("Conflict detected: Cannot book flight AB123",
+                "Seat successfully booked for A in FirstClass."), results);
+        assertEquals(1, flight.getFirstClassCapacity());
+        assertEquals(1, flight.getSeatMap().getFreeSeats(CabinClass.FIRST_CLASS));
+
+        // Edge case: a run longer than the seats left books in order until the cabin is full
+        results = flight.bookSeats(List.of(
+                BookingCommand.book("AB123", new Passenger("B", new ArrayList<>()), "FirstClass", "Meal"),
+                BookingCommand.book("AB123", new Passenger("C", new ArrayList<>()), "FirstClass", "Meal"),
+                BookingCommand.book("AB123", new Passenger("D", new ArrayList<>()), "Economy", "Meal")));
+        assertEquals(List.of("Seat successfully booked for B in FirstClass.",
+                "No remaining seats in FirstClass.",
+                "Seat successfully booked for D in Economy."), results);
+        assertEquals(0, flight.getFirstClassCapacity());
+        assertEquals(17, flight.getEconomyClassCapacity());
+        assertEquals(3, flight.getPassengers().size());
+
+        // Error case: an unknown seat type books nobody
+        results = flight.bookSeats(List.of(BookingCommand.book("AB123", busy, "Business", "Meal")));
+        assertEquals("Invalid seat type. Please choose 'FirstClass' or 'Economy'.", results.get(0));
+        assertEquals(17, flight.getSeatMap().getFreeSeats(CabinClass.ECONOMY));
+    }
 }
@@ -0,0 +1,215 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * The waitlist of one flight: passengers waiting for a seat in a sold-out cabin, so they do not
+ * have to retry their booking until a seat frees up.
+ *
+ * Each cabin has its own queue, ordered by priority: VIPs first, then in the order passengers
+ * joined. A freed seat is handed to the head of its cabin's queue without going back to the seat
+ * inventory, so no concurrent booking can take it in between. The flight then books the handed
+ * over seat for the passenger, see {@link #nextPromotion()}.
+ *
+ * All methods lock the waitlist; like the roster it is always locked last.
+ */
+public class FlightWaitlist {
+    private static final Comparator<Entry> PRIORITY = Comparator.comparing((Entry entry) -> !entry.vip)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final SeatInventory seats; // The flight's seats, taken for a passenger when handed over
+    private final List<Queue<Entry>> queues = new ArrayList<>(); // Waiting passengers per cabin, by priority
+    private final Map<Passenger, Entry> waiting = new HashMap<>(); // Entry of each waiting passenger
+    private final int[] waitingCount = new int[CabinClass.values().length]; // Waiting passengers per cabin
+    private final Queue<Entry> promotions = new ArrayDeque<>(); // Passengers a seat was handed to, not booked yet
+    private long nextSequence; // Order in which passengers joined
+
+    /**
+     * A passenger waiting for a seat, with the booking to make once one frees up.
+     */
+    public static final class Entry {
+        private final Passenger passenger;
+        private final CabinClass cabin;
+        private final String seatType;
+        private final String service;
+        private final boolean vip;
+        private final long sequence;
+        private boolean removed; // Left the waitlist; skipped when the queue reaches it
+
+        private Entry(Passenger passenger, CabinClass cabin, String seatType, String service, boolean vip,
+                      long sequence) {
+            this.passenger = passenger;
+            this.cabin = cabin;
+            this.seatType = seatType;
+            this.service = service;
+            this.vip = vip;
+            this.sequence = sequence;
+        }
+
+        public Passenger getPassenger() {
+            return passenger;
+        }
+
+        public CabinClass getCabin() {
+            return cabin;
+        }
+
+        public String getSeatType() {
+            return seatType;
+        }
+
+        public String getService() {
+            return service;
+        }
+
+        public boolean isVip() {
+            return vip;
+        }
+    }
+
+    /**
+     * Constructor to initialize an empty waitlist for a flight's seats.
+     *
+     * @param seats The seat inventory of the flight
+     */
+    public FlightWaitlist(SeatInventory seats) {
+        this.seats = seats;
+        for (int i = 0; i < CabinClass.values().length; i++) {
+            queues.add(new PriorityQueue<>(PRIORITY));
+        }
+    }
+
+    /**
+     * Adds a passenger to the waitlist of a cabin. If a seat of the cabin has freed up since the
+     * passenger's booking failed, it is handed to the head of the queue at once.
+     *
+     * @param passenger The passenger
+     * @param cabin     The cabin the passenger waits for
+     * @param seatType  The seat type to book (e.g., "FirstClass", "Economy")
+     * @param service   The service to book (e.g., "Meal")
+     * @param vip       Whether the passenger is a VIP on the flight, which moves them ahead
+     * @return True if the passenger was added, false if the passenger is already waiting
+     */
+    public synchronized boolean add(Passenger passenger, CabinClass cabin, String seatType, String service,
+                                    boolean vip) {
+        if (waiting.containsKey(passenger)) {
+            return false;
+        }
+        Entry entry = new Entry(passenger, cabin, seatType, service, vip, nextSequence++);
+        waiting.put(passenger, entry);
+        queues.get(cabin.ordinal()).add(entry);
+        waitingCount[cabin.ordinal()]++;
+        if (seats.tryReserve(cabin)) {
+            handOff(cabin);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a passenger from the waitlist.
+     *
+     * @param passenger The passenger
+     * @return True if the passenger was waiting
+     */
+    public synchronized boolean remove(Passenger passenger) {
+        Entry entry = waiting.remove(passenger);
+        if (entry == null) {
+            return false;
+        }
+        entry.removed = true; // Dropped from its queue when the queue reaches it
+        waitingCount[entry.cabin.ordinal()]--;
+        return true;
+    }
+
+    /**
+     * Returns a freed seat: hands it to the first passenger waiting for the cabin, or back to the
+     * seat inventory if nobody waits.
+     *
+     * @param cabin The cabin of the freed seat
+     * @return True if the seat was handed to a waiting passenger
+     */
+    public synchronized boolean release(CabinClass cabin) {
+        if (handOff(cabin)) {
+            return true;
+        }
+        seats.release(cabin);
+        return false;
+    }
+
+    /**
+     * Takes the next passenger a seat was handed to. The seat is already taken from the inventory:
+     * the caller books it for the passenger, or returns it with {@link #release(CabinClass)} if the
+     * passenger cannot travel any more.
+     *
+     * @return The passenger's entry, or null if no seat is waiting to be booked
+     */
+    public synchronized Entry nextPromotion() {
+        return promotions.poll();
+    }
+
+    /**
+     * Checks whether a passenger is waiting.
+     *
+     * @param passenger The passenger
+     * @return True if the passenger is on the waitlist
+     */
+    public synchronized boolean contains(Passenger passenger) {
+        return waiting.containsKey(passenger);
+    }
+
+    /**
+     * Returns the number of waiting passengers.
+     *
+     * @return The number of passengers on the waitlist
+     */
+    public synchronized int size() {
+        return waiting.size();
+    }
+
+    /**
+     * Returns the number of passengers waiting for a cabin.
+     *
+     * @param cabin The cabin
+     * @return The number of passengers waiting for the cabin
+     */
+    public synchronized int size(CabinClass cabin) {
+        return waitingCount[cabin.ordinal()];
+    }
+
+    /**
+     * Empties the waitlist, e.g. when the flight is cancelled. Seats already handed to passengers
+     * but not booked for them yet go back to the inventory.
+     */
+    public synchronized void clear() {
+        for (Queue<Entry> queue : queues) {
+            queue.clear();
+        }
+        waiting.clear();
+        Arrays.fill(waitingCount, 0);
+        Entry entry;
+        while ((entry = promotions.poll()) != null) {
+            seats.release(entry.cabin);
+        }
+    }
+
+    // Moves the head of a cabin's queue to the promotions; the caller has taken a seat for it
+    private boolean handOff(CabinClass cabin) {
+        Queue<Entry> queue = queues.get(cabin.ordinal());
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (!entry.removed) {
+                waiting.remove(entry.passenger);
+                waitingCount[cabin.ordinal()]--;
+                promotions.add(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+}
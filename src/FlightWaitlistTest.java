@@ -0,0 +1,181 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightWaitlistTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+
+    @Test
+    void vipsFirstThenFirstComeFirstServed() {
+        // 1 first class seat and 9 economy seats
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        Passenger bob = new Passenger("Bob Brown", new ArrayList<>());
+        Passenger carl = new Passenger("Carl White", new ArrayList<>());
+        carl.registerVip(flight);
+        flight.bookSeat(john, "FirstClass", "Meal");
+        assertTrue(flight.bookSeat(jane, "FirstClass", "Meal").startsWith("No remaining seats"));
+
+        // Normal case: passengers wait for the sold-out cabin instead of retrying
+        assertTrue(flight.joinWaitlist(jane, "FirstClass", "Meal").contains("(1 waiting)"));
+        flight.joinWaitlist(bob, "FirstClass", "Extra Luggage");
+        flight.joinWaitlist(carl, "FirstClass", "Meal");
+        FlightWaitlist waitlist = flight.getWaitlist();
+        assertEquals(3, waitlist.size(CabinClass.FIRST_CLASS));
+
+        // The freed seat goes to the VIP, although the VIP joined last
+        john.cancelReservation(flight);
+        assertEquals(List.of(carl), flight.getPassengers());
+        assertEquals("FirstClass", carl.getReservation(flight).getMySeatType());
+        assertNotNull(carl.getReservation(flight).getMySeatNumber());
+        assertFalse(waitlist.contains(carl));
+        assertEquals(0, flight.getFirstClassCapacity());
+
+        // Then in the order passengers joined
+        carl.cancelReservation(flight);
+        assertEquals(List.of(jane), flight.getPassengers());
+        assertTrue(waitlist.remove(bob));
+        jane.cancelReservation(flight);
+        assertTrue(flight.getPassengers().isEmpty());
+        assertEquals(1, flight.getFirstClassCapacity()); // Nobody waits any more, so the seat is free again
+
+        // Error case: only passengers who could not book join, and only once
+        assertEquals("Seats are still available in Economy. Please book one directly.",
+                flight.joinWaitlist(bob, "Economy", "Meal"));
+        assertEquals("Invalid seat type. Please choose 'FirstClass' or 'Economy'.",
+                flight.joinWaitlist(bob, "Business", "Meal"));
+        flight.bookSeat(john, "FirstClass", "Meal");
+        assertEquals("John Doe has already booked flight AB123.", flight.joinWaitlist(john, "FirstClass", "Meal"));
+        flight.joinWaitlist(bob, "FirstClass", "Meal");
+        assertEquals("Bob Brown is already on the waitlist for flight AB123.",
+                flight.joinWaitlist(bob, "FirstClass", "Meal"));
+    }
+
+    @Test
+    void modificationPromotesFromTheOldCabin() {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        List<Passenger> economy = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            Passenger passenger = new Passenger("Passenger " + i, new ArrayList<>());
+            flight.bookSeat(passenger, "Economy", "Meal");
+            economy.add(passenger);
+        }
+        Passenger dave = new Passenger("Dave Green", new ArrayList<>());
+        List<Passenger> promoted = new ArrayList<>();
+        flight.addListener(new FlightListener() {
+            @Override
+            public void onWaitlistPromoted(Flight flight, Passenger passenger, CabinClass cabin) {
+                promoted.add(passenger);
+            }
+        });
+        flight.joinWaitlist(dave, "Economy", "Meal");
+
+        // Edge case: an upgrade frees an economy seat, which goes to the waiting passenger
+        economy.get(0).modifyReservation(flight, "FirstClass", "Meal");
+        assertEquals("FirstClass", economy.get(0).getReservation(flight).getMySeatType());
+        assertEquals(List.of(dave), promoted);
+        assertEquals("Economy", dave.getReservation(flight).getMySeatType());
+        assertEquals(10, flight.getPassengerCount());
+        assertEquals(0, flight.getSeatInventory().getTotalRemaining());
+    }
+
+    @Test
+    void promotedPassengerIsNotified() throws InterruptedException {
+        InMemoryNotificationSink sink = new InMemoryNotificationSink();
+        FlightRegistry registry = new FlightRegistry();
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        registry.register(flight);
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        flight.bookSeat(john, "FirstClass", "Meal");
+
+        try (NotificationDispatcher dispatcher = new NotificationDispatcher(sink, 100, 1, 16)) {
+            flight.addListener(new FlightNotificationStrategy(registry, dispatcher, NotificationChannel.SMS));
+            flight.joinWaitlist(jane, "FirstClass", "Meal");
+            john.cancelReservation(flight);
+        }
+        assertEquals(1, sink.getDelivered().size());
+        Notification notification = sink.getDelivered().get(0);
+        assertEquals("Jane Smith", notification.getPassengerName());
+        assertEquals(FlightNotificationStrategy.WAITLIST, notification.getType());
+        assertEquals(NotificationChannel.SMS, notification.getChannel());
+
+        // Edge case: a cancelled flight drops its waitlist
+        Passenger bob = new Passenger("Bob Brown", new ArrayList<>());
+        flight.joinWaitlist(bob, "FirstClass", "Meal");
+        flight.setStatus(FlightStatus.CANCELLED);
+        assertEquals(0, flight.getWaitlist().size());
+        assertEquals("Reservation is closed for this flight.", flight.joinWaitlist(bob, "FirstClass", "Meal"));
+    }
+
+    @Test
+    void concurrentCancellationsNeverOversell() throws InterruptedException {
+        int seats = 100;
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, seats,
+                new ArrayList<>(), new ArrayList<>());
+        List<Passenger> booked = new ArrayList<>();
+        for (int i = 0; i < seats; i++) {
+            Passenger passenger = new Passenger("Booked " + i, new ArrayList<>());
+            if (flight.bookSeat(passenger, i < 10 ? "FirstClass" : "Economy", "Meal").startsWith("Seat successfully")) {
+                booked.add(passenger);
+            }
+        }
+        assertEquals(seats, booked.size());
+        List<Passenger> waiting = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Passenger passenger = new Passenger("Waiting " + i, new ArrayList<>());
+            flight.joinWaitlist(passenger, "Economy", "Meal");
+            waiting.add(passenger);
+        }
+
+        // Cancellations race with each other and with bookings retried against the sold-out flight
+        flight.setOpenForReservation(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = 10 + t * 15;
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = offset; i < offset + 15; i++) {
+                    booked.get(i).cancelReservation(flight);
+                    flight.bookSeat(new Passenger("Retry " + i, new ArrayList<>()), "Economy", "Meal");
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        // Waiting passengers got the first freed seats; retries only got seats nobody waited for
+        for (Passenger passenger : waiting) {
+            assertNotNull(passenger.getReservation(flight), passenger.getName() + " should have been promoted.");
+        }
+        assertEquals(0, flight.getWaitlist().size());
+        assertTrue(flight.getPassengerCount() >= seats - 10);
+        assertEquals(seats, flight.getPassengerCount() + flight.getSeatInventory().getTotalRemaining());
+        assertEquals(flight.getPassengerCount(), flight.getPassengers().size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
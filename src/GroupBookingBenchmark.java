@@ -0,0 +1,58 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark of group bookings against booking the same passengers one at a time.
+ *
+ * Fills flights of 300 seats with groups of 9 passengers, once through {@link Flight#bookGroup}
+ * and once through 9 calls to {@link Flight#bookSeat}, and reports the average time per passenger.
+ * Run with: java GroupBookingBenchmark
+ */
+public class GroupBookingBenchmark {
+    private static final int FLIGHTS = 2_000;
+    private static final int GROUP_SIZE = 9;
+    private static final int GROUPS_PER_FLIGHT = 30;
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2024, 11, 24, 10, 0);
+
+    public static void main(String[] args) {
+        // Warm up both paths, then measure
+        run(false);
+        run(true);
+        double single = run(false);
+        double group = run(true);
+        System.out.printf("group size=%d single bookings=%.0f ns/passenger group bookings=%.0f ns/passenger speedup=%.1fx%n",
+                GROUP_SIZE, single, group, single / group);
+    }
+
+    // Returns the average booking time per passenger in nanoseconds
+    private static double run(boolean grouped) {
+        long elapsed = 0;
+        int booked = 0;
+        for (int f = 0; f < FLIGHTS; f++) {
+            Flight flight = new Flight("F" + f, "New York", "Los Angeles", DEPARTURE, DEPARTURE.plusHours(5),
+                    300, new ArrayList<>(), new ArrayList<>());
+            List<List<Passenger>> groups = new ArrayList<>(GROUPS_PER_FLIGHT);
+            for (int g = 0; g < GROUPS_PER_FLIGHT; g++) {
+                List<Passenger> group = new ArrayList<>(GROUP_SIZE);
+                for (int p = 0; p < GROUP_SIZE; p++) {
+                    group.add(new Passenger("P" + g + "-" + p, new ArrayList<>()));
+                }
+                groups.add(group);
+            }
+            long start = System.nanoTime();
+            for (List<Passenger> group : groups) {
+                if (grouped) {
+                    flight.bookGroup(group, "Economy", "Meal");
+                } else {
+                    for (Passenger passenger : group) {
+                        flight.bookSeat(passenger, "Economy", "Meal");
+                    }
+                }
+            }
+            elapsed += System.nanoTime() - start;
+            booked += flight.getPassengers().size();
+        }
+        return (double) elapsed / booked;
+    }
+}
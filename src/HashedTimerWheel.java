@@ -0,0 +1,165 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed timer wheel: schedules timeouts in O(1) and expires them in O(1) each, however many
+ * are outstanding, without a thread or a sorted structure per timeout.
+ *
+ * Time is cut into ticks of a fixed length. The wheel has a power-of-two number of slots, each
+ * holding a linked list of the timeouts due in the ticks that map to it; a timeout further away
+ * than one turn of the wheel also counts the turns it still has to wait. Advancing the wheel visits
+ * the slot of every elapsed tick once, so a timeout expires in the first tick that ends at or
+ * after its deadline, at most one tick late.
+ *
+ * All methods lock the wheel; tasks of expired timeouts are returned to the caller, so no foreign
+ * code runs while the wheel is locked.
+ *
+ * @param <T> The type of the scheduled tasks
+ */
+public class HashedTimerWheel<T> {
+    private final long startMillis; // Time at which tick 0 ends
+    private final long tickMillis; // Length of a tick
+    private final Timeout<T>[] slots; // First timeout of each slot's list
+    private final int mask; // Slot of a tick is tick & mask
+    private long currentTick; // Next tick to expire
+    private int size; // Scheduled timeouts
+
+    /**
+     * A scheduled task, used to cancel it.
+     *
+     * @param <T> The type of the task
+     */
+    public static final class Timeout<T> {
+        private final T task;
+        private final long deadline; // Time in milliseconds at which the task is due
+        private long rounds; // Turns of the wheel still to wait once the slot comes up
+        private int slot = -1; // Slot holding the timeout, -1 once expired or cancelled
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * Constructor to initialize an empty wheel.
+     *
+     * @param startMillis The current time in milliseconds
+     * @param tickMillis  The length of a tick in milliseconds, i.e. the precision of the deadlines
+     * @param wheelSize   The number of slots, rounded up to a power of two; one turn of the wheel
+     *                    should cover the usual timeouts
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long startMillis, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Tick length and wheel size must be positive.");
+        }
+        int slotCount = Integer.highestOneBit(wheelSize);
+        if (slotCount < wheelSize) {
+            slotCount <<= 1;
+        }
+        this.startMillis = startMillis;
+        this.tickMillis = tickMillis;
+        this.slots = (Timeout<T>[]) new Timeout<?>[slotCount];
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Schedules a task. A deadline that has already passed expires with the next tick.
+     *
+     * @param task     The task
+     * @param deadline The time in milliseconds at which the task is due
+     * @return The timeout, to cancel the task
+     */
+    public synchronized Timeout<T> schedule(T task, long deadline) {
+        Timeout<T> timeout = new Timeout<>(task, deadline);
+        long tick = Math.max(Math.floorDiv(deadline - startMillis + tickMillis - 1, tickMillis), currentTick);
+        timeout.rounds = (tick - currentTick) / slots.length;
+        timeout.slot = (int) (tick & mask);
+        timeout.next = slots[timeout.slot];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        slots[timeout.slot] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a scheduled task.
+     *
+     * @param timeout The timeout returned when the task was scheduled
+     * @return True if the task was cancelled, false if it had already expired or been cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot < 0) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time and takes out every task that is due by then.
+     *
+     * @param now The current time in milliseconds
+     * @return The tasks due, in no particular order
+     */
+    public synchronized List<T> advance(long now) {
+        List<T> due = new ArrayList<>();
+        long lastTick = Math.floorDiv(now - startMillis, tickMillis); // Last tick that has ended
+        if (size == 0) {
+            currentTick = Math.max(currentTick, lastTick + 1); // Nothing to visit on the way
+            return due;
+        }
+        for (; currentTick <= lastTick && size > 0; currentTick++) {
+            Timeout<T> timeout = slots[(int) (currentTick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.rounds <= 0) {
+                    unlink(timeout);
+                    due.add(timeout.task);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+        currentTick = Math.max(currentTick, lastTick + 1);
+        return due;
+    }
+
+    /**
+     * Returns the number of scheduled tasks.
+     *
+     * @return The number of tasks neither expired nor cancelled
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        size--;
+    }
+}
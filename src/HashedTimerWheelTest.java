@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    @Test
+    void expiresInTheFirstTickAfterTheDeadline() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(1_000, 100, 8);
+        wheel.schedule("soon", 1_250);
+        wheel.schedule("exact", 1_300);
+        wheel.schedule("next turn", 2_150); // Beyond one turn of 8 ticks
+
+        // Normal case: nothing expires before its deadline, and at most one tick after it
+        assertTrue(wheel.advance(1_299).isEmpty());
+        assertEquals(List.of("exact", "soon"), sorted(wheel.advance(1_300)));
+        assertTrue(wheel.advance(2_100).isEmpty()); // Same slot as tick 13, but a turn later
+        assertEquals(List.of("next turn"), wheel.advance(2_200));
+        assertEquals(0, wheel.size());
+
+        // Edge case: a deadline in the past expires with the next tick
+        wheel.schedule("late", 500);
+        assertTrue(wheel.advance(2_299).isEmpty());
+        assertEquals(List.of("late"), wheel.advance(2_300));
+    }
+
+    @Test
+    void cancelledTimeoutsNeverExpire() {
+        HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(0, 10, 16);
+        HashedTimerWheel.Timeout<Integer> first = wheel.schedule(1, 50);
+        HashedTimerWheel.Timeout<Integer> second = wheel.schedule(2, 50);
+        wheel.schedule(3, 50);
+
+        assertTrue(wheel.cancel(second));
+        assertEquals(2, wheel.size());
+        assertEquals(List.of(1, 3), sorted(wheel.advance(60)));
+
+        // Error case: expired and cancelled timeouts cannot be cancelled again
+        assertFalse(wheel.cancel(first));
+        assertFalse(wheel.cancel(second));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimerWheel<Integer>(0, 0, 16));
+    }
+
+    @Test
+    void manyTimeoutsExpireOnTime() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(0, 100, 512);
+        Random random = new Random(42);
+        int count = 200_000;
+        for (int i = 0; i < count; i++) {
+            long deadline = random.nextInt(600_000); // Up to ten minutes, several turns of the wheel
+            wheel.schedule(deadline, deadline);
+        }
+        Set<Long> seen = new HashSet<>();
+        int expired = 0;
+        for (long now = 0; now <= 600_000; now += 1_000) {
+            for (long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "Expired before its deadline.");
+                assertTrue(deadline > now - 1_000 - 100, "Expired more than one tick late.");
+                seen.add(deadline);
+                expired++;
+            }
+        }
+        assertEquals(count, expired);
+        assertEquals(0, wheel.size());
+        assertFalse(seen.isEmpty());
+    }
+
+    private static <T extends Comparable<T>> List<T> sorted(List<T> list) {
+        List<T> copy = new ArrayList<>(list);
+        copy.sort(null);
+        return copy;
+    }
+}
@@ -0,0 +1,23 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event appender that keeps every event in memory, e.g. to inspect the events of a test.
+ */
+public class InMemoryEventAppender implements EventAppender {
+    private final List<DomainEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void append(List<DomainEvent> batch) {
+        events.addAll(batch);
+    }
+
+    /**
+     * Retrieves a copy of all events written so far.
+     *
+     * @return The events, in the order they were logged
+     */
+    public synchronized List<DomainEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
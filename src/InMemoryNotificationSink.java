@@ -0,0 +1,35 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notification sink that keeps every delivered notification in memory, standing in for
+ * a real email or SMS gateway in tests and local runs.
+ */
+public class InMemoryNotificationSink implements NotificationSink {
+    private final List<Notification> delivered = new ArrayList<>();
+    private int batches;
+
+    @Override
+    public synchronized void deliver(List<Notification> batch) {
+        delivered.addAll(batch);
+        batches++;
+    }
+
+    /**
+     * Retrieves a copy of all notifications delivered so far.
+     *
+     * @return The delivered notifications, in delivery order
+     */
+    public synchronized List<Notification> getDelivered() {
+        return new ArrayList<>(delivered);
+    }
+
+    /**
+     * Returns the number of batches delivered so far.
+     *
+     * @return The number of batches
+     */
+    public synchronized int getBatchCount() {
+        return batches;
+    }
+}
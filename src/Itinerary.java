@@ -0,0 +1,73 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A journey between two airports made of one or more connecting flights.
+ */
+public class Itinerary {
+    private final List<Flight> legs; // Flights in the order they are flown
+
+    /**
+     * Constructor to initialize an itinerary from its legs.
+     *
+     * @param legs The flights in the order they are flown
+     */
+    public Itinerary(List<Flight> legs) {
+        this.legs = Collections.unmodifiableList(legs);
+    }
+
+    public List<Flight> getLegs() {
+        return legs;
+    }
+
+    public int getLegCount() {
+        return legs.size();
+    }
+
+    public String getDeparture() {
+        return legs.get(0).getDeparture();
+    }
+
+    public String getDestination() {
+        return legs.get(legs.size() - 1).getDestination();
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return legs.get(0).getDepartureTime();
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return legs.get(legs.size() - 1).getArrivalTime();
+    }
+
+    /**
+     * Retrieves the total travel time from the first departure to the last arrival.
+     *
+     * @return The total duration of the journey
+     */
+    public Duration getTotalDuration() {
+        return Duration.between(getDepartureTime(), getArrivalTime());
+    }
+
+    /**
+     * Returns a string representation of the itinerary, one leg after the other.
+     */
+    @Override
+    public String toString() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        StringBuilder sb = new StringBuilder();
+        for (Flight leg : legs) {
+            if (sb.length() > 0) {
+                sb.append(" | ");
+            }
+            sb.append(leg.getFlightNumber()).append(' ')
+                    .append(leg.getDeparture()).append(" -> ").append(leg.getDestination()).append(' ')
+                    .append(leg.getDepartureTime().format(formatter)).append(" ~ ")
+                    .append(leg.getArrivalTime().format(formatter));
+        }
+        return sb.toString();
+    }
+}
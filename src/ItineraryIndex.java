@@ -0,0 +1,259 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval index over a passenger's reservations, ordered by departure and arrival time.
+ *
+ * The index is an interval tree built on a randomized balanced search tree (treap). Every node
+ * keeps the latest arrival time in its subtree, so checking a flight for an overlap with any
+ * booked flight costs O(log n) instead of walking the whole itinerary. Reservations of cancelled
+ * or landed flights no longer count as conflicts and are dropped from the index as soon as they
+ * are found. The index is not thread-safe; its owner is expected to synchronize access.
+ */
+public class ItineraryIndex {
+    private Node root; // Root of the treap
+    private long nextSeq; // Tie-breaker for reservations with identical times
+    private final Map<Flight, List<Node>> byFlight; // Nodes indexed by flight, for re-indexing on delays
+
+    /**
+     * Constructor to initialize an empty itinerary index.
+     */
+    public ItineraryIndex() {
+        this.byFlight = new HashMap<>();
+    }
+
+    /**
+     * Adds a reservation to the index. Reservations of flights that are no longer active
+     * (cancelled or landed) are ignored.
+     *
+     * @param reservation The reservation to add
+     */
+    public void add(Reservation reservation) {
+        Flight flight = reservation.getMyFlight();
+        if (!isActive(flight)) {
+            return;
+        }
+        Node node = new Node(reservation, flight.getDepartureTime(), flight.getArrivalTime(), nextSeq++);
+        root = insert(root, node);
+        byFlight.computeIfAbsent(flight, f -> new ArrayList<>(1)).add(node);
+    }
+
+    /**
+     * Removes a reservation from the index.
+     *
+     * @param reservation The reservation to remove
+     */
+    public void remove(Reservation reservation) {
+        List<Node> nodes = byFlight.get(reservation.getMyFlight());
+        if (nodes == null) {
+            return;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            if (node.reservation == reservation) {
+                root = delete(root, node);
+                nodes.remove(i);
+                break;
+            }
+        }
+        if (nodes.isEmpty()) {
+            byFlight.remove(reservation.getMyFlight());
+        }
+    }
+
+    /**
+     * Re-indexes all reservations of a flight after its departure or arrival time changed,
+     * or removes them if the flight is no longer active.
+     *
+     * @param flight The flight whose schedule or status changed
+     */
+    public void refresh(Flight flight) {
+        List<Node> nodes = byFlight.remove(flight);
+        if (nodes == null) {
+            return;
+        }
+        for (Node node : nodes) {
+            root = delete(root, node);
+        }
+        for (Node node : nodes) {
+            add(node.reservation);
+        }
+    }
+
+    /**
+     * Finds a booked flight that overlaps the given flight, using the same rules as
+     * {@link Flight#conflictsWith(Flight)}.
+     *
+     * @param flight The flight to check
+     * @return The overlapping reservation, or null if there is no conflict
+     */
+    public Reservation findConflict(Flight flight) {
+        List<Node> inactive = new ArrayList<>();
+        Node found = search(root, flight.getDepartureTime(), flight.getArrivalTime(), inactive);
+        // Lazily drop reservations whose flight was cancelled or has landed
+        for (Node node : inactive) {
+            refresh(node.reservation.getMyFlight());
+        }
+        return found == null ? null : found.reservation;
+    }
+
+    /**
+     * Returns the number of reservations in the index.
+     *
+     * @return The number of indexed reservations
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Removes all reservations from the index.
+     */
+    public void clear() {
+        root = null;
+        byFlight.clear();
+    }
+
+    private static boolean isActive(Flight flight) {
+        FlightStatus status = flight.getStatus();
+        return status != FlightStatus.CANCELLED && status != FlightStatus.LANDED;
+    }
+
+    // Returns the first active node overlapping [start, end], collecting inactive overlaps on the way
+    private static Node search(Node node, LocalDateTime start, LocalDateTime end, List<Node> inactive) {
+        if (node == null || node.maxEnd.isBefore(start)) {
+            return null; // Nothing in this subtree arrives late enough to overlap
+        }
+        Node found = search(node.left, start, end, inactive);
+        if (found != null) {
+            return found;
+        }
+        if (node.start.isAfter(end)) {
+            return null; // This node and its right subtree all depart after the flight arrives
+        }
+        if (!node.end.isBefore(start)) {
+            if (isActive(node.reservation.getMyFlight())) {
+                return node;
+            }
+            inactive.add(node);
+        }
+        return search(node.right, start, end, inactive);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added.update();
+        }
+        if (added.compareTo(node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return node.update();
+    }
+
+    private static Node delete(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        if (node == removed) {
+            return merge(node.left, node.right);
+        }
+        if (removed.compareTo(node) < 0) {
+            node.left = delete(node.left, removed);
+        } else {
+            node.right = delete(node.right, removed);
+        }
+        return node.update();
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node.update();
+        return pivot;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * A reservation in the tree, keyed by the flight times at the moment it was indexed.
+     */
+    private static final class Node implements Comparable<Node> {
+        private final Reservation reservation;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long seq;
+        private final int priority;
+        private LocalDateTime maxEnd; // Latest arrival time in this subtree
+        private int size; // Number of nodes in this subtree
+        private Node left;
+        private Node right;
+
+        private Node(Reservation reservation, LocalDateTime start, LocalDateTime end, long seq) {
+            this.reservation = reservation;
+            this.start = start;
+            this.end = end;
+            this.seq = seq;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+
+        private Node update() {
+            maxEnd = end;
+            size = 1;
+            if (left != null) {
+                maxEnd = left.maxEnd.isAfter(maxEnd) ? left.maxEnd : maxEnd;
+                size += left.size;
+            }
+            if (right != null) {
+                maxEnd = right.maxEnd.isAfter(maxEnd) ? right.maxEnd : maxEnd;
+                size += right.size;
+            }
+            return this;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byStart = start.compareTo(other.start);
+            if (byStart != 0) {
+                return byStart;
+            }
+            int byEnd = end.compareTo(other.end);
+            return byEnd != 0 ? byEnd : Long.compare(seq, other.seq);
+        }
+    }
+}
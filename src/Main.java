@@ -1,7 +1,19 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         AirlineCompany airlineCompany = new AirlineCompany("Mamba");
-        Menu menu = new Menu(airlineCompany);
-        menu.display();
+        Path snapshot = Paths.get("bookings.snapshot");
+        // Rebuild the flights and bookings of earlier runs, then journal every change
+        try (BookingJournal journal = new BookingJournal(Paths.get("bookings.journal"))) {
+            journal.recover(airlineCompany, snapshot);
+            journal.startSnapshots(airlineCompany, snapshot, Duration.ofMinutes(10));
+            airlineCompany.getLifecycleScheduler().start(); // Depart and land flights as time passes
+            Menu menu = new Menu(airlineCompany);
+            menu.display();
+        }
     }
 }
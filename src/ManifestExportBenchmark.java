@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark of exporting a day's manifests: 200 departures with 300 passengers each, where every
+ * passenger also holds reservations on 20 other flights. Compares finding each passenger's
+ * reservation by scanning the passenger's reservations, as the menu did, with the manifest
+ * exporter's reservation index lookups. Both write to a channel that discards the bytes.
+ */
+public class ManifestExportBenchmark {
+    private static final LocalDate DAY = LocalDate.of(2024, 11, 24);
+    private static final int FLIGHTS = 200;
+    private static final int SEATS = 300;
+    private static final int OTHER_RESERVATIONS = 20;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < FLIGHTS + OTHER_RESERVATIONS; i++) {
+            LocalDateTime departure = i < FLIGHTS ? DAY.atTime(6, 0).plusMinutes(i * 3)
+                    : DAY.plusDays(1 + i).atTime(8, 0);
+            int capacity = i < FLIGHTS ? SEATS * 10 / 9 : FLIGHTS * SEATS * 2; // Economy holds 90% of the seats
+            Flight flight = new Flight(String.format("MB%04d", i), "New York", "Los Angeles", departure,
+                    departure.plusHours(5), capacity, new ArrayList<>(), new ArrayList<>());
+            airline.addFlight(flight);
+            flights.add(flight);
+        }
+        for (int i = 0; i < FLIGHTS * SEATS; i++) {
+            Passenger passenger = new Passenger("Passenger " + i, new ArrayList<>());
+            for (int j = 0; j < OTHER_RESERVATIONS; j += 2) {
+                flights.get(FLIGHTS + j + i % 2).bookSeat(passenger, "Economy", "Meal");
+            }
+            flights.get(i / SEATS).bookSeat(passenger, "Economy", "Meal");
+        }
+        ManifestExporter exporter = new ManifestExporter(airline);
+        CountingChannel channel = new CountingChannel();
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            int scanned = scan(airline, channel);
+            long scanNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            int exported = exporter.exportDay(DAY, ManifestExporter.Format.CSV, channel);
+            long exportNanos = System.nanoTime() - start;
+            if (scanned != exported) {
+                throw new IllegalStateException(scanned + " passengers scanned, " + exported + " exported.");
+            }
+            System.out.printf("Round %d: %,d passengers, scan %,d ms, exporter %,d ms%n", round + 1, exported,
+                    scanNanos / 1_000_000, exportNanos / 1_000_000);
+        }
+        System.out.printf("%,d bytes written%n", channel.bytes);
+    }
+
+    // The menu's former manifest loop: every reservation of every passenger is compared with the flight
+    private static int scan(AirlineCompany airline, WritableByteChannel channel) throws IOException {
+        int count = 0;
+        for (Flight flight : airline.searchFlights(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay().minusNanos(1))) {
+            StringBuilder manifest = new StringBuilder();
+            for (Passenger passenger : flight.getPassengers()) {
+                for (Reservation reservation : passenger.getReservations()) {
+                    if (reservation.getMyFlight().equals(flight)) {
+                        manifest.append(flight.getFlightNumber()).append(',').append(flight.getScheduledDate())
+                                .append(',').append(flight.getDeparture()).append(',')
+                                .append(flight.getDestination()).append(',').append(reservation.getLocator())
+                                .append(',').append(passenger.getId()).append(',').append(passenger.getName())
+                                .append(',').append(reservation.getMySeatType()).append(',')
+                                .append(reservation.getMySeatNumber()).append(',')
+                                .append(reservation.getMyService()).append(',').append(flight.isVip(passenger))
+                                .append('\n');
+                        count++;
+                    }
+                }
+            }
+            channel.write(ByteBuffer.wrap(manifest.toString().getBytes()));
+        }
+        return count;
+    }
+
+    private static final class CountingChannel implements WritableByteChannel {
+        private long bytes;
+
+        @Override
+        public int write(ByteBuffer buffer) {
+            int written = buffer.remaining();
+            buffer.position(buffer.limit());
+            bytes += written;
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
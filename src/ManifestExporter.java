@@ -0,0 +1,242 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Exports passenger manifests of an airline's flights as CSV or JSON Lines, e.g. for ground
+ * handling.
+ *
+ * A manifest has one line per booked passenger, in booking order, with the flight, the record
+ * locator, the passenger, the seat type, seat and service, and whether the passenger is a VIP.
+ * Each passenger's reservation is read from the airline's reservation index, so a manifest costs
+ * O(passengers) regardless of how many reservations each passenger has. Lines are written to a
+ * 64 KiB buffered writer over the channel, which encodes them as UTF-8 whenever it fills, so a
+ * day's manifests are streamed without building them in memory.
+ */
+public class ManifestExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "flightNumber,date,departure,destination,locator,passengerId,"
+            + "passengerName,seatType,seat,service,vip";
+
+    private final AirlineCompany company;
+
+    /**
+     * Supported manifest formats.
+     */
+    public enum Format {
+        CSV, // Comma-separated values with a header line
+        JSON_LINES // One JSON object per line
+    }
+
+    /**
+     * Constructor to initialize an exporter for an airline's flights.
+     *
+     * @param company The airline company
+     */
+    public ManifestExporter(AirlineCompany company) {
+        this.company = company;
+    }
+
+    /**
+     * Exports the manifest of a flight to a file, replacing the file if it exists.
+     *
+     * @param flight The flight
+     * @param format The manifest format
+     * @param file   The file to write
+     * @return The number of passengers exported
+     * @throws IOException if the file cannot be written
+     */
+    public int export(Flight flight, Format format, Path file) throws IOException {
+        return export(List.of(flight), format, file);
+    }
+
+    /**
+     * Exports the manifests of every flight departing on a day, in departure order, to a file,
+     * replacing the file if it exists. Cancelled flights are left out.
+     *
+     * @param date   The departure date
+     * @param format The manifest format
+     * @param file   The file to write
+     * @return The number of passengers exported
+     * @throws IOException if the file cannot be written
+     */
+    public int exportDay(LocalDate date, Format format, Path file) throws IOException {
+        return export(departures(date), format, file);
+    }
+
+    /**
+     * Exports the manifests of flights to a file, replacing the file if it exists.
+     *
+     * @param flights The flights, in the order their manifests are written
+     * @param format  The manifest format
+     * @param file    The file to write
+     * @return The number of passengers exported
+     * @throws IOException if the file cannot be written
+     */
+    public int export(List<Flight> flights, Format format, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(flights, format, channel);
+        }
+    }
+
+    /**
+     * Exports the manifests of every flight departing on a day, in departure order, to a channel,
+     * e.g. a socket. Cancelled flights are left out. The channel is not closed.
+     *
+     * @param date    The departure date
+     * @param format  The manifest format
+     * @param channel The channel to write to
+     * @return The number of passengers exported
+     * @throws IOException if the channel cannot be written
+     */
+    public int exportDay(LocalDate date, Format format, WritableByteChannel channel) throws IOException {
+        return export(departures(date), format, channel);
+    }
+
+    /**
+     * Exports the manifests of flights to a channel. The channel is not closed.
+     *
+     * @param flights The flights, in the order their manifests are written
+     * @param format  The manifest format
+     * @param channel The channel to write to
+     * @return The number of passengers exported
+     * @throws IOException if the channel cannot be written
+     */
+    public int export(List<Flight> flights, Format format, WritableByteChannel channel) throws IOException {
+        // One large buffer in front of the encoder; it encodes through its own small default buffer
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1),
+                BUFFER_SIZE);
+        StringBuilder line = new StringBuilder(256);
+        int count = 0;
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+        for (Flight flight : flights) {
+            String date = flight.getScheduledDate().toString();
+            for (Passenger passenger : flight.getPassengers()) {
+                Reservation reservation = company.getReservation(flight, passenger);
+                if (reservation == null) {
+                    reservation = passenger.getReservation(flight); // Not one of the company's flights
+                }
+                if (reservation == null) {
+                    continue; // Cancelled since the roster was read
+                }
+                String locator;
+                String seatType;
+                String seat;
+                String service;
+                synchronized (passenger) { // Read the reservation as one state, not halfway through a modification
+                    locator = reservation.getLocator();
+                    seatType = reservation.getMySeatType();
+                    seat = reservation.getMySeatNumber();
+                    service = reservation.getMyService();
+                }
+                line.setLength(0);
+                if (format == Format.CSV) {
+                    csv(line, flight.getFlightNumber()).append(',');
+                    csv(line, date).append(',');
+                    csv(line, flight.getDeparture()).append(',');
+                    csv(line, flight.getDestination()).append(',');
+                    csv(line, locator).append(',');
+                    line.append(passenger.getId()).append(',');
+                    csv(line, passenger.getName()).append(',');
+                    csv(line, seatType).append(',');
+                    csv(line, seat).append(',');
+                    csv(line, service).append(',');
+                    line.append(flight.isVip(passenger));
+                } else {
+                    line.append("{\"flightNumber\":");
+                    json(line, flight.getFlightNumber()).append(",\"date\":");
+                    json(line, date).append(",\"departure\":");
+                    json(line, flight.getDeparture()).append(",\"destination\":");
+                    json(line, flight.getDestination()).append(",\"locator\":");
+                    json(line, locator).append(",\"passengerId\":").append(passenger.getId()).append(",\"passengerName\":");
+                    json(line, passenger.getName()).append(",\"seatType\":");
+                    json(line, seatType).append(",\"seat\":");
+                    json(line, seat).append(",\"service\":");
+                    json(line, service).append(",\"vip\":").append(flight.isVip(passenger)).append('}');
+                }
+                line.append('\n');
+                out.append(line);
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    // The flights departing on a day, in departure order, excluding cancelled flights
+    private List<Flight> departures(LocalDate date) {
+        return company.searchFlights(date.atStartOfDay(), date.atTime(LocalTime.MAX));
+    }
+
+    // Appends a CSV field, quoted if it contains a separator, a quote or a line break; null as an empty field
+    private static StringBuilder csv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    // Appends a JSON string, or null
+    private static StringBuilder json(StringBuilder line, String value) {
+        if (value == null) {
+            return line.append("null");
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        return line.append('"');
+    }
+}
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ManifestExporterTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+    private static final LocalDateTime departureTime2 = LocalDateTime.of(2024, 11, 24, 8, 0);
+    private static final LocalDateTime arrivalTime2 = LocalDateTime.of(2024, 11, 24, 12, 0);
+    private static final LocalDateTime departureTime3 = LocalDateTime.of(2024, 11, 25, 10, 0);
+    private static final LocalDateTime arrivalTime3 = LocalDateTime.of(2024, 11, 25, 14, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void exportFlightAsCsv() throws IOException {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        airline.addFlight(flight);
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Smith, \"Jane\"", new ArrayList<>());
+        Passenger bob = new Passenger("Bob Brown", new ArrayList<>());
+        jane.registerVip(flight);
+        flight.bookSeat(john, "Economy", "Meal");
+        flight.bookSeat(jane, "FirstClass", "Meal");
+        flight.bookSeat(bob, "Economy", "Extra Luggage");
+        bob.cancelReservation(flight);
+
+        // Normal case: one line per booked passenger in booking order; cancelled passengers are left out
+        Path file = directory.resolve("AB123.csv");
+        assertEquals(2, new ManifestExporter(airline).export(flight, ManifestExporter.Format.CSV, file));
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("flightNumber,date,departure,destination,locator,passengerId,passengerName,seatType,seat,service,vip",
+                lines.get(0));
+        Reservation johns = john.getReservation(flight);
+        assertEquals("AB123,2024-11-24,New York,Los Angeles," + johns.getLocator() + "," + john.getId()
+                + ",John Doe,Economy," + johns.getMySeatNumber() + ",Meal,false", lines.get(1));
+
+        // Edge case: fields with separators or quotes are quoted
+        assertTrue(lines.get(2).contains(",\"Smith, \"\"Jane\"\"\",FirstClass,"), lines.get(2));
+        assertTrue(lines.get(2).endsWith(",true"));
+
+        // Exporting again replaces the file
+        flight.bookSeat(bob, "Economy", "Meal");
+        assertEquals(3, new ManifestExporter(airline).export(flight, ManifestExporter.Format.CSV, file));
+        assertEquals(4, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    void exportDayAsJsonLines() throws IOException {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        Flight evening = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        Flight morning = new Flight("CD456", "Chicago", "Miami", departureTime2, arrivalTime2, 50,
+                new ArrayList<>(), new ArrayList<>());
+        Flight nextDay = new Flight("EF789", "Boston", "Denver", departureTime3, arrivalTime3, 50,
+                new ArrayList<>(), new ArrayList<>());
+        airline.addFlight(evening);
+        airline.addFlight(morning);
+        airline.addFlight(nextDay);
+        Passenger john = new Passenger("John \\ Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        evening.bookSeat(john, "Economy", "Meal");
+        morning.bookSeat(jane, "FirstClass", "Meal");
+        nextDay.bookSeat(jane, "Economy", "Meal");
+
+        // Normal case: the day's flights are written in departure order, one JSON object per line
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int exported = new ManifestExporter(airline).exportDay(departureTime1.toLocalDate(),
+                ManifestExporter.Format.JSON_LINES, Channels.newChannel(bytes));
+        assertEquals(2, exported);
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"flightNumber\":\"CD456\",\"date\":\"2024-11-24\","), lines[0]);
+        assertTrue(lines[0].contains("\"locator\":\"" + jane.getReservation(morning).getLocator() + "\""));
+        assertTrue(lines[0].endsWith("\"service\":\"Meal\",\"vip\":false}"));
+
+        // Edge case: backslashes in names are escaped
+        assertTrue(lines[1].contains("\"passengerName\":\"John \\\\ Doe\""), lines[1]);
+
+        // Edge case: cancelled flights are not exported
+        morning.setStatus(FlightStatus.CANCELLED);
+        bytes.reset();
+        assertEquals(1, new ManifestExporter(airline).exportDay(departureTime1.toLocalDate(),
+                ManifestExporter.Format.JSON_LINES, Channels.newChannel(bytes)));
+    }
+}
@@ -1,8 +1,14 @@
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 import java.util.ArrayList;
 import java.util.List;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 
 public class Menu {
@@ -14,14 +20,17 @@ public class Menu {
     public Menu(AirlineCompany airlineCompany) {
         this.airlineCompany = airlineCompany;
         this.scanner = new Scanner(System.in);
-        this.performanceAnalyzer = new FlightPerformanceAnalyzer(airlineCompany.getAllFlights()); // 初始化性能分析器
+        // Streaming counters keep every analysis O(1)
+        this.performanceAnalyzer = new FlightPerformanceAnalyzer(airlineCompany.getAllFlights(),
+                airlineCompany.getFlightMetrics()); // 初始化性能分析器
     }
 
     public void display() {
         boolean exit = false;
 
         while (!exit) {
-            // Print menu
+            // Print the events of the last option before the menu
+            EventLog.getDefault().flush();
             printMenu();
 
             int choice = getUserChoice();
@@ -67,7 +76,12 @@ public class Menu {
                     viewCancellationRate();
                     break;
                 case 14:
+                    exportManifests();
+                    break;
+                case 15:
                     exit = true;
+                    airlineCompany.close(); // Deliver what is still queued and stop the background threads
+                    EventLog.getDefault().flush();
                     System.out.println("Exiting the program.");
                     break;
                 default:
@@ -93,7 +107,8 @@ public class Menu {
         System.out.println("11. View average on-time rate");
         System.out.println("12. View seat occupancy trend");
         System.out.println("13. View flight cancellation rate");
-        System.out.println("14. Exit");
+        System.out.println("14. Export passenger manifests");
+        System.out.println("15. Exit");
         System.out.print("Choose an option: ");
     }
 
@@ -119,7 +134,17 @@ public class Menu {
         System.out.println("Enter flight number: ");
         scanner.nextLine();  // Consume the newline
         String flightNumber = scanner.nextLine();
-        Flight flight = airlineCompany.getFlightDetails(flightNumber);
+        System.out.println("Enter departure date (yyyy-MM-dd), or leave blank for the next flight: ");
+        String date = scanner.nextLine().trim();
+        Flight flight;
+        try {
+            flight = date.isEmpty()
+                    ? airlineCompany.getFlightDetails(flightNumber)
+                    : airlineCompany.getFlightDetails(flightNumber, LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Please use yyyy-MM-dd.");
+            return;
+        }
         if (flight != null) {
             System.out.println(flight.toString());
         } else {
@@ -132,7 +157,38 @@ public class Menu {
         scanner.nextLine();  // Consume the newline
         String passengerName = scanner.nextLine();
 
-        Passenger passenger = new Passenger(passengerName, new ArrayList<>());
+        PassengerDirectory directory = airlineCompany.getPassengerDirectory();
+        if (passengerName.trim().isEmpty()) {
+            System.out.println("Passenger name must not be blank.");
+            return;
+        }
+        // Reuse the passenger of an earlier booking, so all of a traveller's reservations stay together,
+        // but let the user tell a returning traveller from a namesake
+        Passenger passenger = null;
+        List<Passenger> namesakes = directory.findAll(passengerName);
+        if (!namesakes.isEmpty()) {
+            System.out.println("Passengers named " + passengerName.trim() + ":");
+            for (int i = 0; i < namesakes.size(); i++) {
+                System.out.println((i + 1) + ". " + describe(namesakes.get(i)));
+            }
+            System.out.println("Enter the number of the passenger to book for, or 0 for a new passenger: ");
+            int choice;
+            try {
+                choice = Integer.parseInt(scanner.nextLine().trim());
+            } catch (NumberFormatException e) {
+                choice = -1;
+            }
+            if (choice < 0 || choice > namesakes.size()) {
+                System.out.println("Invalid choice.");
+                return;
+            }
+            if (choice > 0) {
+                passenger = namesakes.get(choice - 1);
+            }
+        }
+        if (passenger == null) {
+            passenger = directory.create(passengerName);
+        }
         System.out.println("Enter flight number to book: ");
         String flightNumber = scanner.nextLine();
 
@@ -142,18 +198,63 @@ public class Menu {
             String seatType = scanner.nextLine();
             System.out.println("Enter service type: ");
             String serviceType = scanner.nextLine();
-            System.out.println(flight.bookSeat(passenger, seatType, serviceType));
+            String result = flight.bookSeat(passenger, seatType, serviceType);
+            System.out.println(result);
+            if (result.startsWith("No remaining seats") || result.startsWith("Reservation is closed")) {
+                System.out.println("Join the waitlist and get the next free seat? (y/n): ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                    System.out.println(flight.joinWaitlist(passenger, seatType, serviceType));
+                }
+            }
+            Reservation reservation = passenger.getReservation(flight);
+            if (reservation != null) {
+                System.out.println("Record locator: " + reservation.getLocator());
+            }
         } else {
             System.out.println("Flight not found.");
         }
     }
 
-    private void modifyReservation() {
+    // A passenger's name and id with the flights they are booked on
+    private static String describe(Passenger passenger) {
+        StringBuilder text = new StringBuilder(passenger.getName() + " (id " + passenger.getId() + ")");
+        List<Reservation> reservations = new ArrayList<>(passenger.getReservations());
+        if (reservations.isEmpty()) {
+            return text.append(", no reservations").toString();
+        }
+        text.append(", booked on");
+        for (int i = 0; i < reservations.size(); i++) {
+            Flight flight = reservations.get(i).getMyFlight();
+            text.append(i == 0 ? " " : ", ").append(flight.getFlightNumber())
+                    .append(' ').append(flight.getDepartureTime().toLocalDate());
+        }
+        return text.toString();
+    }
 
+    private void modifyReservation() {
+        System.out.println("Enter record locator: ");
+        scanner.nextLine();  // Consume the newline
+        String locator = scanner.nextLine();
+        if (airlineCompany.findReservation(locator) == null) {
+            System.out.println("Reservation not found.");
+            return;
+        }
+        System.out.println("Enter new seat type (FirstClass/Economy): ");
+        String seatType = scanner.nextLine();
+        System.out.println("Enter new service type: ");
+        String serviceType = scanner.nextLine();
+        String result = airlineCompany.modifyReservation(locator, seatType, serviceType);
+        EventLog.getDefault().flush();
+        System.out.println(result);
     }
 
     private void cancelReservation() {
-
+        System.out.println("Enter record locator: ");
+        scanner.nextLine();  // Consume the newline
+        String locator = scanner.nextLine();
+        String result = airlineCompany.cancelReservation(locator);
+        EventLog.getDefault().flush();
+        System.out.println(result);
     }
 
     private void setFlightDelay() {
@@ -166,7 +267,13 @@ public class Menu {
             String newDepartureTime = scanner.nextLine();
             System.out.println("Enter new arrival time (yyyy-MM-dd HH:mm): ");
             String newArrivalTime = scanner.nextLine();
-            airlineCompany.delayFlight(flightNumber, LocalDateTime.parse(newDepartureTime, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")), LocalDateTime.parse(newArrivalTime, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+            try {
+                airlineCompany.delayFlight(flightNumber, LocalDateTime.parse(newDepartureTime, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")), LocalDateTime.parse(newArrivalTime, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+            } catch (IllegalStateException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+            EventLog.getDefault().flush();
             System.out.println("Flight delay updated.");
         } else {
             System.out.println("Flight not found.");
@@ -198,10 +305,33 @@ public class Menu {
     }
 
     private void viewPassengerReservations() {
-        System.out.println("Enter passenger name: ");
+        System.out.println("Enter record locator or passenger name: ");
         scanner.nextLine();  // Consume the newline
-        String passengerName = scanner.nextLine();
-        // Logic for viewing passenger reservations
+        String query = scanner.nextLine();
+        Passenger passenger = airlineCompany.findReservationHolder(query);
+        if (passenger == null) {
+            passenger = airlineCompany.getPassengerDirectory().find(query);
+        }
+        if (passenger == null) {
+            // Fall back to a typeahead search on the start of the name's words
+            List<Passenger> matches = airlineCompany.getPassengerDirectory().search(query, 10);
+            if (matches.isEmpty()) {
+                System.out.println("Passenger not found.");
+                return;
+            }
+            if (matches.size() > 1) {
+                System.out.println("Passengers matching '" + query.trim() + "':");
+                for (Passenger match : matches) {
+                    System.out.println(match.getName());
+                }
+                return;
+            }
+            passenger = matches.get(0);
+        }
+        System.out.println("Reservations of " + passenger.getName() + ":");
+        for (Reservation reservation : new ArrayList<>(passenger.getReservations())) {
+            System.out.println(reservation);
+        }
     }
 
     private void viewAllPassengersForFlight() {
@@ -216,12 +346,11 @@ public class Menu {
                 System.out.println("No passengers have booked this flight.");
             } else {
                 for (Passenger passenger : flightPassengers) {
-                    for (Reservation reservation : passenger.getReservations()) {
-                        if (reservation.getMyFlight().equals(flight)) {
-                            System.out.println("Passenger: " + passenger.getName() +
-                                    " | Seat Type: " + reservation.getMySeatType() +
-                                    " | Service: " + reservation.getMyService());
-                        }
+                    Reservation reservation = airlineCompany.getReservation(flight, passenger);
+                    if (reservation != null) {
+                        System.out.println("Passenger: " + passenger.getName() +
+                                " | Seat Type: " + reservation.getMySeatType() +
+                                " | Service: " + reservation.getMyService());
                     }
                 }
             }
@@ -229,6 +358,49 @@ public class Menu {
             System.out.println("Flight not found.");
         }
     }
+
+    private void exportManifests() {
+        System.out.println("Enter flight number, or a departure date (yyyy-MM-dd) for all of that day's flights: ");
+        scanner.nextLine();  // Consume the newline
+        String target = scanner.nextLine().trim();
+        System.out.println("Enter format (CSV/JSONL): ");
+        ManifestExporter.Format format = scanner.nextLine().trim().equalsIgnoreCase("JSONL")
+                ? ManifestExporter.Format.JSON_LINES : ManifestExporter.Format.CSV;
+        System.out.println("Enter output file: ");
+        String fileName = scanner.nextLine().trim();
+        Path file;
+        LocalDate date = null;
+        try {
+            file = Paths.get(fileName);
+            if (target.matches("\\d{4}-\\d{2}-\\d{2}")) {
+                date = LocalDate.parse(target);
+            }
+        } catch (InvalidPathException e) {
+            System.out.println("Invalid output file: " + fileName);
+            return;
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date: " + target);
+            return;
+        }
+        ManifestExporter exporter = new ManifestExporter(airlineCompany);
+        try {
+            int exported;
+            if (date != null) {
+                exported = exporter.exportDay(date, format, file);
+            } else {
+                Flight flight = airlineCompany.getFlightDetails(target);
+                if (flight == null) {
+                    System.out.println("Flight not found.");
+                    return;
+                }
+                exported = exporter.export(flight, format, file);
+            }
+            System.out.println("Exported " + exported + " passenger(s) to " + file + ".");
+        } catch (IOException e) {
+            System.out.println("Failed to export the manifest: " + e.getMessage());
+        }
+    }
+
     // Display average on-time rate
     private void viewOnTimeRate() {
         double onTimeRate = performanceAnalyzer.calculateOnTimeRate();
@@ -237,10 +409,11 @@ public class Menu {
 
     // Display seat occupancy trend
     private void viewSeatOccupancyTrend() {
-        Map<String, Double> seatOccupancy = performanceAnalyzer.analyzeSeatOccupancyTrend();
+        Map<Flight, Double> seatOccupancy = performanceAnalyzer.analyzeSeatOccupancyByFlight();
         System.out.println("Seat occupancy trend:");
-        seatOccupancy.forEach((flightNumber, occupancy) -> {
-            System.out.println("Flight " + flightNumber + ": " + occupancy + "%");
+        seatOccupancy.forEach((flight, occupancy) -> {
+            System.out.println("Flight " + flight.getFlightNumber() + " on " + flight.getScheduledDate() + ": "
+                    + occupancy + "%");
         });
     }
 
@@ -0,0 +1,87 @@
+import java.time.LocalDate;
+
+/**
+ * A single message to one passenger about one flight.
+ */
+public final class Notification {
+    private final String flightNumber;
+    private final LocalDate flightDate; // Scheduled date of the flight-day, null if unknown
+    private final long passengerId; // Id of the passenger, -1 if unknown
+    private final String passengerName;
+    private final String type; // e.g. "Delay", "Cancellation"
+    private final String message;
+    private final NotificationChannel channel;
+
+    /**
+     * Constructor to initialize a notification.
+     *
+     * @param flightNumber  The flight the notification is about
+     * @param passengerName The name of the passenger to notify
+     * @param type          The type of notification (e.g., "Delay", "Cancellation")
+     * @param message       The content of the notification
+     * @param channel       The channel to deliver the notification over
+     */
+    public Notification(String flightNumber, String passengerName, String type, String message,
+                        NotificationChannel channel) {
+        this(flightNumber, null, -1, passengerName, type, message, channel);
+    }
+
+    /**
+     * Constructor to initialize a notification about one day of a flight to an identified passenger,
+     * so passengers with the same name and the days of a flight number are told apart.
+     *
+     * @param flightNumber  The flight the notification is about
+     * @param flightDate    The scheduled date of the flight-day
+     * @param passengerId   The id of the passenger to notify
+     * @param passengerName The name of the passenger to notify
+     * @param type          The type of notification (e.g., "Delay", "Cancellation")
+     * @param message       The content of the notification
+     * @param channel       The channel to deliver the notification over
+     */
+    public Notification(String flightNumber, LocalDate flightDate, long passengerId, String passengerName,
+                        String type, String message, NotificationChannel channel) {
+        this.flightNumber = flightNumber;
+        this.flightDate = flightDate;
+        this.passengerId = passengerId;
+        this.passengerName = passengerName;
+        this.type = type;
+        this.message = message;
+        this.channel = channel;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+
+    public long getPassengerId() {
+        return passengerId;
+    }
+
+    public String getPassengerName() {
+        return passengerName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns a string representation of the notification as it is sent to the passenger.
+     */
+    @Override
+    public String toString() {
+        return "Sending " + type + " notification to " + passengerName + ": " + message;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Channels over which passenger notifications can be delivered.
+ */
+public enum NotificationChannel {
+    EMAIL,
+    SMS;
+}
@@ -0,0 +1,338 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds passenger notifications back for a short window and coalesces them before they reach
+ * the {@link NotificationDispatcher}.
+ *
+ * Notifications are keyed by (flight-day, passenger, type), with the passenger identified by
+ * id, so namesakes and the days of one flight number are kept apart. A notification that arrives while another
+ * with the same key is still pending replaces it, so a flight delayed several times within the
+ * window only sends its latest delay. A cancellation is sent at once and supersedes every pending
+ * notification of the same passenger about the same flight; an index of the pending keys of
+ * each passenger and flight finds them without scanning. A pending notification is released
+ * when its window, counted from the first notification with its key, has elapsed, so a steady
+ * stream of updates cannot hold a passenger's notification back forever.
+ */
+public class NotificationCoalescer implements AutoCloseable {
+    /** Notification type that supersedes all pending notifications of a passenger about a flight. */
+    public static final String CANCELLATION = "Cancellation";
+
+    private final NotificationDispatcher dispatcher; // Delivers the notifications that survive the window
+    private final Duration window; // How long a notification is held back for coalescing
+    private final Clock clock; // Source of the current time, injectable for tests
+    private final Map<Key, Pending> pending; // Held-back notifications in the order their windows end
+    private final Map<Recipient, List<Key>> byRecipient; // Pending keys of each passenger and flight-day
+    private final AtomicLong submitted; // Notifications handed to the coalescer
+    private final AtomicLong forwarded; // Notifications handed on to the dispatcher
+    private final AtomicLong saved; // Notifications dropped because a newer one replaced them
+    private Thread flusher; // Releases notifications whose window has elapsed, started with the first held one
+    private volatile boolean closed;
+
+    /**
+     * Constructor to initialize a coalescer that holds notifications back for the given window.
+     * A zero window passes every notification straight through.
+     *
+     * @param dispatcher The dispatcher delivering the coalesced notifications
+     * @param window     How long notifications are held back for coalescing
+     * @param clock      The clock used to time the window
+     */
+    public NotificationCoalescer(NotificationDispatcher dispatcher, Duration window, Clock clock) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("Coalescing window cannot be negative.");
+        }
+        this.dispatcher = dispatcher;
+        this.window = window;
+        this.clock = clock;
+        this.pending = new LinkedHashMap<>();
+        this.byRecipient = new HashMap<>();
+        this.submitted = new AtomicLong();
+        this.forwarded = new AtomicLong();
+        this.saved = new AtomicLong();
+    }
+
+    /**
+     * Constructor to initialize a coalescer that passes every notification straight through.
+     *
+     * @param dispatcher The dispatcher delivering the notifications
+     */
+    public NotificationCoalescer(NotificationDispatcher dispatcher) {
+        this(dispatcher, Duration.ZERO, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Submits a notification. It is either held back for coalescing or, for cancellations and
+     * when the window is zero, handed to the dispatcher at once.
+     *
+     * @param notification The notification to send
+     * @param handle       The handle tracking the notification's group
+     * @throws IllegalStateException if the coalescer has been closed
+     */
+    public void submit(Notification notification, DeliveryHandle handle) {
+        if (closed) {
+            throw new IllegalStateException("Notification coalescer has been closed.");
+        }
+        submitted.incrementAndGet();
+        if (window.isZero()) {
+            forward(notification, handle);
+            return;
+        }
+        Key key = new Key(notification);
+        synchronized (this) {
+            if (CANCELLATION.equals(notification.getType())) {
+                // A cancellation makes every pending update about the flight obsolete
+                List<Key> obsolete = byRecipient.remove(key.recipient);
+                if (obsolete != null) {
+                    for (Key stale : obsolete) {
+                        supersede(pending.remove(stale));
+                    }
+                }
+            } else {
+                Pending previous = pending.get(key);
+                if (previous != null) {
+                    // Keep the window of the first notification, but send only the latest content
+                    supersede(previous);
+                    pending.put(key, new Pending(notification, handle, previous.dueAt));
+                    return;
+                }
+                pending.put(key, new Pending(notification, handle, clock.millis() + window.toMillis()));
+                byRecipient.computeIfAbsent(key.recipient, recipient -> new ArrayList<>(2)).add(key);
+                startFlusher();
+                notifyAll(); // Let the flusher learn about the new deadline
+                return;
+            }
+        }
+        forward(notification, handle);
+    }
+
+    /**
+     * Hands every notification whose window has elapsed to the dispatcher.
+     *
+     * @return The number of notifications released
+     */
+    public int flushDue() {
+        return release(clock.millis());
+    }
+
+    /**
+     * Hands every pending notification to the dispatcher, regardless of its window.
+     *
+     * @return The number of notifications released
+     */
+    public int flush() {
+        return release(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of notifications currently held back.
+     *
+     * @return The number of pending notifications
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of notifications submitted to the coalescer.
+     *
+     * @return The number of submitted notifications
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * Returns the number of notifications handed on to the dispatcher.
+     *
+     * @return The number of forwarded notifications
+     */
+    public long getForwardedCount() {
+        return forwarded.get();
+    }
+
+    /**
+     * Returns the number of sends saved by coalescing, i.e. notifications dropped because a newer
+     * notification of the same passenger replaced or superseded them.
+     *
+     * @return The number of saved sends
+     */
+    public long getSavedCount() {
+        return saved.get();
+    }
+
+    /**
+     * Stops accepting notifications and hands everything still pending to the dispatcher.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = flusher;
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+        flush();
+    }
+
+    private int release(long now) {
+        List<Pending> due = new ArrayList<>();
+        synchronized (this) {
+            // Windows all have the same length, so insertion order is deadline order
+            Iterator<Map.Entry<Key, Pending>> it = pending.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Pending> next = it.next();
+                if (next.getValue().dueAt > now) {
+                    break;
+                }
+                due.add(next.getValue());
+                it.remove();
+                unindex(next.getKey());
+            }
+        }
+        // Forward outside the lock: the dispatcher may block while its queue is full
+        for (Pending next : due) {
+            forward(next.notification, next.handle);
+        }
+        return due.size();
+    }
+
+    private void forward(Notification notification, DeliveryHandle handle) {
+        forwarded.incrementAndGet();
+        dispatcher.submit(notification, handle);
+    }
+
+    // Removes a released key from the index of its passenger and flight-day
+    private void unindex(Key key) {
+        List<Key> keys = byRecipient.get(key.recipient);
+        if (keys != null) {
+            keys.remove(key); // One key per notification type, so the list stays short
+            if (keys.isEmpty()) {
+                byRecipient.remove(key.recipient);
+            }
+        }
+    }
+
+    private void supersede(Pending dropped) {
+        saved.incrementAndGet();
+        dropped.handle.markSuperseded(1);
+    }
+
+    // Starts the flusher once a notification is held back; the caller holds the lock
+    private void startFlusher() {
+        if (flusher == null && !closed) {
+            flusher = new Thread(this::runFlusher, "notification-coalescer");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    private void runFlusher() {
+        long maxWait = Math.max(1, window.toMillis());
+        while (!closed) {
+            try {
+                synchronized (this) {
+                    long wait = maxWait;
+                    if (!pending.isEmpty()) {
+                        long dueAt = pending.values().iterator().next().dueAt;
+                        wait = Math.max(1, Math.min(maxWait, dueAt - clock.millis()));
+                    }
+                    wait(wait);
+                }
+                flushDue();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A notification waiting for its window to elapse.
+     */
+    private static final class Pending {
+        private final Notification notification;
+        private final DeliveryHandle handle;
+        private final long dueAt; // Time in milliseconds at which the notification is released
+
+        private Pending(Notification notification, DeliveryHandle handle, long dueAt) {
+            this.notification = notification;
+            this.handle = handle;
+            this.dueAt = dueAt;
+        }
+    }
+
+    /**
+     * Recipient of a notification: the passenger and the flight-day it is about.
+     */
+    private static final class Recipient {
+        private final String flightNumber;
+        private final LocalDate flightDate; // Null if the notification does not name the day
+        private final long passengerId; // -1 if the notification does not name the passenger's id
+        private final String passengerName;
+
+        private Recipient(Notification notification) {
+            this.flightNumber = notification.getFlightNumber();
+            this.flightDate = notification.getFlightDate();
+            this.passengerId = notification.getPassengerId();
+            this.passengerName = notification.getPassengerName();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Recipient)) {
+                return false;
+            }
+            Recipient other = (Recipient) o;
+            return passengerId == other.passengerId && flightNumber.equals(other.flightNumber)
+                    && Objects.equals(flightDate, other.flightDate) && passengerName.equals(other.passengerName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(flightNumber, flightDate, passengerId, passengerName);
+        }
+    }
+
+    /**
+     * Coalescing key: the recipient and the type of notification.
+     */
+    private static final class Key {
+        private final Recipient recipient;
+        private final String type;
+
+        private Key(Notification notification) {
+            this.recipient = new Recipient(notification);
+            this.type = notification.getType();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return recipient.equals(other.recipient) && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * recipient.hashCode() + type.hashCode();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationCoalescerTest {
+    private static final Duration window = Duration.ofMinutes(5);
+
+    @Test
+    void submit_RepeatedDelaysSendOnlyTheLatest() throws InterruptedException {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-24T10:00:00Z"));
+        InMemoryNotificationSink sink = new InMemoryNotificationSink();
+        try (NotificationDispatcher dispatcher = new NotificationDispatcher(sink, 100, 1, 10);
+             NotificationCoalescer coalescer = new NotificationCoalescer(dispatcher, window, clock)) {
+            DeliveryHandle first = new DeliveryHandle(1);
+            DeliveryHandle second = new DeliveryHandle(1);
+            DeliveryHandle third = new DeliveryHandle(1);
+            coalescer.submit(delay("John Doe", "Delayed to 11:00"), first);
+            clock.advance(Duration.ofMinutes(1));
+            coalescer.submit(delay("John Doe", "Delayed to 12:00"), second);
+            clock.advance(Duration.ofMinutes(1));
+            coalescer.submit(delay("John Doe", "Delayed to 13:00"), third);
+
+            // Normal case: nothing goes out before the window of the first delay has elapsed
+            assertEquals(0, coalescer.flushDue());
+            assertEquals(1, coalescer.getPendingCount());
+            assertTrue(first.isDone());
+            assertEquals(1, first.getSuperseded());
+
+            clock.advance(Duration.ofMinutes(3));
+            assertEquals(1, coalescer.flushDue());
+            assertTrue(third.await(5, TimeUnit.SECONDS));
+            assertEquals(1, sink.getDelivered().size());
+            assertEquals("Delayed to 13:00", sink.getDelivered().get(0).getMessage());
+            assertEquals(3, coalescer.getSubmittedCount());
+            assertEquals(1, coalescer.getForwardedCount());
+            assertEquals(2, coalescer.getSavedCount());
+        }
+    }
+
+    @Test
+    void submit_CancellationSupersedesPendingDelays() throws InterruptedException {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-24T10:00:00Z"));
+        InMemoryNotificationSink sink = new InMemoryNotificationSink();
+        try (NotificationDispatcher dispatcher = new NotificationDispatcher(sink, 100, 1, 10);
+             NotificationCoalescer coalescer = new NotificationCoalescer(dispatcher, window, clock)) {
+            DeliveryHandle delays = new DeliveryHandle(2);
+            coalescer.submit(delay("John Doe", "Delayed to 11:00"), delays);
+            coalescer.submit(delay("Jane Smith", "Delayed to 11:00"), delays);
+
+            DeliveryHandle cancellation = new DeliveryHandle(1);
+            coalescer.submit(new Notification("AB123", "John Doe", NotificationCoalescer.CANCELLATION,
+                    "Cancelled", NotificationChannel.EMAIL), cancellation);
+
+            // The cancellation goes out at once; only the other passenger's delay stays pending
+            assertTrue(cancellation.await(5, TimeUnit.SECONDS));
+            assertEquals(1, coalescer.getPendingCount());
+            assertEquals(1, delays.getSuperseded());
+
+            coalescer.flush();
+            assertTrue(delays.await(5, TimeUnit.SECONDS));
+            List<Notification> delivered = sink.getDelivered();
+            assertEquals(2, delivered.size());
+            assertEquals("Cancellation", delivered.get(0).getType());
+            assertEquals("Jane Smith", delivered.get(1).getPassengerName());
+            assertEquals(1, coalescer.getSavedCount());
+        }
+    }
+
+    @Test
+    void submit_NamesakesAndFlightDaysAreKeptApart() throws InterruptedException {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-24T10:00:00Z"));
+        InMemoryNotificationSink sink = new InMemoryNotificationSink();
+        LocalDate day1 = LocalDate.of(2024, 11, 24);
+        LocalDate day2 = day1.plusDays(1);
+        try (NotificationDispatcher dispatcher = new NotificationDispatcher(sink, 100, 1, 10);
+             NotificationCoalescer coalescer = new NotificationCoalescer(dispatcher, window, clock)) {
+            DeliveryHandle delays = new DeliveryHandle(3);
+            coalescer.submit(new Notification("AB123", day1, 1, "John Smith", "Delay", "Delayed to 11:00",
+                    NotificationChannel.EMAIL), delays);
+            coalescer.submit(new Notification("AB123", day1, 2, "John Smith", "Delay", "Delayed to 11:00",
+                    NotificationChannel.EMAIL), delays);
+            coalescer.submit(new Notification("AB123", day2, 1, "John Smith", "Delay", "Delayed to 11:00",
+                    NotificationChannel.EMAIL), delays);
+
+            // Normal case: two passengers of the same name and two days of a flight do not merge
+            assertEquals(3, coalescer.getPendingCount());
+
+            // Edge case: a cancellation supersedes only its own passenger's updates about its own day
+            DeliveryHandle cancellation = new DeliveryHandle(1);
+            coalescer.submit(new Notification("AB123", day1, 1, "John Smith", NotificationCoalescer.CANCELLATION,
+                    "Cancelled", NotificationChannel.EMAIL), cancellation);
+            assertTrue(cancellation.await(5, TimeUnit.SECONDS));
+            assertEquals(2, coalescer.getPendingCount());
+            assertEquals(1, delays.getSuperseded());
+
+            clock.advance(window);
+            assertEquals(2, coalescer.flushDue());
+            assertTrue(delays.await(5, TimeUnit.SECONDS));
+            assertEquals(3, sink.getDelivered().size());
+
+            // Error case: a cancellation after the updates went out has nothing left to supersede
+            coalescer.submit(new Notification("AB123", day2, 1, "John Smith", NotificationCoalescer.CANCELLATION,
+                    "Cancelled", NotificationChannel.EMAIL), new DeliveryHandle(1));
+            assertEquals(1, coalescer.getSavedCount());
+        }
+    }
+
+    @Test
+    void submit_ZeroWindowPassesThrough() throws InterruptedException {
+        InMemoryNotificationSink sink = new InMemoryNotificationSink();
+        try (NotificationDispatcher dispatcher = new NotificationDispatcher(sink, 100, 1, 10)) {
+            NotificationCoalescer coalescer = new NotificationCoalescer(dispatcher);
+            DeliveryHandle handle = new DeliveryHandle(2);
+            coalescer.submit(delay("John Doe", "Delayed to 11:00"), handle);
+            coalescer.submit(delay("John Doe", "Delayed to 12:00"), handle);
+
+            assertTrue(handle.await(5, TimeUnit.SECONDS));
+            assertEquals(2, sink.getDelivered().size());
+            assertEquals(0, coalescer.getSavedCount());
+        }
+        // Edge case: negative windows are rejected
+        assertThrows(IllegalArgumentException.class,
+                () -> new NotificationCoalescer(null, Duration.ofSeconds(-1), Clock.systemUTC()));
+    }
+
+    private static Notification delay(String passengerName, String message) {
+        return new Notification("AB123", passengerName, "Delay", message, NotificationChannel.EMAIL);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
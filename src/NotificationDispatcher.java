@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous dispatcher that delivers passenger notifications in batches.
+ *
+ * Notifications are put on a bounded queue and the caller returns immediately; when the queue is
+ * full the caller blocks until workers catch up, so a notification storm cannot exhaust memory.
+ * Worker threads drain up to a batch of notifications at a time, group them by channel and hand
+ * each group to the channel's {@link NotificationSink}. Channels without a sink of their own use
+ * the default sink. The workers start with the first notification, so a dispatcher that never
+ * sends anything runs no threads.
+ */
+public class NotificationDispatcher implements AutoCloseable {
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int DEFAULT_WORKERS = 2;
+    private static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final BlockingQueue<Envelope> queue; // Bounded queue of notifications waiting for delivery
+    private final int batchSize; // Maximum number of notifications a worker takes at once
+    private final Map<NotificationChannel, NotificationSink> sinks; // Sink of each channel
+    private volatile NotificationSink defaultSink; // Sink for channels without their own
+    private final int workerCount; // Number of workers started with the first notification
+    private final List<Thread> workers; // Running workers, empty until the first notification
+    private volatile boolean closed;
+
+    /**
+     * Constructor to initialize a dispatcher that prints notifications to the console.
+     */
+    public NotificationDispatcher() {
+        this(new ConsoleNotificationSink(), DEFAULT_QUEUE_CAPACITY, DEFAULT_WORKERS, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor to initialize a dispatcher. Its workers start with the first notification.
+     *
+     * @param defaultSink   The sink used for channels without a sink of their own
+     * @param queueCapacity The maximum number of notifications waiting for delivery
+     * @param workerCount   The number of worker threads
+     * @param batchSize     The maximum number of notifications delivered in one batch
+     */
+    public NotificationDispatcher(NotificationSink defaultSink, int queueCapacity, int workerCount, int batchSize) {
+        if (queueCapacity <= 0 || workerCount <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Queue capacity, worker count and batch size must be positive.");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.sinks = new ConcurrentHashMap<>();
+        this.defaultSink = defaultSink;
+        this.workerCount = workerCount;
+        this.workers = new ArrayList<>(workerCount);
+    }
+
+    /**
+     * Sets the sink used for a channel.
+     *
+     * @param channel The channel
+     * @param sink    The sink delivering that channel's notifications
+     */
+    public void setSink(NotificationChannel channel, NotificationSink sink) {
+        sinks.put(channel, sink);
+    }
+
+    /**
+     * Sets the sink used for channels without a sink of their own.
+     *
+     * @param sink The default sink
+     */
+    public void setDefaultSink(NotificationSink sink) {
+        this.defaultSink = sink;
+    }
+
+    /**
+     * Queues a notification for delivery, blocking while the queue is full.
+     *
+     * @param notification The notification to deliver
+     * @param handle       The handle tracking the notification's group
+     * @throws IllegalStateException if the dispatcher has been closed
+     */
+    public void submit(Notification notification, DeliveryHandle handle) {
+        if (closed) {
+            throw new IllegalStateException("Notification dispatcher has been closed.");
+        }
+        startWorkers();
+        try {
+            queue.put(new Envelope(notification, handle));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handle.markFailed(1);
+        }
+    }
+
+    /**
+     * Returns the number of notifications waiting for delivery.
+     *
+     * @return The queue length
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting notifications, delivers everything already queued and stops the workers.
+     */
+    @Override
+    public void close() {
+        List<Thread> running;
+        synchronized (this) {
+            closed = true;
+            running = new ArrayList<>(workers);
+        }
+        for (Thread worker : running) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private synchronized void startWorkers() {
+        if (workers.isEmpty() && !closed) {
+            for (int i = 0; i < workerCount; i++) {
+                Thread worker = new Thread(this::runWorker, "notification-worker-" + i);
+                worker.setDaemon(true); // Pending notifications must not keep the application alive
+                workers.add(worker);
+                worker.start();
+            }
+        }
+    }
+
+    private void runWorker() {
+        List<Envelope> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                Envelope first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Groups a batch by channel and hands each group to its sink
+    private void deliver(List<Envelope> batch) {
+        Map<NotificationChannel, List<Envelope>> byChannel = new EnumMap<>(NotificationChannel.class);
+        for (Envelope envelope : batch) {
+            byChannel.computeIfAbsent(envelope.notification.getChannel(), channel -> new ArrayList<>()).add(envelope);
+        }
+        for (Map.Entry<NotificationChannel, List<Envelope>> entry : byChannel.entrySet()) {
+            List<Envelope> envelopes = entry.getValue();
+            List<Notification> notifications = new ArrayList<>(envelopes.size());
+            for (Envelope envelope : envelopes) {
+                notifications.add(envelope.notification);
+            }
+            boolean delivered;
+            try {
+                sinks.getOrDefault(entry.getKey(), defaultSink).deliver(notifications);
+                delivered = true;
+            } catch (Exception e) {
+                System.err.println("Failed to deliver " + notifications.size() + " " + entry.getKey()
+                        + " notification(s): " + e.getMessage());
+                delivered = false;
+            }
+            for (Envelope envelope : envelopes) {
+                if (delivered) {
+                    envelope.handle.markDelivered(1);
+                } else {
+                    envelope.handle.markFailed(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * A queued notification together with the handle of its group.
+     */
+    private static final class Envelope {
+        private final Notification notification;
+        private final DeliveryHandle handle;
+
+        private Envelope(Notification notification, DeliveryHandle handle) {
+            this.notification = notification;
+            this.handle = handle;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationDispatcherTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 10, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 14, 0);
+
+    @Test
+    void sendNotification_DeliversAsynchronouslyInBatches() throws InterruptedException {
+        InMemoryNotificationSink sink = new InMemoryNotificationSink();
+        FlightRegistry registry = new FlightRegistry();
+        Flight flight = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 400, new ArrayList<>(), new ArrayList<>());
+        registry.register(flight);
+        for (int i = 0; i < 300; i++) {
+            flight.bookSeat(new Passenger("P" + i, new ArrayList<>()), "Economy", "Meal");
+        }
+
+        try (NotificationDispatcher dispatcher = new NotificationDispatcher(sink, 1000, 2, 64)) {
+            PassengerNotification strategy = new FlightNotificationStrategy(registry, dispatcher, NotificationChannel.SMS);
+            DeliveryHandle handle = strategy.sendNotification("AB123", "Gate changed", "Reminder");
+
+            assertEquals(300, handle.getTotal());
+            assertTrue(handle.await(10, TimeUnit.SECONDS));
+            assertEquals(300, handle.getDelivered());
+            assertEquals(300, sink.getDelivered().size());
+            assertTrue(sink.getBatchCount() < 300, "Notifications should be delivered in batches.");
+            assertEquals(NotificationChannel.SMS, sink.getDelivered().get(0).getChannel());
+        }
+    }
+
+    @Test
+    void submit_BlocksWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        NotificationSink blockingSink = batch -> release.await();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(blockingSink, 2, 1, 1);
+        DeliveryHandle handle = new DeliveryHandle(4);
+        Notification notification = new Notification("AB123", "John Doe", "Delay", "Delayed", NotificationChannel.EMAIL);
+
+        // One notification is held by the worker, two fill the queue, the fourth must wait
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 4; i++) {
+                dispatcher.submit(notification, handle);
+            }
+        });
+        producer.start();
+        producer.join(500);
+        assertTrue(producer.isAlive(), "The producer should be blocked by the full queue.");
+
+        release.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        assertTrue(handle.await(5, TimeUnit.SECONDS));
+        dispatcher.close();
+        assertThrows(IllegalStateException.class, () -> dispatcher.submit(notification, handle));
+    }
+
+    @Test
+    void deliver_ReportsFailuresAndUsesChannelSinks() throws Exception {
+        Path file = Files.createTempFile("notifications", ".log");
+        NotificationSink failingSink = batch -> {
+            throw new IllegalStateException("gateway down");
+        };
+        try (NotificationDispatcher dispatcher = new NotificationDispatcher(failingSink, 10, 1, 10)) {
+            dispatcher.setSink(NotificationChannel.EMAIL, new FileNotificationSink(file));
+            DeliveryHandle handle = new DeliveryHandle(2);
+            dispatcher.submit(new Notification("AB123", "John Doe", "Delay", "Delayed", NotificationChannel.EMAIL), handle);
+            dispatcher.submit(new Notification("AB123", "Jane Smith", "Delay", "Delayed", NotificationChannel.SMS), handle);
+
+            assertTrue(handle.await(5, TimeUnit.SECONDS));
+            assertEquals(1, handle.getDelivered());
+            assertEquals(1, handle.getFailed());
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(List.of("EMAIL\tAB123\tJohn Doe\tDelay\tDelayed"), lines);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void close_StopsTheThreadsOfACompany() throws InterruptedException {
+        Set<Thread> before = new HashSet<>(Thread.getAllStackTraces().keySet());
+        InMemoryNotificationSink sink = new InMemoryNotificationSink();
+        AirlineCompany company = new AirlineCompany("Mamba");
+        company.getNotificationDispatcher().setDefaultSink(sink);
+
+        // Edge case: a company that sends nothing starts no threads
+        assertTrue(newThreads(before).isEmpty());
+
+        // Normal case: the notifications sent before closing are delivered, then every thread stops
+        company.addFlight(new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>()));
+        company.getFlightDetails("AB123").bookSeat(new Passenger("John Doe", new ArrayList<>()), "Economy", "Meal");
+        company.delayFlight("AB123", departureTime1.plusHours(1), arrivalTime1.plusHours(1));
+        assertFalse(newThreads(before).isEmpty());
+        company.close();
+        assertEquals(1, sink.getDelivered().size());
+        for (Thread thread : newThreads(before)) {
+            thread.join(5000);
+            assertFalse(thread.isAlive(), thread.getName() + " is still running.");
+        }
+
+        // Error case: a closed company sends nothing more
+        assertThrows(IllegalStateException.class, () -> company.getNotificationCoalescer().submit(
+                new Notification("AB123", "John Doe", "Delay", "Delayed", NotificationChannel.EMAIL), new DeliveryHandle(1)));
+    }
+
+    // The live threads started since the snapshot
+    private static Set<Thread> newThreads(Set<Thread> before) {
+        Set<Thread> threads = new HashSet<>(Thread.getAllStackTraces().keySet());
+        threads.removeAll(before);
+        return threads;
+    }
+}
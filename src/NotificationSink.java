@@ -0,0 +1,17 @@
+import java.util.List;
+
+/**
+ * Destination that delivers batches of notifications, e.g. an email or SMS gateway.
+ * A sink is called by one dispatcher worker at a time per batch, but different workers
+ * may call it concurrently.
+ */
+public interface NotificationSink {
+
+    /**
+     * Delivers a batch of notifications that all use the same channel.
+     *
+     * @param batch the notifications to deliver
+     * @throws Exception if the batch could not be delivered
+     */
+    void deliver(List<Notification> batch) throws Exception;
+}
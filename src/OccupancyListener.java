@@ -0,0 +1,21 @@
+/**
+ * Listener interface for flights crossing their nearly-full occupancy threshold.
+ */
+public interface OccupancyListener {
+
+    /**
+     * Called when a booking takes a flight above its occupancy threshold.
+     *
+     * @param flight    the flight that became nearly full
+     * @param occupancy the flight's occupancy as a fraction of its capacity
+     */
+    void onCrossedAbove(Flight flight, double occupancy);
+
+    /**
+     * Called when a cancellation takes a flight back to or below its occupancy threshold.
+     *
+     * @param flight    the flight that is no longer nearly full
+     * @param occupancy the flight's occupancy as a fraction of its capacity
+     */
+    void onDroppedBelow(Flight flight, double occupancy);
+}
@@ -0,0 +1,199 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Event-driven watchlist of nearly-full flights.
+ *
+ * The watchlist listens to bookings and cancellations on every watched flight and re-evaluates
+ * only that flight, so the set of nearly-full flights is always current and can be read in time
+ * proportional to its size. A flight is nearly full when more than its threshold fraction of seats
+ * is booked. Thresholds can be set per flight or per route and default to 90%. Subscribers are told
+ * when a flight crosses above its threshold and when it drops back below it.
+ */
+public class OccupancyWatchlist implements FlightListener {
+    private static final double DEFAULT_THRESHOLD = 0.9;
+
+    private final double defaultThreshold; // Threshold used when no flight or route threshold is set
+    private final Map<Flight, WatchState> watched; // State of every watched flight
+    private final Map<Route, Double> routeThresholds; // Thresholds configured per route
+    private final Set<Flight> nearlyFull; // Flights currently above their threshold
+    private final List<OccupancyListener> subscribers;
+
+    /**
+     * Constructor to initialize an empty watchlist with the default 90% threshold.
+     */
+    public OccupancyWatchlist() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructor to initialize an empty watchlist.
+     *
+     * @param defaultThreshold The occupancy fraction above which a flight is nearly full
+     */
+    public OccupancyWatchlist(double defaultThreshold) {
+        this.defaultThreshold = validate(defaultThreshold);
+        this.watched = new ConcurrentHashMap<>();
+        this.routeThresholds = new ConcurrentHashMap<>();
+        this.nearlyFull = ConcurrentHashMap.newKeySet();
+        this.subscribers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Starts watching a flight and evaluates its current occupancy.
+     *
+     * @param flight The flight to watch
+     */
+    public void watch(Flight flight) {
+        if (watched.putIfAbsent(flight, new WatchState()) == null) {
+            flight.addListener(this);
+            evaluate(flight);
+        }
+    }
+
+    /**
+     * Stops watching a flight and removes it from the nearly-full set without notifying subscribers.
+     *
+     * @param flight The flight to stop watching
+     */
+    public void unwatch(Flight flight) {
+        if (watched.remove(flight) != null) {
+            flight.removeListener(this);
+            nearlyFull.remove(flight);
+        }
+    }
+
+    /**
+     * Subscribes to threshold crossing events.
+     *
+     * @param listener The listener to notify
+     */
+    public void subscribe(OccupancyListener listener) {
+        subscribers.add(listener);
+    }
+
+    /**
+     * Unsubscribes from threshold crossing events.
+     *
+     * @param listener The listener to remove
+     */
+    public void unsubscribe(OccupancyListener listener) {
+        subscribers.remove(listener);
+    }
+
+    /**
+     * Sets the nearly-full threshold of a single flight, overriding any route threshold.
+     *
+     * @param flight    The flight
+     * @param threshold The occupancy fraction between 0 and 1
+     */
+    public void setThreshold(Flight flight, double threshold) {
+        WatchState state = watched.get(flight);
+        if (state == null) {
+            throw new IllegalArgumentException("Flight " + flight.getFlightNumber() + " is not being watched.");
+        }
+        state.threshold = validate(threshold);
+        evaluate(flight);
+    }
+
+    /**
+     * Sets the nearly-full threshold of every flight on a route that has no flight threshold.
+     *
+     * @param route     The route
+     * @param threshold The occupancy fraction between 0 and 1
+     */
+    public void setThreshold(Route route, double threshold) {
+        routeThresholds.put(route, validate(threshold));
+        for (Flight flight : watched.keySet()) {
+            if (Route.of(flight).equals(route)) {
+                evaluate(flight);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the flights that are currently nearly full.
+     *
+     * @return A list of nearly-full flights
+     */
+    public List<Flight> getNearlyFullFlights() {
+        return new ArrayList<>(nearlyFull);
+    }
+
+    /**
+     * Checks whether a flight is currently nearly full.
+     *
+     * @param flight The flight
+     * @return True if the flight is above its threshold
+     */
+    public boolean isNearlyFull(Flight flight) {
+        return nearlyFull.contains(flight);
+    }
+
+    @Override
+    public void onSeatBooked(Flight flight, Passenger passenger, CabinClass cabin) {
+        evaluate(flight);
+    }
+
+    @Override
+    public void onSeatReleased(Flight flight, Passenger passenger, CabinClass cabin) {
+        evaluate(flight);
+    }
+
+    // Re-evaluates one flight and notifies subscribers if it crossed its threshold
+    private void evaluate(Flight flight) {
+        WatchState state = watched.get(flight);
+        if (state == null) {
+            return;
+        }
+        double occupancy;
+        boolean crossedAbove;
+        synchronized (state) {
+            occupancy = (double) flight.getPassengerCount() / flight.getCapacity();
+            boolean above = occupancy > thresholdOf(flight, state);
+            if (above == state.above) {
+                return;
+            }
+            state.above = above;
+            crossedAbove = above;
+            if (above) {
+                nearlyFull.add(flight);
+            } else {
+                nearlyFull.remove(flight);
+            }
+        }
+        for (OccupancyListener subscriber : subscribers) {
+            if (crossedAbove) {
+                subscriber.onCrossedAbove(flight, occupancy);
+            } else {
+                subscriber.onDroppedBelow(flight, occupancy);
+            }
+        }
+    }
+
+    private double thresholdOf(Flight flight, WatchState state) {
+        if (state.threshold != null) {
+            return state.threshold;
+        }
+        return routeThresholds.getOrDefault(Route.of(flight), defaultThreshold);
+    }
+
+    private static double validate(double threshold) {
+        if (threshold < 0 || threshold > 1) {
+            throw new IllegalArgumentException("Occupancy threshold must be between 0 and 1.");
+        }
+        return threshold;
+    }
+
+    /**
+     * Watch state of a single flight.
+     */
+    private static final class WatchState {
+        private volatile Double threshold; // Flight specific threshold, or null to use the route/default
+        private boolean above; // Whether the flight was above its threshold at the last evaluation
+    }
+}
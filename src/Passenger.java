@@ -1,4 +1,5 @@
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The Passenger class represents a passenger who can make and manage flight reservations.
@@ -20,8 +21,12 @@ import java.util.List;
  */
 
 public class Passenger {
+    private static final AtomicLong NEXT_ID = new AtomicLong();  // Source of passenger ids
+
+    private final long id;  // Unique id, also the order in which several passengers are locked together
     private String name;  // The name of the passenger
     List<Reservation> reservations;  // A list of reservations made by the passenger
+    private final ItineraryIndex itinerary;  // Interval index over the reservations, used for conflict checks
 
     /**
      * Constructor to initialize a Passenger with a name and a list of reservations.
@@ -29,8 +34,25 @@ public class Passenger {
      * @param reservations A list of reservations for the passenger.
      */
     public Passenger(String name, List<Reservation> reservations) {
+        this(NEXT_ID.incrementAndGet(), name, reservations);
+    }
+
+    /**
+     * Constructor to recreate a Passenger with a known id, e.g. when recovering from the booking journal.
+     * Ids handed out later are always higher than this one.
+     * @param id The id of the passenger.
+     * @param name The name of the passenger.
+     * @param reservations A list of reservations for the passenger.
+     */
+    Passenger(long id, String name, List<Reservation> reservations) {
+        NEXT_ID.accumulateAndGet(id, Math::max);
+        this.id = id;
         this.name = name;
         this.reservations = reservations;
+        this.itinerary = new ItineraryIndex();
+        for (Reservation res : reservations) {
+            itinerary.add(res);
+        }
     }
 
     //Getter
@@ -38,48 +60,98 @@ public class Passenger {
         return name;
     }
 
+    public long getId() {
+        return id;
+    }
+
     public List<Reservation> getReservations() {
         return reservations;
     }
 
     //Setter
-    public void setReservations(Flight flight, String sType, String ser) {
+    public synchronized void setReservations(Flight flight, String sType, String ser) {
+        setReservations(flight, sType, ser, null);
+    }
+
+    public synchronized void setReservations(Flight flight, String sType, String ser, String seatNumber) {
         Reservation res = new Reservation(flight, sType, ser);
+        res.setMySeatNumber(seatNumber);
+        addReservation(res);
+    }
+
+    // Adds a reservation built elsewhere, e.g. one recovered from a snapshot
+    synchronized void addReservation(Reservation res) {
         reservations.add(res);  // Add the new reservation to the list
+        itinerary.add(res);  // Keep the conflict index current
+    }
+
+    // Removes the reservation on a flight without touching the flight; returns it, or null if there is none
+    synchronized Reservation removeReservation(Flight flight) {
+        Reservation res = getReservation(flight);
+        if (res != null) {
+            reservations.remove(res);
+            itinerary.remove(res);
+        }
+        return res;
+    }
+
+    /**
+     * Finds the passenger's reservation on a flight.
+     * @param flight The flight to look up.
+     * @return The reservation on the flight, or null if the passenger has not booked it.
+     */
+    public synchronized Reservation getReservation(Flight flight) {
+        for (Reservation res : reservations) {
+            if (res.getMyFlight().equals(flight)) {
+                return res;
+            }
+        }
+        return null;
     }
 
     /**
      * Checks if there is a conflict between the current flight and the passenger's existing reservations.
      * A conflict occurs if the passenger has already reserved a seat on a flight that overlaps with the current flight.
+     * Cancelled and landed flights are not considered. The check uses the passenger's itinerary index, so it
+     * costs O(log n) in the number of reservations.
      * @param flight The flight to check for conflicts with.
      * @return True if there is no conflict with any existing reservation; false if a conflict is found.
      */
-    public boolean isConflict(Flight flight) {
-        for (Reservation res : reservations) {
-            if (res.getMyFlight().conflictsWith(flight)) {
-                return false;  // A conflict is found, return false
-            }
-        }
-        return true;  // No conflict
+    public synchronized boolean isConflict(Flight flight) {
+        return itinerary.findConflict(flight) == null;  // No overlapping reservation means no conflict
+    }
+
+    /**
+     * Re-indexes the passenger's reservations on a flight after its schedule or status changed.
+     * Called by the flight when it is delayed, cancelled or has landed.
+     * @param flight The flight that changed.
+     */
+    public synchronized void onFlightChanged(Flight flight) {
+        itinerary.refresh(flight);
     }
 
     /**
      * Cancels a reservation for a specific flight.
      * This method will remove the reservation from the passenger's list and update the flight accordingly.
+     * The freed seat is then booked for the first passenger on the flight's waitlist, if any.
      * @param flight The flight whose reservation is to be canceled.
      */
     public void cancelReservation(Flight flight) {
+        cancel(flight);
+        flight.promoteWaitlisted();  // Only once this passenger is unlocked, as it locks the promoted passenger
+    }
+
+    private synchronized void cancel(Flight flight) {
         for (Reservation res : reservations) {
             if (res.getMyFlight().equals(flight)) {
                 reservations.remove(res);  // Remove the reservation from the list
-                System.out.println("Flight: " + flight.getFlightNumber()
-                        + " canceled successfully.");
-                flight.update(res.getMySeatType(), this);  // Update the flight with the canceled reservation
+                itinerary.remove(res);
+                EventLog.getDefault().log(EventType.RESERVATION_CANCELLED, flight.getFlightNumber(), name);
+                flight.update(res.getMySeatType(), this, res.getMySeatNumber());  // Update the flight with the canceled reservation
                 return;
             }
         }
-        System.out.println("Flight " + flight.getFlightNumber()
-                + " not found in reservations.");
+        EventLog.getDefault().log(EventType.RESERVATION_NOT_FOUND, flight.getFlightNumber(), name);
     }
 
     /**
@@ -90,50 +162,59 @@ public class Passenger {
      * @param service The new service type (e.g., "Meal", "Extra Luggage").
      */
     public void modifyReservation(Flight curFlight, String seatType, String service) {
+        modify(curFlight, seatType, service);
+        curFlight.promoteWaitlisted();  // The seat left in the old cabin may have gone to a waitlisted passenger
+    }
+
+    private synchronized void modify(Flight curFlight, String seatType, String service) {
         // Check if the seat type is valid
         if (!seatType.equalsIgnoreCase("FirstClass") && !seatType.equalsIgnoreCase("Economy")) {
-            System.out.println("Invalid seat type. Please choose 'FirstClass' or 'Economy'.");
+            EventLog.getDefault().log(EventType.SEAT_TYPE_INVALID, curFlight.getFlightNumber(), name, "seatType", seatType);
             return;
         }
 
         // Iterate through the reservations to find the current flight
         for (Reservation res : reservations) {
             if (res.getMyFlight().equals(curFlight)) {
-                // If the seat type is unchanged, exit
-                if (res.getMySeatType().equals(seatType)) {
-                    System.out.println("You have already booked this type of seat.");
+                // If the cabin is unchanged, exit
+                if (CabinClass.fromLabel(res.getMySeatType()) == CabinClass.fromLabel(seatType)) {
+                    EventLog.getDefault().log(EventType.RESERVATION_UNCHANGED, curFlight.getFlightNumber(), name);
                     return;
                 }
 
                 // Check if the new seat type is available on the flight
-                if ((seatType.equalsIgnoreCase("FirstClass") && curFlight.getFirstClassCapacity() > 0) ||
-                        (seatType.equalsIgnoreCase("Economy") && curFlight.getEconomyClassCapacity() > 0)) {
+                // Modify the flight's seat availability; this fails if the new cabin sold out meanwhile
+                if ((seatType.equalsIgnoreCase("FirstClass") && curFlight.getFirstClassCapacity() > 0 ||
+                        seatType.equalsIgnoreCase("Economy") && curFlight.getEconomyClassCapacity() > 0) &&
+                        curFlight.modify(seatType, this)) {
 
-                    // Modify the flight and reservation details
-                    curFlight.modify(seatType, this);  // Modify the flight's seat availability
+                    // Update the reservation details
                     res.setMySeatType(seatType);  // Update the reservation's seat type
                     res.setMyService(service);  // Update the reservation's service
+                    curFlight.reservationModified(this, res);
 
-                    System.out.println("You have successfully modified your reservation.");
+                    EventLog.getDefault().log(EventType.RESERVATION_MODIFIED, curFlight.getFlightNumber(), name,
+                            "seatType", seatType, "service", service);
                     return;
                 } else {
-                    System.out.println("There are not enough available seat types to make the modification.");
+                    EventLog.getDefault().log(EventType.SEAT_TYPE_UNAVAILABLE, curFlight.getFlightNumber(), name,
+                            "seatType", seatType);
                     return;
                 }
             }
         }
 
         // If no reservation was found for the specified flight
-        System.out.println("Flight " + curFlight.getFlightNumber() + " not found in reservations.");
+        EventLog.getDefault().log(EventType.RESERVATION_NOT_FOUND, curFlight.getFlightNumber(), name);
     }
 
     /**
      * Registers the passenger as a VIP for a specific flight.
-     * Adds the passenger to the flight's VIP list.
+     * Flags the passenger as a VIP on the flight's roster.
      * @param flight The flight for which the passenger is being registered as a VIP.
      */
     public void registerVip(Flight flight) {
-        flight.getVip().add(this);  // Add the passenger to the flight's VIP list
+        flight.registerVip(this);  // Flag the passenger as a VIP on the flight's roster
     }
 
     /**
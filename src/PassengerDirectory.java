@@ -0,0 +1,277 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Directory of an airline's passengers, so a returning traveller is found instead of created again.
+ *
+ * Passengers are found by their key, the name with case and repeated blanks removed, or by id in
+ * O(1). A name does not identify a traveller, so every passenger with a key is kept and
+ * {@link #findAll(String)} lists them for the caller to choose from; {@link #findOrCreate(String)}
+ * reuses the first one. For typeahead search, every distinct word of the names is kept
+ * in a sorted skip list together with the passengers whose name has it, so the passengers having a
+ * word that starts with the typed text are read from one contiguous range, in O(log w) in the
+ * number of distinct words plus the number of passengers read. Names repeat their words a lot, so
+ * the skip list stays small and adding a passenger mostly appends to the queue of existing words.
+ *
+ * The directory listens to the airline's flights and adds every passenger who books a seat,
+ * including the passengers recreated from the booking journal or a snapshot.
+ */
+public class PassengerDirectory implements FlightListener {
+    private final Map<String, Passenger> byKey = new ConcurrentHashMap<>(); // First passenger registered with each key
+    private final Map<String, Queue<Passenger>> namesakes = new ConcurrentHashMap<>(); // Every passenger of each key
+    private final Map<Long, Passenger> byId = new ConcurrentHashMap<>(); // Every registered passenger
+    // Passengers of every word of the registered names, in word order
+    private final ConcurrentNavigableMap<String, Queue<Passenger>> byWord = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the key under which a name is stored: trimmed, lower case, and with single blanks
+     * between words, so "John  Doe" and "john doe" are the same passenger.
+     *
+     * @param name The passenger name
+     * @return The key of the name
+     */
+    public static String keyOf(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        boolean blank = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                blank = key.length() > 0;
+            } else {
+                if (blank) {
+                    key.append(' ');
+                    blank = false;
+                }
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Starts adding the passengers who book a flight, including those it already has.
+     *
+     * @param flight The flight to watch
+     */
+    public void watch(Flight flight) {
+        flight.addListener(this);
+        for (Passenger passenger : flight.getPassengers()) {
+            register(passenger);
+        }
+    }
+
+    /**
+     * Stops adding the passengers who book a flight. Passengers already added stay in the directory.
+     *
+     * @param flight The flight to stop watching
+     */
+    public void unwatch(Flight flight) {
+        flight.removeListener(this);
+    }
+
+    /**
+     * Finds the passenger with a name, creating and registering a new passenger if there is none.
+     *
+     * @param name The passenger name
+     * @return The registered passenger with the name's key
+     * @throws IllegalArgumentException if the name is blank
+     */
+    public Passenger findOrCreate(String name) {
+        String key = keyOf(name);
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("Passenger name must not be blank.");
+        }
+        Passenger existing = byKey.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        Passenger[] created = new Passenger[1];
+        Passenger passenger = byKey.computeIfAbsent(key,
+                k -> created[0] = new Passenger(name.trim(), new ArrayList<>()));
+        if (passenger == created[0]) {
+            byId.put(passenger.getId(), passenger);
+            addNamesake(passenger, key);
+            addWords(passenger, key);
+        }
+        return passenger;
+    }
+
+    /**
+     * Creates and registers a new passenger, even if passengers with the same name are registered,
+     * e.g. for a traveller who only shares a name with an earlier one.
+     *
+     * @param name The passenger name
+     * @return The new passenger
+     * @throws IllegalArgumentException if the name is blank
+     */
+    public Passenger create(String name) {
+        if (keyOf(name).isEmpty()) {
+            throw new IllegalArgumentException("Passenger name must not be blank.");
+        }
+        Passenger passenger = new Passenger(name.trim(), new ArrayList<>());
+        register(passenger);
+        return passenger;
+    }
+
+    /**
+     * Registers a passenger created elsewhere, e.g. one recovered from the booking journal.
+     * A passenger whose key is already taken by another passenger can still be found by id and
+     * by search, but not by key.
+     *
+     * @param passenger The passenger to register
+     * @return True if the passenger was registered, false if it already was
+     */
+    public boolean register(Passenger passenger) {
+        if (byId.putIfAbsent(passenger.getId(), passenger) != null) {
+            return false;
+        }
+        String key = keyOf(passenger.getName());
+        byKey.putIfAbsent(key, passenger);
+        addNamesake(passenger, key);
+        addWords(passenger, key);
+        return true;
+    }
+
+    /**
+     * Finds a passenger by name.
+     *
+     * @param name The passenger name, in any letter case
+     * @return The passenger with the name's key, or null if there is none
+     */
+    public Passenger find(String name) {
+        return byKey.get(keyOf(name));
+    }
+
+    /**
+     * Finds every passenger with a name, so a traveller can be told apart from their namesakes.
+     *
+     * @param name The passenger name, in any letter case
+     * @return The passengers with the name's key, in the order they were registered
+     */
+    public List<Passenger> findAll(String name) {
+        Queue<Passenger> passengers = namesakes.get(keyOf(name));
+        return passengers == null ? Collections.emptyList() : new ArrayList<>(passengers);
+    }
+
+    /**
+     * Finds a passenger by id.
+     *
+     * @param id The passenger id
+     * @return The passenger, or null if no registered passenger has the id
+     */
+    public Passenger findById(long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Searches passengers for typeahead: every typed word must be the start of a word of the
+     * passenger's name, so "jo d" finds "John Doe" and "Dana Jones".
+     *
+     * @param text  The typed text
+     * @param limit The maximum number of passengers to return
+     * @return Up to limit matching passengers, ordered by the matching word
+     */
+    public List<Passenger> search(String text, int limit) {
+        List<String> typed = words(text);
+        if (typed.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        // Read the range of the longest typed word, which has the fewest entries, and check the others
+        String longest = typed.get(0);
+        for (String word : typed) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        List<Passenger> results = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, Queue<Passenger>> entry : byWord.tailMap(longest).entrySet()) {
+            if (!entry.getKey().startsWith(longest)) {
+                break;
+            }
+            for (Passenger passenger : entry.getValue()) {
+                if (!results.contains(passenger) && matchesAll(typed, words(passenger.getName()))) {
+                    results.add(passenger);
+                    if (results.size() == limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of registered passengers.
+     *
+     * @return The number of passengers
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    @Override
+    public void onSeatBooked(Flight flight, Passenger passenger, CabinClass cabin) {
+        if (!byId.containsKey(passenger.getId())) {
+            register(passenger);
+        }
+    }
+
+    private void addNamesake(Passenger passenger, String key) {
+        namesakes.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(passenger);
+    }
+
+    private void addWords(Passenger passenger, String key) {
+        for (String word : split(key)) {
+            Queue<Passenger> passengers = byWord.get(word);
+            if (passengers == null) {
+                passengers = byWord.computeIfAbsent(word, w -> new ConcurrentLinkedQueue<>());
+            }
+            passengers.add(passenger);
+        }
+    }
+
+    // True if every typed word starts a different word of the name
+    private static boolean matchesAll(List<String> typed, List<String> name) {
+        boolean[] used = new boolean[name.size()];
+        for (String word : typed) {
+            boolean found = false;
+            for (int i = 0; i < name.size() && !found; i++) {
+                if (!used[i] && name.get(i).startsWith(word)) {
+                    used[i] = true;
+                    found = true;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The words of a text's key
+    private static List<String> words(String text) {
+        return split(keyOf(text));
+    }
+
+    // The words of a key, which are separated by single blanks
+    private static List<String> split(String key) {
+        List<String> words = new ArrayList<>(3);
+        int start = 0;
+        for (int i = 0; i <= key.length(); i++) {
+            if (i == key.length() || key.charAt(i) == ' ') {
+                if (i > start) {
+                    words.add(key.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return words;
+    }
+}
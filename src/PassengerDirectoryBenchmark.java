@@ -0,0 +1,83 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of the passenger directory with 2 million passengers: adding them, finding a
+ * passenger by name, and typeahead searches, compared with scanning a list of all passengers.
+ */
+public class PassengerDirectoryBenchmark {
+    private static final int PASSENGERS = 2_000_000;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int SEARCHES = 20_000;
+    private static final int SCANS = 5;
+    private static final String[] SYLLABLES = {"an", "be", "ca", "do", "el", "fi", "ga", "ho", "is", "jo", "ka",
+            "li", "ma", "no", "or", "pe", "ra", "si", "ta", "ul", "ve", "wi", "ya", "zo"};
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(PASSENGERS);
+        for (int i = 0; i < PASSENGERS; i++) {
+            names.add(word(random, 2) + " " + word(random, 3));
+        }
+
+        PassengerDirectory directory = new PassengerDirectory();
+        long start = System.nanoTime();
+        for (String name : names) {
+            directory.findOrCreate(name);
+        }
+        double addMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Added %,d passengers (%,d distinct names) in %,.0f ms%n",
+                PASSENGERS, directory.size(), addMillis);
+
+        System.gc(); // Keep the collection of what adding left behind out of the lookups
+        long found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (directory.find(names.get(random.nextInt(PASSENGERS))) != null) {
+                found++;
+            }
+        }
+        System.out.printf("Find by name:     %,.0f ns per lookup (%,d found)%n",
+                (System.nanoTime() - start) / (double) LOOKUPS, found);
+
+        List<String> queries = new ArrayList<>(SEARCHES);
+        for (int i = 0; i < SEARCHES; i++) {
+            queries.add(i % 2 == 0 ? word(random, 1) + word(random, 1).substring(0, 1)
+                    : word(random, 1) + " " + word(random, 1));
+        }
+        long results = 0;
+        start = System.nanoTime();
+        for (String query : queries) {
+            results += directory.search(query, 10).size();
+        }
+        System.out.printf("Typeahead search: %,.1f us per search (%,.1f results on average)%n",
+                (System.nanoTime() - start) / 1e3 / SEARCHES, results / (double) SEARCHES);
+
+        // What finding a passenger by name prefix costs without the directory
+        List<Passenger> all = new ArrayList<>(PASSENGERS);
+        for (String name : names) {
+            all.add(directory.find(name));
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < SCANS; i++) {
+            String prefix = queries.get(2 * i);
+            List<Passenger> matches = new ArrayList<>();
+            for (Passenger passenger : all) {
+                if (matches.size() < 10 && passenger.getName().startsWith(prefix)) {
+                    matches.add(passenger);
+                }
+            }
+            results += matches.size();
+        }
+        System.out.printf("List scan:        %,.1f us per search%n", (System.nanoTime() - start) / 1e3 / SCANS);
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassengerDirectoryTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+
+    @Test
+    void findOrCreate() {
+        PassengerDirectory directory = new PassengerDirectory();
+        Passenger john = directory.findOrCreate("John Doe");
+
+        // Normal case: the same traveller is found again by name, in any case and spacing, and by id
+        assertSame(john, directory.findOrCreate("  john   DOE "));
+        assertSame(john, directory.find("JOHN DOE"));
+        assertSame(john, directory.findById(john.getId()));
+        assertEquals("John Doe", john.getName());
+        assertEquals("john doe", PassengerDirectory.keyOf(" John\tDoe "));
+        assertEquals(1, directory.size());
+
+        // Edge case: a passenger created elsewhere with a taken name is still found by id and by search
+        Passenger otherJohn = new Passenger("John Doe", new ArrayList<>());
+        assertTrue(directory.register(otherJohn));
+        assertFalse(directory.register(otherJohn));
+        assertSame(john, directory.find("John Doe"));
+        assertSame(otherJohn, directory.findById(otherJohn.getId()));
+        assertEquals(2, directory.search("john doe", 10).size());
+
+        // Error case: blank names and unknown names
+        assertThrows(IllegalArgumentException.class, () -> directory.findOrCreate("   "));
+        assertNull(directory.find("Jane Smith"));
+    }
+
+    @Test
+    void search() {
+        PassengerDirectory directory = new PassengerDirectory();
+        Passenger john = directory.findOrCreate("John Doe");
+        Passenger dana = directory.findOrCreate("Dana Jones");
+        Passenger mary = directory.findOrCreate("Mary Smith");
+        directory.findOrCreate("Joan Jo");
+
+        // Normal case: every typed word must start a word of the name
+        assertEquals(List.of(john, dana), directory.search("jo d", 10));
+        assertEquals(List.of(john, dana), directory.search("D JO", 10));
+        assertEquals(List.of(mary), directory.search("sm", 10));
+        assertEquals(3, directory.search("jo", 10).size());
+
+        // Edge case: a passenger matching on several words is returned once, and the limit is kept
+        assertEquals(1, directory.search("jo jo", 10).size());
+        assertEquals(2, directory.search("jo", 2).size());
+
+        // Error case: nothing typed or nothing matching
+        assertTrue(directory.search("  ", 10).isEmpty());
+        assertTrue(directory.search("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void passengersWhoBookAreAdded() {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        airline.addFlight(flight);
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        flight.bookSeat(jane, "Economy", "Meal");
+
+        PassengerDirectory directory = airline.getPassengerDirectory();
+        assertSame(jane, directory.find("jane smith"));
+        assertSame(jane, directory.findOrCreate("Jane Smith"));
+        assertEquals(List.of(jane), directory.search("ja", 5));
+    }
+
+    @Test
+    void namesakesAreKeptApart() {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        airline.addFlight(flight);
+        PassengerDirectory directory = airline.getPassengerDirectory();
+        Passenger john = directory.findOrCreate("John Smith");
+        assertTrue(flight.bookSeat(john, "Economy", "Meal").startsWith("Seat successfully booked"));
+
+        // Normal case: a second John Smith is a new passenger and books the same flight without a conflict
+        Passenger otherJohn = directory.create("john  smith");
+        assertNotSame(john, otherJohn);
+        assertTrue(flight.bookSeat(otherJohn, "Economy", "Meal").startsWith("Seat successfully booked"));
+        assertEquals(List.of(john, otherJohn), directory.findAll("JOHN SMITH"));
+
+        // Edge case: the first one registered is still the one found by name
+        assertSame(john, directory.find("John Smith"));
+        assertEquals(2, directory.size());
+
+        // Error case: blank and unknown names
+        assertThrows(IllegalArgumentException.class, () -> directory.create(" "));
+        assertTrue(directory.findAll("Jane Smith").isEmpty());
+    }
+}
@@ -3,10 +3,24 @@ public interface PassengerNotification {
     /**
      * Sends a notification to all passengers who have booked a specific flight.
      * The notification can be of various types (e.g., general message, delay, cancellation, etc.).
+     * Implementations may deliver asynchronously and return before every passenger is notified.
      *
      * @param flightNumber The flight number for which the notification is being sent.
      * @param message      The notification message to be sent to the passengers.
      * @param type         The type of notification (e.g., "Delay", "Cancellation", "Reminder").
+     * @return A handle tracking the delivery progress of the notifications.
      */
-    void sendNotification(String flightNumber, String message, String type);
+    DeliveryHandle sendNotification(String flightNumber, String message, String type);
+
+    /**
+     * Sends a notification to one passenger of a specific flight, e.g. to tell a waitlisted
+     * passenger that a seat has been booked for them.
+     *
+     * @param flightNumber The flight number the notification is about.
+     * @param passenger    The passenger to notify.
+     * @param message      The notification message to be sent to the passenger.
+     * @param type         The type of notification (e.g., "Waitlist").
+     * @return A handle tracking the delivery of the notification.
+     */
+    DeliveryHandle sendNotification(String flightNumber, Passenger passenger, String message, String type);
 }
@@ -3,6 +3,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -109,4 +110,68 @@ class PassengerTest {
         assertTrue(flight.getVip().contains(passenger), "Passenger should be added to the flight's VIP list.");
     }
 
+    @Test
+    void isConflict_IgnoresCancelledAndLandedFlights() {
+        Flight flight1 = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>());
+        Flight flight2 = new Flight("CD456", "New York", "Chicago",
+                departureTime2, arrivalTime2, 200, new ArrayList<>(), new ArrayList<>());
+        Passenger passenger = new Passenger("John Doe", new ArrayList<>());
+        flight1.bookSeat(passenger, "Economy", "Meal");
+        assertFalse(passenger.isConflict(flight2), "Flights should conflict due to overlapping times.");
+
+        // A cancelled flight no longer blocks the itinerary
+        flight1.setStatus(FlightStatus.CANCELLED);
+        assertTrue(passenger.isConflict(flight2), "Cancelled flights should not cause conflicts.");
+
+        // Neither does a landed flight
+        Flight flight3 = new Flight("EF789", "Boston", "Miami",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>());
+        flight3.bookSeat(passenger, "Economy", "Meal");
+        assertFalse(passenger.isConflict(flight2));
+        flight3.setStatus(FlightStatus.LANDED);
+        assertTrue(passenger.isConflict(flight2), "Landed flights should not cause conflicts.");
+    }
+
+    @Test
+    void isConflict_FollowsDelays() {
+        Flight flight1 = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>());
+        Flight later = new Flight("CD456", "New York", "Chicago",
+                LocalDateTime.of(2024, 11, 24, 18, 0), LocalDateTime.of(2024, 11, 24, 20, 0),
+                200, new ArrayList<>(), new ArrayList<>());
+        Passenger passenger = new Passenger("John Doe", new ArrayList<>());
+        flight1.bookSeat(passenger, "Economy", "Meal");
+        assertTrue(passenger.isConflict(later));
+
+        // Delaying the booked flight into the later one's slot creates a conflict
+        flight1.delay(LocalDateTime.of(2024, 11, 24, 17, 0), LocalDateTime.of(2024, 11, 24, 21, 0));
+        assertFalse(passenger.isConflict(later), "The index should follow the delayed times.");
+        assertTrue(passenger.isConflict(new Flight("EF789", "Boston", "Miami",
+                departureTime1, arrivalTime1, 200, new ArrayList<>(), new ArrayList<>())));
+    }
+
+    @Test
+    void isConflict_MatchesLinearScan() {
+        // Random itinerary with overlapping reservations, compared against conflictsWith on every flight
+        Random random = new Random(42);
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            LocalDateTime departure = departureTime1.plusMinutes(random.nextInt(60 * 24 * 60));
+            Flight flight = new Flight("R" + i, "New York", "Chicago",
+                    departure, departure.plusMinutes(30 + random.nextInt(600)),
+                    200, new ArrayList<>(), new ArrayList<>());
+            reservations.add(new Reservation(flight, "Economy", "Meal"));
+        }
+        Passenger passenger = new Passenger("John Doe", new ArrayList<>(reservations));
+
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime departure = departureTime1.plusMinutes(random.nextInt(60 * 24 * 60));
+            Flight probe = new Flight("Q" + i, "Boston", "Miami",
+                    departure, departure.plusMinutes(30 + random.nextInt(600)),
+                    200, new ArrayList<>(), new ArrayList<>());
+            boolean expected = reservations.stream().noneMatch(res -> res.getMyFlight().conflictsWith(probe));
+            assertEquals(expected, passenger.isConflict(probe));
+        }
+    }
 }
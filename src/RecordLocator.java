@@ -0,0 +1,135 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Record locators, the six-character codes by which passengers and agents refer to a reservation,
+ * e.g. "K7Q2MX".
+ *
+ * Locators use 32 letters and digits that cannot be mistaken for each other (no 0, 1, I or O), so
+ * six characters give 2^30 codes. They are handed out from a counter, which makes them unique
+ * without any lookup, and the counter is scrambled by a fixed permutation of the 2^30 values, so
+ * consecutive bookings get unrelated codes and a code does not reveal how many bookings were made.
+ */
+public final class RecordLocator {
+    public static final int LENGTH = 6;
+    private static final String ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ";
+    private static final int BITS = 5 * LENGTH;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int SHIFT = BITS / 2; // Xor-shift by at least half the bits, which undoes itself
+    private static final int MULTIPLIER = 0x2545F491 & MASK; // Odd, so multiplying is a permutation
+    private static final int OFFSET = 0x1B873593 & MASK;
+    private static final int SECOND_MULTIPLIER = 0x0B4B82E7 & MASK;
+    private static final int MULTIPLIER_INVERSE = inverse(MULTIPLIER);
+    private static final int SECOND_MULTIPLIER_INVERSE = inverse(SECOND_MULTIPLIER);
+    private static final int[] VALUES = new int[128]; // Value of each character, -1 if it is not in the alphabet
+
+    private static final AtomicLong NEXT = new AtomicLong(); // Counter value of the next locator
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            VALUES[ALPHABET.charAt(i)] = i;
+            VALUES[Character.toLowerCase(ALPHABET.charAt(i))] = i;
+        }
+    }
+
+    private RecordLocator() {
+    }
+
+    /**
+     * Hands out a new locator.
+     *
+     * @return A locator that has not been handed out or reserved before
+     * @throws IllegalStateException if all 2^30 locators have been handed out
+     */
+    public static String next() {
+        long counter = NEXT.getAndIncrement();
+        if (counter > MASK) {
+            throw new IllegalStateException("All record locators have been handed out.");
+        }
+        return encode(scramble((int) counter));
+    }
+
+    /**
+     * Marks a locator as taken, e.g. one recovered from the booking journal, so it is never handed
+     * out again. Locators handed out later are always ones the counter had not reached yet.
+     *
+     * @param locator The locator in its canonical form
+     * @throws IllegalArgumentException if the locator is not valid
+     */
+    static void reserve(String locator) {
+        int value = decode(locator);
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid record locator '" + locator + "'.");
+        }
+        long next = unscramble(value) + 1L;
+        long current = NEXT.get();
+        // Only writes when the counter moves, so copying a reservation costs no contended update
+        while (current < next && !NEXT.compareAndSet(current, next)) {
+            current = NEXT.get();
+        }
+    }
+
+    /**
+     * Brings a locator typed by a person into its canonical form: surrounding blanks removed and
+     * letters upper case.
+     *
+     * @param locator The locator as typed
+     * @return The canonical locator, or null if the input is not a valid locator
+     */
+    public static String normalize(String locator) {
+        if (locator == null) {
+            return null;
+        }
+        String trimmed = locator.trim();
+        return decode(trimmed) < 0 ? null : trimmed.toUpperCase();
+    }
+
+    // The 30-bit value of a locator, or -1 if it is not one
+    static int decode(String locator) {
+        if (locator.length() != LENGTH) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = locator.charAt(i);
+            int digit = c < VALUES.length ? VALUES[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            value = value << 5 | digit;
+        }
+        return value;
+    }
+
+    static String encode(int value) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt(value & 31);
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // Permutes the 30-bit values: an affine step, an xor-shift mixing the high bits into the low ones, and a product
+    private static int scramble(int value) {
+        value = value * MULTIPLIER + OFFSET & MASK;
+        value ^= value >>> SHIFT;
+        return value * SECOND_MULTIPLIER & MASK;
+    }
+
+    private static int unscramble(int value) {
+        value = value * SECOND_MULTIPLIER_INVERSE & MASK;
+        value ^= value >>> SHIFT;
+        return (value - OFFSET) * MULTIPLIER_INVERSE & MASK;
+    }
+
+    // Multiplicative inverse of an odd number modulo 2^32, by Newton's iteration; each step doubles the correct bits
+    private static int inverse(int odd) {
+        int inverse = odd; // Correct in the lowest 3 bits
+        for (int i = 0; i < 4; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        return inverse;
+    }
+}
@@ -1,20 +1,34 @@
 public class Reservation {
-    /*   private String reservationID;  Reservation information is associated with multiple records for a user,
-        and these records are stored in a list. When accessed, you can use the index of the list directly,
-        so this reservation ID is unnecessary. */
-    /*    private Passenger me;  Same issue as above, unnecessary. */
+    /*    private Passenger me;  Reservation information is associated with multiple records for a user,
+        and these records are stored in a list, so the passenger is known wherever the list is. */
+    private final String locator; // Record locator, e.g. "K7Q2MX", unique among all reservations
     private Flight myFlight;
     private String mySeatType;
     private String myService;
+    private String mySeatNumber; // Assigned seat, e.g. "12C"; null if no seat has been assigned
 
     // Constructor: Initializes the reservation with the flight, seat type, and service
     public Reservation(Flight flight, String seatType, String service) {
+        this.locator = RecordLocator.next();
+        this.myFlight = flight;
+        this.myService = service;
+        this.mySeatType = seatType;
+    }
+
+    // Constructor: Recreates a reservation with a known record locator, e.g. when recovering from the booking journal
+    Reservation(String locator, Flight flight, String seatType, String service) {
+        RecordLocator.reserve(locator);
+        this.locator = locator;
         this.myFlight = flight;
         this.myService = service;
         this.mySeatType = seatType;
     }
 
     //Getter
+    public String getLocator() {
+        return locator;
+    }
+
     public Flight getMyFlight() {
         return myFlight;
     }
@@ -33,6 +47,11 @@ public class Reservation {
         return myService;
     }
 
+
+    public String getMySeatNumber() {
+        return mySeatNumber;
+    }
+
     //Setter
     public void setMySeatType(String newSeatType) {
         mySeatType = newSeatType;
@@ -44,10 +63,17 @@ public class Reservation {
     }
 
 
+    public void setMySeatNumber(String newSeatNumber) {
+        mySeatNumber = newSeatNumber;
+    }
+
+
     @Override
     public String toString() {
-        return "Flight: " + myFlight.getFlightNumber() + " | " +
+        return "Locator: " + locator + " | " +
+                "Flight: " + myFlight.getFlightNumber() + " | " +
                 "Seat Type: " + mySeatType + " | " +
+                (mySeatNumber != null ? "Seat: " + mySeatNumber + " | " : "") +
                 "Service: " + myService;
     }
 }
@@ -0,0 +1,153 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the reservations on an airline's flights by record locator and by flight, so a
+ * reservation is found from its code, and the reservations of a flight are listed, without
+ * knowing the passenger or scanning the schedule.
+ *
+ * The index listens to the flights it watches and is updated on every booking, cancellation and
+ * recovered reservation. Entries are changed with the passenger locked, the same lock under which
+ * the passenger's reservations change, so the index never keeps a reservation that the passenger
+ * has already cancelled.
+ */
+public class ReservationIndex implements FlightListener {
+    private final Map<String, Entry> byLocator = new ConcurrentHashMap<>(); // Reservation and holder by locator
+    private final Map<Flight, Map<Passenger, Reservation>> byFlight = new ConcurrentHashMap<>(); // Reservations per watched flight
+
+    /**
+     * A reservation together with the passenger holding it.
+     */
+    private static final class Entry {
+        private final Passenger passenger;
+        private final Reservation reservation;
+
+        private Entry(Passenger passenger, Reservation reservation) {
+            this.passenger = passenger;
+            this.reservation = reservation;
+        }
+    }
+
+    /**
+     * Starts indexing a flight's reservations, including those it already has.
+     *
+     * @param flight The flight to watch
+     */
+    public void watch(Flight flight) {
+        byFlight.putIfAbsent(flight, new ConcurrentHashMap<>());
+        flight.addListener(this);
+        for (Passenger passenger : flight.getPassengers()) {
+            index(flight, passenger);
+        }
+    }
+
+    /**
+     * Stops indexing a flight and drops its reservations from the index.
+     *
+     * @param flight The flight to stop watching
+     */
+    public void unwatch(Flight flight) {
+        flight.removeListener(this);
+        Map<Passenger, Reservation> reservations = byFlight.remove(flight);
+        if (reservations != null) {
+            for (Reservation reservation : reservations.values()) {
+                byLocator.remove(reservation.getLocator());
+            }
+        }
+    }
+
+    /**
+     * Finds a reservation by its record locator.
+     *
+     * @param locator The record locator, in any letter case
+     * @return The reservation, or null if no watched flight has a reservation with the locator
+     */
+    public Reservation find(String locator) {
+        Entry entry = lookup(locator);
+        return entry == null ? null : entry.reservation;
+    }
+
+    /**
+     * Finds the passenger holding a reservation by its record locator.
+     *
+     * @param locator The record locator, in any letter case
+     * @return The passenger, or null if no watched flight has a reservation with the locator
+     */
+    public Passenger findHolder(String locator) {
+        Entry entry = lookup(locator);
+        return entry == null ? null : entry.passenger;
+    }
+
+    /**
+     * Finds a passenger's reservation on a flight without scanning the passenger's reservations.
+     *
+     * @param flight    The flight
+     * @param passenger The passenger
+     * @return The reservation, or null if the passenger has none on the flight or the flight is not watched
+     */
+    public Reservation find(Flight flight, Passenger passenger) {
+        Map<Passenger, Reservation> reservations = byFlight.get(flight);
+        return reservations == null ? null : reservations.get(passenger);
+    }
+
+    /**
+     * Retrieves a read-only view of the reservations on a flight.
+     *
+     * @param flight The flight
+     * @return The reservations on the flight, empty if the flight is not watched
+     */
+    public Collection<Reservation> getReservations(Flight flight) {
+        Map<Passenger, Reservation> reservations = byFlight.get(flight);
+        return reservations == null ? Collections.emptyList() : Collections.unmodifiableCollection(reservations.values());
+    }
+
+    /**
+     * Returns the number of indexed reservations.
+     *
+     * @return The number of reservations on the watched flights
+     */
+    public int size() {
+        return byLocator.size();
+    }
+
+    @Override
+    public void onSeatBooked(Flight flight, Passenger passenger, CabinClass cabin) {
+        index(flight, passenger);
+    }
+
+    @Override
+    public void onSeatReleased(Flight flight, Passenger passenger, CabinClass cabin) {
+        synchronized (passenger) {
+            Map<Passenger, Reservation> reservations = byFlight.get(flight);
+            Reservation reservation = reservations == null ? null : reservations.get(passenger);
+            // A new reservation on the flight may already have replaced the released one
+            if (reservation != null && reservation != passenger.getReservation(flight)) {
+                reservations.remove(passenger);
+                byLocator.remove(reservation.getLocator());
+            }
+        }
+    }
+
+    private Entry lookup(String locator) {
+        String canonical = RecordLocator.normalize(locator);
+        return canonical == null ? null : byLocator.get(canonical);
+    }
+
+    // Indexes the passenger's current reservation on the flight, if it still has one
+    private void index(Flight flight, Passenger passenger) {
+        synchronized (passenger) {
+            Map<Passenger, Reservation> reservations = byFlight.get(flight);
+            Reservation reservation = passenger.getReservation(flight);
+            if (reservations == null || reservation == null) {
+                return; // Not watched any more, or already cancelled again
+            }
+            Reservation previous = reservations.put(passenger, reservation);
+            if (previous != null && previous != reservation) {
+                byLocator.remove(previous.getLocator());
+            }
+            byLocator.put(reservation.getLocator(), new Entry(passenger, reservation));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationIndexTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+    private static final LocalDateTime departureTime2 = LocalDateTime.of(2024, 11, 26, 10, 0);
+    private static final LocalDateTime arrivalTime2 = LocalDateTime.of(2024, 11, 26, 14, 0);
+
+    @Test
+    void recordLocatorsAreUnique() {
+        Set<String> locators = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            String locator = RecordLocator.next();
+            assertEquals(RecordLocator.LENGTH, locator.length());
+            assertEquals(locator, RecordLocator.normalize(locator));
+            assertTrue(locators.add(locator), "Locator " + locator + " was handed out twice.");
+        }
+
+        // A reserved locator, e.g. one recovered from the journal, is never handed out again
+        String recovered = RecordLocator.encode(123_456_789);
+        new Reservation(recovered, null, "Economy", "Meal");
+        for (int i = 0; i < 10_000; i++) {
+            assertNotEquals(recovered, RecordLocator.next());
+        }
+
+        // Edge case: typed codes are accepted in any case and with blanks around them
+        assertEquals(recovered, RecordLocator.normalize(" " + recovered.toLowerCase() + " "));
+
+        // Error case: codes of the wrong length or with confusable characters are not locators
+        assertNull(RecordLocator.normalize("ABC23"));
+        assertNull(RecordLocator.normalize("ABC230"));
+        assertNull(RecordLocator.normalize("ABCDEI"));
+    }
+
+    @Test
+    void findReservationByLocator() {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        Flight flight1 = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        Flight flight2 = new Flight("CD456", "Chicago", "Miami", departureTime2, arrivalTime2, 50,
+                new ArrayList<>(), new ArrayList<>());
+        airline.addFlight(flight1);
+        airline.addFlight(flight2);
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        flight1.bookSeat(john, "Economy", "Meal");
+        flight1.bookSeat(jane, "FirstClass", "Meal");
+        airline.submitBookings(List.of(BookingCommand.book("CD456", john, "Economy", "Extra Luggage")));
+
+        // Normal case: every booking path indexes the reservation under its locator and its flight
+        Reservation johns1 = john.getReservation(flight1);
+        Reservation johns2 = john.getReservation(flight2);
+        assertNotEquals(johns1.getLocator(), johns2.getLocator());
+        assertSame(johns1, airline.findReservation(johns1.getLocator()));
+        assertSame(johns2, airline.findReservation(johns2.getLocator().toLowerCase()));
+        assertSame(jane, airline.findReservationHolder(jane.getReservation(flight1).getLocator()));
+        assertEquals(2, airline.getReservations(flight1).size());
+        assertTrue(airline.getReservations(flight2).contains(johns2));
+
+        // Error case: unknown and malformed codes find nothing
+        assertNull(airline.findReservation(RecordLocator.next()));
+        assertNull(airline.findReservationHolder("not a code"));
+        assertEquals("Reservation ZZZ not found.", airline.cancelReservation("ZZZ"));
+    }
+
+    @Test
+    void modifyAndCancelByLocator() {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        Flight flight1 = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        airline.addFlight(flight1);
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        flight1.bookSeat(john, "Economy", "Meal");
+        String locator = john.getReservation(flight1).getLocator();
+
+        // Normal case: the reservation is changed through its code and keeps it
+        assertEquals("Reservation " + locator + " on flight AB123 is now FirstClass for John Doe.",
+                airline.modifyReservation(locator, "FirstClass", "Extra Luggage"));
+        assertEquals("FirstClass", john.getReservation(flight1).getMySeatType());
+        assertSame(john.getReservation(flight1), airline.findReservation(locator));
+
+        assertEquals("Reservation " + locator + " on flight AB123 cancelled for John Doe.",
+                airline.cancelReservation(locator));
+        assertNull(john.getReservation(flight1));
+        assertTrue(flight1.getPassengers().isEmpty());
+
+        // Edge case: a cancelled reservation leaves the index, so its code finds nothing
+        assertNull(airline.findReservation(locator));
+        assertTrue(airline.getReservations(flight1).isEmpty());
+        assertEquals("Reservation " + locator + " not found.", airline.cancelReservation(locator));
+
+        // A new booking of the same passenger gets a new code
+        flight1.bookSeat(john, "Economy", "Meal");
+        assertNotEquals(locator, john.getReservation(flight1).getLocator());
+        assertEquals(1, airline.getReservations(flight1).size());
+    }
+
+    @Test
+    void modifyToSameCabinInOtherCase() {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        Flight flight1 = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                new ArrayList<>(), new ArrayList<>());
+        airline.addFlight(flight1);
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+        flight1.bookSeat(john, "FirstClass", "Meal");
+        flight1.bookSeat(jane, "Economy", "Meal");
+        String locator = jane.getReservation(flight1).getLocator();
+        String seat = jane.getReservation(flight1).getMySeatNumber();
+
+        // Edge case: the same cabin in another letter case changes nothing
+        airline.modifyReservation(locator, "economy", "Extra Luggage");
+        assertEquals("Economy", jane.getReservation(flight1).getMySeatType());
+        assertEquals(seat, jane.getReservation(flight1).getMySeatNumber());
+        assertEquals(9, flight1.getFirstClassCapacity());
+        assertEquals(89, flight1.getEconomyClassCapacity());
+
+        // Error case: without first class bookings nothing is returned to first class either
+        john.cancelReservation(flight1);
+        assertDoesNotThrow(() -> airline.modifyReservation(locator, "ECONOMY", "Meal"));
+        assertEquals(10, flight1.getFirstClassCapacity());
+        assertEquals(89, flight1.getEconomyClassCapacity());
+        assertFalse(flight1.modify("economy", jane));
+        assertEquals(89, flight1.getEconomyClassCapacity());
+    }
+}
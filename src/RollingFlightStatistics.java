@@ -0,0 +1,218 @@
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling-window flight statistics, overall and broken down by route and by departure date.
+ *
+ * Departures (a flight going IN_FLIGHT) and cancellations are recorded into rings of fixed-width
+ * time buckets, one ring per {@link StatisticsWindow}. A bucket that falls out of its window is
+ * reused for the current time, so memory stays bounded no matter how long the process runs,
+ * each update costs O(1), and a query only sums the buckets of one window. Per departure date the
+ * statistics of the last {@value #RETAINED_DATES} dates up to today and of the next
+ * {@value #ADVANCE_DATES} dates are retained; events of dates outside that range, counted from
+ * the clock's current date, are not recorded by date.
+ */
+public class RollingFlightStatistics implements FlightListener {
+    private static final int RETAINED_DATES = 60; // Dates up to and including today
+    private static final int ADVANCE_DATES = 366; // Dates after today, e.g. of flights cancelled in advance
+
+    private final Clock clock; // Source of the current time, injectable for tests
+    private final WindowSet overall; // Windows over all flights
+    private final Map<Route, WindowSet> byRoute; // Windows of each route
+    private final BucketRing byDepartureDate; // One bucket per departure date
+
+    /**
+     * Constructor to initialize empty statistics using the system clock.
+     */
+    public RollingFlightStatistics() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor to initialize empty statistics.
+     *
+     * @param clock The clock used to time-stamp departures and cancellations
+     */
+    public RollingFlightStatistics(Clock clock) {
+        this.clock = clock;
+        this.overall = new WindowSet();
+        this.byRoute = new ConcurrentHashMap<>();
+        this.byDepartureDate = new BucketRing(RETAINED_DATES + ADVANCE_DATES);
+    }
+
+    @Override
+    public void onStatusChanged(Flight flight, FlightStatus oldStatus, FlightStatus newStatus) {
+        if (newStatus == FlightStatus.IN_FLIGHT) {
+            recordDeparture(flight);
+        } else if (newStatus == FlightStatus.CANCELLED) {
+            recordCancellation(flight);
+        }
+    }
+
+    /**
+     * Records that a flight has departed, with its on-time state and load at departure.
+     *
+     * @param flight The departed flight
+     */
+    public void recordDeparture(Flight flight) {
+        record(flight, 1, flight.isDelay() ? 0 : 1, 0, flight.getPassengerCount(), flight.getCapacity());
+    }
+
+    /**
+     * Records that a flight has been cancelled.
+     *
+     * @param flight The cancelled flight
+     */
+    public void recordCancellation(Flight flight) {
+        record(flight, 0, 0, 1, 0, 0);
+    }
+
+    /**
+     * Retrieves the statistics of all flights within a rolling window ending now.
+     *
+     * @param window The window
+     * @return The statistics of the window
+     */
+    public FlightStatistics getStatistics(StatisticsWindow window) {
+        return overall.get(window).sum(clock.millis(), window);
+    }
+
+    /**
+     * Retrieves the statistics of one route within a rolling window ending now.
+     *
+     * @param route  The route
+     * @param window The window
+     * @return The statistics of the route in the window
+     */
+    public FlightStatistics getStatistics(Route route, StatisticsWindow window) {
+        WindowSet windows = byRoute.get(route);
+        if (windows == null) {
+            return new FlightStatistics(0, 0, 0, 0, 0);
+        }
+        return windows.get(window).sum(clock.millis(), window);
+    }
+
+    /**
+     * Retrieves the statistics of all flights scheduled on a departure date. Only dates around
+     * today are retained; older dates and dates too far ahead report no activity.
+     *
+     * @param date The scheduled departure date
+     * @return The statistics of the date
+     */
+    public FlightStatistics getStatistics(LocalDate date) {
+        return byDepartureDate.get(date.toEpochDay());
+    }
+
+    private void record(Flight flight, int departures, int onTime, int cancellations, int booked, int capacity) {
+        long now = clock.millis();
+        overall.record(now, departures, onTime, cancellations, booked, capacity);
+        byRoute.computeIfAbsent(Route.of(flight), route -> new WindowSet())
+                .record(now, departures, onTime, cancellations, booked, capacity);
+        if (flight.getScheduledDate() != null) {
+            long date = flight.getScheduledDate().toEpochDay();
+            long today = LocalDate.now(clock).toEpochDay();
+            // Each date of the range has its own slot, so no date can push a current one out of the ring
+            if (date > today - RETAINED_DATES && date <= today + ADVANCE_DATES) {
+                byDepartureDate.add(date, departures, onTime, cancellations, booked, capacity);
+            }
+        }
+    }
+
+    /**
+     * One bucket ring per statistics window.
+     */
+    private static final class WindowSet {
+        private final Map<StatisticsWindow, BucketRing> rings = new EnumMap<>(StatisticsWindow.class);
+
+        private WindowSet() {
+            for (StatisticsWindow window : StatisticsWindow.values()) {
+                rings.put(window, new BucketRing(window.getBuckets()));
+            }
+        }
+
+        private BucketRing get(StatisticsWindow window) {
+            return rings.get(window);
+        }
+
+        private void record(long nowMillis, int departures, int onTime, int cancellations, int booked, int capacity) {
+            for (Map.Entry<StatisticsWindow, BucketRing> entry : rings.entrySet()) {
+                long bucket = nowMillis / entry.getKey().getBucketWidth().toMillis();
+                entry.getValue().add(bucket, departures, onTime, cancellations, booked, capacity);
+            }
+        }
+    }
+
+    /**
+     * Fixed-size ring of counter buckets. Slot i holds bucket number b where b % size == i;
+     * a slot holding an older bucket is reset before it is reused.
+     */
+    private static final class BucketRing {
+        private final long[] bucketIds;
+        private final long[] departures;
+        private final long[] onTime;
+        private final long[] cancellations;
+        private final long[] booked;
+        private final long[] capacity;
+
+        private BucketRing(int size) {
+            bucketIds = new long[size];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+            departures = new long[size];
+            onTime = new long[size];
+            cancellations = new long[size];
+            booked = new long[size];
+            capacity = new long[size];
+        }
+
+        private synchronized void add(long bucketId, int departures, int onTime, int cancellations,
+                                      int booked, int capacity) {
+            int slot = (int) Math.floorMod(bucketId, (long) bucketIds.length);
+            if (bucketIds[slot] > bucketId) {
+                return; // Older than anything the ring still retains
+            }
+            if (bucketIds[slot] != bucketId) {
+                bucketIds[slot] = bucketId;
+                this.departures[slot] = 0;
+                this.onTime[slot] = 0;
+                this.cancellations[slot] = 0;
+                this.booked[slot] = 0;
+                this.capacity[slot] = 0;
+            }
+            this.departures[slot] += departures;
+            this.onTime[slot] += onTime;
+            this.cancellations[slot] += cancellations;
+            this.booked[slot] += booked;
+            this.capacity[slot] += capacity;
+        }
+
+        // Statistics of a single bucket, if the ring still holds it
+        private synchronized FlightStatistics get(long bucketId) {
+            int slot = (int) Math.floorMod(bucketId, (long) bucketIds.length);
+            if (bucketIds[slot] != bucketId) {
+                return new FlightStatistics(0, 0, 0, 0, 0);
+            }
+            return new FlightStatistics(departures[slot], onTime[slot], cancellations[slot], booked[slot], capacity[slot]);
+        }
+
+        // Statistics of all buckets inside the window ending at nowMillis
+        private synchronized FlightStatistics sum(long nowMillis, StatisticsWindow window) {
+            long current = nowMillis / window.getBucketWidth().toMillis();
+            long oldest = current - bucketIds.length + 1;
+            long d = 0, o = 0, c = 0, b = 0, cap = 0;
+            for (int slot = 0; slot < bucketIds.length; slot++) {
+                if (bucketIds[slot] >= oldest && bucketIds[slot] <= current) {
+                    d += departures[slot];
+                    o += onTime[slot];
+                    c += cancellations[slot];
+                    b += booked[slot];
+                    cap += capacity[slot];
+                }
+            }
+            return new FlightStatistics(d, o, c, b, cap);
+        }
+    }
+}
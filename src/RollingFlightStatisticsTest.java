@@ -0,0 +1,144 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingFlightStatisticsTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 10, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 14, 0);
+
+    private MutableClock clock;
+    private RollingFlightStatistics statistics;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock(departureTime1.toInstant(ZoneOffset.UTC));
+        statistics = new RollingFlightStatistics(clock);
+    }
+
+    private Flight flight(String number, String departure, String destination, int capacity) {
+        Flight flight = new Flight(number, departure, destination, departureTime1, arrivalTime1,
+                capacity, new ArrayList<>(), new ArrayList<>());
+        flight.addListener(statistics);
+        return flight;
+    }
+
+    @Test
+    void windows_RollOver() {
+        Flight onTime = flight("AB1", "PEK", "SHA", 10);
+        onTime.bookSeat(new Passenger("John Doe", new ArrayList<>()), "Economy", "Meal");
+        onTime.setStatus(FlightStatus.IN_FLIGHT);
+
+        clock.advance(Duration.ofMinutes(30));
+        Flight delayed = flight("AB2", "PEK", "CAN", 10);
+        delayed.delay(departureTime1.plusHours(1), arrivalTime1.plusHours(1));
+        delayed.setStatus(FlightStatus.IN_FLIGHT);
+        flight("AB3", "PEK", "SHA", 10).setStatus(FlightStatus.CANCELLED);
+
+        FlightStatistics lastHour = statistics.getStatistics(StatisticsWindow.LAST_HOUR);
+        assertEquals(2, lastHour.getDepartures());
+        assertEquals(50.0, lastHour.getOnTimeRate());
+        assertEquals(100.0 / 3, lastHour.getCancellationRate(), 1e-9);
+        assertEquals(5.0, lastHour.getLoadFactor());
+
+        // After 45 more minutes the first departure has left the hour window, but not the day window
+        clock.advance(Duration.ofMinutes(45));
+        assertEquals(1, statistics.getStatistics(StatisticsWindow.LAST_HOUR).getDepartures());
+        assertEquals(2, statistics.getStatistics(StatisticsWindow.LAST_DAY).getDepartures());
+
+        // Much later, only the 30 day window still remembers them
+        clock.advance(Duration.ofDays(2));
+        assertEquals(0, statistics.getStatistics(StatisticsWindow.LAST_DAY).getDepartures());
+        assertEquals(2, statistics.getStatistics(StatisticsWindow.LAST_30_DAYS).getDepartures());
+        clock.advance(Duration.ofDays(30));
+        assertEquals(0, statistics.getStatistics(StatisticsWindow.LAST_30_DAYS).getDepartures());
+    }
+
+    @Test
+    void breakdown_ByRouteAndDate() {
+        flight("AB1", "PEK", "SHA", 10).setStatus(FlightStatus.IN_FLIGHT);
+        flight("AB2", "PEK", "SHA", 10).setStatus(FlightStatus.CANCELLED);
+        flight("AB3", "PEK", "CAN", 10).setStatus(FlightStatus.IN_FLIGHT);
+
+        FlightStatistics route = statistics.getStatistics(new Route("PEK", "SHA"), StatisticsWindow.LAST_DAY);
+        assertEquals(1, route.getDepartures());
+        assertEquals(1, route.getCancellations());
+        assertEquals(0, statistics.getStatistics(new Route("SHA", "PEK"), StatisticsWindow.LAST_DAY).getDepartures());
+
+        FlightStatistics date = statistics.getStatistics(LocalDate.of(2024, 11, 24));
+        assertEquals(2, date.getDepartures());
+        assertEquals(1, date.getCancellations());
+        assertEquals(0, statistics.getStatistics(LocalDate.of(2024, 11, 25)).getDepartures());
+    }
+
+    @Test
+    void breakdown_DatesOutsideTheRangeAreIgnored() {
+        // Error case: a cancellation years ahead would share a slot of the date ring with today
+        LocalDateTime farAhead = departureTime1.plusDays(4260);
+        Flight future = new Flight("AB9", "PEK", "SHA", farAhead, farAhead.plusHours(4), 10,
+                new ArrayList<>(), new ArrayList<>());
+        future.addListener(statistics);
+        future.setStatus(FlightStatus.CANCELLED);
+        flight("AB1", "PEK", "SHA", 10).setStatus(FlightStatus.IN_FLIGHT);
+
+        // Today's departure is still counted; the far-away date is not recorded at all
+        assertEquals(1, statistics.getStatistics(LocalDate.of(2024, 11, 24)).getDepartures());
+        assertEquals(0, statistics.getStatistics(farAhead.toLocalDate()).getCancellations());
+        assertEquals(1, statistics.getStatistics(StatisticsWindow.LAST_DAY).getCancellations());
+
+        // Edge case: a cancellation a few weeks ahead is kept by date
+        LocalDateTime nextMonth = departureTime1.plusDays(30);
+        Flight soon = new Flight("AB8", "PEK", "SHA", nextMonth, nextMonth.plusHours(4), 10,
+                new ArrayList<>(), new ArrayList<>());
+        soon.addListener(statistics);
+        soon.setStatus(FlightStatus.CANCELLED);
+        assertEquals(1, statistics.getStatistics(nextMonth.toLocalDate()).getCancellations());
+    }
+
+    @Test
+    void noActivity_ReportsZero() {
+        FlightStatistics empty = statistics.getStatistics(StatisticsWindow.LAST_HOUR);
+        assertEquals(0.0, empty.getOnTimeRate());
+        assertEquals(0.0, empty.getCancellationRate());
+        assertEquals(0.0, empty.getLoadFactor());
+    }
+
+    /**
+     * Clock that only moves when the test advances it.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.Objects;
+
+/**
+ * A route between two airports, identified by its departure and destination.
+ */
+public final class Route {
+    private final String departure;
+    private final String destination;
+
+    /**
+     * Constructor to initialize a route.
+     *
+     * @param departure   The departure airport
+     * @param destination The destination airport
+     */
+    public Route(String departure, String destination) {
+        this.departure = departure;
+        this.destination = destination;
+    }
+
+    /**
+     * Retrieves the route flown by a flight.
+     *
+     * @param flight The flight
+     * @return The flight's route
+     */
+    public static Route of(Flight flight) {
+        return new Route(flight.getDeparture(), flight.getDestination());
+    }
+
+    public String getDeparture() {
+        return departure;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Route)) {
+            return false;
+        }
+        Route other = (Route) o;
+        return departure.equals(other.departure) && destination.equals(other.destination);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(departure, destination);
+    }
+
+    /**
+     * Returns a string representation of the route, formatted as "Departure - Destination".
+     */
+    @Override
+    public String toString() {
+        return departure + " - " + destination;
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained popularity ranking of an airline's routes.
+ *
+ * For every route the index counts the number of flights and the number of booked passengers.
+ * Flights are added and removed rarely, so every such change re-positions the route in a sorted
+ * ranking by flights in O(log R) for R routes, and reading the top K of that ranking walks its
+ * first K entries only. Seats are booked and cancelled all the time and on many threads at once,
+ * so a booking only bumps its route's passenger counter without taking a lock; the ranking by
+ * passengers is built when it is read, in O(R log K).
+ */
+public class RoutePopularityIndex implements FlightListener {
+    // Higher count first, ties broken alphabetically so the ranking is stable
+    private static final Comparator<RouteStats> BY_FLIGHTS = Comparator
+            .comparingInt((RouteStats stats) -> stats.flights).reversed()
+            .thenComparing(stats -> stats.name);
+    private static final Comparator<RouteCount> BY_PASSENGERS = Comparator
+            .comparingLong((RouteCount count) -> count.passengers).reversed()
+            .thenComparing(count -> count.name);
+
+    private final Map<Route, RouteStats> routes; // Counters of each route
+    private final TreeSet<RouteStats> byFlights; // Routes ranked by number of flights, guarded by this
+
+    /**
+     * Constructor to initialize an empty index.
+     */
+    public RoutePopularityIndex() {
+        this.routes = new ConcurrentHashMap<>();
+        this.byFlights = new TreeSet<>(BY_FLIGHTS);
+    }
+
+    /**
+     * Counts a flight and its current passengers towards its route.
+     *
+     * @param flight The flight that was added to the schedule
+     */
+    public synchronized void flightAdded(Flight flight) {
+        update(Route.of(flight), 1, flight.getPassengerCount());
+    }
+
+    /**
+     * Counts many flights and their current passengers towards their routes. Every route is
+     * re-positioned in the ranking once, however many of the flights it has.
+     *
+     * @param flights The flights that were added to the schedule
+     */
+    public synchronized void flightsAdded(Collection<Flight> flights) {
+        Map<Route, int[]> deltas = new HashMap<>();
+        for (Flight flight : flights) {
+            int[] delta = deltas.computeIfAbsent(Route.of(flight), route -> new int[2]);
+            delta[0]++;
+            delta[1] += flight.getPassengerCount();
+        }
+        for (Map.Entry<Route, int[]> entry : deltas.entrySet()) {
+            update(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+        }
+    }
+
+    /**
+     * Removes a flight and its passengers from its route's counts.
+     *
+     * @param flight The flight that was removed from the schedule
+     */
+    public synchronized void flightRemoved(Flight flight) {
+        update(Route.of(flight), -1, -flight.getPassengerCount());
+    }
+
+    @Override
+    public void onSeatBooked(Flight flight, Passenger passenger, CabinClass cabin) {
+        RouteStats stats = routes.get(Route.of(flight));
+        if (stats != null) { // Otherwise a booking change on a flight that is not counted
+            stats.passengers.increment();
+        }
+    }
+
+    @Override
+    public void onSeatReleased(Flight flight, Passenger passenger, CabinClass cabin) {
+        RouteStats stats = routes.get(Route.of(flight));
+        if (stats != null) {
+            stats.passengers.decrement();
+        }
+    }
+
+    /**
+     * Retrieves the routes with the most flights.
+     *
+     * @param k The number of routes to return
+     * @return Up to k routes, most popular first, formatted as "Departure - Destination (n flights)"
+     */
+    public synchronized List<String> topByFlights(int k) {
+        List<String> result = new ArrayList<>(Math.max(0, Math.min(k, routes.size())));
+        Iterator<RouteStats> it = byFlights.iterator();
+        while (result.size() < k && it.hasNext()) {
+            RouteStats stats = it.next();
+            result.add(stats.name + " (" + stats.flights + " flights)");
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the routes with the most booked passengers. The ranking is built from the current
+     * counters, keeping the best k routes in a heap.
+     *
+     * @param k The number of routes to return
+     * @return Up to k routes, most popular first, formatted as "Departure - Destination (n passengers)"
+     */
+    public List<String> topByPassengers(int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        // The worst of the best k routes is at the head, ready to be replaced
+        PriorityQueue<RouteCount> best = new PriorityQueue<>(BY_PASSENGERS.reversed());
+        for (RouteStats stats : routes.values()) {
+            RouteCount count = new RouteCount(stats.name, stats.passengers.sum());
+            if (best.size() < k) {
+                best.add(count);
+            } else if (BY_PASSENGERS.compare(count, best.peek()) < 0) {
+                best.poll();
+                best.add(count);
+            }
+        }
+        List<RouteCount> ranked = new ArrayList<>(best);
+        ranked.sort(BY_PASSENGERS);
+        List<String> result = new ArrayList<>(ranked.size());
+        for (RouteCount count : ranked) {
+            result.add(count.name + " (" + count.passengers + " passengers)");
+        }
+        return result;
+    }
+
+    // Changes a route's counts; the caller holds the lock
+    private void update(Route route, int flightDelta, int passengerDelta) {
+        RouteStats stats = routes.get(route);
+        if (stats == null) {
+            if (flightDelta <= 0) {
+                return; // Change on a flight that is not counted
+            }
+            stats = new RouteStats(route.toString());
+            routes.put(route, stats);
+        } else {
+            byFlights.remove(stats);
+        }
+        stats.flights += flightDelta;
+        stats.passengers.add(passengerDelta);
+        if (stats.flights <= 0) {
+            routes.remove(route);
+            return;
+        }
+        byFlights.add(stats);
+    }
+
+    /**
+     * Counters of a single route.
+     */
+    private static final class RouteStats {
+        private final String name; // "Departure - Destination"
+        private volatile int flights; // Changed with the index locked, so the ranking stays ordered
+        private final LongAdder passengers = new LongAdder(); // Changed on every booking, without a lock
+
+        private RouteStats(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Passenger count of a route read for one ranking.
+     */
+    private static final class RouteCount {
+        private final String name;
+        private final long passengers;
+
+        private RouteCount(String name, long passengers) {
+            this.name = name;
+            this.passengers = passengers;
+        }
+    }
+}
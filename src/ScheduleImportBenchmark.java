@@ -0,0 +1,94 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark of loading a schedule of 1,000,000 flights from a CSV file with {@link ScheduleImporter},
+ * compared with parsing the lines one by one and calling {@link AirlineCompany#addFlight(Flight)}
+ * for each, which is timed on the first 100,000 lines only.
+ *
+ * The schedule has 5,000 flight numbers operated on 200 days between 40 airports.
+ * Run with: java -Xms4g -Xmx4g ScheduleImportBenchmark
+ */
+public class ScheduleImportBenchmark {
+    private static final int FLIGHT_NUMBERS = 5_000;
+    private static final int DAYS = 200;
+    private static final int AIRPORTS = 40;
+    private static final int ONE_BY_ONE_LINES = 100_000;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 30, 0, 0);
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("schedule", ".csv");
+        write(file);
+        System.out.printf("schedule=%,d KB%n", Files.size(file) / 1024);
+
+        System.gc();
+        long start = System.nanoTime();
+        AirlineCompany company = new AirlineCompany("Benchmark");
+        ScheduleImporter.Report report = new ScheduleImporter(company).importSchedule(file);
+        double importMillis = (System.nanoTime() - start) / 1e6;
+        if (report.getImportedCount() != FLIGHT_NUMBERS * DAYS || company.getAllFlights().size() != FLIGHT_NUMBERS * DAYS) {
+            throw new IllegalStateException(report.toString());
+        }
+        System.out.printf("importer: %,d flights in %.0f ms (%,.0f flights/s)%n",
+                report.getImportedCount(), importMillis, report.getImportedCount() / importMillis * 1000);
+        company.close();
+        company = null;
+
+        System.gc();
+        double oneByOneMillis = addOneByOne(file);
+        System.out.printf("addFlight: %,d flights in %.0f ms (%,.0f flights/s)%n",
+                ONE_BY_ONE_LINES, oneByOneMillis, ONE_BY_ONE_LINES / oneByOneMillis * 1000);
+        Files.delete(file);
+    }
+
+    private static void write(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("flight_number,departure,destination,departure_time,arrival_time,capacity\n");
+            for (int day = 0; day < DAYS; day++) {
+                for (int number = 0; number < FLIGHT_NUMBERS; number++) {
+                    int from = number % AIRPORTS;
+                    int to = (from + 1 + number / AIRPORTS % (AIRPORTS - 1)) % AIRPORTS;
+                    LocalDateTime departure = START.plusDays(day).plusMinutes(number % 1_200);
+                    writer.write("F" + number + ",Airport " + from + ",Airport " + to + ","
+                            + departure + "," + departure.plusMinutes(90 + number % 300) + ","
+                            + (100 + number % 5 * 50) + "\n");
+                }
+            }
+        }
+    }
+
+    // Returns the time in milliseconds to add the first lines of the schedule one flight at a time
+    private static double addOneByOne(Path file) throws IOException {
+        List<String> lines = new ArrayList<>(ONE_BY_ONE_LINES);
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            reader.readLine(); // Header
+            for (int i = 0; i < ONE_BY_ONE_LINES; i++) {
+                lines.add(reader.readLine());
+            }
+        }
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // addFlight prints every flight
+        long start = System.nanoTime();
+        AirlineCompany company = new AirlineCompany("Benchmark");
+        try {
+            for (String line : lines) {
+                String[] fields = line.split(",");
+                company.addFlight(new Flight(fields[0], fields[1], fields[2], LocalDateTime.parse(fields[3]),
+                        LocalDateTime.parse(fields[4]), Integer.parseInt(fields[5]), new ArrayList<>(), new ArrayList<>()));
+            }
+        } finally {
+            System.setOut(console);
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+        company.close();
+        return millis;
+    }
+}
@@ -0,0 +1,478 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Bulk importer that loads an airline's schedule from CSV files.
+ *
+ * Each line holds one flight: flight number, departure airport, destination airport, departure
+ * time, arrival time and capacity, e.g. {@code AB123,New York,Los Angeles,2024-11-24T20:00,2024-11-24T23:00,100}.
+ * Fields may be quoted, times may use a space instead of the "T", and an optional header line is
+ * skipped. The file is streamed through a three-stage pipeline: a reader thread cuts it into
+ * chunks of lines, parser threads turn the chunks into validated flights, and the calling thread
+ * registers every chunk in file order. At most a fixed number of chunks is in flight, so the
+ * memory used by the pipeline does not depend on the size of the file. Flights are not printed
+ * one by one; they are added to the search indexes and statistics once, after the last chunk.
+ *
+ * Invalid lines and flights whose flight-day already exists are rejected and reported with
+ * their line numbers; the rest of the file is still imported.
+ */
+public class ScheduleImporter {
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+    private static final int REGISTRATION_BATCH = 65_536; // Flights registered at once
+    private static final int MAX_REPORTED_ERRORS = 1000; // Further errors are only counted
+    private static final int FIELDS = 6;
+    private static final int MAX_SHARED_STRINGS = 100_000; // Size at which a parser's string cache is cleared
+    private static final Chunk END = new Chunk(0, Collections.emptyList()); // Marks the end of the file
+
+    private final AirlineCompany company; // The airline receiving the flights
+    private final int parserCount; // The number of parser threads
+    private final int chunkSize; // The number of lines parsed as one unit
+
+    /**
+     * Constructor to initialize an importer with one parser thread per processor.
+     *
+     * @param company The airline to import flights into
+     */
+    public ScheduleImporter(AirlineCompany company) {
+        this(company, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor to initialize an importer.
+     *
+     * @param company     The airline to import flights into
+     * @param parserCount The number of parser threads
+     * @param chunkSize   The number of lines parsed as one unit
+     */
+    public ScheduleImporter(AirlineCompany company, int parserCount, int chunkSize) {
+        if (parserCount <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parser count and chunk size must be positive.");
+        }
+        this.company = company;
+        this.parserCount = parserCount;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the flights of a CSV schedule file encoded in UTF-8.
+     *
+     * @param file The schedule file
+     * @return The report of the import
+     * @throws IOException if the file cannot be read
+     */
+    public Report importSchedule(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importSchedule(reader);
+        }
+    }
+
+    /**
+     * Imports the flights of a CSV schedule.
+     *
+     * @param source The schedule; it is read to the end but not closed
+     * @return The report of the import
+     * @throws IOException if the schedule cannot be read
+     */
+    public Report importSchedule(Reader source) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        // Chunks in file order, bounded so the reader cannot run ahead of the registration
+        BlockingQueue<Chunk> ordered = new ArrayBlockingQueue<>(parserCount * 4);
+        BlockingQueue<Chunk> unparsed = new LinkedBlockingQueue<>();
+        IOException[] readFailure = new IOException[1];
+
+        List<Thread> threads = new ArrayList<>(parserCount + 1);
+        for (int i = 0; i < parserCount; i++) {
+            threads.add(new Thread(() -> runParser(unparsed), "schedule-parser-" + i));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                readChunks(reader, ordered, unparsed);
+            } catch (IOException e) {
+                readFailure[0] = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                endOfFile(ordered, unparsed);
+            }
+        }, "schedule-reader"));
+        for (Thread thread : threads) {
+            thread.setDaemon(true); // An abandoned import must not keep the application alive
+            thread.start();
+        }
+
+        Report report = new Report();
+        List<Flight> imported = new ArrayList<>();
+        try {
+            company.inJournalBatch(() -> {
+                register(ordered, report, imported);
+                return null;
+            });
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (Thread.currentThread().isInterrupted()) {
+                for (Thread thread : threads) {
+                    thread.interrupt();
+                }
+            }
+            // Build the indexes once, after the whole schedule is registered; flights registered
+            // before a failure are indexed too, so none is left half-added
+            company.indexFlights(imported);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Schedule import was interrupted after " + report.imported + " flights.");
+        }
+        if (readFailure[0] != null) {
+            throw readFailure[0];
+        }
+        return report;
+    }
+
+    // Reader stage: cuts the schedule into chunks and hands each one to the parsers
+    private void readChunks(BufferedReader reader, BlockingQueue<Chunk> ordered, BlockingQueue<Chunk> unparsed)
+            throws IOException, InterruptedException {
+        int lineNumber = 0;
+        int firstLine = 1;
+        List<String> lines = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && isHeader(line)) {
+                firstLine = 2;
+                continue;
+            }
+            lines.add(line);
+            if (lines.size() == chunkSize) {
+                Chunk chunk = new Chunk(firstLine, lines);
+                ordered.put(chunk); // Blocks while too many chunks are in flight
+                unparsed.put(chunk);
+                firstLine = lineNumber + 1;
+                lines = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!lines.isEmpty()) {
+            Chunk chunk = new Chunk(firstLine, lines);
+            ordered.put(chunk);
+            unparsed.put(chunk);
+        }
+    }
+
+    // Tells the registration and every parser that no more chunks will come
+    private void endOfFile(BlockingQueue<Chunk> ordered, BlockingQueue<Chunk> unparsed) {
+        try {
+            ordered.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < parserCount; i++) {
+            unparsed.add(END);
+        }
+    }
+
+    // Parser stage: turns chunks of lines into flights or error messages
+    private void runParser(BlockingQueue<Chunk> unparsed) {
+        // Airports and flight numbers repeat on many lines; flights share one copy of each
+        Map<String, String> strings = new HashMap<>();
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = unparsed.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (chunk == END) {
+                return;
+            }
+            if (strings.size() > MAX_SHARED_STRINGS) {
+                strings.clear();
+            }
+            chunk.parse(strings);
+        }
+    }
+
+    // Registration stage: registers the flights of the chunks in file order, many chunks at a time
+    private void register(BlockingQueue<Chunk> ordered, Report report, List<Flight> imported) {
+        List<Chunk> batch = new ArrayList<>();
+        List<Flight> flights = new ArrayList<>(REGISTRATION_BATCH + chunkSize);
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = ordered.take();
+                if (chunk != END) {
+                    chunk.parsed.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (chunk != END) {
+                batch.add(chunk);
+                flights.addAll(chunk.flights);
+            }
+            if (chunk == END || flights.size() >= REGISTRATION_BATCH) {
+                report(batch, company.registerFlights(flights), report, imported);
+                batch.clear();
+                flights.clear();
+            }
+            if (chunk == END) {
+                return;
+            }
+        }
+    }
+
+    // Adds the outcome of every line of registered chunks to the report
+    private static void report(List<Chunk> batch, boolean[] registered, Report report, List<Flight> imported) {
+        int next = 0; // Next flight of the batch, flights are in line order
+        for (Chunk chunk : batch) {
+            Iterator<Flight> flights = chunk.flights.iterator();
+            for (int i = 0; i < chunk.errors.length; i++) {
+                if (chunk.blank[i]) {
+                    continue;
+                }
+                report.lines++;
+                String error = chunk.errors[i];
+                if (error == null) {
+                    Flight flight = flights.next();
+                    if (registered[next++]) {
+                        imported.add(flight);
+                        report.imported++;
+                        continue;
+                    }
+                    error = "Flight " + flight.getFlightNumber() + " on " + flight.getScheduledDate()
+                            + " already exists.";
+                }
+                report.reject(chunk.firstLine + i, error);
+            }
+        }
+    }
+
+    private static boolean isHeader(String line) {
+        int comma = line.indexOf(',');
+        String first = (comma < 0 ? line : line.substring(0, comma)).replaceAll("[^A-Za-z]", "");
+        return first.equalsIgnoreCase("flightnumber");
+    }
+
+    // Parses and validates one line, returning the flight or throwing with the reason it is invalid
+    private static Flight parseFlight(String line, Map<String, String> strings) {
+        List<String> fields = split(line);
+        if (fields.size() != FIELDS) {
+            throw new IllegalArgumentException("Expected " + FIELDS + " fields but found " + fields.size() + ".");
+        }
+        String flightNumber = strings.computeIfAbsent(fields.get(0), Function.identity());
+        String departure = strings.computeIfAbsent(fields.get(1), Function.identity());
+        String destination = strings.computeIfAbsent(fields.get(2), Function.identity());
+        if (flightNumber.isEmpty() || departure.isEmpty() || destination.isEmpty()) {
+            throw new IllegalArgumentException("Incomplete flight information.");
+        }
+        if (departure.equalsIgnoreCase(destination)) {
+            throw new IllegalArgumentException("Departure and destination must differ.");
+        }
+        LocalDateTime departureTime = parseTime(fields.get(3), "departure");
+        LocalDateTime arrivalTime = parseTime(fields.get(4), "arrival");
+        if (!arrivalTime.isAfter(departureTime)) {
+            throw new IllegalArgumentException("Arrival time must be later than the departure time.");
+        }
+        int capacity;
+        try {
+            capacity = Integer.parseInt(fields.get(5));
+        } catch (NumberFormatException e) {
+            capacity = 0;
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity '" + fields.get(5) + "'.");
+        }
+        Flight flight = new Flight(flightNumber, departure, destination, departureTime, arrivalTime, capacity,
+                new ArrayList<>(), new ArrayList<>());
+        flight.setOpenForReservation(false); // Opened once the flight is indexed
+        return flight;
+    }
+
+    // Splits a CSV line into trimmed fields; quoted fields may contain commas and doubled quotes
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else if (c == '"' && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    // Parses "yyyy-MM-ddTHH:mm" with optional seconds and a space allowed instead of the "T"
+    private static LocalDateTime parseTime(String text, String name) {
+        int length = text.length();
+        if ((length == 16 || length == 19) && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && (text.charAt(10) == 'T' || text.charAt(10) == ' ') && text.charAt(13) == ':'
+                && (length == 16 || text.charAt(16) == ':')) {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 2);
+            int day = digits(text, 8, 2);
+            int hour = digits(text, 11, 2);
+            int minute = digits(text, 14, 2);
+            int second = length == 19 ? digits(text, 17, 2) : 0;
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                } catch (DateTimeException e) {
+                    // Reported below like any other malformed time
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid " + name + " time '" + text + "'.");
+    }
+
+    // Returns the value of a run of decimal digits, or -1 if a character is not a digit
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Consecutive lines of the schedule, parsed by one parser thread.
+     */
+    private static final class Chunk {
+        private final int firstLine; // Line number of the first line
+        private List<String> lines; // Dropped once parsed
+        private final List<Flight> flights; // Flights of the valid lines, in line order
+        private final String[] errors; // Reason each line is invalid, null for valid and blank lines
+        private final boolean[] blank; // Whether each line is blank
+        private final CountDownLatch parsed = new CountDownLatch(1);
+
+        private Chunk(int firstLine, List<String> lines) {
+            this.firstLine = firstLine;
+            this.lines = lines;
+            this.flights = new ArrayList<>(lines.size());
+            this.errors = new String[lines.size()];
+            this.blank = new boolean[lines.size()];
+        }
+
+        private void parse(Map<String, String> strings) {
+            try {
+                for (int i = 0; i < lines.size(); i++) {
+                    String line = lines.get(i);
+                    if (line.isBlank()) {
+                        blank[i] = true;
+                        continue;
+                    }
+                    try {
+                        flights.add(parseFlight(line, strings));
+                    } catch (IllegalArgumentException e) {
+                        errors[i] = e.getMessage();
+                    }
+                }
+                lines = null;
+            } finally {
+                parsed.countDown(); // Never leave the registration waiting
+            }
+        }
+    }
+
+    /**
+     * Outcome of an import: how many flights were imported and why the other lines were rejected.
+     */
+    public static final class Report {
+        private int lines; // Non-blank data lines read
+        private int imported;
+        private int rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(int lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + reason);
+            }
+        }
+
+        /**
+         * Returns the number of non-blank data lines read, header excluded.
+         *
+         * @return The number of lines
+         */
+        public int getLineCount() {
+            return lines;
+        }
+
+        /**
+         * Returns the number of flights that were imported.
+         *
+         * @return The number of imported flights
+         */
+        public int getImportedCount() {
+            return imported;
+        }
+
+        /**
+         * Returns the number of lines that were rejected.
+         *
+         * @return The number of rejected lines
+         */
+        public int getRejectedCount() {
+            return rejected;
+        }
+
+        /**
+         * Returns the errors of the rejected lines in line order, e.g. "Line 12: Invalid capacity 'abc'.".
+         * Only the first 1000 errors are kept.
+         *
+         * @return An unmodifiable list of error messages
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return "Imported " + imported + " of " + lines + " flights, " + rejected + " rejected.";
+        }
+    }
+}
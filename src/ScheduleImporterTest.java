@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleImporterTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void importSchedule() throws IOException {
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        String schedule = "flight_number,departure,destination,departure_time,arrival_time,capacity\n"
+                + "AB123,New York,Los Angeles,2024-11-24T20:00,2024-11-24T23:00,100\n"
+                + "AB123,New York,Los Angeles,2024-11-25 20:00,2024-11-25 23:00:00,100\n"
+                + "\n"
+                + "CD456,\"Washington, D.C.\",Miami,2024-11-26T10:00,2024-11-26T14:00,50\n"
+                + "EF789,Chicago,Miami,2024-11-26T10:00,2024-11-26T09:00,50\n"
+                + "GH012,Chicago,Miami,2024-11-26T10:00,2024-11-26T14:00,lots\n"
+                + "IJ345,Chicago,Miami,2024-02-30T10:00,2024-11-26T14:00,50\n"
+                + "KL678,Chicago,Miami\n"
+                + "AB123,Boston,Denver,2024-11-24T08:00,2024-11-24T11:00,80\n";
+
+        // Small chunks, so lines of several chunks are parsed by several threads
+        ScheduleImporter.Report report = new ScheduleImporter(airline, 3, 2).importSchedule(new StringReader(schedule));
+
+        // Normal case: valid flights are registered, searchable and open for reservation
+        assertEquals(8, report.getLineCount());
+        assertEquals(3, report.getImportedCount());
+        assertEquals(3, airline.getAllFlights().size());
+        Flight flight = airline.getFlightDetails("AB123", LocalDate.of(2024, 11, 25));
+        assertEquals(departureTime1.plusDays(1), flight.getDepartureTime());
+        assertTrue(flight.isOpenForReservation());
+        assertEquals("Washington, D.C.", airline.getFlightDetails("CD456").getDeparture());
+        assertEquals(1, airline.searchFlights(departureTime1, arrivalTime1).size());
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        flight.bookSeat(john, "FirstClass", "Meal");
+        assertEquals("1A", john.getReservation(flight).getMySeatNumber());
+
+        // Error case: every rejected line is reported with its line number, in line order
+        assertEquals(5, report.getRejectedCount());
+        assertEquals(List.of(
+                "Line 6: Arrival time must be later than the departure time.",
+                "Line 7: Invalid capacity 'lots'.",
+                "Line 8: Invalid departure time '2024-02-30T10:00'.",
+                "Line 9: Expected 6 fields but found 3.",
+                "Line 10: Flight AB123 on 2024-11-24 already exists."), report.getErrors());
+    }
+
+    @Test
+    void importSchedule_AddsToExistingScheduleAndJournal() throws IOException {
+        Path schedule = directory.resolve("schedule.csv");
+        Path journalFile = directory.resolve("bookings.journal");
+        List<String> lines = new ArrayList<>();
+        for (int day = 0; day < 30; day++) {
+            LocalDateTime departure = departureTime1.plusDays(day);
+            lines.add("AB123,New York,Los Angeles," + departure + "," + departure.plusHours(3) + ",100");
+        }
+        Files.write(schedule, lines);
+
+        AirlineCompany airline = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(journalFile, Duration.ofMillis(5), 4096)) {
+            journal.recover(airline);
+            airline.addFlight(new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 100,
+                    new ArrayList<>(), new ArrayList<>()));
+            ScheduleImporter.Report report = new ScheduleImporter(airline).importSchedule(schedule);
+
+            // Edge case: a flight-day that is already scheduled is rejected, the others are added
+            assertEquals(29, report.getImportedCount());
+            assertEquals(List.of("Line 1: Flight AB123 on 2024-11-24 already exists."), report.getErrors());
+            assertEquals(30, airline.getAllFlights().size());
+        }
+
+        // Imported flights are journaled like flights added one by one
+        AirlineCompany recovered = new AirlineCompany("Mamba");
+        try (BookingJournal journal = new BookingJournal(journalFile)) {
+            assertEquals(30, journal.recover(recovered));
+        }
+        assertEquals(30, recovered.getAllFlights().size());
+        assertNotNull(recovered.getFlightDetails("AB123", LocalDate.of(2024, 12, 23)));
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A seat taken out of a flight's inventory for a limited time, e.g. while a customer checks out.
+ * A hold ends exactly once: it is confirmed into a reservation, released by the customer, or
+ * expires when its time to live has elapsed. Expired and released holds return their seat to
+ * the flight.
+ */
+public class SeatHold {
+    /**
+     * States of a hold; every hold starts out HELD and moves to one of the others once.
+     */
+    public enum State {
+        HELD,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    private final Flight flight;
+    private final CabinClass cabin;
+    private final String seatType;
+    private final String seatNumber; // Seat taken for the hold, e.g. "12C"
+    private final long expiresAt; // Time in milliseconds at which the hold expires
+    private final AtomicReference<State> state = new AtomicReference<>(State.HELD);
+    private volatile SeatHoldTimer timer; // Timer expiring the hold
+    private volatile HashedTimerWheel.Timeout<SeatHold> timeout; // Scheduled expiry, cancelled when the hold ends early
+
+    SeatHold(Flight flight, CabinClass cabin, String seatType, String seatNumber, long expiresAt) {
+        this.flight = flight;
+        this.cabin = cabin;
+        this.seatType = seatType;
+        this.seatNumber = seatNumber;
+        this.expiresAt = expiresAt;
+    }
+
+    public Flight getFlight() {
+        return flight;
+    }
+
+    public CabinClass getCabin() {
+        return cabin;
+    }
+
+    public String getSeatType() {
+        return seatType;
+    }
+
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    /**
+     * Retrieves the time at which the hold expires if it is not confirmed or released before.
+     *
+     * @return The expiry time in milliseconds of the timer's clock
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Books the held seat for a passenger.
+     *
+     * @param passenger The passenger to book for
+     * @param service   The service type (e.g., "Meal")
+     * @return A message describing the result of the booking
+     */
+    public String confirm(Passenger passenger, String service) {
+        return flight.confirmHold(this, passenger, service);
+    }
+
+    /**
+     * Gives the held seat back to the flight before the hold expires, e.g. when the customer
+     * abandons the checkout.
+     *
+     * @return True if the seat was given back, false if the hold had already ended
+     */
+    public boolean release() {
+        return flight.releaseHold(this, State.RELEASED);
+    }
+
+    // Remembers the scheduled expiry, so ending the hold early can cancel it
+    void scheduled(SeatHoldTimer timer, HashedTimerWheel.Timeout<SeatHold> timeout) {
+        this.timer = timer;
+        this.timeout = timeout;
+    }
+
+    // Ends the hold in the given state; only the first of concurrent attempts succeeds
+    boolean end(State newState) {
+        if (!state.compareAndSet(State.HELD, newState)) {
+            return false;
+        }
+        HashedTimerWheel.Timeout<SeatHold> scheduled = timeout;
+        if (newState != State.EXPIRED && scheduled != null) {
+            timer.cancel(scheduled);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Hold on seat " + seatNumber + " of flight " + flight.getFlightNumber() + " | " + state.get();
+    }
+}
@@ -0,0 +1,131 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Benchmark of one million outstanding seat holds on 1,000 flights of 1,000 seats, with times to
+ * live spread over 15 minutes: the cost per hold of taking the seat and scheduling its expiry,
+ * and of expiring it and returning the seat. Also compares the timer wheel with a priority queue
+ * ordered by deadline, the usual alternative, on scheduling and expiring the same deadlines.
+ */
+public class SeatHoldBenchmark {
+    private static final int FLIGHTS = 1_000;
+    private static final int SEATS = 1_000;
+    private static final int HOLDS = FLIGHTS * SEATS * 9 / 10; // Every economy seat
+    private static final long TTL_SPREAD_MILLIS = Duration.ofMinutes(15).toMillis();
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        LocalDateTime departure = LocalDateTime.of(2024, 11, 24, 20, 0);
+        List<Flight> flights = new ArrayList<>(FLIGHTS);
+        for (int i = 0; i < FLIGHTS; i++) {
+            flights.add(new Flight(String.format("MB%04d", i), "New York", "Los Angeles", departure,
+                    departure.plusHours(5), SEATS, new ArrayList<>(), new ArrayList<>()));
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            holds(flights, round + 1);
+            timers(round + 1);
+        }
+    }
+
+    private static void holds(List<Flight> flights, int round) {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-01T10:00:00Z"));
+        SeatHoldTimer timer = new SeatHoldTimer(clock, Duration.ofMillis(100), 8192);
+        Random random = new Random(42);
+        System.gc();
+        long start = System.nanoTime();
+        for (int i = 0; i < HOLDS; i++) {
+            Duration ttl = Duration.ofMillis(1 + random.nextInt((int) TTL_SPREAD_MILLIS));
+            if (flights.get(i % FLIGHTS).holdSeat("Economy", ttl, timer) == null) {
+                throw new IllegalStateException("Hold " + i + " found no seat.");
+            }
+        }
+        long holdNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        int expired = 0;
+        for (long elapsed = 0; elapsed <= TTL_SPREAD_MILLIS; elapsed += 1_000) {
+            clock.advance(Duration.ofSeconds(1));
+            expired += timer.expireDue();
+        }
+        long expireNanos = System.nanoTime() - start;
+        if (expired != HOLDS || flights.get(0).getEconomyClassCapacity() != SEATS * 9 / 10) {
+            throw new IllegalStateException(expired + " of " + HOLDS + " holds expired.");
+        }
+        System.out.printf("Round %d: %,d holds, hold %,.0f ns per hold, expire %,.0f ns per hold%n", round,
+                HOLDS, holdNanos / (double) HOLDS, expireNanos / (double) HOLDS);
+    }
+
+    private static void timers(int round) {
+        Random random = new Random(42);
+        long[] deadlines = new long[HOLDS];
+        for (int i = 0; i < HOLDS; i++) {
+            deadlines[i] = 1 + random.nextInt((int) TTL_SPREAD_MILLIS);
+        }
+
+        System.gc();
+        HashedTimerWheel<long[]> wheel = new HashedTimerWheel<>(0, 100, 8192);
+        long start = System.nanoTime();
+        for (long deadline : deadlines) {
+            wheel.schedule(deadlines, deadline);
+        }
+        int expired = 0;
+        for (long now = 1_000; now <= TTL_SPREAD_MILLIS + 1_000; now += 1_000) {
+            expired += wheel.advance(now).size();
+        }
+        long wheelNanos = System.nanoTime() - start;
+
+        System.gc();
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        start = System.nanoTime();
+        for (long deadline : deadlines) {
+            queue.add(new long[] {deadline});
+        }
+        int polled = 0;
+        for (long now = 1_000; now <= TTL_SPREAD_MILLIS + 1_000; now += 1_000) {
+            while (!queue.isEmpty() && queue.peek()[0] <= now) {
+                queue.poll();
+                polled++;
+            }
+        }
+        long queueNanos = System.nanoTime() - start;
+        if (expired != HOLDS || polled != HOLDS) {
+            throw new IllegalStateException(expired + " and " + polled + " of " + HOLDS + " timeouts expired.");
+        }
+        System.out.printf("Round %d: schedule and expire, timer wheel %,.0f ns, priority queue %,.0f ns per timeout%n",
+                round, wheelNanos / (double) HOLDS, queueNanos / (double) HOLDS);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatHoldTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 23, 0);
+    private static final Duration CHECKOUT = Duration.ofMinutes(5);
+
+    @Test
+    void confirmHeldSeat() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-01T10:00:00Z"));
+        SeatHoldTimer timer = new SeatHoldTimer(clock, Duration.ofMillis(100), 64);
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+
+        // Normal case: a held seat is out of the inventory until the hold is confirmed
+        SeatHold hold = flight.holdSeat("FirstClass", CHECKOUT, timer);
+        assertNotNull(hold);
+        assertEquals(0, flight.getFirstClassCapacity());
+        assertTrue(flight.bookSeat(jane, "FirstClass", "Meal").startsWith("No remaining seats"));
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals(0, timer.expireDue());
+
+        assertTrue(hold.confirm(john, "Meal").startsWith("Seat successfully booked for John Doe"));
+        assertEquals(SeatHold.State.CONFIRMED, hold.getState());
+        assertEquals(hold.getSeatNumber(), john.getReservation(flight).getMySeatNumber());
+        assertEquals(List.of(john), flight.getPassengers());
+        assertEquals(0, timer.size()); // The expiry was cancelled
+
+        // Error case: a hold ends once
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals(0, timer.expireDue());
+        assertEquals(0, flight.getFirstClassCapacity());
+        assertFalse(hold.release());
+        assertEquals("The hold on seat " + hold.getSeatNumber() + " has already ended.", hold.confirm(jane, "Meal"));
+        assertThrows(IllegalArgumentException.class, () -> flight.holdSeat("Business", CHECKOUT, timer));
+        assertThrows(IllegalArgumentException.class, () -> flight.holdSeat("Economy", Duration.ZERO, timer));
+        assertNull(flight.holdSeat("FirstClass", CHECKOUT, timer)); // Sold out
+    }
+
+    @Test
+    void expiredHoldReturnsTheSeat() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-01T10:00:00Z"));
+        SeatHoldTimer timer = new SeatHoldTimer(clock, Duration.ofMillis(100), 64);
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+
+        SeatHold economy = flight.holdSeat("Economy", "3A", CHECKOUT, timer);
+        assertEquals("3A", economy.getSeatNumber());
+        assertNull(flight.holdSeat("Economy", "3A", CHECKOUT, timer)); // Taken by the first hold
+        assertEquals(8, flight.getEconomyClassCapacity());
+
+        // Normal case: an unconfirmed hold expires and its seat can be booked again
+        clock.advance(CHECKOUT.plusMillis(100));
+        assertEquals(1, timer.expireDue());
+        assertEquals(SeatHold.State.EXPIRED, economy.getState());
+        assertEquals(9, flight.getEconomyClassCapacity());
+        assertEquals("The hold on seat 3A has expired.", economy.confirm(john, "Meal"));
+        assertNull(john.getReservation(flight));
+        flight.bookSeat(john, "Economy", "Meal", "3A");
+        assertEquals("3A", john.getReservation(flight).getMySeatNumber());
+
+        // Edge case: the seat of an expired hold goes to the waitlist first
+        SeatHold firstClass = flight.holdSeat("FirstClass", CHECKOUT, timer);
+        flight.joinWaitlist(jane, "FirstClass", "Meal");
+        clock.advance(CHECKOUT.plusMillis(100));
+        assertEquals(1, timer.expireDue());
+        assertEquals(firstClass.getSeatNumber(), jane.getReservation(flight).getMySeatNumber());
+        assertEquals(0, flight.getFirstClassCapacity());
+
+        // A released hold returns its seat at once
+        SeatHold released = flight.holdSeat("Economy", CHECKOUT, timer);
+        assertTrue(released.release());
+        assertEquals(SeatHold.State.RELEASED, released.getState());
+        assertEquals(8, flight.getEconomyClassCapacity());
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    void holdOnClosedFlightIsNotConfirmed() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-01T10:00:00Z"));
+        SeatHoldTimer timer = new SeatHoldTimer(clock, Duration.ofMillis(100), 64);
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        SeatHold cancelled = flight.holdSeat("Economy", CHECKOUT, timer);
+        SeatHold departed = flight.holdSeat("Economy", CHECKOUT, timer);
+
+        // Error case: a hold taken before a cancellation gives its seat back instead of booking it
+        flight.setStatus(FlightStatus.CANCELLED);
+        assertEquals("Reservation is closed for this flight.", cancelled.confirm(john, "Meal"));
+        assertEquals(SeatHold.State.RELEASED, cancelled.getState());
+        assertNull(john.getReservation(flight));
+        assertTrue(flight.getPassengers().isEmpty());
+        assertEquals(8, flight.getEconomyClassCapacity());
+
+        // Nor is a hold confirmed once the flight has departed
+        flight.setStatus(FlightStatus.IN_FLIGHT);
+        assertEquals("Reservation is closed for this flight.", departed.confirm(john, "Meal"));
+        assertEquals(SeatHold.State.RELEASED, departed.getState());
+        assertEquals(9, flight.getEconomyClassCapacity());
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    void holdWithClosedTimerKeepsTheSeatFree() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-11-01T10:00:00Z"));
+        SeatHoldTimer timer = new SeatHoldTimer(clock, Duration.ofMillis(100), 64);
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", departureTime1, arrivalTime1, 10,
+                new ArrayList<>(), new ArrayList<>());
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        timer.close();
+
+        // Error case: a closed timer would never expire the hold, so no seat is taken
+        assertThrows(IllegalStateException.class, () -> flight.holdSeat("FirstClass", CHECKOUT, timer));
+        assertEquals(1, flight.getFirstClassCapacity());
+
+        // The only First Class seat can still be booked, at its place in the seat map
+        assertTrue(flight.bookSeat(john, "FirstClass", "Meal").startsWith("Seat successfully booked"));
+        assertNotNull(john.getReservation(flight).getMySeatNumber());
+        assertEquals(0, flight.getFirstClassCapacity());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Expires seat holds when their time to live has elapsed, for any number of flights.
+ *
+ * Holds are kept in a {@link HashedTimerWheel}, so scheduling, cancelling and expiring a hold
+ * each cost O(1) however many holds are outstanding. A single daemon thread, started with the
+ * first hold, advances the wheel once per tick and returns the seats of the expired holds to
+ * their flights; {@link #expireDue()} does the same on demand, e.g. in tests with a fixed clock.
+ */
+public class SeatHoldTimer implements AutoCloseable {
+    private static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+    private static final int DEFAULT_WHEEL_SIZE = 8192; // One turn covers about 13 minutes at the default tick
+
+    private final Clock clock; // Source of the current time, injectable for tests
+    private final long tickMillis;
+    private final HashedTimerWheel<SeatHold> wheel; // Outstanding holds by expiry time
+    private Thread ticker; // Advances the wheel every tick, started with the first hold
+    private volatile boolean closed;
+
+    /**
+     * Constructor to initialize a timer with the default tick of 100 ms.
+     *
+     * @param clock The clock the holds' time to live is measured with
+     */
+    public SeatHoldTimer(Clock clock) {
+        this(clock, DEFAULT_TICK, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Constructor to initialize a timer.
+     *
+     * @param clock     The clock the holds' time to live is measured with
+     * @param tick      How often expired holds are collected, i.e. how late a hold may expire at most
+     * @param wheelSize The number of ticks in one turn of the timer wheel
+     */
+    public SeatHoldTimer(Clock clock, Duration tick, int wheelSize) {
+        this.clock = clock;
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.wheel = new HashedTimerWheel<>(clock.millis(), tickMillis, wheelSize);
+    }
+
+    /**
+     * Retrieves the current time of the timer's clock.
+     *
+     * @return The current time in milliseconds
+     */
+    public long millis() {
+        return clock.millis();
+    }
+
+    /**
+     * Returns the seat of every hold whose time to live has elapsed to its flight.
+     *
+     * @return The number of holds that expired
+     */
+    public int expireDue() {
+        List<SeatHold> due = wheel.advance(clock.millis());
+        int expired = 0;
+        for (SeatHold hold : due) {
+            if (hold.getFlight().releaseHold(hold, SeatHold.State.EXPIRED)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the number of holds waiting to expire.
+     *
+     * @return The number of outstanding holds
+     */
+    public int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Stops the timer thread. Outstanding holds no longer expire on their own.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread;
+        synchronized (this) {
+            thread = ticker;
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // Schedules the expiry of a new hold
+    void schedule(SeatHold hold) {
+        if (closed) {
+            throw new IllegalStateException("Seat hold timer has been closed.");
+        }
+        hold.scheduled(this, wheel.schedule(hold, hold.getExpiresAt()));
+        startTicker();
+    }
+
+    // Cancels the expiry of a hold that ended early
+    void cancel(HashedTimerWheel.Timeout<SeatHold> timeout) {
+        wheel.cancel(timeout);
+    }
+
+    private synchronized void startTicker() {
+        if (ticker == null) {
+            ticker = new Thread(this::runTicker, "seat-hold-timer");
+            ticker.setDaemon(true);
+            ticker.start();
+        }
+    }
+
+    private void runTicker() {
+        while (!closed) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            expireDue();
+        }
+    }
+}
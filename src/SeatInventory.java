@@ -0,0 +1,159 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe seat inventory of a single flight, with one counter of remaining seats per cabin.
+ *
+ * All updates are lock-free compare-and-set loops on the cabin counters, so concurrent bookings
+ * can never take a cabin below zero seats or release it above its capacity. Each flight owns its
+ * own inventory, so bookings on different flights never contend with each other.
+ */
+public class SeatInventory {
+    private final int firstClassCapacity; // Total first class seats
+    private final int economyClassCapacity; // Total economy class seats
+    private final AtomicInteger firstClassRemaining; // Remaining first class seats
+    private final AtomicInteger economyClassRemaining; // Remaining economy class seats
+
+    /**
+     * Constructor to initialize an inventory with all seats available.
+     *
+     * @param firstClassCapacity   The number of first class seats
+     * @param economyClassCapacity The number of economy class seats
+     */
+    public SeatInventory(int firstClassCapacity, int economyClassCapacity) {
+        this.firstClassCapacity = firstClassCapacity;
+        this.economyClassCapacity = economyClassCapacity;
+        this.firstClassRemaining = new AtomicInteger(firstClassCapacity);
+        this.economyClassRemaining = new AtomicInteger(economyClassCapacity);
+    }
+
+    /**
+     * Takes one seat out of the given cabin if one is available.
+     *
+     * @param cabin The cabin to reserve a seat in
+     * @return True if a seat was reserved, false if the cabin is sold out
+     */
+    public boolean tryReserve(CabinClass cabin) {
+        return tryReserve(cabin, 1);
+    }
+
+    /**
+     * Takes the given number of seats out of a cabin, all or nothing.
+     *
+     * @param cabin The cabin to reserve seats in
+     * @param seats The number of seats to reserve
+     * @return True if all seats were reserved, false if fewer seats are available
+     */
+    public boolean tryReserve(CabinClass cabin, int seats) {
+        AtomicInteger remaining = counter(cabin);
+        while (true) {
+            int current = remaining.get();
+            if (current < seats) {
+                return false;
+            }
+            if (remaining.compareAndSet(current, current - seats)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes as many of the given number of seats out of a cabin as are available, in one update.
+     *
+     * @param cabin The cabin to reserve seats in
+     * @param seats The number of seats wanted
+     * @return The number of seats reserved, between 0 and seats
+     */
+    public int tryReserveUpTo(CabinClass cabin, int seats) {
+        AtomicInteger remaining = counter(cabin);
+        while (true) {
+            int current = remaining.get();
+            int taken = Math.min(current, seats);
+            if (taken <= 0 || remaining.compareAndSet(current, current - taken)) {
+                return Math.max(taken, 0);
+            }
+        }
+    }
+
+    /**
+     * Returns one seat to the given cabin.
+     *
+     * @param cabin The cabin to release a seat in
+     */
+    public void release(CabinClass cabin) {
+        release(cabin, 1);
+    }
+
+    /**
+     * Returns the given number of seats to a cabin.
+     *
+     * @param cabin The cabin to release seats in
+     * @param seats The number of seats to release
+     * @throws IllegalStateException if releasing would exceed the cabin's capacity
+     */
+    public void release(CabinClass cabin, int seats) {
+        AtomicInteger remaining = counter(cabin);
+        int capacity = getCapacity(cabin);
+        while (true) {
+            int current = remaining.get();
+            if (current + seats > capacity) {
+                throw new IllegalStateException("Cannot release " + seats + " " + cabin.getLabel()
+                        + " seat(s): only " + (capacity - current) + " booked.");
+            }
+            if (remaining.compareAndSet(current, current + seats)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves one booked seat from one cabin to another. The seat in the target cabin is
+     * reserved before the original seat is released, so the move never oversells.
+     *
+     * @param from The cabin the seat is currently booked in
+     * @param to   The cabin to move the seat to
+     * @return True if the seat was moved, false if the target cabin is sold out
+     */
+    public boolean transfer(CabinClass from, CabinClass to) {
+        if (from == to) {
+            return true;
+        }
+        if (!tryReserve(to)) {
+            return false;
+        }
+        release(from);
+        return true;
+    }
+
+    /**
+     * Retrieves the number of remaining seats in a cabin.
+     *
+     * @param cabin The cabin
+     * @return The number of seats still available
+     */
+    public int getRemaining(CabinClass cabin) {
+        return counter(cabin).get();
+    }
+
+    /**
+     * Retrieves the total number of seats in a cabin.
+     *
+     * @param cabin The cabin
+     * @return The cabin capacity
+     */
+    public int getCapacity(CabinClass cabin) {
+        return cabin == CabinClass.FIRST_CLASS ? firstClassCapacity : economyClassCapacity;
+    }
+
+    /**
+     * Retrieves the number of remaining seats across all cabins.
+     *
+     * @return The number of seats still available on the flight
+     */
+    public int getTotalRemaining() {
+        return firstClassRemaining.get() + economyClassRemaining.get();
+    }
+
+    private AtomicInteger counter(CabinClass cabin) {
+        return cabin == CabinClass.FIRST_CLASS ? firstClassRemaining : economyClassRemaining;
+    }
+}
@@ -0,0 +1,149 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatInventoryTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 10, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 14, 0);
+    private static final int THREADS = 16;
+
+    @Test
+    void reserveAndRelease() {
+        SeatInventory inventory = new SeatInventory(2, 10);
+
+        // Normal case: all or nothing reservation
+        assertTrue(inventory.tryReserve(CabinClass.FIRST_CLASS, 2));
+        assertFalse(inventory.tryReserve(CabinClass.FIRST_CLASS));
+        assertFalse(inventory.tryReserve(CabinClass.ECONOMY, 11));
+        assertEquals(10, inventory.getRemaining(CabinClass.ECONOMY));
+
+        // Transfer only succeeds while the target cabin has seats
+        assertTrue(inventory.transfer(CabinClass.FIRST_CLASS, CabinClass.ECONOMY));
+        assertEquals(1, inventory.getRemaining(CabinClass.FIRST_CLASS));
+        assertEquals(9, inventory.getRemaining(CabinClass.ECONOMY));
+
+        // Error case: releasing more seats than were booked
+        inventory.release(CabinClass.FIRST_CLASS);
+        assertThrows(IllegalStateException.class, () -> inventory.release(CabinClass.FIRST_CLASS));
+    }
+
+    @Test
+    void concurrentReserve_NeverOversells() throws InterruptedException {
+        SeatInventory inventory = new SeatInventory(10, 90);
+        AtomicInteger booked = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 1000; i++) {
+                if (inventory.tryReserve(CabinClass.ECONOMY)) {
+                    booked.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(90, booked.get());
+        assertEquals(0, inventory.getRemaining(CabinClass.ECONOMY));
+        assertEquals(10, inventory.getRemaining(CabinClass.FIRST_CLASS));
+    }
+
+    @Test
+    void concurrentBookSeat_PopularFlight() throws InterruptedException {
+        // Thousands of passengers race for 300 seats on one flight
+        Flight flight = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 300, new ArrayList<>(), new ArrayList<>());
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger nextPassenger = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 250; i++) {
+                Passenger passenger = new Passenger("P" + nextPassenger.incrementAndGet(), new ArrayList<>());
+                String seatType = i % 10 == 0 ? "FirstClass" : "Economy";
+                if (flight.bookSeat(passenger, seatType, "Meal").startsWith("Seat successfully booked")) {
+                    successes.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(300, successes.get(), "Every seat should be sold exactly once.");
+        assertEquals(300, flight.getPassengers().size());
+        assertEquals(0, flight.getFirstClassCapacity());
+        assertEquals(0, flight.getEconomyClassCapacity());
+    }
+
+    @Test
+    void concurrentBookCancelModify_KeepsInventoryConsistent() throws InterruptedException {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 100, new ArrayList<>(), new ArrayList<>());
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            passengers.add(new Passenger("P" + i, new ArrayList<>()));
+        }
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 2000; i++) {
+                Passenger passenger = passengers.get(random.nextInt(passengers.size()));
+                String seatType = random.nextBoolean() ? "FirstClass" : "Economy";
+                switch (random.nextInt(3)) {
+                    case 0:
+                        flight.bookSeat(passenger, seatType, "Meal");
+                        break;
+                    case 1:
+                        passenger.cancelReservation(flight);
+                        break;
+                    default:
+                        passenger.modifyReservation(flight, seatType, "Meal");
+                }
+                // Cancellations never close the flight, reopen it so bookings keep flowing
+                flight.setOpenForReservation(true);
+            }
+        });
+
+        // Invariant: booked seats per cabin plus remaining seats equal the cabin capacity
+        int firstClassBooked = 0;
+        int economyBooked = 0;
+        for (Passenger passenger : passengers) {
+            for (Reservation reservation : passenger.getReservations()) {
+                if (reservation.getMySeatType().equalsIgnoreCase("FirstClass")) {
+                    firstClassBooked++;
+                } else {
+                    economyBooked++;
+                }
+            }
+        }
+        assertEquals(firstClassBooked + economyBooked, flight.getPassengers().size());
+        assertEquals(10, firstClassBooked + flight.getFirstClassCapacity());
+        assertEquals(90, economyBooked + flight.getEconomyClassCapacity());
+    }
+
+    private static void runConcurrently(Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertTrue(failures.isEmpty(), () -> "Worker failed: " + failures.get(0));
+    }
+}
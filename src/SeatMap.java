@@ -0,0 +1,313 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact seat map of a single flight with numbered seats such as "1A" or "12C".
+ *
+ * First class is laid out 4 seats abreast and economy 6 abreast; economy rows continue the row
+ * numbering after the last first class row, and the last row of a cabin may be partly filled.
+ * Each cabin keeps one bit per seat (set when the seat is free) packed into longs, so a 300 seat
+ * flight needs well under a hundred bytes of seat state. Every cabin also remembers the lowest
+ * word that may still hold a free seat: the next free seat is found in O(1) amortized time, and a
+ * block of adjacent seats in one row is found with a few bit operations per row. Adjacent means
+ * consecutive letters within a row; aisles are not modelled.
+ */
+public class SeatMap {
+    private static final int FIRST_CLASS_SEATS_PER_ROW = 4;
+    private static final int ECONOMY_SEATS_PER_ROW = 6;
+
+    private final Cabin firstClass;
+    private final Cabin economy;
+
+    /**
+     * Constructor to initialize a seat map with every seat free.
+     *
+     * @param firstClassSeats The number of first class seats
+     * @param economySeats    The number of economy seats
+     */
+    public SeatMap(int firstClassSeats, int economySeats) {
+        if (firstClassSeats < 0 || economySeats < 0) {
+            throw new IllegalArgumentException("Seat counts cannot be negative.");
+        }
+        this.firstClass = new Cabin(firstClassSeats, FIRST_CLASS_SEATS_PER_ROW, 0);
+        this.economy = new Cabin(economySeats, ECONOMY_SEATS_PER_ROW, firstClass.rows());
+    }
+
+    /**
+     * Assigns the lowest-numbered free seat of a cabin.
+     *
+     * @param cabinClass The cabin to assign a seat in
+     * @return The assigned seat number, or null if the cabin is full
+     */
+    public synchronized String assignNext(CabinClass cabinClass) {
+        Cabin cabin = cabin(cabinClass);
+        int index = cabin.nextFree();
+        if (index < 0) {
+            return null;
+        }
+        cabin.take(index);
+        return cabin.label(index);
+    }
+
+    /**
+     * Assigns the lowest-numbered free seats of a cabin in one pass, e.g. for a burst of
+     * independent bookings.
+     *
+     * @param cabinClass The cabin to assign the seats in
+     * @param count      The number of seats wanted
+     * @return The assigned seat numbers, fewer than count if the cabin runs full
+     */
+    public synchronized List<String> assignNext(CabinClass cabinClass, int count) {
+        Cabin cabin = cabin(cabinClass);
+        List<String> assigned = new ArrayList<>(Math.max(0, Math.min(count, cabin.freeCount)));
+        while (assigned.size() < count) {
+            int index = cabin.nextFree();
+            if (index < 0) {
+                break;
+            }
+            cabin.take(index);
+            assigned.add(cabin.label(index));
+        }
+        return assigned;
+    }
+
+    /**
+     * Assigns a specific seat.
+     *
+     * @param seatNumber The seat number, e.g. "12C"
+     * @return True if the seat was free and is now assigned, false if it is taken or does not exist
+     */
+    public synchronized boolean assign(String seatNumber) {
+        Cabin cabin = cabinFor(seatNumber);
+        int index = cabin == null ? -1 : cabin.indexOf(seatNumber);
+        if (index < 0 || !cabin.isFree(index)) {
+            return false;
+        }
+        cabin.take(index);
+        return true;
+    }
+
+    /**
+     * Assigns a block of adjacent seats in one row of a cabin, choosing the lowest-numbered block.
+     *
+     * @param cabinClass The cabin to assign the seats in
+     * @param count      The number of adjacent seats
+     * @return The assigned seat numbers from left to right, or an empty list if no row has
+     *         enough adjacent free seats
+     */
+    public synchronized List<String> assignAdjacent(CabinClass cabinClass, int count) {
+        List<String> assigned = new ArrayList<>(Math.max(count, 0));
+        Cabin cabin = cabin(cabinClass);
+        int first = cabin.findBlock(count);
+        if (first < 0) {
+            return assigned;
+        }
+        for (int index = first; index < first + count; index++) {
+            cabin.take(index);
+            assigned.add(cabin.label(index));
+        }
+        return assigned;
+    }
+
+    /**
+     * Assigns seats for a group in one cabin: a block of adjacent seats if one row has room,
+     * otherwise the lowest-numbered free seats. Either every seat is assigned or none is.
+     *
+     * @param cabinClass The cabin to assign the seats in
+     * @param count      The number of seats
+     * @return The assigned seat numbers, or an empty list if the cabin has fewer free seats
+     */
+    public synchronized List<String> assignGroup(CabinClass cabinClass, int count) {
+        Cabin cabin = cabin(cabinClass);
+        if (count <= 0 || count > cabin.freeCount) {
+            return new ArrayList<>();
+        }
+        List<String> assigned = assignAdjacent(cabinClass, count);
+        while (assigned.size() < count) {
+            int index = cabin.nextFree();
+            cabin.take(index);
+            assigned.add(cabin.label(index));
+        }
+        return assigned;
+    }
+
+    /**
+     * Frees an assigned seat.
+     *
+     * @param seatNumber The seat number, e.g. "12C"
+     * @return True if the seat was assigned and is now free, false otherwise
+     */
+    public synchronized boolean release(String seatNumber) {
+        Cabin cabin = cabinFor(seatNumber);
+        int index = cabin == null ? -1 : cabin.indexOf(seatNumber);
+        if (index < 0 || cabin.isFree(index)) {
+            return false;
+        }
+        cabin.free(index);
+        return true;
+    }
+
+    /**
+     * Checks whether a seat exists and is free.
+     *
+     * @param seatNumber The seat number, e.g. "12C"
+     * @return True if the seat is free
+     */
+    public synchronized boolean isFree(String seatNumber) {
+        Cabin cabin = cabinFor(seatNumber);
+        int index = cabin == null ? -1 : cabin.indexOf(seatNumber);
+        return index >= 0 && cabin.isFree(index);
+    }
+
+    /**
+     * Resolves the cabin a seat number belongs to.
+     *
+     * @param seatNumber The seat number, e.g. "12C"
+     * @return The cabin of the seat, or null if the seat does not exist
+     */
+    public CabinClass getCabin(String seatNumber) {
+        Cabin cabin = cabinFor(seatNumber);
+        if (cabin == null || cabin.indexOf(seatNumber) < 0) {
+            return null;
+        }
+        return cabin == firstClass ? CabinClass.FIRST_CLASS : CabinClass.ECONOMY;
+    }
+
+    /**
+     * Retrieves the number of free seats in a cabin.
+     *
+     * @param cabinClass The cabin
+     * @return The number of free seats
+     */
+    public synchronized int getFreeSeats(CabinClass cabinClass) {
+        return cabin(cabinClass).freeCount;
+    }
+
+    private Cabin cabin(CabinClass cabinClass) {
+        return cabinClass == CabinClass.FIRST_CLASS ? firstClass : economy;
+    }
+
+    // Picks the cabin by row number; the seat itself is validated by Cabin.indexOf
+    private Cabin cabinFor(String seatNumber) {
+        int row = parseRow(seatNumber);
+        if (row <= 0) {
+            return null;
+        }
+        return row <= firstClass.rows() ? firstClass : economy;
+    }
+
+    private static int parseRow(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2) {
+            return -1;
+        }
+        int row = 0;
+        for (int i = 0; i < seatNumber.length() - 1; i++) {
+            char c = seatNumber.charAt(i);
+            if (c < '0' || c > '9' || row > 10_000) {
+                return -1;
+            }
+            row = row * 10 + (c - '0');
+        }
+        return row;
+    }
+
+    /**
+     * Seats of one cabin: a bitset of free seats plus the lowest word that may hold a free seat.
+     */
+    private static final class Cabin {
+        private final long[] free; // Bit i is set when seat i of the cabin is free
+        private final int seats; // Number of seats in the cabin
+        private final int seatsPerRow;
+        private final int firstRow; // Row number before the cabin's first row
+        private int hint; // No free seat lives in a word below this index
+        private int freeCount;
+
+        private Cabin(int seats, int seatsPerRow, int firstRow) {
+            this.free = new long[(seats + 63) >>> 6];
+            this.seats = seats;
+            this.seatsPerRow = seatsPerRow;
+            this.firstRow = firstRow;
+            this.freeCount = seats;
+            for (int i = 0; i < free.length; i++) {
+                int bits = Math.min(64, seats - (i << 6));
+                free[i] = bits == 64 ? -1L : (1L << bits) - 1;
+            }
+        }
+
+        private int rows() {
+            return (seats + seatsPerRow - 1) / seatsPerRow;
+        }
+
+        private boolean isFree(int index) {
+            return (free[index >>> 6] & (1L << index)) != 0;
+        }
+
+        private void take(int index) {
+            free[index >>> 6] &= ~(1L << index);
+            freeCount--;
+        }
+
+        private void free(int index) {
+            free[index >>> 6] |= 1L << index;
+            hint = Math.min(hint, index >>> 6);
+            freeCount++;
+        }
+
+        private int nextFree() {
+            while (hint < free.length) {
+                long word = free[hint];
+                if (word != 0) {
+                    return (hint << 6) + Long.numberOfTrailingZeros(word);
+                }
+                hint++;
+            }
+            return -1;
+        }
+
+        // Lowest seat index starting a run of count free seats within a single row, or -1
+        private int findBlock(int count) {
+            if (count <= 0 || count > seatsPerRow || count > freeCount) {
+                return -1;
+            }
+            int fullMask = (1 << seatsPerRow) - 1;
+            for (int row = (hint << 6) / seatsPerRow; row * seatsPerRow < seats; row++) {
+                int start = row * seatsPerRow;
+                int bits = readBits(start, seatsPerRow) & fullMask;
+                // A bit survives only if it and the next count - 1 seats are free
+                int runs = bits;
+                for (int k = 1; k < count; k++) {
+                    runs &= bits >>> k;
+                }
+                if (runs != 0) {
+                    return start + Integer.numberOfTrailingZeros(runs);
+                }
+            }
+            return -1;
+        }
+
+        // Reads up to 32 free bits starting at a seat index, possibly spanning two words
+        private int readBits(int start, int length) {
+            int word = start >>> 6;
+            int offset = start & 63;
+            long bits = free[word] >>> offset;
+            if (offset + length > 64 && word + 1 < free.length) {
+                bits |= free[word + 1] << (64 - offset);
+            }
+            return (int) (bits & ((1L << length) - 1));
+        }
+
+        private String label(int index) {
+            return (firstRow + index / seatsPerRow + 1) + String.valueOf((char) ('A' + index % seatsPerRow));
+        }
+
+        private int indexOf(String seatNumber) {
+            int row = parseRow(seatNumber) - firstRow - 1;
+            int column = seatNumber.charAt(seatNumber.length() - 1) - 'A';
+            if (row < 0 || column < 0 || column >= seatsPerRow) {
+                return -1;
+            }
+            int index = row * seatsPerRow + column;
+            return index < seats ? index : -1;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapTest {
+    private static final LocalDateTime departureTime1 = LocalDateTime.of(2024, 11, 24, 10, 0);
+    private static final LocalDateTime arrivalTime1 = LocalDateTime.of(2024, 11, 24, 14, 0);
+
+    @Test
+    void assignNext() {
+        SeatMap seatMap = new SeatMap(8, 12);
+
+        // Normal case: seats are handed out in order, economy rows follow the first class rows
+        assertEquals("1A", seatMap.assignNext(CabinClass.FIRST_CLASS));
+        assertEquals("1B", seatMap.assignNext(CabinClass.FIRST_CLASS));
+        assertEquals("3A", seatMap.assignNext(CabinClass.ECONOMY));
+        assertEquals(6, seatMap.getFreeSeats(CabinClass.FIRST_CLASS));
+
+        // A released seat is handed out again before higher seats
+        assertTrue(seatMap.release("1A"));
+        assertEquals("1A", seatMap.assignNext(CabinClass.FIRST_CLASS));
+
+        // Edge case: a full cabin has no next seat
+        for (int i = 0; i < 6; i++) {
+            assertNotNull(seatMap.assignNext(CabinClass.FIRST_CLASS));
+        }
+        assertNull(seatMap.assignNext(CabinClass.FIRST_CLASS));
+    }
+
+    @Test
+    void assignSpecificSeat() {
+        SeatMap seatMap = new SeatMap(8, 12);
+
+        assertTrue(seatMap.assign("4F"));
+        assertFalse(seatMap.isFree("4F"));
+        assertEquals(CabinClass.ECONOMY, seatMap.getCabin("4F"));
+        assertEquals(CabinClass.FIRST_CLASS, seatMap.getCabin("2D"));
+
+        // Edge cases: taken, unknown and malformed seats
+        assertFalse(seatMap.assign("4F"));
+        assertFalse(seatMap.assign("2E")); // First class rows only have seats A to D
+        assertFalse(seatMap.assign("5A"));
+        assertFalse(seatMap.assign("A1"));
+        assertFalse(seatMap.release("3A"));
+        assertNull(seatMap.getCabin("99A"));
+    }
+
+    @Test
+    void assignAdjacent() {
+        // 70 economy seats, so rows span two words of the bitset
+        SeatMap seatMap = new SeatMap(0, 70);
+        assertTrue(seatMap.assign("1C"));
+
+        // Normal case: row 1 has no run of 4 left, so the block goes to row 2
+        assertEquals(List.of("2A", "2B", "2C", "2D"), seatMap.assignAdjacent(CabinClass.ECONOMY, 4));
+        assertEquals(List.of("1D", "1E", "1F"), seatMap.assignAdjacent(CabinClass.ECONOMY, 3));
+
+        // Row 11 holds seats 60 to 65 and crosses the 64-bit word boundary
+        for (int row = 1; row <= 10; row++) {
+            for (char column = 'A'; column <= 'F'; column++) {
+                seatMap.assign(row + String.valueOf(column));
+            }
+        }
+        assertEquals(List.of("11A", "11B", "11C", "11D", "11E", "11F"),
+                seatMap.assignAdjacent(CabinClass.ECONOMY, 6));
+
+        // Edge cases: blocks wider than a row or longer than the partial last row
+        assertTrue(seatMap.assignAdjacent(CabinClass.ECONOMY, 7).isEmpty());
+        assertTrue(seatMap.assignAdjacent(CabinClass.ECONOMY, 5).isEmpty());
+        assertEquals(List.of("12A", "12B", "12C", "12D"), seatMap.assignAdjacent(CabinClass.ECONOMY, 4));
+    }
+
+    @Test
+    void bookSeat_AssignsAndFreesSeats() {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles",
+                departureTime1, arrivalTime1, 100, new ArrayList<>(), new ArrayList<>());
+        Passenger john = new Passenger("John Doe", new ArrayList<>());
+        Passenger jane = new Passenger("Jane Smith", new ArrayList<>());
+
+        flight.bookSeat(john, "Economy", "Meal");
+        assertEquals("4A", john.getReservation(flight).getMySeatNumber());
+
+        // A specific seat can be requested, but only once and only in its own cabin
+        assertEquals("Seat 1A is not a Economy seat on flight AB123.", flight.bookSeat(jane, "Economy", "Meal", "1A"));
+        assertEquals("Seat 4A is already taken.", flight.bookSeat(jane, "Economy", "Meal", "4A"));
+        assertTrue(flight.bookSeat(jane, "Economy", "Meal", "10F").startsWith("Seat successfully booked"));
+        assertEquals(88, flight.getEconomyClassCapacity());
+
+        // Upgrading moves the passenger to a first class seat, cancelling frees it
+        john.modifyReservation(flight, "FirstClass", "Meal");
+        assertEquals("1A", john.getReservation(flight).getMySeatNumber());
+        assertTrue(flight.getSeatMap().isFree("4A"));
+        john.cancelReservation(flight);
+        assertTrue(flight.getSeatMap().isFree("1A"));
+        assertEquals(10, flight.getFirstClassCapacity());
+    }
+}
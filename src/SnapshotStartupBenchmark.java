@@ -0,0 +1,129 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark of startup time with 1,016,600 reservations: replaying the whole booking journal
+ * against loading a snapshot plus the journal written after it.
+ *
+ * Books all but one seat of 3,400 flights of 300 seats for 102,000 passengers through a journaled company, keeps a
+ * copy of the full journal, writes a snapshot, which compacts the journal, makes 1,000 more changes, and then times
+ * both ways of rebuilding the company.
+ * Run with: java -Xmx4g SnapshotStartupBenchmark
+ */
+public class SnapshotStartupBenchmark {
+    private static final int FLIGHTS = 3_400;
+    private static final int CAPACITY = 300;
+    private static final int BOOKED = CAPACITY - 1; // Bookings per flight; a full flight closes for good
+    private static final int PASSENGERS = 102_000;
+    private static final int TAIL = 1_000;
+    private static final int ROUNDS = 3;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 1, 0, 0);
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("snapshot-benchmark");
+        Path journalFile = directory.resolve("bookings.journal");
+        Path snapshotFile = directory.resolve("bookings.snapshot");
+        Path fullJournalFile = directory.resolve("full.journal");
+        build(journalFile, snapshotFile, fullJournalFile);
+        System.out.printf("full journal=%,d KB compacted journal=%,d KB snapshot=%,d KB%n",
+                Files.size(fullJournalFile) / 1024, Files.size(journalFile) / 1024, Files.size(snapshotFile) / 1024);
+
+        double[] replay = new double[ROUNDS];
+        double[] snapshot = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            replay[round] = recover(fullJournalFile, null);
+            snapshot[round] = recover(journalFile, snapshotFile);
+        }
+        double replayBest = min(replay);
+        double snapshotBest = min(snapshot);
+        System.out.printf("reservations=%,d journal replay=%.0f ms snapshot + tail=%.0f ms speedup=%.1fx%n",
+                FLIGHTS * BOOKED, replayBest, snapshotBest, replayBest / snapshotBest);
+
+        Files.delete(journalFile);
+        Files.delete(fullJournalFile);
+        Files.delete(snapshotFile);
+        Files.delete(directory);
+    }
+
+    // Fills every flight through the journal, copies it, snapshots, then changes a few reservations
+    private static void build(Path journalFile, Path snapshotFile, Path fullJournalFile) throws IOException {
+        AirlineCompany company = new AirlineCompany("Benchmark");
+        List<Passenger> passengers = new ArrayList<>(PASSENGERS);
+        for (int p = 0; p < PASSENGERS; p++) {
+            passengers.add(new Passenger("Passenger " + p, new ArrayList<>()));
+        }
+        long start = System.nanoTime();
+        try (BookingJournal journal = new BookingJournal(journalFile, Duration.ZERO, 1 << 20)) {
+            journal.recover(company);
+            List<Flight> flights = new ArrayList<>(FLIGHTS);
+            for (int f = 0; f < FLIGHTS; f++) {
+                // Flights are 6 hours apart and last 4, so no passenger ever has a conflict
+                LocalDateTime departure = START.plusHours(6L * f);
+                Flight flight = new Flight("F" + f, "New York", "Los Angeles", departure, departure.plusHours(4),
+                        CAPACITY, new ArrayList<>(), new ArrayList<>());
+                company.addFlight(flight);
+                flights.add(flight);
+                List<BookingCommand> commands = new ArrayList<>(BOOKED);
+                for (int seat = 0; seat < BOOKED; seat++) {
+                    Passenger passenger = passengers.get((f * BOOKED + seat) % PASSENGERS);
+                    commands.add(BookingCommand.book(flight.getFlightNumber(), passenger,
+                            seat < CAPACITY / 10 ? "FirstClass" : "Economy", "Meal"));
+                }
+                company.submitBookings(commands);
+            }
+            System.out.printf("built in %.0f ms%n", (System.nanoTime() - start) / 1e6);
+
+            Files.copy(journalFile, fullJournalFile);
+            start = System.nanoTime();
+            journal.snapshot(company, snapshotFile);
+            System.out.printf("snapshot written in %.0f ms%n", (System.nanoTime() - start) / 1e6);
+
+            // The journal tail: cancel and rebook a seat on every few flights
+            List<BookingCommand> tail = new ArrayList<>(TAIL);
+            for (int i = 0; i < TAIL / 2; i++) {
+                Flight flight = flights.get(i * (FLIGHTS / (TAIL / 2)));
+                Passenger passenger = flight.getPassengers().get(BOOKED - 1);
+                tail.add(BookingCommand.cancel(flight.getFlightNumber(), passenger));
+                tail.add(BookingCommand.book(flight.getFlightNumber(), passenger, "Economy", "Extra Luggage"));
+            }
+            company.submitBookings(tail);
+        }
+        company.close();
+    }
+
+    // Returns the time in milliseconds to rebuild a company from the files
+    private static double recover(Path journalFile, Path snapshotFile) throws IOException {
+        System.gc(); // Keep the previous company out of the measurement
+        long start = System.nanoTime();
+        AirlineCompany company = new AirlineCompany("Benchmark");
+        long records;
+        try (BookingJournal journal = new BookingJournal(journalFile)) {
+            records = journal.recover(company, snapshotFile);
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+        int booked = 0;
+        for (Flight flight : company.getAllFlights()) {
+            booked += flight.getPassengers().size();
+        }
+        if (booked != FLIGHTS * BOOKED) {
+            throw new IllegalStateException("Recovered " + booked + " reservations.");
+        }
+        System.out.printf("%s: %,d records replayed in %.0f ms%n",
+                snapshotFile == null ? "journal" : "snapshot", records, millis);
+        company.close();
+        return millis;
+    }
+
+    private static double min(double[] values) {
+        double min = Double.MAX_VALUE;
+        for (double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,27 @@
+import java.time.Duration;
+
+/**
+ * Rolling time windows supported by {@link RollingFlightStatistics}, each backed by a ring of
+ * fixed-width time buckets.
+ */
+public enum StatisticsWindow {
+    LAST_HOUR(Duration.ofMinutes(1), 60),
+    LAST_DAY(Duration.ofHours(1), 24),
+    LAST_30_DAYS(Duration.ofDays(1), 30);
+
+    private final Duration bucketWidth;
+    private final int buckets;
+
+    StatisticsWindow(Duration bucketWidth, int buckets) {
+        this.bucketWidth = bucketWidth;
+        this.buckets = buckets;
+    }
+
+    public Duration getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+}
@@ -0,0 +1,105 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark of a sold-out 300-seat flight with 200 passengers who want a seat while 200 booked
+ * passengers cancel, one every millisecond. Compares clients retrying their booking every 10
+ * microseconds until it succeeds with clients joining the waitlist after their first failed
+ * booking: the number of booking and waitlist calls, and how long it takes until every freed seat
+ * is booked again.
+ */
+public class WaitlistBenchmark {
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2024, 11, 24, 20, 0);
+    private static final int SEATS = 300;
+    private static final int WAITING = 200;
+    private static final int CLIENT_THREADS = 4;
+    private static final long CANCEL_INTERVAL_NANOS = 1_000_000;
+    private static final long POLL_INTERVAL_NANOS = 10_000; // Pause of a retrying client between attempts
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        EventLog.getDefault().setLevel(EventLevel.ERROR); // Keep the console quiet
+        for (int round = 0; round < ROUNDS; round++) {
+            AtomicLong attempts = new AtomicLong();
+            long retryNanos = run(false, attempts);
+            long retryAttempts = attempts.get();
+            attempts.set(0);
+            long waitlistNanos = run(true, attempts);
+            System.out.printf("Round %d: retrying %,d calls in %,d ms, waitlist %,d calls in %,d ms%n",
+                    round + 1, retryAttempts, retryNanos / 1_000_000, attempts.get(), waitlistNanos / 1_000_000);
+        }
+    }
+
+    private static long run(boolean waitlist, AtomicLong attempts) throws InterruptedException {
+        Flight flight = new Flight("AB123", "New York", "Los Angeles", DEPARTURE, DEPARTURE.plusHours(3),
+                SEATS * 10 / 9, new ArrayList<>(), new ArrayList<>());
+        List<Passenger> booked = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            Passenger passenger = new Passenger("Booked " + i, new ArrayList<>());
+            flight.bookSeat(passenger, "Economy", "Meal");
+            booked.add(passenger);
+        }
+        List<Passenger> wanting = new ArrayList<>();
+        for (int i = 0; i < WAITING; i++) {
+            wanting.add(new Passenger("Wanting " + i, new ArrayList<>()));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> clients = new ArrayList<>();
+        for (int t = 0; t < CLIENT_THREADS; t++) {
+            List<Passenger> mine = wanting.subList(t * WAITING / CLIENT_THREADS, (t + 1) * WAITING / CLIENT_THREADS);
+            clients.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (Passenger passenger : mine) {
+                    while (true) {
+                        attempts.incrementAndGet();
+                        if (flight.bookSeat(passenger, "Economy", "Meal").startsWith("Seat successfully")) {
+                            break;
+                        }
+                        if (waitlist) {
+                            // Join the waitlist, unless a seat freed up since the booking failed
+                            attempts.incrementAndGet();
+                            if (!flight.joinWaitlist(passenger, "Economy", "Meal").startsWith("Seats are")) {
+                                break;
+                            }
+                        } else {
+                            LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread client : clients) {
+            client.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (int i = 0; i < WAITING; i++) {
+            long next = begin + (i + 1) * CANCEL_INTERVAL_NANOS;
+            while (System.nanoTime() < next) {
+                Thread.onSpinWait();
+            }
+            booked.get(i).cancelReservation(flight);
+            flight.setOpenForReservation(true); // A full flight closes itself; open it again for the retries
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        while (flight.getPassengerCount() < SEATS) {
+            Thread.onSpinWait(); // The last promotions may still be running
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}